@@ -0,0 +1,37 @@
+#!/bin/sh
+#
+# Runs the JMH benchmarks with allocation profiling and compares the results
+# with baseline.json, exiting with 1 if a benchmark regressed by more than
+# THRESHOLD (default 0.15, i.e. 15%). A benchmark only fails when the
+# difference to the baseline score is also larger than the combined score
+# errors, each error counting at most THRESHOLD times its score.
+#
+#   ./check-regressions.sh                      run all benchmarks and compare
+#   ./check-regressions.sh PairBenchmark        run the matching benchmarks only
+#   UPDATE=1 ./check-regressions.sh             run and replace the baseline
+#
+# Any arguments are passed to JMH. The baseline records the forks and
+# iterations it was run with, and a benchmark run with other settings, e.g.
+# -wi or -i options, fails the check. Always record the baseline with this
+# script. The baseline is only meaningful on the machine it was recorded on,
+# record it again when the build machine changes.
+
+set -e
+
+cd "$(dirname "$0")"
+
+THRESHOLD="${THRESHOLD:-0.15}"
+JAR=target/benchmarks.jar
+RESULT=target/jmh-result.json
+
+if [ ! -f "$JAR" ]; then
+    mvn -B -q -f ../pom.xml -pl jamezp-util-benchmarks -am package -DskipTests
+fi
+
+java -jar "$JAR" -prof gc -rf json -rff "$RESULT" "$@"
+
+if [ -n "$UPDATE" ]; then
+    java -cp "$JAR" com.jamezp.util.benchmarks.RegressionCheck --update baseline.json "$RESULT"
+else
+    java -cp "$JAR" com.jamezp.util.benchmarks.RegressionCheck baseline.json "$RESULT" "$THRESHOLD"
+fi
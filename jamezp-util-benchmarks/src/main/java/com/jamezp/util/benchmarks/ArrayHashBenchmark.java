@@ -0,0 +1,110 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jamezp.util.benchmarks;
+
+import com.jamezp.util.ObjectHelper.HashCodeBuilder;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of hashing large primitive arrays with {@link HashCodeBuilder},
+ * sequentially, in parallel and element by element through
+ * {@link java.lang.reflect.Array} as {@code add(Object)} used to.
+ *
+ * @author James R. Perkins (JRP)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayHashBenchmark {
+
+    @Param({"1000", "100000", "10000000"})
+    private int size;
+
+    private int[] ints;
+
+    private double[] doubles;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42L);
+        ints = new int[size];
+        doubles = new double[size];
+        for (int i = 0; i < size; i++) {
+            ints[i] = random.nextInt();
+            doubles[i] = random.nextDouble();
+        }
+    }
+
+    @Benchmark
+    public int intArray() {
+        return HashCodeBuilder.builder().add((Object) ints).toHashCode();
+    }
+
+    @Benchmark
+    public int intArrayJdk() {
+        return Arrays.hashCode(ints);
+    }
+
+    @Benchmark
+    public int intArrayParallel() {
+        return HashCodeBuilder.builder().addParallel(ints).toHashCode();
+    }
+
+    @Benchmark
+    public int intArrayReflective() {
+        final HashCodeBuilder builder = HashCodeBuilder.builder();
+        final int length = Array.getLength(ints);
+        for (int i = 0; i < length; i++) {
+            builder.add(Array.get(ints, i));
+        }
+        return builder.toHashCode();
+    }
+
+    @Benchmark
+    public int doubleArray() {
+        return HashCodeBuilder.builder().add((Object) doubles).toHashCode();
+    }
+
+    @Benchmark
+    public int doubleArrayParallel() {
+        return HashCodeBuilder.builder().addParallel(doubles).toHashCode();
+    }
+}
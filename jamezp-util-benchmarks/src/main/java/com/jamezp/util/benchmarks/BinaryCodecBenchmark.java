@@ -0,0 +1,124 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util.benchmarks;
+
+import com.jamezp.util.BinaryCodec;
+import com.jamezp.util.BinaryCodecs;
+import com.jamezp.util.Pair;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of {@link BinaryCodecs} against default Java serialization,
+ * writing and reading a batch of pairs.
+ *
+ * @author James R. Perkins (JRP)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BinaryCodecBenchmark {
+
+    private static final int BATCH = 1024;
+
+    private final BinaryCodec<Pair<String, Long>> codec = BinaryCodecs.pair(BinaryCodecs.STRING, BinaryCodecs.LONG);
+
+    @SuppressWarnings("unchecked")
+    private final Pair<String, Long>[] pairs = new Pair[BATCH];
+
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20);
+
+    private ByteBuffer encoded;
+
+    private byte[] serialized;
+
+    @Setup
+    public void setup() throws IOException {
+        final Random random = new Random(42L);
+        for (int i = 0; i < BATCH; i++) {
+            pairs[i] = Pair.of("key-" + random.nextInt(100000), random.nextLong() >> random.nextInt(64));
+        }
+        encoded = codecWrite().duplicate();
+        serialized = serializationWrite();
+    }
+
+    @Benchmark
+    public ByteBuffer codecWrite() {
+        buffer.clear();
+        for (Pair<String, Long> pair : pairs) {
+            codec.write(pair, buffer);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    @Benchmark
+    public void codecRead(final Blackhole blackhole) {
+        final ByteBuffer in = encoded.duplicate();
+        while (in.hasRemaining()) {
+            blackhole.consume(codec.read(in));
+        }
+    }
+
+    @Benchmark
+    public byte[] serializationWrite() throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(1 << 16);
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        for (Pair<String, Long> pair : pairs) {
+            out.writeObject(pair);
+        }
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public void serializationRead(final Blackhole blackhole) throws IOException, ClassNotFoundException {
+        final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialized));
+        for (int i = 0; i < BATCH; i++) {
+            blackhole.consume(in.readObject());
+        }
+        in.close();
+    }
+}
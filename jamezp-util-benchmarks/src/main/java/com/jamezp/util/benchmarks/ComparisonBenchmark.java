@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util.benchmarks;
+
+import com.jamezp.util.Comparison;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link Comparison}.
+ *
+ * @author James R. Perkins (JRP)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComparisonBenchmark {
+
+    private int leftInt;
+
+    private int rightInt;
+
+    private String leftString;
+
+    private String rightString;
+
+    private long leftLong;
+
+    private long rightLong;
+
+    private long[] leftLongs;
+
+    private long[] rightLongs;
+
+    private byte[] leftBytes;
+
+    private byte[] rightBytes;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42L);
+        leftInt = rightInt = random.nextInt();
+        leftString = "comparison";
+        rightString = new String("comparison");
+        leftLong = random.nextLong();
+        rightLong = leftLong + 1L;
+        leftLongs = new long[1024];
+        for (int i = 0; i < leftLongs.length; i++) {
+            leftLongs[i] = random.nextLong();
+        }
+        rightLongs = leftLongs.clone();
+        rightLongs[rightLongs.length - 1]++;
+        leftBytes = new byte[4096];
+        random.nextBytes(leftBytes);
+        rightBytes = leftBytes.clone();
+        rightBytes[rightBytes.length - 1]++;
+    }
+
+    @Benchmark
+    public int fluent() {
+        return Comparison.begin().compare(leftInt, rightInt).compare(leftString, rightString)
+                .compare(leftLong, rightLong).result();
+    }
+
+    @Benchmark
+    public int chain() {
+        int result = Comparison.chain(0, leftInt, rightInt);
+        result = Comparison.chain(result, leftString, rightString);
+        return Comparison.chain(result, leftLong, rightLong);
+    }
+
+    /**
+     * The hand-written {@code compareTo} that {@link #chain()} should match.
+     */
+    @Benchmark
+    public int handWritten() {
+        int result = Integer.compare(leftInt, rightInt);
+        if (result == 0) {
+            result = leftString.compareTo(rightString);
+        }
+        if (result == 0) {
+            result = Long.compare(leftLong, rightLong);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int compareLongArrays() {
+        return Comparison.begin().compare(leftLongs, rightLongs).result();
+    }
+
+    @Benchmark
+    public int mismatchBytes() {
+        return Comparison.mismatch(leftBytes, rightBytes);
+    }
+}
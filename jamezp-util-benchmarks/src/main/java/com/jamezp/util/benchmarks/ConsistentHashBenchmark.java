@@ -0,0 +1,192 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jamezp.util.benchmarks;
+
+import com.jamezp.util.ConsistentHash;
+import com.jamezp.util.Hash64Builder;
+import com.jamezp.util.ObjectHelper.HashCodeBuilder;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link ConsistentHash} against {@code hashCode() % n} with
+ * the polynomial {@link HashCodeBuilder} hash.
+ *
+ * <p>
+ * The JMH benchmarks measure the cost of mapping {@value #KEYS} keys to
+ * {@value #BUCKETS} buckets. The distribution quality is not a timing and is
+ * reported by {@link #main(String[])} instead:
+ * </p>
+ *
+ * <pre>
+ * java -cp target/benchmarks.jar com.jamezp.util.benchmarks.ConsistentHashBenchmark
+ * </pre>
+ *
+ * @author James R. Perkins (JRP)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConsistentHashBenchmark {
+
+    static final int KEYS = 1024;
+
+    static final int BUCKETS = 16;
+
+    private int[] hashes;
+
+    private long[] hashes64;
+
+    private ConsistentHash.Rendezvous rendezvous;
+
+    @Setup
+    public void setup() {
+        hashes = new int[KEYS];
+        hashes64 = new long[KEYS];
+        for (int i = 0; i < KEYS; i++) {
+            hashes[i] = polynomialHash(i);
+            hashes64[i] = hash64(i);
+        }
+        rendezvous = rendezvous(BUCKETS);
+    }
+
+    @Benchmark
+    public int modulo() {
+        int result = 0;
+        for (int hash : hashes) {
+            result += Math.floorMod(hash, BUCKETS);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int jump() {
+        int result = 0;
+        for (long hash : hashes64) {
+            result += ConsistentHash.jump(hash, BUCKETS);
+        }
+        return result;
+    }
+
+    @Benchmark
+    public int rendezvous() {
+        int result = 0;
+        for (long hash : hashes64) {
+            result += rendezvous.bucket(hash);
+        }
+        return result;
+    }
+
+    /**
+     * Prints the distribution quality of each partitioner for a million
+     * keys: the most loaded bucket and the standard deviation of the bucket
+     * loads relative to the mean, and the fraction of the keys moved when a
+     * bucket is added. An ideal partitioner moves {@code 1/(n + 1)} of the
+     * keys.
+     *
+     * @param args ignored.
+     */
+    public static void main(final String[] args) {
+        final int keys = 1000000;
+        final int[] hashes = new int[keys];
+        final long[] hashes64 = new long[keys];
+        for (int i = 0; i < keys; i++) {
+            hashes[i] = polynomialHash(i);
+            hashes64[i] = hash64(i);
+        }
+        System.out.printf("%-11s %7s %9s %9s %9s%n", "partitioner", "buckets", "max/mean", "stddev", "moved");
+        for (int buckets : new int[] {10, 16, 100}) {
+            final int[][] modulo = new int[2][keys];
+            final int[][] jump = new int[2][keys];
+            final int[][] weighted = new int[2][keys];
+            for (int grow = 0; grow < 2; grow++) {
+                final ConsistentHash.Rendezvous rendezvous = rendezvous(buckets + grow);
+                for (int i = 0; i < keys; i++) {
+                    modulo[grow][i] = Math.floorMod(hashes[i], buckets + grow);
+                    jump[grow][i] = ConsistentHash.jump(hashes64[i], buckets + grow);
+                    weighted[grow][i] = rendezvous.bucket(hashes64[i]);
+                }
+            }
+            print("modulo", buckets, modulo);
+            print("jump", buckets, jump);
+            print("rendezvous", buckets, weighted);
+        }
+    }
+
+    /**
+     * A composite key of a tenant and a sequential id, hashed the way a
+     * hand-written {@code hashCode()} would.
+     */
+    private static int polynomialHash(final int i) {
+        return HashCodeBuilder.builder().add("tenant-" + (i % 100)).add((long) i).toHashCode();
+    }
+
+    private static long hash64(final int i) {
+        return Hash64Builder.builder().add("tenant-" + (i % 100)).add((long) i).toHashCode();
+    }
+
+    private static ConsistentHash.Rendezvous rendezvous(final int buckets) {
+        final long[] nodes = new long[buckets];
+        final double[] weights = new double[buckets];
+        for (int i = 0; i < buckets; i++) {
+            nodes[i] = i;
+        }
+        Arrays.fill(weights, 1.0d);
+        return ConsistentHash.rendezvous(nodes, weights);
+    }
+
+    private static void print(final String name, final int buckets, final int[][] assignments) {
+        final int keys = assignments[0].length;
+        final int[] loads = new int[buckets];
+        int moved = 0;
+        for (int i = 0; i < keys; i++) {
+            loads[assignments[0][i]]++;
+            if (assignments[0][i] != assignments[1][i]) {
+                moved++;
+            }
+        }
+        final double mean = (double) keys / buckets;
+        int max = 0;
+        double variance = 0.0d;
+        for (int load : loads) {
+            max = Math.max(max, load);
+            variance += (load - mean) * (load - mean) / buckets;
+        }
+        System.out.printf("%-11s %7d %9.3f %8.2f%% %8.2f%%%n", name, buckets, max / mean,
+                Math.sqrt(variance) / mean * 100.0d, moved * 100.0d / keys);
+    }
+}
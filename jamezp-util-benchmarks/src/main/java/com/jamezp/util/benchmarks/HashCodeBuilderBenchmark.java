@@ -0,0 +1,102 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util.benchmarks;
+
+import com.jamezp.util.Hash64Builder;
+import com.jamezp.util.ObjectHelper.HashCodeBuilder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link HashCodeBuilder} and {@link Hash64Builder}. Large
+ * primitive arrays are covered by {@link ArrayHashBenchmark}.
+ *
+ * @author James R. Perkins (JRP)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HashCodeBuilderBenchmark {
+
+    private int intValue;
+
+    private long longValue;
+
+    private double doubleValue;
+
+    private String string;
+
+    private Object[] objects;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        final Random random = new Random(42L);
+        intValue = random.nextInt();
+        longValue = random.nextLong();
+        doubleValue = random.nextDouble();
+        string = "benchmark-" + random.nextInt();
+        objects = new Object[1024];
+        for (int i = 0; i < objects.length; i++) {
+            objects[i] = Integer.toString(random.nextInt());
+        }
+        bytes = new byte[1024];
+        random.nextBytes(bytes);
+    }
+
+    @Benchmark
+    public int fields() {
+        return HashCodeBuilder.builder().add(intValue).add(longValue).add(doubleValue).add(string).toHashCode();
+    }
+
+    @Benchmark
+    public int objectArray() {
+        return HashCodeBuilder.builder().add((Object) objects).toHashCode();
+    }
+
+    @Benchmark
+    public long hash64Fields() {
+        return Hash64Builder.builder().add(intValue).add(longValue).add(doubleValue).add(string).toHashCode();
+    }
+
+    @Benchmark
+    public long hash64Bytes() {
+        return Hash64Builder.builder().add(bytes).toHashCode();
+    }
+}
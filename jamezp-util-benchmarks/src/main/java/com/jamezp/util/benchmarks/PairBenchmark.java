@@ -0,0 +1,131 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util.benchmarks;
+
+import com.jamezp.util.IntIntPair;
+import com.jamezp.util.IntIntKeyMap;
+import com.jamezp.util.Pair;
+import com.jamezp.util.PairKeyMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link Pair}, the primitive pairs and the maps keyed by two
+ * components.
+ *
+ * @author James R. Perkins (JRP)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PairBenchmark {
+
+    private static final int ENTRIES = 1 << 16;
+
+    private final Pair<String, Integer> pair = Pair.of("first", 2);
+
+    private final Pair<String, Integer> equalPair = Pair.of(new String("first"), 2);
+
+    private final Map<Pair<Integer, Integer>, Integer> hashMap = new HashMap<Pair<Integer, Integer>, Integer>();
+
+    private final PairKeyMap<Integer, Integer, Integer> pairKeyMap = PairKeyMap.create(ENTRIES);
+
+    private final IntIntKeyMap<Integer> intIntKeyMap = IntIntKeyMap.create(ENTRIES);
+
+    private final Integer[] boxed = new Integer[ENTRIES];
+
+    private int next;
+
+    private int first = 17;
+
+    private int second = 42;
+
+    @Setup
+    public void setup() {
+        for (int i = 0; i < ENTRIES; i++) {
+            boxed[i] = i;
+            hashMap.put(Pair.of(i, i >>> 4), i);
+            pairKeyMap.put(i, i >>> 4, i);
+            intIntKeyMap.put(i, i >>> 4, i);
+        }
+    }
+
+    @Benchmark
+    public int hashCodeCached() {
+        return pair.hashCode();
+    }
+
+    @Benchmark
+    public int hashCodeNew() {
+        return Pair.of(first, second).hashCode();
+    }
+
+    @Benchmark
+    public int hashCodeIntIntPair() {
+        return IntIntPair.of(first, second).hashCode();
+    }
+
+    @Benchmark
+    public boolean equalsPair() {
+        return pair.equals(equalPair);
+    }
+
+    @Benchmark
+    public Pair<String, Integer> intern() {
+        return Pair.intern(equalPair);
+    }
+
+    @Benchmark
+    public Integer hashMapGet() {
+        final int i = next++ & (ENTRIES - 1);
+        return hashMap.get(Pair.of(boxed[i], boxed[i >>> 4]));
+    }
+
+    @Benchmark
+    public Integer pairKeyMapGet() {
+        final int i = next++ & (ENTRIES - 1);
+        return pairKeyMap.get(boxed[i], boxed[i >>> 4]);
+    }
+
+    @Benchmark
+    public Integer intIntKeyMapGet() {
+        final int i = next++ & (ENTRIES - 1);
+        return intIntKeyMap.get(i, i >>> 4);
+    }
+}
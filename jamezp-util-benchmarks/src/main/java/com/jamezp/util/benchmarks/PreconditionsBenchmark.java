@@ -0,0 +1,88 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util.benchmarks;
+
+import com.jamezp.util.ObjectHelper;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of the {@link ObjectHelper} precondition checks on the passing
+ * path. Run with {@code -prof gc}, the fixed arity checks must not allocate.
+ *
+ * @author James R. Perkins (JRP)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreconditionsBenchmark {
+
+    private final Object ref = new Object();
+
+    private final Object arg1 = "first";
+
+    private final Object arg2 = "second";
+
+    private int index = 7;
+
+    private final int length = 16;
+
+    @Benchmark
+    public Object checkNonNullFixedArity() {
+        return ObjectHelper.checkNonNull(ref, "%s %s is null", arg1, arg2);
+    }
+
+    @Benchmark
+    public Object checkNonNullVarargs() {
+        return ObjectHelper.checkNonNull(ref, "%s %s %s %s %s is null", arg1, arg2, arg1, arg2, arg1);
+    }
+
+    @Benchmark
+    public int checkArgument() {
+        ObjectHelper.checkArgument(index < length, "Index %s beyond %s", index, length);
+        return index;
+    }
+
+    @Benchmark
+    public int checkIndex() {
+        return ObjectHelper.checkIndex(index, length);
+    }
+
+    @Benchmark
+    public int checkFromToIndex() {
+        return ObjectHelper.checkFromToIndex(index, length, length);
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package com.jamezp.util.benchmarks;
+
+import com.jamezp.util.ObjectHelper;
+import com.jamezp.util.ObjectHelper.HashCodeBuilder;
+import com.jamezp.util.ObjectHelper.ToStringBuilder;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link ObjectHelper#reflectionEquals(Object, Object)},
+ * {@link ObjectHelper#reflectionHashCode(Object)} and
+ * {@link ObjectHelper#reflectionToString(Object)} against the hand-written
+ * methods they replace.
+ *
+ * @author James R. Perkins (JRP)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReflectionBenchmark {
+
+    private final Customer left = new Customer(1234567890L, 42, 1024.5d, true, "customer", "customer@example.com");
+
+    private final Customer right = new Customer(1234567890L, 42, 1024.5d, true, new String("customer"),
+            new String("customer@example.com"));
+
+    @Benchmark
+    public boolean equalsHandWritten() {
+        return left.equals(right);
+    }
+
+    @Benchmark
+    public boolean equalsReflection() {
+        return ObjectHelper.reflectionEquals(left, right);
+    }
+
+    @Benchmark
+    public int hashCodeHandWritten() {
+        return left.hashCode();
+    }
+
+    @Benchmark
+    public int hashCodeReflection() {
+        return ObjectHelper.reflectionHashCode(left);
+    }
+
+    @Benchmark
+    public String toStringHandWritten() {
+        return left.toString();
+    }
+
+    @Benchmark
+    public String toStringReflection() {
+        return ObjectHelper.reflectionToString(left);
+    }
+
+    /**
+     * A typical domain class with hand-written object methods.
+     */
+    static final class Customer {
+
+        private final long id;
+
+        private final int age;
+
+        private final double balance;
+
+        private final boolean active;
+
+        private final String name;
+
+        private final String email;
+
+        Customer(final long id, final int age, final double balance, final boolean active, final String name,
+                final String email) {
+            this.id = id;
+            this.age = age;
+            this.balance = balance;
+            this.active = active;
+            this.name = name;
+            this.email = email;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Customer)) {
+                return false;
+            }
+            final Customer other = (Customer) obj;
+            return ObjectHelper.areEqual(id, other.id) && ObjectHelper.areEqual(age, other.age)
+                    && ObjectHelper.areEqual(balance, other.balance) && ObjectHelper.areEqual(active, other.active)
+                    && ObjectHelper.areEqual(name, other.name) && ObjectHelper.areEqual(email, other.email);
+        }
+
+        @Override
+        public int hashCode() {
+            return HashCodeBuilder.builder().add(id).add(age).add(balance).add(active).add(name).add(email)
+                    .toHashCode();
+        }
+
+        @Override
+        public String toString() {
+            return ToStringBuilder.of(this).add("id", id).add("age", age).add("balance", balance)
+                    .add("active", active).add("name", name).add("email", email).toString();
+        }
+    }
+}
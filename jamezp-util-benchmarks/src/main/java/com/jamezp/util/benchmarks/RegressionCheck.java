@@ -0,0 +1,358 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util.benchmarks;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with the checked-in baseline and fails when
+ * a benchmark regressed beyond a threshold.
+ *
+ * <p>
+ * A benchmark regresses when its score is worse than the score of the
+ * baseline by more than the threshold and the difference of the scores is
+ * larger than their combined error, or when it allocates more than the
+ * baseline by more than the threshold plus {@value #ALLOCATION_SLACK} bytes
+ * per operation. The allocations are only compared when both runs used
+ * {@code -prof gc}. Benchmarks missing from either side are reported but do
+ * not fail the check.
+ * </p>
+ *
+ * <p>
+ * The error only rules out noise, each error counts at most the threshold
+ * times its score. A run with a wide error, e.g. a single fork, can still
+ * fail the check instead of hiding any regression within its error.
+ * </p>
+ *
+ * <p>
+ * The errors are only comparable when both runs used the same number
+ * of forks and the same warmup and measurement iterations. The baseline
+ * records these settings and a benchmark run with different settings fails
+ * the check.
+ * </p>
+ *
+ * <pre>
+ * java -cp benchmarks.jar com.jamezp.util.benchmarks.RegressionCheck baseline.json result.json 0.15
+ * java -cp benchmarks.jar com.jamezp.util.benchmarks.RegressionCheck --update baseline.json result.json
+ * </pre>
+ *
+ * @author James R. Perkins (JRP)
+ */
+public final class RegressionCheck {
+
+    /**
+     * The allocation, in bytes per operation, always tolerated on top of the
+     * threshold.
+     */
+    static final double ALLOCATION_SLACK = 8.0d;
+
+    /**
+     * The threshold used when none is given.
+     */
+    static final double DEFAULT_THRESHOLD = 0.15d;
+
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+
+    private RegressionCheck() {
+    }
+
+    /**
+     * Runs the check, exits with {@code 1} if a benchmark regressed.
+     *
+     * @param args {@code [--update] baseline.json result.json [threshold]}.
+     * @throws IOException if a file could not be read or written.
+     */
+    public static void main(final String[] args) throws IOException {
+        final boolean update = args.length > 0 && "--update".equals(args[0]);
+        final int offset = update ? 1 : 0;
+        if (args.length - offset < 2) {
+            System.err.println("Usage: RegressionCheck [--update] baseline.json result.json [threshold]");
+            System.exit(2);
+        }
+        final Path baselinePath = Paths.get(args[offset]);
+        final Path resultPath = Paths.get(args[offset + 1]);
+        final double threshold = args.length - offset > 2 ? Double.parseDouble(args[offset + 2]) : DEFAULT_THRESHOLD;
+
+        final JsonArray result;
+        try (Reader reader = Files.newBufferedReader(resultPath, StandardCharsets.UTF_8)) {
+            result = JsonParser.parseReader(reader).getAsJsonArray();
+        }
+        if (update) {
+            try (Writer writer = Files.newBufferedWriter(baselinePath, StandardCharsets.UTF_8)) {
+                writeBaseline(result, writer);
+            }
+            System.out.printf("Updated %s%n", baselinePath);
+            return;
+        }
+        final Map<String, Score> baseline;
+        try (Reader reader = Files.newBufferedReader(baselinePath, StandardCharsets.UTF_8)) {
+            baseline = readBaseline(reader);
+        }
+        final List<String> regressions = compare(baseline, readResult(result), threshold, System.out);
+        if (!regressions.isEmpty()) {
+            System.out.printf("%d benchmark(s) regressed beyond %.0f%%%n", regressions.size(), threshold * 100.0d);
+            System.exit(1);
+        }
+        System.out.println("No regressions");
+    }
+
+    /**
+     * Compares the scores and prints the comparison of each benchmark.
+     *
+     * @param baseline  the baseline scores.
+     * @param result    the scores of the run.
+     * @param threshold the relative regression tolerated.
+     * @param out       the stream to print to.
+     * @return the names of the regressed benchmarks.
+     */
+    static List<String> compare(final Map<String, Score> baseline, final Map<String, Score> result,
+            final double threshold, final PrintStream out) {
+        final List<String> regressions = new ArrayList<String>();
+        for (Map.Entry<String, Score> entry : result.entrySet()) {
+            final String name = entry.getKey();
+            final Score current = entry.getValue();
+            final Score base = baseline.get(name);
+            if (base == null) {
+                out.printf("NEW        %s: %.3f %s%n", name, current.score, current.unit);
+                continue;
+            }
+            if (!base.unit.equals(current.unit) || !base.mode.equals(current.mode)) {
+                out.printf("CHANGED    %s: %s %s in the baseline, %s %s now%n", name, base.mode, base.unit,
+                        current.mode, current.unit);
+                regressions.add(name);
+                continue;
+            }
+            if (base.settings != null && !base.settings.equals(current.settings)) {
+                out.printf("CHANGED    %s: recorded with %s, run with %s%n", name, base.settings, current.settings);
+                regressions.add(name);
+                continue;
+            }
+            // Throughput is better when higher, all other modes when lower
+            final boolean throughput = "thrpt".equals(current.mode);
+            final double change = throughput ? base.score / current.score - 1.0d : current.score / base.score - 1.0d;
+            // The errors only rule out noise, capped so a wide error cannot hide a regression
+            final double difference = throughput ? base.score - current.score : current.score - base.score;
+            final double baseNoise = Math.min(base.error, base.score * threshold);
+            final double currentNoise = Math.min(current.error, current.score * threshold);
+            final boolean slower = change > threshold
+                    && difference > Math.sqrt(baseNoise * baseNoise + currentNoise * currentNoise);
+            final boolean allocates = !Double.isNaN(base.allocation) && !Double.isNaN(current.allocation)
+                    && current.allocation > base.allocation * (1.0d + threshold) + ALLOCATION_SLACK;
+            out.printf("%-10s %s: %.3f +/- %.3f -> %.3f +/- %.3f %s (%+.1f%%)",
+                    slower || allocates ? "REGRESSION" : "OK", name, base.score, base.error, current.score,
+                    current.error, current.unit, change * 100.0d);
+            if (!Double.isNaN(base.allocation) && !Double.isNaN(current.allocation)) {
+                out.printf(", %.1f -> %.1f B/op", base.allocation, current.allocation);
+            }
+            out.println();
+            if (slower || allocates) {
+                regressions.add(name);
+            }
+        }
+        for (String name : baseline.keySet()) {
+            if (!result.containsKey(name)) {
+                out.printf("NOT RUN    %s%n", name);
+            }
+        }
+        return regressions;
+    }
+
+    /**
+     * Reads the scores of a JMH JSON result.
+     *
+     * @param result the parsed result.
+     * @return the scores keyed by benchmark.
+     */
+    static Map<String, Score> readResult(final JsonArray result) {
+        final Map<String, Score> scores = new TreeMap<String, Score>();
+        for (JsonElement element : result) {
+            final JsonObject run = element.getAsJsonObject();
+            final JsonObject primary = run.getAsJsonObject("primaryMetric");
+            double allocation = Double.NaN;
+            final JsonObject secondary = run.getAsJsonObject("secondaryMetrics");
+            if (secondary != null) {
+                for (Map.Entry<String, JsonElement> metric : secondary.entrySet()) {
+                    // Older JMH versions prefix the profiler metrics with a middle dot
+                    if (metric.getKey().endsWith(ALLOCATION_METRIC)) {
+                        allocation = metric.getValue().getAsJsonObject().get("score").getAsDouble();
+                    }
+                }
+            }
+            scores.put(name(run), new Score(run.get("mode").getAsString(),
+                    primary.get("scoreUnit").getAsString(), primary.get("score").getAsDouble(),
+                    error(primary.get("scoreError")), allocation, settings(run)));
+        }
+        return scores;
+    }
+
+    /**
+     * Reads a baseline written by {@link #writeBaseline(JsonArray, Writer)}.
+     *
+     * @param reader the reader of the baseline.
+     * @return the scores keyed by benchmark.
+     */
+    static Map<String, Score> readBaseline(final Reader reader) {
+        final JsonObject benchmarks = JsonParser.parseReader(reader).getAsJsonObject().getAsJsonObject("benchmarks");
+        final Map<String, Score> scores = new TreeMap<String, Score>();
+        for (Map.Entry<String, JsonElement> entry : benchmarks.entrySet()) {
+            final JsonObject score = entry.getValue().getAsJsonObject();
+            scores.put(entry.getKey(), new Score(score.get("mode").getAsString(), score.get("unit").getAsString(),
+                    score.get("score").getAsDouble(), score.has("error") ? score.get("error").getAsDouble() : 0.0d,
+                    score.has("allocation") ? score.get("allocation").getAsDouble() : Double.NaN,
+                    score.has("settings") ? score.get("settings").getAsString() : null));
+        }
+        return scores;
+    }
+
+    /**
+     * Writes the scores of a JMH JSON result as a baseline.
+     *
+     * @param result the parsed result.
+     * @param writer the writer of the baseline.
+     */
+    static void writeBaseline(final JsonArray result, final Writer writer) {
+        final JsonObject baseline = new JsonObject();
+        if (result.size() > 0) {
+            final JsonObject first = result.get(0).getAsJsonObject();
+            baseline.addProperty("jvm", first.get("vmName").getAsString() + " " + first.get("vmVersion").getAsString());
+            baseline.addProperty("jdk", first.get("jdkVersion").getAsString());
+        }
+        final JsonObject benchmarks = new JsonObject();
+        for (Map.Entry<String, Score> entry : readResult(result).entrySet()) {
+            final Score score = entry.getValue();
+            final JsonObject json = new JsonObject();
+            json.addProperty("mode", score.mode);
+            json.addProperty("unit", score.unit);
+            json.addProperty("score", round(score.score));
+            json.addProperty("error", round(score.error));
+            json.addProperty("settings", score.settings);
+            if (!Double.isNaN(score.allocation)) {
+                json.addProperty("allocation", round(score.allocation));
+            }
+            benchmarks.add(entry.getKey(), json);
+        }
+        baseline.add("benchmarks", benchmarks);
+        final Gson gson = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+        gson.toJson(baseline, writer);
+    }
+
+    private static String name(final JsonObject run) {
+        final String benchmark = run.get("benchmark").getAsString();
+        final JsonObject params = run.getAsJsonObject("params");
+        if (params == null || params.size() == 0) {
+            return benchmark;
+        }
+        final Map<String, String> sorted = new TreeMap<String, String>();
+        for (Map.Entry<String, JsonElement> param : params.entrySet()) {
+            sorted.put(param.getKey(), param.getValue().getAsString());
+        }
+        return benchmark + sorted;
+    }
+
+    /**
+     * Returns the error of a score, 0 when JMH could not calculate one.
+     */
+    private static double error(final JsonElement error) {
+        if (error == null || !error.isJsonPrimitive() || !error.getAsJsonPrimitive().isNumber()) {
+            // A single iteration has an error of "NaN"
+            return 0.0d;
+        }
+        final double value = error.getAsDouble();
+        return Double.isNaN(value) ? 0.0d : value;
+    }
+
+    /**
+     * Describes the forks and iterations of a run, e.g.
+     * {@code "forks=1 warmup=3x1 s measurement=5x1 s"}.
+     */
+    private static String settings(final JsonObject run) {
+        return String.format("forks=%s warmup=%sx%s measurement=%sx%s", string(run, "forks"),
+                string(run, "warmupIterations"), string(run, "warmupTime"), string(run, "measurementIterations"),
+                string(run, "measurementTime"));
+    }
+
+    private static String string(final JsonObject run, final String name) {
+        final JsonElement value = run.get(name);
+        return value == null || value.isJsonNull() ? "?" : value.getAsString();
+    }
+
+    private static double round(final double value) {
+        return Math.round(value * 1000.0d) / 1000.0d;
+    }
+
+    /**
+     * The score of a benchmark.
+     */
+    static final class Score {
+
+        final String mode;
+
+        final String unit;
+
+        final double score;
+
+        /**
+         * The half width of the confidence interval of the score.
+         */
+        final double error;
+
+        /**
+         * Bytes allocated per operation, {@code NaN} if not profiled.
+         */
+        final double allocation;
+
+        /**
+         * The forks and iterations of the run, {@code null} if not recorded.
+         */
+        final String settings;
+
+        Score(final String mode, final String unit, final double score, final double error,
+                final double allocation, final String settings) {
+            this.mode = mode;
+            this.unit = unit;
+            this.score = score;
+            this.error = error;
+            this.allocation = allocation;
+            this.settings = settings;
+        }
+    }
+}
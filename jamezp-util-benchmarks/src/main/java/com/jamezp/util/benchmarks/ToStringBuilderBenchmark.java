@@ -0,0 +1,89 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util.benchmarks;
+
+import com.jamezp.util.ObjectHelper.ToStringBuilder;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks of {@link ToStringBuilder}.
+ *
+ * @author James R. Perkins (JRP)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ToStringBuilderBenchmark {
+
+    private final String name = "customer";
+
+    private final long id = 1234567890L;
+
+    private final int[] regions = {1, 2, 3, 4, 5};
+
+    private final StringBuilder out = new StringBuilder(256);
+
+    private ToStringBuilder builder() {
+        return ToStringBuilder.of("Customer").add("name", name).add("id", id).add("regions", regions);
+    }
+
+    @Benchmark
+    public String toStringDefault() {
+        return builder().toString();
+    }
+
+    @Benchmark
+    public String toStringJson() {
+        return builder().toString(ToStringBuilder.Format.JSON);
+    }
+
+    @Benchmark
+    public String toStringLogfmt() {
+        return builder().toString(ToStringBuilder.Format.LOGFMT);
+    }
+
+    @Benchmark
+    public StringBuilder appendToReused() {
+        out.setLength(0);
+        return builder().appendTo(out);
+    }
+
+    @Benchmark
+    public String toStringLimited() {
+        return builder().maxLength(16).toString();
+    }
+}
@@ -0,0 +1,201 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util.benchmarks.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverPropertyInfo;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Types;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+/**
+ * A JDBC driver for {@code jdbc:stub:} URLs whose connections do nothing, so
+ * benchmarks of JDBC helpers measure the helpers rather than a database.
+ *
+ * <p>
+ * The statements accept and discard any parameter. The parameter metadata
+ * reports the last parameter of a callable statement as an {@code OUT}
+ * parameter of type {@link Types#INTEGER}, and all other parameters as
+ * {@code IN} parameters. Methods not described return {@code null},
+ * {@code 0} or {@code false}.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ */
+public final class StubDriver implements Driver {
+
+    /**
+     * The prefix of the URLs accepted.
+     */
+    public static final String URL_PREFIX = "jdbc:stub:";
+
+    /**
+     * Creates a new stub connection without going through the
+     * {@link java.sql.DriverManager}.
+     *
+     * @return the new connection.
+     */
+    public static Connection connection() {
+        return proxy(Connection.class, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                final String name = method.getName();
+                if ("prepareStatement".equals(name)) {
+                    return statement(PreparedStatement.class, (String) args[0], false);
+                }
+                if ("prepareCall".equals(name)) {
+                    return statement(CallableStatement.class, (String) args[0], true);
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    @Override
+    public Connection connect(final String url, final Properties info) {
+        return acceptsURL(url) ? connection() : null;
+    }
+
+    @Override
+    public boolean acceptsURL(final String url) {
+        return url != null && url.startsWith(URL_PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(final String url, final Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    private static <T> T statement(final Class<T> type, final String sql, final boolean callable) {
+        final int parameterCount = countParameters(sql);
+        final ParameterMetaData metaData = proxy(ParameterMetaData.class, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                final String name = method.getName();
+                if ("getParameterCount".equals(name)) {
+                    return parameterCount;
+                }
+                if ("getParameterMode".equals(name)) {
+                    return callable && (Integer) args[0] == parameterCount ? ParameterMetaData.parameterModeOut
+                            : ParameterMetaData.parameterModeIn;
+                }
+                if ("getParameterType".equals(name)) {
+                    return Types.INTEGER;
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+        return proxy(type, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                if ("getParameterMetaData".equals(method.getName())) {
+                    return metaData;
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    private static int countParameters(final String sql) {
+        int count = 0;
+        for (int i = 0; i < sql.length(); i++) {
+            if (sql.charAt(i) == '?') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StubDriver.class.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    private static Object defaultValue(final Object proxy, final Method method, final Object[] args) {
+        final String name = method.getName();
+        if ("equals".equals(name)) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(name)) {
+            return System.identityHashCode(proxy);
+        }
+        if ("toString".equals(name)) {
+            return "Stub" + method.getDeclaringClass().getSimpleName();
+        }
+        final Class<?> type = method.getReturnType();
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return Boolean.FALSE;
+        }
+        if (type == int.class) {
+            return 0;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0d;
+        }
+        if (type == float.class) {
+            return 0.0f;
+        }
+        if (type == short.class) {
+            return (short) 0;
+        }
+        if (type == byte.class) {
+            return (byte) 0;
+        }
+        return '\0';
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util.benchmarks;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonParser;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jrp
+ */
+public class RegressionCheckTest {
+
+    private static JsonArray result(final double fieldsScore, final double fieldsAllocation, final double arrayScore) {
+        return result(fieldsScore, fieldsAllocation, arrayScore, 0.5d, 5);
+    }
+
+    private static JsonArray result(final double fieldsScore, final double fieldsAllocation, final double arrayScore,
+            final double arrayError, final int iterations) {
+        return JsonParser.parseString("["
+                + run("com.jamezp.Bench.fields", "{}", fieldsScore, "\"NaN\"", fieldsAllocation, iterations) + ","
+                + run("com.jamezp.Bench.array", "{\"size\":\"16\"}", arrayScore, Double.toString(arrayError), 0.0d,
+                        iterations)
+                + "]").getAsJsonArray();
+    }
+
+    private static String run(final String benchmark, final String params, final double score, final String error,
+            final double allocation, final int iterations) {
+        return "{\"jmhVersion\":\"1.37\",\"benchmark\":\"" + benchmark + "\",\"mode\":\"avgt\","
+                + "\"forks\":1,\"warmupIterations\":3,\"warmupTime\":\"1 s\","
+                + "\"measurementIterations\":" + iterations + ",\"measurementTime\":\"1 s\","
+                + "\"jdkVersion\":\"17\",\"vmName\":\"OpenJDK\",\"vmVersion\":\"17\",\"params\":" + params + ","
+                + "\"primaryMetric\":{\"score\":" + score + ",\"scoreError\":" + error + ",\"scoreUnit\":\"ns/op\"},"
+                + "\"secondaryMetrics\":{\"gc.alloc.rate.norm\":{\"score\":" + allocation + ",\"scoreUnit\":\"B/op\"}}}";
+    }
+
+    @Test
+    public void testCompare() {
+        System.out.println("compare");
+        final StringWriter baselineJson = new StringWriter();
+        RegressionCheck.writeBaseline(result(10.0d, 24.0d, 100.0d), baselineJson);
+        final Map<String, RegressionCheck.Score> baseline = RegressionCheck.readBaseline(
+                new StringReader(baselineJson.toString()));
+        assertEquals(2, baseline.size());
+        assertTrue(baseline.containsKey("com.jamezp.Bench.array{size=16}"));
+
+        final PrintStream out = new PrintStream(new ByteArrayOutputStream());
+        // Within the threshold
+        assertEquals(Collections.<String>emptyList(), RegressionCheck.compare(baseline,
+                RegressionCheck.readResult(result(11.0d, 30.0d, 90.0d)), 0.15d, out));
+        // Slower
+        assertEquals(Arrays.asList("com.jamezp.Bench.array{size=16}"), RegressionCheck.compare(baseline,
+                RegressionCheck.readResult(result(10.0d, 24.0d, 120.0d)), 0.15d, out));
+        // Allocates more
+        assertEquals(Arrays.asList("com.jamezp.Bench.fields"), RegressionCheck.compare(baseline,
+                RegressionCheck.readResult(result(10.0d, 64.0d, 100.0d)), 0.15d, out));
+        // Slower by more than the threshold, but within the error
+        assertEquals(Collections.<String>emptyList(), RegressionCheck.compare(baseline,
+                RegressionCheck.readResult(result(10.0d, 24.0d, 117.0d, 20.0d, 5)), 0.15d, out));
+        assertEquals(Arrays.asList("com.jamezp.Bench.array{size=16}"), RegressionCheck.compare(baseline,
+                RegressionCheck.readResult(result(10.0d, 24.0d, 120.0d, 5.0d, 5)), 0.15d, out));
+        // A wide error does not hide a regression
+        assertEquals(Arrays.asList("com.jamezp.Bench.array{size=16}"), RegressionCheck.compare(baseline,
+                RegressionCheck.readResult(result(10.0d, 24.0d, 130.0d, 100.0d, 5)), 0.15d, out));
+        // Run with other iterations than the baseline
+        assertEquals(Arrays.asList("com.jamezp.Bench.array{size=16}", "com.jamezp.Bench.fields"),
+                RegressionCheck.compare(baseline, RegressionCheck.readResult(result(10.0d, 24.0d, 100.0d, 0.5d, 2)),
+                        0.15d, out));
+    }
+
+    @Test
+    public void testCompareNoisyBaseline() {
+        System.out.println("compare noisy baseline");
+        final StringWriter baselineJson = new StringWriter();
+        RegressionCheck.writeBaseline(result(10.0d, 24.0d, 100.0d, 90.0d, 5), baselineJson);
+        final Map<String, RegressionCheck.Score> baseline = RegressionCheck.readBaseline(
+                new StringReader(baselineJson.toString()));
+
+        final PrintStream out = new PrintStream(new ByteArrayOutputStream());
+        assertEquals(Collections.<String>emptyList(), RegressionCheck.compare(baseline,
+                RegressionCheck.readResult(result(10.0d, 24.0d, 110.0d)), 0.15d, out));
+        // The error of the baseline counts at most the threshold
+        assertEquals(Arrays.asList("com.jamezp.Bench.array{size=16}"), RegressionCheck.compare(baseline,
+                RegressionCheck.readResult(result(10.0d, 24.0d, 125.0d)), 0.15d, out));
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util.processor;
+
+import com.jamezp.util.GenerateObjectMethods;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.ArrayType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+
+/**
+ * Generates the {@code equals}, {@code hashCode}, {@code toString} and
+ * {@code compareTo} implementations for classes annotated with
+ * {@link GenerateObjectMethods}.
+ *
+ * @author James R. Perkins (JRP)
+ */
+@SupportedAnnotationTypes("com.jamezp.util.GenerateObjectMethods")
+public class ObjectMethodsProcessor extends AbstractProcessor {
+
+    static final String SUFFIX = "ObjectMethods";
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateObjectMethods.class)) {
+            if (element.getKind() != ElementKind.CLASS) {
+                error(element, "@GenerateObjectMethods can only be used on classes.");
+                continue;
+            }
+            final TypeElement type = (TypeElement) element;
+            final GenerateObjectMethods annotation = type.getAnnotation(GenerateObjectMethods.class);
+            final List<FieldInfo> fields = fields(type, Arrays.asList(annotation.exclude()));
+            if (fields == null) {
+                continue;
+            }
+            if (annotation.compareTo() && !checkComparable(fields)) {
+                continue;
+            }
+            try {
+                write(type, fields, annotation.compareTo());
+            } catch (IOException e) {
+                error(type, "Could not generate the object methods: " + e.getMessage());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collects the fields of the type.
+     *
+     * @return the fields or {@code null} if an error was reported.
+     */
+    private List<FieldInfo> fields(final TypeElement type, final List<String> excluded) {
+        final List<FieldInfo> result = new ArrayList<FieldInfo>();
+        final List<ExecutableElement> methods = ElementFilter.methodsIn(type.getEnclosedElements());
+        final List<String> unknown = new ArrayList<String>(excluded);
+        boolean valid = true;
+        for (VariableElement field : ElementFilter.fieldsIn(type.getEnclosedElements())) {
+            final Set<Modifier> modifiers = field.getModifiers();
+            final String name = field.getSimpleName().toString();
+            unknown.remove(name);
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.TRANSIENT)
+                    || excluded.contains(name)) {
+                continue;
+            }
+            String access = name;
+            if (modifiers.contains(Modifier.PRIVATE)) {
+                access = accessor(field, methods);
+                if (access == null) {
+                    error(field, String.format(
+                            "Private field %s requires a non-private get%2$s(), is%2$s() or %1$s() accessor.",
+                            name, Character.toUpperCase(name.charAt(0)) + name.substring(1)));
+                    valid = false;
+                    continue;
+                }
+            }
+            result.add(new FieldInfo(field, name, access));
+        }
+        for (String name : unknown) {
+            error(type, String.format("Excluded field %s is not declared by %s.", name, type.getSimpleName()));
+            valid = false;
+        }
+        return valid ? result : null;
+    }
+
+    private String accessor(final VariableElement field, final List<ExecutableElement> methods) {
+        final String name = field.getSimpleName().toString();
+        final String capitalized = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+        final List<String> candidates = Arrays.asList("get" + capitalized, "is" + capitalized, name);
+        for (String candidate : candidates) {
+            for (ExecutableElement method : methods) {
+                if (method.getSimpleName().contentEquals(candidate) && method.getParameters().isEmpty()
+                        && !method.getModifiers().contains(Modifier.PRIVATE)
+                        && !method.getModifiers().contains(Modifier.STATIC)
+                        && processingEnv.getTypeUtils().isSameType(method.getReturnType(), field.asType())) {
+                    return candidate + "()";
+                }
+            }
+        }
+        return null;
+    }
+
+    private boolean checkComparable(final List<FieldInfo> fields) {
+        final TypeMirror comparable = processingEnv.getTypeUtils().erasure(
+                processingEnv.getElementUtils().getTypeElement(Comparable.class.getName()).asType());
+        boolean valid = true;
+        for (FieldInfo field : fields) {
+            final TypeMirror type = field.type;
+            if (type.getKind().isPrimitive()) {
+                continue;
+            }
+            if (type.getKind() == TypeKind.ARRAY) {
+                final TypeMirror component = ((ArrayType) type).getComponentType();
+                if (component.getKind().isPrimitive() && component.getKind() != TypeKind.BOOLEAN) {
+                    continue;
+                }
+            } else if (type.getKind() == TypeKind.DECLARED
+                    && processingEnv.getTypeUtils().isAssignable(
+                            processingEnv.getTypeUtils().erasure(type), comparable)) {
+                continue;
+            }
+            error(field.element, String.format(
+                    "Field %s cannot be compared, it must be a primitive, a primitive array or Comparable.",
+                    field.name));
+            valid = false;
+        }
+        return valid;
+    }
+
+    private void write(final TypeElement type, final List<FieldInfo> fields, final boolean compareTo)
+            throws IOException {
+        final PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        final String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        final String simpleName = generatedName(type);
+        final String typeName = type.getQualifiedName()
+                + (type.getTypeParameters().isEmpty() ? "" : wildcards(type.getTypeParameters().size()));
+
+        final StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import com.jamezp.util.Comparison;\n")
+                .append("import com.jamezp.util.ObjectHelper;\n")
+                .append("import com.jamezp.util.ObjectHelper.HashCodeBuilder;\n")
+                .append("import com.jamezp.util.ObjectHelper.ToStringBuilder;\n\n")
+                .append("/**\n")
+                .append(" * Object methods for {@link ").append(type.getQualifiedName()).append("}.\n")
+                .append(" *\n")
+                .append(" * <p>\n")
+                .append(" * Generated by ").append(getClass().getName()).append(", do not edit.\n")
+                .append(" * </p>\n")
+                .append(" */\n")
+                .append("final class ").append(simpleName).append(" {\n\n")
+                .append("    private ").append(simpleName).append("() {\n")
+                .append("    }\n\n");
+
+        // equals
+        source.append("    static boolean equals(final ").append(typeName).append(" self, final Object obj) {\n")
+                .append("        if (self == obj) {\n")
+                .append("            return true;\n")
+                .append("        }\n")
+                .append("        if (obj == null || obj.getClass() != self.getClass()) {\n")
+                .append("            return false;\n")
+                .append("        }\n")
+                .append("        final ").append(typeName).append(" other = (").append(typeName).append(") obj;\n")
+                .append("        return ");
+        if (fields.isEmpty()) {
+            source.append("true");
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                source.append("\n                && ");
+            }
+            source.append(equalsExpression(fields.get(i)));
+        }
+        source.append(";\n    }\n\n");
+
+        // hashCode
+        source.append("    static int hashCode(final ").append(typeName).append(" self) {\n")
+                .append("        return HashCodeBuilder.builder()");
+        for (FieldInfo field : fields) {
+            source.append("\n                .add(self.").append(field.access).append(")");
+        }
+        source.append("\n                .toHashCode();\n    }\n\n");
+
+        // toString
+        source.append("    static String toString(final ").append(typeName).append(" self) {\n")
+                .append("        return ToStringBuilder.of(self)");
+        for (FieldInfo field : fields) {
+            source.append("\n                .add(\"").append(field.name).append("\", self.")
+                    .append(field.access).append(")");
+        }
+        source.append("\n                .toString();\n    }\n");
+
+        // compareTo
+        if (compareTo) {
+            source.append("\n    static int compareTo(final ").append(typeName).append(" self, final ")
+                    .append(typeName).append(" other) {\n")
+                    .append("        int result = 0;\n");
+            for (FieldInfo field : fields) {
+                source.append(compareStatement(field));
+            }
+            source.append("        return result;\n    }\n");
+        }
+        source.append("}\n");
+
+        final String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+        final Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, type).openWriter();
+        try {
+            writer.write(source.toString());
+        } finally {
+            writer.close();
+        }
+    }
+
+    private String equalsExpression(final FieldInfo field) {
+        final String self = "self." + field.access;
+        final String other = "other." + field.access;
+        final TypeMirror type = field.type;
+        if (type.getKind() == TypeKind.ARRAY) {
+            final boolean primitive = ((ArrayType) type).getComponentType().getKind().isPrimitive();
+            return String.format("java.util.Arrays.%s(%s, %s)", primitive ? "equals" : "deepEquals", self, other);
+        }
+        if (type.getKind() == TypeKind.TYPEVAR || type.toString().equals(Object.class.getName())) {
+            // The value may be an array which is hashed deeply
+            return String.format("java.util.Objects.deepEquals(%s, %s)", self, other);
+        }
+        return String.format("ObjectHelper.areEqual(%s, %s)", self, other);
+    }
+
+    private String compareStatement(final FieldInfo field) {
+        final String self = "self." + field.access;
+        final String other = "other." + field.access;
+        if (field.type.getKind() == TypeKind.ARRAY) {
+            return String.format("        if (result == 0) {%n"
+                    + "            result = Comparison.beginAllowNull().compare(%s, %s).result();%n"
+                    + "        }%n", self, other);
+        }
+        if (field.type.getKind().isPrimitive()) {
+            return String.format("        result = Comparison.chain(result, %s, %s);%n", self, other);
+        }
+        return String.format("        result = Comparison.chainAllowNull(result, %s, %s);%n", self, other);
+    }
+
+    /**
+     * Returns the name of the generated class. Nested classes are prefixed with
+     * the names of their enclosing classes separated by an underscore.
+     */
+    static String generatedName(final TypeElement type) {
+        final StringBuilder name = new StringBuilder(type.getSimpleName());
+        Element enclosing = type.getEnclosingElement();
+        while (enclosing instanceof TypeElement) {
+            name.insert(0, '_').insert(0, enclosing.getSimpleName());
+            enclosing = enclosing.getEnclosingElement();
+        }
+        return name.append(SUFFIX).toString();
+    }
+
+    private static String wildcards(final int count) {
+        final StringBuilder result = new StringBuilder("<");
+        for (int i = 0; i < count; i++) {
+            result.append(i > 0 ? ", ?" : "?");
+        }
+        return result.append(">").toString();
+    }
+
+    private void error(final Element element, final String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    /**
+     * A field used by the generated methods.
+     */
+    private static final class FieldInfo {
+        final VariableElement element;
+        final String name;
+        final String access;
+        final TypeMirror type;
+
+        FieldInfo(final VariableElement element, final String name, final String access) {
+            this.element = element;
+            this.name = name;
+            this.access = access;
+            this.type = element.asType();
+        }
+    }
+}
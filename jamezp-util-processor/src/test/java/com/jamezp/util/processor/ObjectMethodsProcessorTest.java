@@ -0,0 +1,174 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util.processor;
+
+import com.jamezp.util.ObjectHelper;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Locale;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jrp
+ */
+public class ObjectMethodsProcessorTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private static final String POINT = "package test;\n"
+            + "import com.jamezp.util.GenerateObjectMethods;\n"
+            + "@GenerateObjectMethods(compareTo = true, exclude = \"ignored\")\n"
+            + "public class Point implements Comparable<Point> {\n"
+            + "    final String name;\n"
+            + "    final int x;\n"
+            + "    private final long y;\n"
+            + "    final double weight;\n"
+            + "    final char c;\n"
+            + "    final boolean visible;\n"
+            + "    final int[] data;\n"
+            + "    public transient int cached;\n"
+            + "    public int ignored;\n"
+            + "    public Point(String name, int x, long y, double weight, char c, boolean visible, int[] data) {\n"
+            + "        this.name = name; this.x = x; this.y = y; this.weight = weight;\n"
+            + "        this.c = c; this.visible = visible; this.data = data;\n"
+            + "    }\n"
+            + "    public long getY() { return y; }\n"
+            + "    @Override public boolean equals(Object obj) { return PointObjectMethods.equals(this, obj); }\n"
+            + "    @Override public int hashCode() { return PointObjectMethods.hashCode(this); }\n"
+            + "    @Override public String toString() { return PointObjectMethods.toString(this); }\n"
+            + "    @Override public int compareTo(Point other) { return PointObjectMethods.compareTo(this, other); }\n"
+            + "}\n";
+
+    private static final String INVALID = "package test;\n"
+            + "import com.jamezp.util.GenerateObjectMethods;\n"
+            + "@GenerateObjectMethods(compareTo = true, exclude = {\"notComparable\", \"missing\"})\n"
+            + "public class Invalid {\n"
+            + "    private final int hidden = 1;\n"
+            + "    final Object notComparable = null;\n"
+            + "}\n";
+
+    @Test
+    public void testGeneratedMethods() throws Exception {
+        System.out.println("generated object methods");
+        final File dir = compile(POINT, "Point");
+        final URLClassLoader loader = new URLClassLoader(new URL[] {dir.toURI().toURL()},
+                getClass().getClassLoader());
+        try {
+            final Class<?> type = loader.loadClass("test.Point");
+            final Constructor<?> constructor = type.getConstructor(String.class, int.class, long.class,
+                    double.class, char.class, boolean.class, int[].class);
+            final Object p1 = constructor.newInstance("a", 1, 2L, 0.5d, 'c', true, new int[] {1, 2});
+            final Object p2 = constructor.newInstance("a", 1, 2L, 0.5d, 'c', true, new int[] {1, 2});
+            final Object p3 = constructor.newInstance("a", 1, 3L, 0.5d, 'c', true, new int[] {1, 2});
+            final Object p4 = constructor.newInstance(null, 1, 2L, 0.5d, 'c', true, new int[] {1, 3});
+            type.getDeclaredField("cached").setInt(p2, 42);
+            type.getDeclaredField("ignored").setInt(p2, 42);
+
+            assertEquals(p1, p2);
+            assertFalse(p1.equals(p3));
+            assertFalse(p1.equals(p4));
+            assertFalse(p1.equals(null));
+            assertEquals(p1.hashCode(), p2.hashCode());
+            final int expected = ObjectHelper.HashCodeBuilder.builder().add("a").add(1).add(2L).add(0.5d)
+                    .add('c').add(true).add(new int[] {1, 2}).toHashCode();
+            assertEquals(expected, p1.hashCode());
+            assertTrue(p1.toString().startsWith("Point{name=a,x=1,y=2,weight=0.5,c=c,visible=true,data=[I@"));
+
+            final Method compareTo = type.getMethod("compareTo", type);
+            assertEquals(0, compareTo.invoke(p1, p2));
+            assertEquals(-1, compareTo.invoke(p1, p3));
+            assertEquals(1, compareTo.invoke(p3, p1));
+            // Null names are ordered first
+            assertEquals(1, compareTo.invoke(p1, p4));
+        } finally {
+            loader.close();
+        }
+    }
+
+    @Test
+    public void testInvalidFields() throws Exception {
+        System.out.println("invalid fields");
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        assertNull(compile(INVALID, "Invalid", diagnostics));
+        final StringBuilder messages = new StringBuilder();
+        for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            messages.append(diagnostic.getMessage(Locale.ROOT)).append('\n');
+        }
+        assertTrue(messages.toString(), messages.indexOf("Private field hidden requires") >= 0);
+        assertTrue(messages.toString(), messages.indexOf("Excluded field missing is not declared by Invalid") >= 0);
+        assertTrue(messages.toString(), messages.indexOf("notComparable") < 0);
+    }
+
+    private File compile(final String source, final String name) throws IOException {
+        final File dir = compile(source, name, new DiagnosticCollector<JavaFileObject>());
+        assertNotNull("Compilation failed", dir);
+        return dir;
+    }
+
+    /**
+     * Compiles the source with the processor.
+     *
+     * @return the output directory or {@code null} if compilation failed.
+     */
+    private File compile(final String source, final String name,
+            final DiagnosticCollector<JavaFileObject> diagnostics) throws IOException {
+        final File dir = temporaryFolder.newFolder(name);
+        final File pkg = new File(dir, "test");
+        assertTrue(pkg.mkdirs());
+        final File file = new File(pkg, name + ".java");
+        Files.write(file.toPath(), source.getBytes(StandardCharsets.UTF_8));
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null);
+        try {
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics,
+                    Arrays.asList("-d", dir.getAbsolutePath(), "-s", dir.getAbsolutePath(),
+                            "-classpath", System.getProperty("java.class.path")),
+                    null, fileManager.getJavaFileObjects(file));
+            task.setProcessors(Collections.singletonList(new ObjectMethodsProcessor()));
+            return task.call() ? dir : null;
+        } finally {
+            fileManager.close();
+        }
+    }
+}
@@ -45,6 +45,8 @@ public final class StatementBuilder {
 
     private final String sql;
 
+    private StatementTuner tuner;
+
     /**
      * Private constructor for singleton pattern.
      *
@@ -103,6 +105,34 @@ public final class StatementBuilder {
         return this;
     }
 
+    /**
+     * Tunes the statements built with the tuner. The fetch size is set to the
+     * size the tuner chose for the SQL and the statement is measured and its
+     * batches are flushed by the tuner.
+     *
+     * <p>
+     * <strong>A flushed batch is executed by {@code addBatch()}.</strong>
+     * The {@code addBatch()} call that brings the pending rows to the batch
+     * size of the tuner executes them. With auto-commit enabled, these rows
+     * are committed before {@code executeBatch()} is invoked and stay
+     * committed if a later part of the batch fails. Disable auto-commit and
+     * commit or roll back the transaction when the batch must be applied as
+     * a whole. {@code clearBatch()} cannot take back rows already executed,
+     * it only clears the remaining rows. A failing batch throws a
+     * {@link java.sql.BatchUpdateException} whose update counts start with
+     * the counts of the rows executed before.
+     * </p>
+     *
+     * @param tuner the tuner to use or {@code null} to not tune the
+     *              statements.
+     *
+     * @return the current statement builder.
+     */
+    public StatementBuilder tuneWith(final StatementTuner tuner) {
+        this.tuner = tuner;
+        return this;
+    }
+
     /**
      * Builds a callable statement with the parameters that were added.
      * <p>
@@ -116,6 +146,9 @@ public final class StatementBuilder {
         CallableStatement callableStatement = null;
         try {
             callableStatement = connection.prepareCall(sql);
+            if (tuner != null) {
+                callableStatement = tuner.tune(CallableStatement.class, callableStatement, sql);
+            }
             if (!parameters.isEmpty()) {
                 int index = 0;
                 try {
@@ -152,6 +185,9 @@ public final class StatementBuilder {
         PreparedStatement preparedStatement = null;
         try {
             preparedStatement = connection.prepareStatement(sql);
+            if (tuner != null) {
+                preparedStatement = tuner.tune(PreparedStatement.class, preparedStatement, sql);
+            }
             // Parameter number
             if (!parameters.isEmpty()) {
                 int index = 0;
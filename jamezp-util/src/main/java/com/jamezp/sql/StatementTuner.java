@@ -0,0 +1,501 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.sql;
+
+import com.jamezp.util.ObjectHelper;
+import com.jamezp.util.ObjectHelper.ToStringBuilder;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Learns the number of rows and the width of the rows of statements from
+ * past executions and derives fetch sizes and batch sizes from them.
+ *
+ * <p>
+ * Statements are grouped by the {@link #fingerprint(String) fingerprint} of
+ * their SQL, so statements only differing in literals share what was
+ * learned. A query is given a fetch size large enough to fetch all rows it
+ * is expected to return in a single round trip, as long as the rows fit into
+ * the fetch memory budget. A batch is flushed once the rows added fill the
+ * batch memory budget.
+ * </p>
+ *
+ * <p>
+ * Statements built by a {@link StatementBuilder#tuneWith(StatementTuner)
+ * tuned builder} are measured automatically. The width of a row is
+ * estimated from the values read from the result set, or the parameters set
+ * for a batch, so columns that are never read are not accounted for. The
+ * decisions can be inspected with {@link #decision(String)} and
+ * {@link #decisions()}.
+ * </p>
+ *
+ * <p>
+ * A tuner is thread safe and is meant to be shared by the builders of an
+ * application.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ */
+public final class StatementTuner {
+
+    /**
+     * The default fetch memory budget, 4 MiB.
+     */
+    public static final long DEFAULT_FETCH_BUDGET = 4L << 20;
+
+    /**
+     * The default batch memory budget, 4 MiB.
+     */
+    public static final long DEFAULT_BATCH_BUDGET = 4L << 20;
+
+    /**
+     * The smallest fetch size used, unless fewer rows fit into the fetch
+     * memory budget.
+     */
+    public static final int MIN_FETCH_SIZE = 10;
+
+    /**
+     * The largest fetch size used.
+     */
+    public static final int MAX_FETCH_SIZE = 10000;
+
+    /**
+     * The largest batch size used.
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    /**
+     * The fetch size of a statement that was not executed before.
+     */
+    static final int DEFAULT_FETCH_SIZE = 100;
+
+    /**
+     * The row width in bytes assumed until the width of the rows of a
+     * statement was measured.
+     */
+    static final int DEFAULT_ROW_WIDTH = 256;
+
+    /**
+     * The number of fingerprints learned, statements beyond are given the
+     * defaults.
+     */
+    static final int MAX_PROFILES = 1024;
+
+    /**
+     * The weight of the latest execution in the running averages.
+     */
+    private static final double WEIGHT = 0.25d;
+
+    private final ConcurrentMap<String, Profile> profiles = new ConcurrentHashMap<String, Profile>();
+
+    private final long fetchBudget;
+
+    private final long batchBudget;
+
+    private StatementTuner(final long fetchBudget, final long batchBudget) {
+        this.fetchBudget = fetchBudget;
+        this.batchBudget = batchBudget;
+    }
+
+    /**
+     * Creates a new tuner with the {@link #DEFAULT_FETCH_BUDGET default fetch}
+     * and {@link #DEFAULT_BATCH_BUDGET default batch} memory budgets.
+     *
+     * @return the new tuner.
+     */
+    public static StatementTuner create() {
+        return new StatementTuner(DEFAULT_FETCH_BUDGET, DEFAULT_BATCH_BUDGET);
+    }
+
+    /**
+     * Creates a new tuner with the memory budgets.
+     *
+     * @param fetchBudget the number of bytes the rows fetched in one round
+     *                    trip should not exceed.
+     * @param batchBudget the number of bytes the rows of a batch should not
+     *                    exceed before the batch is flushed.
+     * @return the new tuner.
+     */
+    public static StatementTuner create(final long fetchBudget, final long batchBudget) {
+        ObjectHelper.checkArgument(fetchBudget > 0L, "The fetch budget must be positive: %s", fetchBudget);
+        ObjectHelper.checkArgument(batchBudget > 0L, "The batch budget must be positive: %s", batchBudget);
+        return new StatementTuner(fetchBudget, batchBudget);
+    }
+
+    /**
+     * Normalizes the SQL so statements that only differ in literals, case or
+     * white space have the same fingerprint. String and numeric literals are
+     * replaced with {@code ?}.
+     *
+     * @param sql the SQL to create the fingerprint for.
+     * @return the fingerprint.
+     */
+    public static String fingerprint(final String sql) {
+        ObjectHelper.checkNonNull(sql, "The SQL cannot be null");
+        final StringBuilder result = new StringBuilder(sql.length());
+        final int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            final char c = sql.charAt(i);
+            if (c == '\'') {
+                // Skip the literal, a quote is escaped by doubling it
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i++;
+                        } else {
+                            break;
+                        }
+                    }
+                    i++;
+                }
+                result.append('?');
+                i++;
+            } else if (Character.isWhitespace(c)) {
+                while (i < length && Character.isWhitespace(sql.charAt(i))) {
+                    i++;
+                }
+                if (result.length() > 0 && i < length) {
+                    result.append(' ');
+                }
+            } else if (Character.isDigit(c) && !isIdentifierEnd(result)) {
+                while (i < length && (Character.isDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                result.append('?');
+            } else {
+                result.append(Character.toLowerCase(c));
+                i++;
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Returns the fetch size for the statement. It is one more than the
+     * expected number of rows, so the end of the rows is found without an
+     * additional round trip, bounded by the fetch memory budget.
+     *
+     * @param sql the SQL of the statement.
+     * @return the fetch size.
+     */
+    public int fetchSize(final String sql) {
+        return fetchSize(profiles.get(fingerprint(sql)));
+    }
+
+    /**
+     * Returns the number of rows after which a batch of the statement is
+     * flushed, bounded by the batch memory budget.
+     *
+     * @param sql the SQL of the statement.
+     * @return the batch size.
+     */
+    public int batchSize(final String sql) {
+        return batchSize(profiles.get(fingerprint(sql)));
+    }
+
+    /**
+     * Records an execution of a query.
+     *
+     * @param sql   the SQL of the query.
+     * @param rows  the number of rows read.
+     * @param bytes the estimated number of bytes of the rows read.
+     */
+    public void recordQuery(final String sql, final long rows, final long bytes) {
+        final Profile profile = profile(fingerprint(sql));
+        if (profile != null) {
+            profile.recordQuery(rows, bytes);
+        }
+    }
+
+    /**
+     * Records an execution of a batch.
+     *
+     * @param sql   the SQL of the statement.
+     * @param rows  the number of rows added to the batch.
+     * @param bytes the estimated number of bytes of the parameters of the
+     *              rows.
+     */
+    public void recordBatch(final String sql, final long rows, final long bytes) {
+        final Profile profile = profile(fingerprint(sql));
+        if (profile != null) {
+            profile.recordBatch(rows, bytes);
+        }
+    }
+
+    /**
+     * Returns what was learned about the statement and the sizes used for
+     * it.
+     *
+     * @param sql the SQL of the statement.
+     * @return the decision.
+     */
+    public Decision decision(final String sql) {
+        final String fingerprint = fingerprint(sql);
+        return decision(fingerprint, profiles.get(fingerprint));
+    }
+
+    /**
+     * Returns the decisions for all statements recorded.
+     *
+     * @return the decisions.
+     */
+    public List<Decision> decisions() {
+        final List<Decision> result = new ArrayList<Decision>(profiles.size());
+        for (Map.Entry<String, Profile> entry : profiles.entrySet()) {
+            result.add(decision(entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Applies the fetch size to the statement and wraps it, so its
+     * executions are measured and its batches are flushed by this tuner.
+     *
+     * @param type      the type of the statement.
+     * @param statement the statement to tune.
+     * @param sql       the SQL of the statement.
+     * @return the tuned statement.
+     * @throws SQLException if the fetch size could not be set.
+     */
+    <T extends PreparedStatement> T tune(final Class<T> type, final T statement, final String sql)
+            throws SQLException {
+        final String fingerprint = fingerprint(sql);
+        final Profile profile = profile(fingerprint);
+        statement.setFetchSize(fetchSize(profile));
+        if (profile == null) {
+            return statement;
+        }
+        return TunedStatements.wrap(type, statement, this, profile);
+    }
+
+    int fetchSize(final Profile profile) {
+        final int budgetRows = budgetRows(fetchBudget, profile == null ? 0.0d : profile.rowWidth());
+        final int wanted;
+        if (profile == null || profile.queries() == 0L) {
+            wanted = DEFAULT_FETCH_SIZE;
+        } else {
+            wanted = (int) Math.min(MAX_FETCH_SIZE, (long) Math.ceil(profile.rows()) + 1L);
+        }
+        // The budget wins over the minimum, wide rows are fetched a few at a time
+        return Math.max(1, Math.min(Math.max(MIN_FETCH_SIZE, wanted), budgetRows));
+    }
+
+    int batchSize(final Profile profile) {
+        final int budgetRows = budgetRows(batchBudget, profile == null ? 0.0d : profile.batchRowWidth());
+        return Math.max(1, Math.min(MAX_BATCH_SIZE, budgetRows));
+    }
+
+    private Profile profile(final String fingerprint) {
+        Profile profile = profiles.get(fingerprint);
+        if (profile == null && profiles.size() < MAX_PROFILES) {
+            final Profile created = new Profile();
+            profile = profiles.putIfAbsent(fingerprint, created);
+            if (profile == null) {
+                profile = created;
+            }
+        }
+        return profile;
+    }
+
+    private Decision decision(final String fingerprint, final Profile profile) {
+        if (profile == null) {
+            return new Decision(fingerprint, 0L, 0.0d, 0.0d, fetchSize((Profile) null), 0L, 0.0d, batchSize((Profile) null));
+        }
+        synchronized (profile) {
+            return new Decision(fingerprint, profile.queries(), profile.rows(), profile.rowWidth(),
+                    fetchSize(profile), profile.batches(), profile.batchRowWidth(), batchSize(profile));
+        }
+    }
+
+    private static int budgetRows(final long budget, final double rowWidth) {
+        final double width = (rowWidth > 0.0d ? rowWidth : DEFAULT_ROW_WIDTH);
+        return (int) Math.min(Integer.MAX_VALUE, (long) (budget / width));
+    }
+
+    private static boolean isIdentifierEnd(final StringBuilder result) {
+        if (result.length() == 0) {
+            return false;
+        }
+        final char last = result.charAt(result.length() - 1);
+        return Character.isLetterOrDigit(last) || last == '_' || last == '$';
+    }
+
+    /**
+     * The running averages of a statement.
+     */
+    static final class Profile {
+        private long queries;
+        private double rows;
+        private long rowWidths;
+        private double rowWidth;
+        private long batches;
+        private long batchRowWidths;
+        private double batchRowWidth;
+
+        synchronized void recordQuery(final long rows, final long bytes) {
+            this.rows = average(this.rows, rows, queries++);
+            if (rows > 0L && bytes > 0L) {
+                rowWidth = average(rowWidth, (double) bytes / rows, rowWidths++);
+            }
+        }
+
+        synchronized void recordBatch(final long rows, final long bytes) {
+            batches++;
+            if (rows > 0L && bytes > 0L) {
+                batchRowWidth = average(batchRowWidth, (double) bytes / rows, batchRowWidths++);
+            }
+        }
+
+        synchronized long queries() {
+            return queries;
+        }
+
+        synchronized double rows() {
+            return rows;
+        }
+
+        synchronized double rowWidth() {
+            return rowWidth;
+        }
+
+        synchronized long batches() {
+            return batches;
+        }
+
+        synchronized double batchRowWidth() {
+            return batchRowWidth;
+        }
+
+        private static double average(final double average, final double value, final long count) {
+            return (count == 0L ? value : average + WEIGHT * (value - average));
+        }
+    }
+
+    /**
+     * What the tuner learned about a statement and the sizes it uses for the
+     * statement.
+     */
+    public static final class Decision {
+        private final String fingerprint;
+        private final long queries;
+        private final double rows;
+        private final double rowWidth;
+        private final int fetchSize;
+        private final long batches;
+        private final double batchRowWidth;
+        private final int batchSize;
+
+        Decision(final String fingerprint, final long queries, final double rows, final double rowWidth,
+                final int fetchSize, final long batches, final double batchRowWidth, final int batchSize) {
+            this.fingerprint = fingerprint;
+            this.queries = queries;
+            this.rows = rows;
+            this.rowWidth = rowWidth;
+            this.fetchSize = fetchSize;
+            this.batches = batches;
+            this.batchRowWidth = batchRowWidth;
+            this.batchSize = batchSize;
+        }
+
+        /**
+         * @return the fingerprint of the statement.
+         */
+        public String fingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * @return the number of queries recorded.
+         */
+        public long queries() {
+            return queries;
+        }
+
+        /**
+         * @return the running average of the number of rows read by a query.
+         */
+        public double rows() {
+            return rows;
+        }
+
+        /**
+         * @return the running average of the estimated bytes of a row read,
+         *         0 if it was not measured.
+         */
+        public double rowWidth() {
+            return rowWidth;
+        }
+
+        /**
+         * @return the fetch size used.
+         */
+        public int fetchSize() {
+            return fetchSize;
+        }
+
+        /**
+         * @return the number of batches recorded.
+         */
+        public long batches() {
+            return batches;
+        }
+
+        /**
+         * @return the running average of the estimated bytes of the
+         *         parameters of a batch row, 0 if it was not measured.
+         */
+        public double batchRowWidth() {
+            return batchRowWidth;
+        }
+
+        /**
+         * @return the number of rows after which a batch is flushed.
+         */
+        public int batchSize() {
+            return batchSize;
+        }
+
+        @Override
+        public String toString() {
+            return ToStringBuilder.of(this)
+                    .add("fingerprint", fingerprint)
+                    .add("queries", queries)
+                    .add("rows", rows)
+                    .add("rowWidth", rowWidth)
+                    .add("fetchSize", fetchSize)
+                    .add("batches", batches)
+                    .add("batchRowWidth", batchRowWidth)
+                    .add("batchSize", batchSize)
+                    .toString();
+        }
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.sql;
+
+import com.jamezp.sql.StatementTuner.Profile;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+
+/**
+ * Wraps statements so their executions are measured for a
+ * {@link StatementTuner} and their batches are flushed once they reach the
+ * batch size of the tuner.
+ *
+ * <p>
+ * The {@code addBatch()} call that brings the pending rows to the batch size
+ * executes them right away. The update counts are kept and returned together
+ * with the update counts of the remaining rows by {@code executeBatch()}.
+ * With auto-commit enabled each flush is committed on its own, before
+ * {@code executeBatch()} is invoked.
+ * </p>
+ *
+ * <p>
+ * A failing flush throws from {@code addBatch()}. A failing flush or
+ * {@code executeBatch()} ends the batch: it throws a
+ * {@link BatchUpdateException} whose update counts are the counts of the rows
+ * flushed before, followed by the counts the driver reported for the failed
+ * rows, and the next row added starts a new batch.
+ * </p>
+ *
+ * <p>
+ * The rows of a flushed batch cannot be taken back. {@code clearBatch()}
+ * only clears the rows not executed yet and discards the update counts of
+ * the flushed rows.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ */
+final class TunedStatements {
+
+    /**
+     * The estimated bytes of a value besides its payload.
+     */
+    static final int VALUE_OVERHEAD = 16;
+
+    private TunedStatements() {
+    }
+
+    static <T extends PreparedStatement> T wrap(final Class<T> type, final T statement,
+            final StatementTuner tuner, final Profile profile) {
+        return proxy(type, new StatementHandler(statement, tuner, profile));
+    }
+
+    /**
+     * Estimates the bytes the value takes up, the payload plus a fixed
+     * overhead.
+     *
+     * @param value the value.
+     * @return the estimated size of the value.
+     */
+    static long estimateSize(final Object value) {
+        if (value == null) {
+            return VALUE_OVERHEAD;
+        }
+        if (value instanceof CharSequence) {
+            return VALUE_OVERHEAD + 2L * ((CharSequence) value).length();
+        }
+        if (value instanceof byte[]) {
+            return VALUE_OVERHEAD + ((byte[]) value).length;
+        }
+        if (value instanceof char[]) {
+            return VALUE_OVERHEAD + 2L * ((char[]) value).length;
+        }
+        return VALUE_OVERHEAD + 8;
+    }
+
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(TunedStatements.class.getClassLoader(), new Class<?>[] {type},
+                handler));
+    }
+
+    private static Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static final class StatementHandler implements InvocationHandler {
+        private final PreparedStatement statement;
+        private final StatementTuner tuner;
+        private final Profile profile;
+        private ResultSetHandler results;
+        private long rowBytes;
+        private int pendingRows;
+        private long pendingBytes;
+        private int[] flushedCounts = new int[0];
+
+        StatementHandler(final PreparedStatement statement, final StatementTuner tuner, final Profile profile) {
+            this.statement = statement;
+            this.tuner = tuner;
+            this.profile = profile;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final String name = method.getName();
+            final int arity = (args == null ? 0 : args.length);
+            if ("equals".equals(name) && arity == 1) {
+                return proxy == args[0];
+            }
+            if (name.startsWith("set") && arity >= 2) {
+                rowBytes += estimateSize("setNull".equals(name) ? null : args[1]);
+            } else if ("addBatch".equals(name) && arity == 0) {
+                statement.addBatch();
+                pendingRows++;
+                pendingBytes += rowBytes;
+                rowBytes = 0L;
+                if (pendingRows >= tuner.batchSize(profile)) {
+                    flush();
+                }
+                return null;
+            } else if ("executeBatch".equals(name)) {
+                final int[] flushed = flushedCounts;
+                try {
+                    final int[] counts = statement.executeBatch();
+                    recordBatch();
+                    return concat(flushed, counts);
+                } catch (SQLException e) {
+                    throw failed(flushed, e);
+                } finally {
+                    endBatch();
+                }
+            } else if ("executeLargeBatch".equals(name)) {
+                final int[] flushed = flushedCounts;
+                try {
+                    final long[] counts = statement.executeLargeBatch();
+                    recordBatch();
+                    return concat(toLong(flushed), counts);
+                } catch (SQLException e) {
+                    throw failedLarge(flushed, e);
+                } finally {
+                    endBatch();
+                }
+            } else if ("clearBatch".equals(name)) {
+                statement.clearBatch();
+                rowBytes = 0L;
+                endBatch();
+                return null;
+            } else if (("executeQuery".equals(name) || "getResultSet".equals(name)) && arity == 0) {
+                finishResults();
+                final ResultSet resultSet = (ResultSet) TunedStatements.invoke(statement, method, args);
+                if (resultSet == null) {
+                    return null;
+                }
+                results = new ResultSetHandler(resultSet, proxy, profile);
+                return proxy(ResultSet.class, results);
+            } else if ("close".equals(name)) {
+                finishResults();
+            }
+            return TunedStatements.invoke(statement, method, args);
+        }
+
+        private void flush() throws SQLException {
+            final int[] counts;
+            try {
+                counts = statement.executeBatch();
+            } catch (SQLException e) {
+                final int[] flushed = flushedCounts;
+                endBatch();
+                throw failed(flushed, e);
+            }
+            recordBatch();
+            flushedCounts = concat(flushedCounts, counts);
+        }
+
+        /**
+         * Forgets the pending rows and the flushed update counts, the next
+         * row added starts a new batch.
+         */
+        private void endBatch() {
+            pendingRows = 0;
+            pendingBytes = 0L;
+            flushedCounts = new int[0];
+        }
+
+        private void recordBatch() {
+            if (pendingRows > 0) {
+                profile.recordBatch(pendingRows, pendingBytes);
+            }
+            pendingRows = 0;
+            pendingBytes = 0L;
+        }
+
+        private void finishResults() {
+            if (results != null) {
+                results.finish();
+                results = null;
+            }
+        }
+
+        /**
+         * Creates the exception of a failed batch, its update counts are the
+         * flushed counts followed by the counts of the failed batch.
+         */
+        private static SQLException failed(final int[] flushed, final SQLException e) {
+            final int[] counts = (e instanceof BatchUpdateException ? ((BatchUpdateException) e).getUpdateCounts()
+                    : null);
+            if (flushed.length == 0) {
+                return e;
+            }
+            return new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(),
+                    concat(flushed, counts == null ? new int[0] : counts), e);
+        }
+
+        private static SQLException failedLarge(final int[] flushed, final SQLException e) {
+            final long[] counts = (e instanceof BatchUpdateException
+                    ? ((BatchUpdateException) e).getLargeUpdateCounts() : null);
+            if (flushed.length == 0) {
+                return e;
+            }
+            return new BatchUpdateException(e.getMessage(), e.getSQLState(), e.getErrorCode(),
+                    concat(toLong(flushed), counts == null ? new long[0] : counts), e);
+        }
+
+        private static long[] toLong(final int[] counts) {
+            final long[] result = new long[counts.length];
+            for (int i = 0; i < counts.length; i++) {
+                result[i] = counts[i];
+            }
+            return result;
+        }
+
+        private static long[] concat(final long[] first, final long[] second) {
+            if (first.length == 0) {
+                return second;
+            }
+            final long[] result = Arrays.copyOf(first, first.length + second.length);
+            System.arraycopy(second, 0, result, first.length, second.length);
+            return result;
+        }
+
+        private static int[] concat(final int[] first, final int[] second) {
+            if (first.length == 0) {
+                return second;
+            }
+            final int[] result = Arrays.copyOf(first, first.length + second.length);
+            System.arraycopy(second, 0, result, first.length, second.length);
+            return result;
+        }
+    }
+
+    private static final class ResultSetHandler implements InvocationHandler {
+        private final ResultSet resultSet;
+        private final Object statement;
+        private final Profile profile;
+        private long rows;
+        private long bytes;
+        private boolean finished;
+
+        ResultSetHandler(final ResultSet resultSet, final Object statement, final Profile profile) {
+            this.resultSet = resultSet;
+            this.statement = statement;
+            this.profile = profile;
+        }
+
+        @Override
+        public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            final String name = method.getName();
+            final int arity = (args == null ? 0 : args.length);
+            if ("equals".equals(name) && arity == 1) {
+                return proxy == args[0];
+            }
+            if ("next".equals(name)) {
+                final boolean next = resultSet.next();
+                if (next) {
+                    rows++;
+                } else {
+                    finish();
+                }
+                return next;
+            }
+            if ("getStatement".equals(name)) {
+                return statement;
+            }
+            if ("close".equals(name)) {
+                finish();
+            }
+            final Object result = TunedStatements.invoke(resultSet, method, args);
+            if (name.startsWith("get") && arity >= 1) {
+                bytes += estimateSize(result);
+            }
+            return result;
+        }
+
+        void finish() {
+            if (!finished) {
+                finished = true;
+                profile.recordQuery(rows, bytes);
+            }
+        }
+    }
+}
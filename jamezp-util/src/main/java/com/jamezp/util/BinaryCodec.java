@@ -0,0 +1,68 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes values of a type to and decodes them from a {@link ByteBuffer}.
+ *
+ * <p>
+ * A codec writes at and advances the position of the buffer. When the buffer
+ * does not have room for the whole value, or does not hold the whole value
+ * when reading, the codec throws a
+ * {@link java.nio.BufferOverflowException BufferOverflowException} or
+ * {@link java.nio.BufferUnderflowException BufferUnderflowException}. The
+ * position of the buffer is then undefined, {@link BinaryWriter} and
+ * {@link BinaryReader} rewind it and retry once more room or data is
+ * available.
+ * </p>
+ *
+ * <p>
+ * Codecs for common types and for pairs are available from
+ * {@link BinaryCodecs}.
+ * </p>
+ *
+ * @param <T> the type of the values.
+ * @author James R. Perkins (JRP)
+ */
+public interface BinaryCodec<T> {
+
+    /**
+     * Writes the value to the buffer.
+     *
+     * @param value the value to write.
+     * @param out   the buffer to write to.
+     */
+    void write(T value, ByteBuffer out);
+
+    /**
+     * Reads a value from the buffer.
+     *
+     * @param in the buffer to read from.
+     * @return the value read.
+     */
+    T read(ByteBuffer in);
+}
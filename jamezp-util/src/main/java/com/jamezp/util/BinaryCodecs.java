@@ -0,0 +1,538 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import static com.jamezp.util.ObjectHelper.checkNonNull;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact {@link BinaryCodec}s for common types, pairs and the primitive
+ * pairs, and the variable length number encoding they are built on.
+ *
+ * <p>
+ * Integers are written as zig-zag encoded variable length numbers, seven bits
+ * per byte, so small positive and negative values take a single byte.
+ * Floating point numbers are written as their fixed size IEEE 754 bits,
+ * strings and byte arrays as their length followed by the bytes. No class
+ * names or field descriptors are written, the reader must use the same codec
+ * as the writer.
+ * </p>
+ * <pre>
+ * final BinaryCodec&lt;Pair&lt;String, Long&gt;&gt; codec = BinaryCodecs.pair(BinaryCodecs.STRING, BinaryCodecs.LONG);
+ * final BinaryWriter&lt;Pair&lt;String, Long&gt;&gt; writer = BinaryWriter.of(codec, channel);
+ * for (Pair&lt;String, Long&gt; pair : pairs) {
+ *     writer.write(pair);
+ * }
+ * writer.close();
+ * </pre>
+ *
+ * <p>
+ * The codecs do not accept {@code null} values unless wrapped with
+ * {@link #nullable(BinaryCodec)}. All codecs are thread-safe.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ */
+public final class BinaryCodecs {
+
+    /**
+     * Zig-zag encoded variable length {@code int}s.
+     */
+    public static final BinaryCodec<Integer> INT = new BinaryCodec<Integer>() {
+        @Override
+        public void write(final Integer value, final ByteBuffer out) {
+            writeVarInt(out, zigZag(value));
+        }
+
+        @Override
+        public Integer read(final ByteBuffer in) {
+            return unZigZag(readVarInt(in));
+        }
+    };
+
+    /**
+     * Zig-zag encoded variable length {@code long}s.
+     */
+    public static final BinaryCodec<Long> LONG = new BinaryCodec<Long>() {
+        @Override
+        public void write(final Long value, final ByteBuffer out) {
+            writeVarLong(out, zigZag(value));
+        }
+
+        @Override
+        public Long read(final ByteBuffer in) {
+            return unZigZag(readVarLong(in));
+        }
+    };
+
+    /**
+     * Eight byte {@code double}s.
+     */
+    public static final BinaryCodec<Double> DOUBLE = new BinaryCodec<Double>() {
+        @Override
+        public void write(final Double value, final ByteBuffer out) {
+            out.putDouble(value);
+        }
+
+        @Override
+        public Double read(final ByteBuffer in) {
+            return in.getDouble();
+        }
+    };
+
+    /**
+     * Four byte {@code float}s.
+     */
+    public static final BinaryCodec<Float> FLOAT = new BinaryCodec<Float>() {
+        @Override
+        public void write(final Float value, final ByteBuffer out) {
+            out.putFloat(value);
+        }
+
+        @Override
+        public Float read(final ByteBuffer in) {
+            return in.getFloat();
+        }
+    };
+
+    /**
+     * Single byte {@code boolean}s.
+     */
+    public static final BinaryCodec<Boolean> BOOLEAN = new BinaryCodec<Boolean>() {
+        @Override
+        public void write(final Boolean value, final ByteBuffer out) {
+            out.put(value ? (byte) 1 : (byte) 0);
+        }
+
+        @Override
+        public Boolean read(final ByteBuffer in) {
+            return readBoolean(in);
+        }
+    };
+
+    /**
+     * Length prefixed UTF-8 strings.
+     */
+    public static final BinaryCodec<String> STRING = new BinaryCodec<String>() {
+        @Override
+        public void write(final String value, final ByteBuffer out) {
+            final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(out, bytes.length);
+            out.put(bytes);
+        }
+
+        @Override
+        public String read(final ByteBuffer in) {
+            final int length = readLength(in);
+            final int position = in.position();
+            if (in.hasArray()) {
+                final String value = new String(in.array(), in.arrayOffset() + position, length,
+                        StandardCharsets.UTF_8);
+                in.position(position + length);
+                return value;
+            }
+            final byte[] bytes = new byte[length];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * Length prefixed byte arrays.
+     */
+    public static final BinaryCodec<byte[]> BYTES = new BinaryCodec<byte[]>() {
+        @Override
+        public void write(final byte[] value, final ByteBuffer out) {
+            writeVarInt(out, value.length);
+            out.put(value);
+        }
+
+        @Override
+        public byte[] read(final ByteBuffer in) {
+            final byte[] bytes = new byte[readLength(in)];
+            in.get(bytes);
+            return bytes;
+        }
+    };
+
+    /**
+     * {@link IntIntPair}s as two zig-zag encoded variable length numbers.
+     */
+    public static final BinaryCodec<IntIntPair> INT_INT_PAIR = new BinaryCodec<IntIntPair>() {
+        @Override
+        public void write(final IntIntPair value, final ByteBuffer out) {
+            writeVarInt(out, zigZag(value.first()));
+            writeVarInt(out, zigZag(value.second()));
+        }
+
+        @Override
+        public IntIntPair read(final ByteBuffer in) {
+            final int first = unZigZag(readVarInt(in));
+            return IntIntPair.of(first, unZigZag(readVarInt(in)));
+        }
+    };
+
+    /**
+     * {@link IntLongPair}s as two zig-zag encoded variable length numbers.
+     */
+    public static final BinaryCodec<IntLongPair> INT_LONG_PAIR = new BinaryCodec<IntLongPair>() {
+        @Override
+        public void write(final IntLongPair value, final ByteBuffer out) {
+            writeVarInt(out, zigZag(value.first()));
+            writeVarLong(out, zigZag(value.second()));
+        }
+
+        @Override
+        public IntLongPair read(final ByteBuffer in) {
+            final int first = unZigZag(readVarInt(in));
+            return IntLongPair.of(first, unZigZag(readVarLong(in)));
+        }
+    };
+
+    /**
+     * {@link LongIntPair}s as two zig-zag encoded variable length numbers.
+     */
+    public static final BinaryCodec<LongIntPair> LONG_INT_PAIR = new BinaryCodec<LongIntPair>() {
+        @Override
+        public void write(final LongIntPair value, final ByteBuffer out) {
+            writeVarLong(out, zigZag(value.first()));
+            writeVarInt(out, zigZag(value.second()));
+        }
+
+        @Override
+        public LongIntPair read(final ByteBuffer in) {
+            final long first = unZigZag(readVarLong(in));
+            return LongIntPair.of(first, unZigZag(readVarInt(in)));
+        }
+    };
+
+    /**
+     * {@link LongLongPair}s as two zig-zag encoded variable length numbers.
+     */
+    public static final BinaryCodec<LongLongPair> LONG_LONG_PAIR = new BinaryCodec<LongLongPair>() {
+        @Override
+        public void write(final LongLongPair value, final ByteBuffer out) {
+            writeVarLong(out, zigZag(value.first()));
+            writeVarLong(out, zigZag(value.second()));
+        }
+
+        @Override
+        public LongLongPair read(final ByteBuffer in) {
+            final long first = unZigZag(readVarLong(in));
+            return LongLongPair.of(first, unZigZag(readVarLong(in)));
+        }
+    };
+
+    private BinaryCodecs() {
+    }
+
+    /**
+     * Creates a codec which allows {@code null} values, written as a single
+     * byte flag followed by the value if it is not {@code null}.
+     *
+     * @param <T>   the type of the values.
+     * @param codec the codec of the {@code non-null} values.
+     * @return the new codec.
+     */
+    public static <T> BinaryCodec<T> nullable(final BinaryCodec<T> codec) {
+        checkNonNull(codec, "The codec cannot be null.");
+        return new BinaryCodec<T>() {
+            @Override
+            public void write(final T value, final ByteBuffer out) {
+                if (value == null) {
+                    out.put((byte) 0);
+                } else {
+                    out.put((byte) 1);
+                    codec.write(value, out);
+                }
+            }
+
+            @Override
+            public T read(final ByteBuffer in) {
+                return readBoolean(in) ? codec.read(in) : null;
+            }
+        };
+    }
+
+    /**
+     * Creates a codec of pairs, the components are written one after the
+     * other. Wrap the component codecs with {@link #nullable(BinaryCodec)} if
+     * the components may be {@code null}.
+     *
+     * @param <T1>   the type of the first components.
+     * @param <T2>   the type of the second components.
+     * @param first  the codec of the first components.
+     * @param second the codec of the second components.
+     * @return the new codec.
+     */
+    public static <T1, T2> BinaryCodec<Pair<T1, T2>> pair(final BinaryCodec<T1> first,
+            final BinaryCodec<T2> second) {
+        checkNonNull(first, "The first codec cannot be null.");
+        checkNonNull(second, "The second codec cannot be null.");
+        return new BinaryCodec<Pair<T1, T2>>() {
+            @Override
+            public void write(final Pair<T1, T2> value, final ByteBuffer out) {
+                first.write(value.first(), out);
+                second.write(value.second(), out);
+            }
+
+            @Override
+            public Pair<T1, T2> read(final ByteBuffer in) {
+                final T1 f = first.read(in);
+                return Pair.of(f, second.read(in));
+            }
+        };
+    }
+
+    /**
+     * Creates a codec of {@link IntObjPair}s.
+     *
+     * @param <T>   the type of the second components.
+     * @param codec the codec of the second components.
+     * @return the new codec.
+     */
+    public static <T> BinaryCodec<IntObjPair<T>> intObjPair(final BinaryCodec<T> codec) {
+        checkNonNull(codec, "The codec cannot be null.");
+        return new BinaryCodec<IntObjPair<T>>() {
+            @Override
+            public void write(final IntObjPair<T> value, final ByteBuffer out) {
+                writeVarInt(out, zigZag(value.first()));
+                codec.write(value.second(), out);
+            }
+
+            @Override
+            public IntObjPair<T> read(final ByteBuffer in) {
+                final int first = unZigZag(readVarInt(in));
+                return IntObjPair.of(first, codec.read(in));
+            }
+        };
+    }
+
+    /**
+     * Creates a codec of {@link LongObjPair}s.
+     *
+     * @param <T>   the type of the second components.
+     * @param codec the codec of the second components.
+     * @return the new codec.
+     */
+    public static <T> BinaryCodec<LongObjPair<T>> longObjPair(final BinaryCodec<T> codec) {
+        checkNonNull(codec, "The codec cannot be null.");
+        return new BinaryCodec<LongObjPair<T>>() {
+            @Override
+            public void write(final LongObjPair<T> value, final ByteBuffer out) {
+                writeVarLong(out, zigZag(value.first()));
+                codec.write(value.second(), out);
+            }
+
+            @Override
+            public LongObjPair<T> read(final ByteBuffer in) {
+                final long first = unZigZag(readVarLong(in));
+                return LongObjPair.of(first, codec.read(in));
+            }
+        };
+    }
+
+    /**
+     * Creates a codec of {@link ObjIntPair}s.
+     *
+     * @param <T>   the type of the first components.
+     * @param codec the codec of the first components.
+     * @return the new codec.
+     */
+    public static <T> BinaryCodec<ObjIntPair<T>> objIntPair(final BinaryCodec<T> codec) {
+        checkNonNull(codec, "The codec cannot be null.");
+        return new BinaryCodec<ObjIntPair<T>>() {
+            @Override
+            public void write(final ObjIntPair<T> value, final ByteBuffer out) {
+                codec.write(value.first(), out);
+                writeVarInt(out, zigZag(value.second()));
+            }
+
+            @Override
+            public ObjIntPair<T> read(final ByteBuffer in) {
+                final T first = codec.read(in);
+                return ObjIntPair.of(first, unZigZag(readVarInt(in)));
+            }
+        };
+    }
+
+    /**
+     * Creates a codec of {@link ObjLongPair}s.
+     *
+     * @param <T>   the type of the first components.
+     * @param codec the codec of the first components.
+     * @return the new codec.
+     */
+    public static <T> BinaryCodec<ObjLongPair<T>> objLongPair(final BinaryCodec<T> codec) {
+        checkNonNull(codec, "The codec cannot be null.");
+        return new BinaryCodec<ObjLongPair<T>>() {
+            @Override
+            public void write(final ObjLongPair<T> value, final ByteBuffer out) {
+                codec.write(value.first(), out);
+                writeVarLong(out, zigZag(value.second()));
+            }
+
+            @Override
+            public ObjLongPair<T> read(final ByteBuffer in) {
+                final T first = codec.read(in);
+                return ObjLongPair.of(first, unZigZag(readVarLong(in)));
+            }
+        };
+    }
+
+    /**
+     * Zig-zag encodes the value, mapping small negative and positive values to
+     * small positive values.
+     *
+     * @param value the value to encode.
+     * @return the encoded value.
+     */
+    public static int zigZag(final int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    /**
+     * Zig-zag encodes the value, mapping small negative and positive values to
+     * small positive values.
+     *
+     * @param value the value to encode.
+     * @return the encoded value.
+     */
+    public static long zigZag(final long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * Decodes a zig-zag encoded value.
+     *
+     * @param value the encoded value.
+     * @return the decoded value.
+     */
+    public static int unZigZag(final int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Decodes a zig-zag encoded value.
+     *
+     * @param value the encoded value.
+     * @return the decoded value.
+     */
+    public static long unZigZag(final long value) {
+        return (value >>> 1) ^ -(value & 1L);
+    }
+
+    /**
+     * Writes the value as an unsigned variable length number of one to five
+     * bytes.
+     *
+     * @param out   the buffer to write to.
+     * @param value the value to write.
+     */
+    public static void writeVarInt(final ByteBuffer out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Writes the value as an unsigned variable length number of one to ten
+     * bytes.
+     *
+     * @param out   the buffer to write to.
+     * @param value the value to write.
+     */
+    public static void writeVarLong(final ByteBuffer out, long value) {
+        while ((value & ~0x7FL) != 0L) {
+            out.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.put((byte) value);
+    }
+
+    /**
+     * Reads an unsigned variable length number written by
+     * {@link #writeVarInt(ByteBuffer, int)}.
+     *
+     * @param in the buffer to read from.
+     * @return the value read.
+     */
+    public static int readVarInt(final ByteBuffer in) {
+        int result = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            final byte b = in.get();
+            result |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable length int");
+    }
+
+    /**
+     * Reads an unsigned variable length number written by
+     * {@link #writeVarLong(ByteBuffer, long)}.
+     *
+     * @param in the buffer to read from.
+     * @return the value read.
+     */
+    public static long readVarLong(final ByteBuffer in) {
+        long result = 0L;
+        for (int shift = 0; shift < 70; shift += 7) {
+            final byte b = in.get();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed variable length long");
+    }
+
+    private static boolean readBoolean(final ByteBuffer in) {
+        final byte b = in.get();
+        if (b == 0) {
+            return false;
+        }
+        if (b == 1) {
+            return true;
+        }
+        throw new IllegalArgumentException(String.format("Malformed boolean: %d", b));
+    }
+
+    private static int readLength(final ByteBuffer in) {
+        final int length = readVarInt(in);
+        if (length < 0) {
+            throw new IllegalArgumentException(String.format("Malformed length: %d", length));
+        }
+        if (length > in.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return length;
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import static com.jamezp.util.ObjectHelper.checkArgument;
+import static com.jamezp.util.ObjectHelper.checkNonNull;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.NoSuchElementException;
+
+/**
+ * Reads values encoded with a {@link BinaryCodec} from a channel in batches,
+ * or from a buffer such as a memory-mapped file.
+ *
+ * <pre>
+ * try (FileChannel file = FileChannel.open(path)) {
+ *     final BinaryReader&lt;LongLongPair&gt; reader = BinaryReader.of(BinaryCodecs.LONG_LONG_PAIR,
+ *             file.map(FileChannel.MapMode.READ_ONLY, 0L, file.size()));
+ *     while (reader.hasNext()) {
+ *         process(reader.next());
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>
+ * The reader is not thread-safe.
+ * </p>
+ *
+ * @param <T> the type of the values.
+ * @author James R. Perkins (JRP)
+ * @see BinaryWriter
+ */
+public final class BinaryReader<T> implements Closeable {
+
+    private final BinaryCodec<T> codec;
+
+    private final ReadableByteChannel channel;
+
+    private ByteBuffer buffer;
+
+    private boolean endOfInput;
+
+    /**
+     * Private constructor for factory methods.
+     *
+     * @param codec   the codec of the values.
+     * @param channel the channel to read from, {@code null} to only read the
+     *                buffer.
+     * @param buffer  the buffer, ready to be read.
+     */
+    private BinaryReader(final BinaryCodec<T> codec, final ReadableByteChannel channel, final ByteBuffer buffer) {
+        this.codec = codec;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.endOfInput = channel == null;
+    }
+
+    /**
+     * Creates a new reader of the remaining bytes of the buffer. The buffer is
+     * read from its position without being copied.
+     *
+     * @param <T>    the type of the values.
+     * @param codec  the codec of the values.
+     * @param buffer the buffer to read, for example a mapped file.
+     * @return the new reader.
+     */
+    public static <T> BinaryReader<T> of(final BinaryCodec<T> codec, final ByteBuffer buffer) {
+        checkNonNull(codec, "The codec cannot be null.");
+        checkNonNull(buffer, "The buffer cannot be null.");
+        return new BinaryReader<T>(codec, null, buffer);
+    }
+
+    /**
+     * Creates a new reader of a channel with the default batch size.
+     *
+     * @param <T>     the type of the values.
+     * @param codec   the codec of the values.
+     * @param channel the channel to read from.
+     * @return the new reader.
+     */
+    public static <T> BinaryReader<T> of(final BinaryCodec<T> codec, final ReadableByteChannel channel) {
+        return of(codec, channel, BinaryWriter.DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a new reader of a channel.
+     *
+     * @param <T>       the type of the values.
+     * @param codec     the codec of the values.
+     * @param channel   the channel to read from.
+     * @param batchSize the size of the batches in bytes.
+     * @return the new reader.
+     */
+    public static <T> BinaryReader<T> of(final BinaryCodec<T> codec, final ReadableByteChannel channel,
+            final int batchSize) {
+        checkNonNull(codec, "The codec cannot be null.");
+        checkNonNull(channel, "The channel cannot be null.");
+        checkArgument(batchSize > 0, "Invalid batch size: %d", batchSize);
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(batchSize);
+        ((Buffer) buffer).flip();
+        return new BinaryReader<T>(codec, channel, buffer);
+    }
+
+    /**
+     * Checks whether there is another value.
+     *
+     * @return {@code true} if there is another value, otherwise
+     *         {@code false}.
+     * @throws IOException if the channel could not be read.
+     */
+    public boolean hasNext() throws IOException {
+        while (!buffer.hasRemaining()) {
+            if (!fill()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the next value.
+     *
+     * @return the value.
+     * @throws IOException if the channel could not be read or the input ends
+     *                     within a value.
+     */
+    public T next() throws IOException {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        for (;;) {
+            final int position = buffer.position();
+            try {
+                return codec.read(buffer);
+            } catch (BufferUnderflowException e) {
+                ((Buffer) buffer).position(position);
+                if (!fill()) {
+                    throw new EOFException(String.format("The input ended within a value, %d bytes remaining",
+                            buffer.remaining()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Closes the channel, if the reader reads a channel.
+     *
+     * @throws IOException if the channel could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads more bytes from the channel, keeping the remaining bytes.
+     *
+     * @return {@code true} if bytes were read, {@code false} at the end of the
+     *         input.
+     */
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        if (buffer.remaining() == buffer.capacity()) {
+            // A single value is larger than the buffer
+            final ByteBuffer larger = ByteBuffer.allocateDirect(buffer.capacity() << 1);
+            larger.put(buffer);
+            buffer = larger;
+        } else {
+            buffer.compact();
+        }
+        try {
+            int read;
+            while ((read = channel.read(buffer)) == 0) {
+                // Keep reading until a byte arrives
+            }
+            if (read < 0) {
+                endOfInput = true;
+                return false;
+            }
+            return true;
+        } finally {
+            ((Buffer) buffer).flip();
+        }
+    }
+}
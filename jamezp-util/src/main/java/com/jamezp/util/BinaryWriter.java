@@ -0,0 +1,184 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import static com.jamezp.util.ObjectHelper.checkArgument;
+import static com.jamezp.util.ObjectHelper.checkNonNull;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes values encoded with a {@link BinaryCodec} to a channel in batches.
+ *
+ * <p>
+ * Values are encoded into a buffer which is written to the channel once it is
+ * full. A value larger than the buffer grows the buffer. Closing the writer
+ * writes the remaining values and closes the channel.
+ * </p>
+ *
+ * <p>
+ * The writer is not thread-safe.
+ * </p>
+ *
+ * @param <T> the type of the values.
+ * @author James R. Perkins (JRP)
+ * @see BinaryReader
+ */
+public final class BinaryWriter<T> implements Closeable, Flushable {
+
+    /**
+     * The default size of a batch in bytes.
+     */
+    static final int DEFAULT_BATCH_SIZE = 1 << 16;
+
+    private final BinaryCodec<T> codec;
+
+    private final WritableByteChannel channel;
+
+    private ByteBuffer buffer;
+
+    private long count;
+
+    /**
+     * Private constructor for factory methods.
+     *
+     * @param codec     the codec of the values.
+     * @param channel   the channel to write to.
+     * @param batchSize the size of the batches in bytes.
+     */
+    private BinaryWriter(final BinaryCodec<T> codec, final WritableByteChannel channel, final int batchSize) {
+        this.codec = codec;
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocateDirect(batchSize);
+    }
+
+    /**
+     * Creates a new writer with the default batch size.
+     *
+     * @param <T>     the type of the values.
+     * @param codec   the codec of the values.
+     * @param channel the channel to write to.
+     * @return the new writer.
+     */
+    public static <T> BinaryWriter<T> of(final BinaryCodec<T> codec, final WritableByteChannel channel) {
+        return of(codec, channel, DEFAULT_BATCH_SIZE);
+    }
+
+    /**
+     * Creates a new writer.
+     *
+     * @param <T>       the type of the values.
+     * @param codec     the codec of the values.
+     * @param channel   the channel to write to.
+     * @param batchSize the size of the batches in bytes.
+     * @return the new writer.
+     */
+    public static <T> BinaryWriter<T> of(final BinaryCodec<T> codec, final WritableByteChannel channel,
+            final int batchSize) {
+        checkNonNull(codec, "The codec cannot be null.");
+        checkNonNull(channel, "The channel cannot be null.");
+        checkArgument(batchSize > 0, "Invalid batch size: %d", batchSize);
+        return new BinaryWriter<T>(codec, channel, batchSize);
+    }
+
+    /**
+     * Writes the value. If the codec fails, nothing of the value is written
+     * and the exception is rethrown.
+     *
+     * @param value the value to write.
+     * @throws IOException if the batch could not be written to the channel.
+     */
+    public void write(final T value) throws IOException {
+        for (;;) {
+            final int position = buffer.position();
+            try {
+                codec.write(value, buffer);
+                count++;
+                return;
+            } catch (BufferOverflowException e) {
+                ((Buffer) buffer).position(position);
+                if (position == 0) {
+                    // The value alone does not fit
+                    if (buffer.capacity() > Integer.MAX_VALUE >> 1) {
+                        throw e;
+                    }
+                    buffer = ByteBuffer.allocateDirect(buffer.capacity() << 1);
+                } else {
+                    flush();
+                }
+            } catch (RuntimeException e) {
+                // Drop the partially written value so the batch stays readable
+                ((Buffer) buffer).position(position);
+                throw e;
+            } catch (Error e) {
+                ((Buffer) buffer).position(position);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of values written.
+     *
+     * @return the number of values.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Writes the buffered values to the channel.
+     *
+     * @throws IOException if the values could not be written.
+     */
+    @Override
+    public void flush() throws IOException {
+        ((Buffer) buffer).flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        ((Buffer) buffer).clear();
+    }
+
+    /**
+     * Writes the buffered values and closes the channel.
+     *
+     * @throws IOException if the values could not be written or the channel
+     *                     could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
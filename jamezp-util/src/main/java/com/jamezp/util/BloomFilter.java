@@ -0,0 +1,290 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe Bloom filter.
+ *
+ * <p>
+ * Keys are given to the filter as a 64-bit hash, typically calculated with a
+ * {@link Hash64Builder}:
+ * </p>
+ * <pre>
+ * final BloomFilter filter = BloomFilter.create(1000000, 0.01);
+ * final Hash64Builder key = Hash64Builder.builder();
+ * filter.put(key.add(customerId).add(region));
+ * ...
+ * if (filter.mightContain(key.reset().add(customerId).add(region))) {
+ *     // query the database
+ * }
+ * </pre>
+ *
+ * <p>
+ * The bit positions of a key are derived from its hash with double hashing.
+ * Bits are set with compare-and-set, so any number of threads can insert
+ * and query concurrently without locking.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ * @see CountMinSketch
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray bits;
+
+    private final long bitSize;
+
+    private final int numHashes;
+
+    /**
+     * Private constructor for factory methods.
+     *
+     * @param bits      the bits of the filter.
+     * @param bitSize   the number of bits used.
+     * @param numHashes the number of bits set per key.
+     */
+    private BloomFilter(final AtomicLongArray bits, final long bitSize, final int numHashes) {
+        this.bits = bits;
+        this.bitSize = bitSize;
+        this.numHashes = numHashes;
+    }
+
+    /**
+     * Creates a new Bloom filter sized for the expected number of insertions
+     * and the desired false positive probability.
+     *
+     * @param expectedInsertions the number of keys expected to be inserted.
+     * @param fpp                the desired false positive probability,
+     *                           greater than 0 and less than 1.
+     * @return the new Bloom filter.
+     */
+    public static BloomFilter create(final long expectedInsertions, final double fpp) {
+        if (expectedInsertions < 1) {
+            throw new IllegalArgumentException(String.format(
+                    "The expected insertions must be positive: %d", expectedInsertions));
+        }
+        if (!(fpp > 0.0d && fpp < 1.0d)) {
+            throw new IllegalArgumentException(String.format(
+                    "The false positive probability must be between 0 and 1: %s", fpp));
+        }
+        final double ln2 = Math.log(2.0d);
+        final long bitSize = Math.max(64L,
+                (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (ln2 * ln2)));
+        final int numHashes = Math.max(1,
+                (int) Math.round((double) bitSize / expectedInsertions * ln2));
+        return create(bitSize, numHashes);
+    }
+
+    /**
+     * Creates a new Bloom filter with the exact number of bits and hash
+     * functions.
+     *
+     * @param bitSize   the number of bits.
+     * @param numHashes the number of bits set per key.
+     * @return the new Bloom filter.
+     */
+    public static BloomFilter create(final long bitSize, final int numHashes) {
+        if (bitSize < 1 || (bitSize + 63) >>> 6 > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format("Invalid number of bits: %d", bitSize));
+        }
+        if (numHashes < 1) {
+            throw new IllegalArgumentException(String.format("Invalid number of hashes: %d", numHashes));
+        }
+        return new BloomFilter(new AtomicLongArray((int) ((bitSize + 63) >>> 6)), bitSize, numHashes);
+    }
+
+    /**
+     * Reads a Bloom filter written with {@link #writeTo(ByteBuffer)}. The
+     * position of the buffer is advanced past the filter.
+     *
+     * @param buffer the buffer to read from.
+     * @return the Bloom filter.
+     */
+    public static BloomFilter readFrom(final ByteBuffer buffer) {
+        final int numHashes = buffer.getInt();
+        final long bitSize = buffer.getLong();
+        final BloomFilter result = create(bitSize, numHashes);
+        for (int i = 0, len = result.bits.length(); i < len; i++) {
+            result.bits.set(i, buffer.getLong());
+        }
+        return result;
+    }
+
+    /**
+     * Adds the key to the filter.
+     *
+     * @param hash the 64-bit hash of the key.
+     * @return {@code true} if the filter changed, i.e. the key was definitely
+     *         not in the filter before, otherwise {@code false}.
+     */
+    public boolean put(final long hash) {
+        boolean changed = false;
+        long combined = hash;
+        final long step = step(hash);
+        for (int i = 0; i < numHashes; i++) {
+            changed |= setBit((combined & Long.MAX_VALUE) % bitSize);
+            combined += step;
+        }
+        return changed;
+    }
+
+    /**
+     * Adds the key to the filter.
+     *
+     * @param key the builder the key was added to.
+     * @return {@code true} if the filter changed, otherwise {@code false}.
+     * @see #put(long)
+     */
+    public boolean put(final Hash64Builder key) {
+        return put(key.toHashCode());
+    }
+
+    /**
+     * Checks to see if the key might have been added to the filter.
+     *
+     * @param hash the 64-bit hash of the key.
+     * @return {@code true} if the key might have been added, {@code false} if
+     *         the key was definitely not added.
+     */
+    public boolean mightContain(final long hash) {
+        long combined = hash;
+        final long step = step(hash);
+        for (int i = 0; i < numHashes; i++) {
+            final long index = (combined & Long.MAX_VALUE) % bitSize;
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+            combined += step;
+        }
+        return true;
+    }
+
+    /**
+     * Checks to see if the key might have been added to the filter.
+     *
+     * @param key the builder the key was added to.
+     * @return {@code true} if the key might have been added, {@code false} if
+     *         the key was definitely not added.
+     * @see #mightContain(long)
+     */
+    public boolean mightContain(final Hash64Builder key) {
+        return mightContain(key.toHashCode());
+    }
+
+    /**
+     * Returns the number of bits of the filter.
+     *
+     * @return the number of bits.
+     */
+    public long bitSize() {
+        return bitSize;
+    }
+
+    /**
+     * Returns the number of bits set for each key.
+     *
+     * @return the number of hash functions.
+     */
+    public int numHashes() {
+        return numHashes;
+    }
+
+    /**
+     * Returns the probability that {@link #mightContain(long)} returns
+     * {@code true} for a key that was not added, based on the number of bits
+     * currently set.
+     *
+     * @return the expected false positive probability.
+     */
+    public double expectedFpp() {
+        long bitCount = 0L;
+        for (int i = 0, len = bits.length(); i < len; i++) {
+            bitCount += Long.bitCount(bits.get(i));
+        }
+        return Math.pow((double) bitCount / bitSize, numHashes);
+    }
+
+    /**
+     * Returns the number of bytes required by {@link #writeTo(ByteBuffer)}.
+     * Filters with more than about 2<sup>34</sup> bits need more bytes than
+     * a single buffer can hold.
+     *
+     * @return the serialized size in bytes.
+     */
+    public long serializedSize() {
+        return 4L + 8L + bits.length() * 8L;
+    }
+
+    /**
+     * Writes the filter to the buffer in the byte order of the buffer. Keys
+     * added concurrently may or may not be included.
+     *
+     * @param buffer the buffer to write to.
+     * @return the buffer.
+     */
+    public ByteBuffer writeTo(final ByteBuffer buffer) {
+        buffer.putInt(numHashes);
+        buffer.putLong(bitSize);
+        for (int i = 0, len = bits.length(); i < len; i++) {
+            buffer.putLong(bits.get(i));
+        }
+        return buffer;
+    }
+
+    @Override
+    public String toString() {
+        return ObjectHelper.ToStringBuilder.of(this).add("bitSize", bitSize)
+                .add("numHashes", numHashes).toString();
+    }
+
+    /**
+     * Sets the bit at the index.
+     *
+     * @return {@code true} if the bit was not already set.
+     */
+    private boolean setBit(final long index) {
+        final int word = (int) (index >>> 6);
+        final long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+        return true;
+    }
+
+    /**
+     * Returns the increment used to derive the indexes of a key from its
+     * hash. The step is odd so it never degenerates to 0.
+     */
+    static long step(final long hash) {
+        return Long.rotateLeft(hash * 0x9E3779B97F4A7C15L, 32) | 1L;
+    }
+}
@@ -0,0 +1,1323 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.util.Comparator;
+
+/**
+ *
+ * @author James R. Perkins (JRP) - Dec 13, 2010
+ */
+public abstract class Comparison {
+
+    protected static final int EQUAL = 0;
+
+    protected static final int LESS = -1;
+
+    protected static final int GREATER = 1;
+
+    private static final Comparison LESS_COMPARISON = new DeadComparison(-1);
+
+    private static final Comparison GREATER_COMPARISON = new DeadComparison(1);
+
+    private static final Comparison ALLOW_NULL_INSTANCE = new Comparison() {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Comparison compare(final Comparable left,
+                final Comparable right) {
+            int result = EQUAL;
+            if (left == null && right != null) {
+                result = LESS;
+            } else if (left != null && right == null) {
+                result = GREATER;
+            } else if (left != null && right != null) {
+                result = left.compareTo(right);
+            }
+            return super.checkResult(result);
+        }
+
+        @Override
+        public <T> Comparison compare(final T left, final T right,
+                final Comparator<T> comparator) {
+            int result = EQUAL;
+            if (left == null && right != null) {
+                result = LESS;
+            } else if (left != null && right == null) {
+                result = GREATER;
+            } else if (left != null && right != null) {
+                result = comparator.compare(left, right);
+            }
+            return super.checkResult(result);
+        }
+
+        @Override
+        public Comparison getInstance() {
+            return ALLOW_NULL_INSTANCE;
+        }
+    };
+
+    private static final Comparison INSTANCE = new Comparison() {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Comparison compare(final Comparable left,
+                final Comparable right) {
+            return super.checkResult(left.compareTo(right));
+        }
+
+        @Override
+        public <T> Comparison compare(final T left, final T right,
+                final Comparator<T> comparator) {
+            return super.checkResult(comparator.compare(left, right));
+        }
+
+        @Override
+        public Comparison getInstance() {
+            return INSTANCE;
+        }
+    };
+
+    private static final class DeadComparison extends Comparison {
+
+        private final int result;
+
+        public DeadComparison(final int result) {
+            this.result = result;
+        }
+
+        @Override
+        public Comparison compare(final Comparable<?> left,
+                final Comparable<?> right) {
+            return this;
+        }
+
+        @Override
+        public <T> Comparison compare(final T left, final T right,
+                final Comparator<T> comparator) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final int left, final int right) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final long left, final long right) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final float left, final float right) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final double left, final double right) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final boolean left, final boolean right) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final byte[] left, final byte[] right) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final byte[] left, final int leftFrom, final int leftTo,
+                final byte[] right, final int rightFrom, final int rightTo) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final char[] left, final char[] right) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final char[] left, final int leftFrom, final int leftTo,
+                final char[] right, final int rightFrom, final int rightTo) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final short[] left, final short[] right) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final short[] left, final int leftFrom, final int leftTo,
+                final short[] right, final int rightFrom, final int rightTo) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final int[] left, final int[] right) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final int[] left, final int leftFrom, final int leftTo,
+                final int[] right, final int rightFrom, final int rightTo) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final long[] left, final long[] right) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final long[] left, final int leftFrom, final int leftTo,
+                final long[] right, final int rightFrom, final int rightTo) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final float[] left, final float[] right) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final float[] left, final int leftFrom, final int leftTo,
+                final float[] right, final int rightFrom, final int rightTo) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final double[] left, final double[] right) {
+            return this;
+        }
+
+        @Override
+        public Comparison compare(final double[] left, final int leftFrom, final int leftTo,
+                final double[] right, final int rightFrom, final int rightTo) {
+            return this;
+        }
+
+        @Override
+        public int result() {
+            if (Instrumentation.ENABLED) {
+                Instrumentation.endComparison();
+            }
+            return result;
+        }
+
+        @Override
+        public Comparison getInstance() {
+            return this;
+        }
+    }
+
+    /**
+     * Private constructor for singleton pattern.
+     */
+    private Comparison() {
+    }
+
+    /**
+     * Begins a new comparison.
+     * 
+     * @return the comparison.
+     */
+    public static Comparison begin() {
+        if (Instrumentation.ENABLED) {
+            Instrumentation.beginComparison();
+        }
+        return INSTANCE;
+    }
+
+    /**
+     * Begins a new comparison, but allows for {@code null} values to be passed.
+     * 
+     * <p>
+     * If the first value is {@code null} and the second value is 
+     * {@code non-null}, the comparison will return -1. If the first value is
+     * {@code non-null} and the second value is {@code null}, the comparison
+     * will return 1. If both values are {@code null} 0 is returned.
+     * </p>
+     * 
+     * @return the comparison.
+     */
+    public static Comparison beginAllowNull() {
+        if (Instrumentation.ENABLED) {
+            Instrumentation.beginComparison();
+        }
+        return ALLOW_NULL_INSTANCE;
+    }
+
+    /**
+     * Compares the left integer to the right integer, unless a previous step
+     * of the chain already determined the result.
+     *
+     * <p>
+     * The {@code chain} methods are an allocation free alternative to the
+     * fluent comparison for hot {@code compareTo} implementations. The state
+     * is passed from one step to the next as an {@code int} starting with 0:
+     * </p>
+     * <pre>
+     * int result = Comparison.chain(0, this.id, other.id);
+     * result = Comparison.chain(result, this.time, other.time);
+     * return Comparison.chain(result, this.name, other.name);
+     * </pre>
+     *
+     * @param previous the result of the previous step, 0 for the first step.
+     * @param left     the integer to compare to the right.
+     * @param right    the integer compared to the left.
+     * @return the previous result if it was not 0, otherwise -1, 0 or 1.
+     */
+    public static int chain(final int previous, final int left, final int right) {
+        if (previous != EQUAL) {
+            return previous;
+        }
+        if (Instrumentation.ENABLED) {
+            Instrumentation.record(Instrumentation.Metric.COMPARISON_STEPS);
+        }
+        return (left < right) ? LESS : ((left > right) ? GREATER : EQUAL);
+    }
+
+    /**
+     * Compares the left long to the right long, unless a previous step of the
+     * chain already determined the result.
+     *
+     * @param previous the result of the previous step, 0 for the first step.
+     * @param left     the long to compare to the right.
+     * @param right    the long compared to the left.
+     * @return the previous result if it was not 0, otherwise -1, 0 or 1.
+     * @see #chain(int, int, int)
+     */
+    public static int chain(final int previous, final long left, final long right) {
+        if (previous != EQUAL) {
+            return previous;
+        }
+        if (Instrumentation.ENABLED) {
+            Instrumentation.record(Instrumentation.Metric.COMPARISON_STEPS);
+        }
+        return (left < right) ? LESS : ((left > right) ? GREATER : EQUAL);
+    }
+
+    /**
+     * Compares the left float to the right float as specified by
+     * {@link Float#compare(float, float)}, unless a previous step of the chain
+     * already determined the result.
+     *
+     * @param previous the result of the previous step, 0 for the first step.
+     * @param left     the float to compare to the right.
+     * @param right    the float compared to the left.
+     * @return the previous result if it was not 0, otherwise -1, 0 or 1.
+     * @see #chain(int, int, int)
+     */
+    public static int chain(final int previous, final float left, final float right) {
+        if (previous != EQUAL) {
+            return previous;
+        }
+        if (Instrumentation.ENABLED) {
+            Instrumentation.record(Instrumentation.Metric.COMPARISON_STEPS);
+        }
+        return Float.compare(left, right);
+    }
+
+    /**
+     * Compares the left double to the right double as specified by
+     * {@link Double#compare(double, double)}, unless a previous step of the
+     * chain already determined the result.
+     *
+     * @param previous the result of the previous step, 0 for the first step.
+     * @param left     the double to compare to the right.
+     * @param right    the double compared to the left.
+     * @return the previous result if it was not 0, otherwise -1, 0 or 1.
+     * @see #chain(int, int, int)
+     */
+    public static int chain(final int previous, final double left, final double right) {
+        if (previous != EQUAL) {
+            return previous;
+        }
+        if (Instrumentation.ENABLED) {
+            Instrumentation.record(Instrumentation.Metric.COMPARISON_STEPS);
+        }
+        return Double.compare(left, right);
+    }
+
+    /**
+     * Compares the left boolean to the right boolean, {@code false} being less
+     * than {@code true}, unless a previous step of the chain already
+     * determined the result.
+     *
+     * @param previous the result of the previous step, 0 for the first step.
+     * @param left     the boolean to compare to the right.
+     * @param right    the boolean compared to the left.
+     * @return the previous result if it was not 0, otherwise -1, 0 or 1.
+     * @see #chain(int, int, int)
+     */
+    public static int chain(final int previous, final boolean left, final boolean right) {
+        if (previous != EQUAL) {
+            return previous;
+        }
+        if (Instrumentation.ENABLED) {
+            Instrumentation.record(Instrumentation.Metric.COMPARISON_STEPS);
+        }
+        return (left == right) ? EQUAL : (left ? GREATER : LESS);
+    }
+
+    /**
+     * Compares the left comparable to the right comparable, unless a previous
+     * step of the chain already determined the result. Neither value may be
+     * {@code null}.
+     *
+     * @param <T>      the type of the values.
+     * @param previous the result of the previous step, 0 for the first step.
+     * @param left     the value to compare to the right.
+     * @param right    the value compared to the left.
+     * @return the previous result if it was not 0, otherwise -1, 0 or 1.
+     * @see #chain(int, int, int)
+     */
+    public static <T extends Comparable<? super T>> int chain(final int previous,
+            final T left, final T right) {
+        if (previous != EQUAL) {
+            return previous;
+        }
+        if (Instrumentation.ENABLED) {
+            Instrumentation.record(Instrumentation.Metric.COMPARISON_STEPS);
+        }
+        return Integer.signum(left.compareTo(right));
+    }
+
+    /**
+     * Compares the left object to the right object with the comparator,
+     * unless a previous step of the chain already determined the result.
+     *
+     * @param <T>        the type of the values.
+     * @param previous   the result of the previous step, 0 for the first step.
+     * @param left       the value to compare to the right.
+     * @param right      the value compared to the left.
+     * @param comparator the comparator used to compare the values.
+     * @return the previous result if it was not 0, otherwise -1, 0 or 1.
+     * @see #chain(int, int, int)
+     */
+    public static <T> int chain(final int previous, final T left, final T right,
+            final Comparator<? super T> comparator) {
+        if (previous != EQUAL) {
+            return previous;
+        }
+        if (Instrumentation.ENABLED) {
+            Instrumentation.record(Instrumentation.Metric.COMPARISON_STEPS);
+        }
+        return Integer.signum(comparator.compare(left, right));
+    }
+
+    /**
+     * Compares the left comparable to the right comparable allowing for
+     * {@code null} values, unless a previous step of the chain already
+     * determined the result. A {@code null} value is less than a
+     * {@code non-null} value as with {@link #beginAllowNull()}.
+     *
+     * @param <T>      the type of the values.
+     * @param previous the result of the previous step, 0 for the first step.
+     * @param left     the optionally {@code null} value to compare to the
+     *                 right.
+     * @param right    the optionally {@code null} value compared to the left.
+     * @return the previous result if it was not 0, otherwise -1, 0 or 1.
+     * @see #chain(int, int, int)
+     */
+    public static <T extends Comparable<? super T>> int chainAllowNull(final int previous,
+            final T left, final T right) {
+        if (previous != EQUAL) {
+            return previous;
+        }
+        if (Instrumentation.ENABLED) {
+            Instrumentation.record(Instrumentation.Metric.COMPARISON_STEPS);
+        }
+        if (left == right) {
+            return EQUAL;
+        }
+        if (left == null) {
+            return LESS;
+        }
+        if (right == null) {
+            return GREATER;
+        }
+        return Integer.signum(left.compareTo(right));
+    }
+
+    /**
+     * Finds the index of the first mismatch between two byte arrays.
+     *
+     * @param left  the first array.
+     * @param right the second array.
+     * @return the index of the first mismatch, the length of the shorter
+     *         array if it is a proper prefix of the other, otherwise -1.
+     */
+    public static int mismatch(final byte[] left, final byte[] right) {
+        if (left == right) {
+            return -1;
+        }
+        final int length = Math.min(left.length, right.length);
+        final int i = ArraysSupport.mismatch(left, 0, right, 0, length);
+        return (i < 0 && left.length != right.length) ? length : i;
+    }
+
+    /**
+     * Finds the relative index of the first mismatch between two byte array
+     * ranges.
+     *
+     * @param left      the first array.
+     * @param leftFrom  the index of the first element, inclusive, of the left
+     *                  range.
+     * @param leftTo    the index of the last element, exclusive, of the left
+     *                  range.
+     * @param right     the second array.
+     * @param rightFrom the index of the first element, inclusive, of the right
+     *                  range.
+     * @param rightTo   the index of the last element, exclusive, of the right
+     *                  range.
+     * @return the relative index of the first mismatch, the length of the
+     *         shorter range if it is a proper prefix of the other, otherwise
+     *         -1.
+     */
+    public static int mismatch(final byte[] left, final int leftFrom, final int leftTo,
+            final byte[] right, final int rightFrom, final int rightTo) {
+        ArraysSupport.rangeCheck(left.length, leftFrom, leftTo);
+        ArraysSupport.rangeCheck(right.length, rightFrom, rightTo);
+        final int leftLength = leftTo - leftFrom;
+        final int rightLength = rightTo - rightFrom;
+        final int length = Math.min(leftLength, rightLength);
+        final int i = ArraysSupport.mismatch(left, leftFrom, right, rightFrom, length);
+        return (i < 0 && leftLength != rightLength) ? length : i;
+    }
+
+    /**
+     * Finds the index of the first mismatch between two char arrays.
+     *
+     * @param left  the first array.
+     * @param right the second array.
+     * @return the index of the first mismatch, the length of the shorter
+     *         array if it is a proper prefix of the other, otherwise -1.
+     */
+    public static int mismatch(final char[] left, final char[] right) {
+        if (left == right) {
+            return -1;
+        }
+        final int length = Math.min(left.length, right.length);
+        final int i = ArraysSupport.mismatch(left, 0, right, 0, length);
+        return (i < 0 && left.length != right.length) ? length : i;
+    }
+
+    /**
+     * Finds the relative index of the first mismatch between two char array
+     * ranges.
+     *
+     * @param left      the first array.
+     * @param leftFrom  the index of the first element, inclusive, of the left
+     *                  range.
+     * @param leftTo    the index of the last element, exclusive, of the left
+     *                  range.
+     * @param right     the second array.
+     * @param rightFrom the index of the first element, inclusive, of the right
+     *                  range.
+     * @param rightTo   the index of the last element, exclusive, of the right
+     *                  range.
+     * @return the relative index of the first mismatch, the length of the
+     *         shorter range if it is a proper prefix of the other, otherwise
+     *         -1.
+     */
+    public static int mismatch(final char[] left, final int leftFrom, final int leftTo,
+            final char[] right, final int rightFrom, final int rightTo) {
+        ArraysSupport.rangeCheck(left.length, leftFrom, leftTo);
+        ArraysSupport.rangeCheck(right.length, rightFrom, rightTo);
+        final int leftLength = leftTo - leftFrom;
+        final int rightLength = rightTo - rightFrom;
+        final int length = Math.min(leftLength, rightLength);
+        final int i = ArraysSupport.mismatch(left, leftFrom, right, rightFrom, length);
+        return (i < 0 && leftLength != rightLength) ? length : i;
+    }
+
+    /**
+     * Finds the index of the first mismatch between two short arrays.
+     *
+     * @param left  the first array.
+     * @param right the second array.
+     * @return the index of the first mismatch, the length of the shorter
+     *         array if it is a proper prefix of the other, otherwise -1.
+     */
+    public static int mismatch(final short[] left, final short[] right) {
+        if (left == right) {
+            return -1;
+        }
+        final int length = Math.min(left.length, right.length);
+        final int i = ArraysSupport.mismatch(left, 0, right, 0, length);
+        return (i < 0 && left.length != right.length) ? length : i;
+    }
+
+    /**
+     * Finds the relative index of the first mismatch between two short array
+     * ranges.
+     *
+     * @param left      the first array.
+     * @param leftFrom  the index of the first element, inclusive, of the left
+     *                  range.
+     * @param leftTo    the index of the last element, exclusive, of the left
+     *                  range.
+     * @param right     the second array.
+     * @param rightFrom the index of the first element, inclusive, of the right
+     *                  range.
+     * @param rightTo   the index of the last element, exclusive, of the right
+     *                  range.
+     * @return the relative index of the first mismatch, the length of the
+     *         shorter range if it is a proper prefix of the other, otherwise
+     *         -1.
+     */
+    public static int mismatch(final short[] left, final int leftFrom, final int leftTo,
+            final short[] right, final int rightFrom, final int rightTo) {
+        ArraysSupport.rangeCheck(left.length, leftFrom, leftTo);
+        ArraysSupport.rangeCheck(right.length, rightFrom, rightTo);
+        final int leftLength = leftTo - leftFrom;
+        final int rightLength = rightTo - rightFrom;
+        final int length = Math.min(leftLength, rightLength);
+        final int i = ArraysSupport.mismatch(left, leftFrom, right, rightFrom, length);
+        return (i < 0 && leftLength != rightLength) ? length : i;
+    }
+
+    /**
+     * Finds the index of the first mismatch between two int arrays.
+     *
+     * @param left  the first array.
+     * @param right the second array.
+     * @return the index of the first mismatch, the length of the shorter
+     *         array if it is a proper prefix of the other, otherwise -1.
+     */
+    public static int mismatch(final int[] left, final int[] right) {
+        if (left == right) {
+            return -1;
+        }
+        final int length = Math.min(left.length, right.length);
+        final int i = ArraysSupport.mismatch(left, 0, right, 0, length);
+        return (i < 0 && left.length != right.length) ? length : i;
+    }
+
+    /**
+     * Finds the relative index of the first mismatch between two int array
+     * ranges.
+     *
+     * @param left      the first array.
+     * @param leftFrom  the index of the first element, inclusive, of the left
+     *                  range.
+     * @param leftTo    the index of the last element, exclusive, of the left
+     *                  range.
+     * @param right     the second array.
+     * @param rightFrom the index of the first element, inclusive, of the right
+     *                  range.
+     * @param rightTo   the index of the last element, exclusive, of the right
+     *                  range.
+     * @return the relative index of the first mismatch, the length of the
+     *         shorter range if it is a proper prefix of the other, otherwise
+     *         -1.
+     */
+    public static int mismatch(final int[] left, final int leftFrom, final int leftTo,
+            final int[] right, final int rightFrom, final int rightTo) {
+        ArraysSupport.rangeCheck(left.length, leftFrom, leftTo);
+        ArraysSupport.rangeCheck(right.length, rightFrom, rightTo);
+        final int leftLength = leftTo - leftFrom;
+        final int rightLength = rightTo - rightFrom;
+        final int length = Math.min(leftLength, rightLength);
+        final int i = ArraysSupport.mismatch(left, leftFrom, right, rightFrom, length);
+        return (i < 0 && leftLength != rightLength) ? length : i;
+    }
+
+    /**
+     * Finds the index of the first mismatch between two long arrays.
+     *
+     * @param left  the first array.
+     * @param right the second array.
+     * @return the index of the first mismatch, the length of the shorter
+     *         array if it is a proper prefix of the other, otherwise -1.
+     */
+    public static int mismatch(final long[] left, final long[] right) {
+        if (left == right) {
+            return -1;
+        }
+        final int length = Math.min(left.length, right.length);
+        final int i = ArraysSupport.mismatch(left, 0, right, 0, length);
+        return (i < 0 && left.length != right.length) ? length : i;
+    }
+
+    /**
+     * Finds the relative index of the first mismatch between two long array
+     * ranges.
+     *
+     * @param left      the first array.
+     * @param leftFrom  the index of the first element, inclusive, of the left
+     *                  range.
+     * @param leftTo    the index of the last element, exclusive, of the left
+     *                  range.
+     * @param right     the second array.
+     * @param rightFrom the index of the first element, inclusive, of the right
+     *                  range.
+     * @param rightTo   the index of the last element, exclusive, of the right
+     *                  range.
+     * @return the relative index of the first mismatch, the length of the
+     *         shorter range if it is a proper prefix of the other, otherwise
+     *         -1.
+     */
+    public static int mismatch(final long[] left, final int leftFrom, final int leftTo,
+            final long[] right, final int rightFrom, final int rightTo) {
+        ArraysSupport.rangeCheck(left.length, leftFrom, leftTo);
+        ArraysSupport.rangeCheck(right.length, rightFrom, rightTo);
+        final int leftLength = leftTo - leftFrom;
+        final int rightLength = rightTo - rightFrom;
+        final int length = Math.min(leftLength, rightLength);
+        final int i = ArraysSupport.mismatch(left, leftFrom, right, rightFrom, length);
+        return (i < 0 && leftLength != rightLength) ? length : i;
+    }
+
+    /**
+     * Finds the index of the first mismatch between two float arrays.
+     *
+     * @param left  the first array.
+     * @param right the second array.
+     * @return the index of the first mismatch, the length of the shorter
+     *         array if it is a proper prefix of the other, otherwise -1.
+     */
+    public static int mismatch(final float[] left, final float[] right) {
+        if (left == right) {
+            return -1;
+        }
+        final int length = Math.min(left.length, right.length);
+        final int i = ArraysSupport.mismatch(left, 0, right, 0, length);
+        return (i < 0 && left.length != right.length) ? length : i;
+    }
+
+    /**
+     * Finds the relative index of the first mismatch between two float array
+     * ranges.
+     *
+     * @param left      the first array.
+     * @param leftFrom  the index of the first element, inclusive, of the left
+     *                  range.
+     * @param leftTo    the index of the last element, exclusive, of the left
+     *                  range.
+     * @param right     the second array.
+     * @param rightFrom the index of the first element, inclusive, of the right
+     *                  range.
+     * @param rightTo   the index of the last element, exclusive, of the right
+     *                  range.
+     * @return the relative index of the first mismatch, the length of the
+     *         shorter range if it is a proper prefix of the other, otherwise
+     *         -1.
+     */
+    public static int mismatch(final float[] left, final int leftFrom, final int leftTo,
+            final float[] right, final int rightFrom, final int rightTo) {
+        ArraysSupport.rangeCheck(left.length, leftFrom, leftTo);
+        ArraysSupport.rangeCheck(right.length, rightFrom, rightTo);
+        final int leftLength = leftTo - leftFrom;
+        final int rightLength = rightTo - rightFrom;
+        final int length = Math.min(leftLength, rightLength);
+        final int i = ArraysSupport.mismatch(left, leftFrom, right, rightFrom, length);
+        return (i < 0 && leftLength != rightLength) ? length : i;
+    }
+
+    /**
+     * Finds the index of the first mismatch between two double arrays.
+     *
+     * @param left  the first array.
+     * @param right the second array.
+     * @return the index of the first mismatch, the length of the shorter
+     *         array if it is a proper prefix of the other, otherwise -1.
+     */
+    public static int mismatch(final double[] left, final double[] right) {
+        if (left == right) {
+            return -1;
+        }
+        final int length = Math.min(left.length, right.length);
+        final int i = ArraysSupport.mismatch(left, 0, right, 0, length);
+        return (i < 0 && left.length != right.length) ? length : i;
+    }
+
+    /**
+     * Finds the relative index of the first mismatch between two double array
+     * ranges.
+     *
+     * @param left      the first array.
+     * @param leftFrom  the index of the first element, inclusive, of the left
+     *                  range.
+     * @param leftTo    the index of the last element, exclusive, of the left
+     *                  range.
+     * @param right     the second array.
+     * @param rightFrom the index of the first element, inclusive, of the right
+     *                  range.
+     * @param rightTo   the index of the last element, exclusive, of the right
+     *                  range.
+     * @return the relative index of the first mismatch, the length of the
+     *         shorter range if it is a proper prefix of the other, otherwise
+     *         -1.
+     */
+    public static int mismatch(final double[] left, final int leftFrom, final int leftTo,
+            final double[] right, final int rightFrom, final int rightTo) {
+        ArraysSupport.rangeCheck(left.length, leftFrom, leftTo);
+        ArraysSupport.rangeCheck(right.length, rightFrom, rightTo);
+        final int leftLength = leftTo - leftFrom;
+        final int rightLength = rightTo - rightFrom;
+        final int length = Math.min(leftLength, rightLength);
+        final int i = ArraysSupport.mismatch(left, leftFrom, right, rightFrom, length);
+        return (i < 0 && leftLength != rightLength) ? length : i;
+    }
+
+    /**
+     * Compares the left comparable to the right as specified by the {@link 
+     * Comparable#compareTo(java.lang.Object)} interface.
+     * 
+     * @param left  the object to compare to the right.
+     * @param right the object compared to the left.
+     * @return the the same instance if the objects are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public abstract Comparison compare(Comparable<?> left, Comparable<?> right);
+
+    /**
+     * Compares the left object to the right object as specified by the {@link 
+     * java.util.Comparator#compare(java.lang.Object, java.lang.Object)} 
+     * interface.
+     * 
+     * @param <T>        the type of the object to the compared.
+     * @param left       the object to compare to the right.
+     * @param right      the object compared to the left.
+     * @param comparator the comparator used to compare the objects.
+     * @return the the same instance if the objects are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public abstract <T> Comparison compare(T left, T right,
+            Comparator<T> comparator);
+
+    /**
+     * Compares the left integer to the right integer.
+     * 
+     * @param left  the integer to compare to the right.
+     * @param right the integer compared to the left.
+     * @return the the same instance if the integers are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(int left, int right) {
+        int result = EQUAL;
+        if (left < right) {
+            result = LESS;
+        } else if (left > right) {
+            result = GREATER;
+        }
+        return checkResult(result);
+    }
+
+    /**
+     * Compares the left long to the right long.
+     * 
+     * @param left  the long to compare to the right.
+     * @param right the long compared to the left.
+     * @return the the same instance if the longs are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(long left, long right) {
+        int result = EQUAL;
+        if (left < right) {
+            result = LESS;
+        } else if (left > right) {
+            result = GREATER;
+        }
+        return checkResult(result);
+    }
+
+    /**
+     * Compares the left float to the float integer.
+     * 
+     * @param left  the float to compare to the right.
+     * @param right the float compared to the left.
+     * @return the the same instance if the floats are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(float left, float right) {
+        return checkResult(Float.compare(left, right));
+    }
+
+    /**
+     * Compares the left double to the double integer.
+     * 
+     * @param left  the double to compare to the right.
+     * @param right the double compared to the left.
+     * @return the the same instance if the doubles are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(double left, double right) {
+        return checkResult(Double.compare(left, right));
+    }
+
+    /**
+     * Compares the left boolean to the double boolean.
+     * 
+     * @param left  the boolean to compare to the right.
+     * @param right the boolean compared to the left.
+     * @return the the same instance if the booleans are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(boolean left, boolean right) {
+        return checkResult((left == right) ? EQUAL : (left ? GREATER : LESS));
+    }
+
+    /**
+     * Compares the left byte array to the right byte array lexicographically.
+     *
+     * <p>
+     * A comparison begun with {@link #beginAllowNull()} orders a
+     * {@code null} array before a {@code non-null} array, any other comparison
+     * throws a {@code NullPointerException}. If one array is a proper prefix
+     * of the other, the shorter array is less.
+     * </p>
+     *
+     * @param left  the array to compare to the right.
+     * @param right the array compared to the left.
+     * @return the the same instance if the arrays are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(final byte[] left, final byte[] right) {
+        if (left == null || right == null) {
+            return compareNull(left, right);
+        }
+        if (left == right) {
+            return getInstance();
+        }
+        return compare(left, 0, left.length, right, 0, right.length);
+    }
+
+    /**
+     * Compares a range of the left byte array to a range of the right byte
+     * array lexicographically.
+     *
+     * @param left      the array to compare to the right.
+     * @param leftFrom  the index of the first element, inclusive, of the left
+     *                  range.
+     * @param leftTo    the index of the last element, exclusive, of the left
+     *                  range.
+     * @param right     the array compared to the left.
+     * @param rightFrom the index of the first element, inclusive, of the right
+     *                  range.
+     * @param rightTo   the index of the last element, exclusive, of the right
+     *                  range.
+     * @return the the same instance if the ranges are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(final byte[] left, final int leftFrom, final int leftTo,
+            final byte[] right, final int rightFrom, final int rightTo) {
+        ArraysSupport.rangeCheck(left.length, leftFrom, leftTo);
+        ArraysSupport.rangeCheck(right.length, rightFrom, rightTo);
+        final int leftLength = leftTo - leftFrom;
+        final int rightLength = rightTo - rightFrom;
+        final int i = ArraysSupport.mismatch(left, leftFrom, right, rightFrom,
+                Math.min(leftLength, rightLength));
+        if (i >= 0) {
+            return compare(left[leftFrom + i], right[rightFrom + i]);
+        }
+        return compare(leftLength, rightLength);
+    }
+
+    /**
+     * Compares the left char array to the right char array lexicographically.
+     *
+     * <p>
+     * A comparison begun with {@link #beginAllowNull()} orders a
+     * {@code null} array before a {@code non-null} array, any other comparison
+     * throws a {@code NullPointerException}. If one array is a proper prefix
+     * of the other, the shorter array is less.
+     * </p>
+     *
+     * @param left  the array to compare to the right.
+     * @param right the array compared to the left.
+     * @return the the same instance if the arrays are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(final char[] left, final char[] right) {
+        if (left == null || right == null) {
+            return compareNull(left, right);
+        }
+        if (left == right) {
+            return getInstance();
+        }
+        return compare(left, 0, left.length, right, 0, right.length);
+    }
+
+    /**
+     * Compares a range of the left char array to a range of the right char
+     * array lexicographically.
+     *
+     * @param left      the array to compare to the right.
+     * @param leftFrom  the index of the first element, inclusive, of the left
+     *                  range.
+     * @param leftTo    the index of the last element, exclusive, of the left
+     *                  range.
+     * @param right     the array compared to the left.
+     * @param rightFrom the index of the first element, inclusive, of the right
+     *                  range.
+     * @param rightTo   the index of the last element, exclusive, of the right
+     *                  range.
+     * @return the the same instance if the ranges are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(final char[] left, final int leftFrom, final int leftTo,
+            final char[] right, final int rightFrom, final int rightTo) {
+        ArraysSupport.rangeCheck(left.length, leftFrom, leftTo);
+        ArraysSupport.rangeCheck(right.length, rightFrom, rightTo);
+        final int leftLength = leftTo - leftFrom;
+        final int rightLength = rightTo - rightFrom;
+        final int i = ArraysSupport.mismatch(left, leftFrom, right, rightFrom,
+                Math.min(leftLength, rightLength));
+        if (i >= 0) {
+            return compare(left[leftFrom + i], right[rightFrom + i]);
+        }
+        return compare(leftLength, rightLength);
+    }
+
+    /**
+     * Compares the left short array to the right short array lexicographically.
+     *
+     * <p>
+     * A comparison begun with {@link #beginAllowNull()} orders a
+     * {@code null} array before a {@code non-null} array, any other comparison
+     * throws a {@code NullPointerException}. If one array is a proper prefix
+     * of the other, the shorter array is less.
+     * </p>
+     *
+     * @param left  the array to compare to the right.
+     * @param right the array compared to the left.
+     * @return the the same instance if the arrays are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(final short[] left, final short[] right) {
+        if (left == null || right == null) {
+            return compareNull(left, right);
+        }
+        if (left == right) {
+            return getInstance();
+        }
+        return compare(left, 0, left.length, right, 0, right.length);
+    }
+
+    /**
+     * Compares a range of the left short array to a range of the right short
+     * array lexicographically.
+     *
+     * @param left      the array to compare to the right.
+     * @param leftFrom  the index of the first element, inclusive, of the left
+     *                  range.
+     * @param leftTo    the index of the last element, exclusive, of the left
+     *                  range.
+     * @param right     the array compared to the left.
+     * @param rightFrom the index of the first element, inclusive, of the right
+     *                  range.
+     * @param rightTo   the index of the last element, exclusive, of the right
+     *                  range.
+     * @return the the same instance if the ranges are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(final short[] left, final int leftFrom, final int leftTo,
+            final short[] right, final int rightFrom, final int rightTo) {
+        ArraysSupport.rangeCheck(left.length, leftFrom, leftTo);
+        ArraysSupport.rangeCheck(right.length, rightFrom, rightTo);
+        final int leftLength = leftTo - leftFrom;
+        final int rightLength = rightTo - rightFrom;
+        final int i = ArraysSupport.mismatch(left, leftFrom, right, rightFrom,
+                Math.min(leftLength, rightLength));
+        if (i >= 0) {
+            return compare(left[leftFrom + i], right[rightFrom + i]);
+        }
+        return compare(leftLength, rightLength);
+    }
+
+    /**
+     * Compares the left int array to the right int array lexicographically.
+     *
+     * <p>
+     * A comparison begun with {@link #beginAllowNull()} orders a
+     * {@code null} array before a {@code non-null} array, any other comparison
+     * throws a {@code NullPointerException}. If one array is a proper prefix
+     * of the other, the shorter array is less.
+     * </p>
+     *
+     * @param left  the array to compare to the right.
+     * @param right the array compared to the left.
+     * @return the the same instance if the arrays are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(final int[] left, final int[] right) {
+        if (left == null || right == null) {
+            return compareNull(left, right);
+        }
+        if (left == right) {
+            return getInstance();
+        }
+        return compare(left, 0, left.length, right, 0, right.length);
+    }
+
+    /**
+     * Compares a range of the left int array to a range of the right int
+     * array lexicographically.
+     *
+     * @param left      the array to compare to the right.
+     * @param leftFrom  the index of the first element, inclusive, of the left
+     *                  range.
+     * @param leftTo    the index of the last element, exclusive, of the left
+     *                  range.
+     * @param right     the array compared to the left.
+     * @param rightFrom the index of the first element, inclusive, of the right
+     *                  range.
+     * @param rightTo   the index of the last element, exclusive, of the right
+     *                  range.
+     * @return the the same instance if the ranges are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(final int[] left, final int leftFrom, final int leftTo,
+            final int[] right, final int rightFrom, final int rightTo) {
+        ArraysSupport.rangeCheck(left.length, leftFrom, leftTo);
+        ArraysSupport.rangeCheck(right.length, rightFrom, rightTo);
+        final int leftLength = leftTo - leftFrom;
+        final int rightLength = rightTo - rightFrom;
+        final int i = ArraysSupport.mismatch(left, leftFrom, right, rightFrom,
+                Math.min(leftLength, rightLength));
+        if (i >= 0) {
+            return compare(left[leftFrom + i], right[rightFrom + i]);
+        }
+        return compare(leftLength, rightLength);
+    }
+
+    /**
+     * Compares the left long array to the right long array lexicographically.
+     *
+     * <p>
+     * A comparison begun with {@link #beginAllowNull()} orders a
+     * {@code null} array before a {@code non-null} array, any other comparison
+     * throws a {@code NullPointerException}. If one array is a proper prefix
+     * of the other, the shorter array is less.
+     * </p>
+     *
+     * @param left  the array to compare to the right.
+     * @param right the array compared to the left.
+     * @return the the same instance if the arrays are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(final long[] left, final long[] right) {
+        if (left == null || right == null) {
+            return compareNull(left, right);
+        }
+        if (left == right) {
+            return getInstance();
+        }
+        return compare(left, 0, left.length, right, 0, right.length);
+    }
+
+    /**
+     * Compares a range of the left long array to a range of the right long
+     * array lexicographically.
+     *
+     * @param left      the array to compare to the right.
+     * @param leftFrom  the index of the first element, inclusive, of the left
+     *                  range.
+     * @param leftTo    the index of the last element, exclusive, of the left
+     *                  range.
+     * @param right     the array compared to the left.
+     * @param rightFrom the index of the first element, inclusive, of the right
+     *                  range.
+     * @param rightTo   the index of the last element, exclusive, of the right
+     *                  range.
+     * @return the the same instance if the ranges are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(final long[] left, final int leftFrom, final int leftTo,
+            final long[] right, final int rightFrom, final int rightTo) {
+        ArraysSupport.rangeCheck(left.length, leftFrom, leftTo);
+        ArraysSupport.rangeCheck(right.length, rightFrom, rightTo);
+        final int leftLength = leftTo - leftFrom;
+        final int rightLength = rightTo - rightFrom;
+        final int i = ArraysSupport.mismatch(left, leftFrom, right, rightFrom,
+                Math.min(leftLength, rightLength));
+        if (i >= 0) {
+            return compare(left[leftFrom + i], right[rightFrom + i]);
+        }
+        return compare(leftLength, rightLength);
+    }
+
+    /**
+     * Compares the left float array to the right float array lexicographically.
+     *
+     * <p>
+     * A comparison begun with {@link #beginAllowNull()} orders a
+     * {@code null} array before a {@code non-null} array, any other comparison
+     * throws a {@code NullPointerException}. If one array is a proper prefix
+     * of the other, the shorter array is less.
+     * </p>
+     *
+     * @param left  the array to compare to the right.
+     * @param right the array compared to the left.
+     * @return the the same instance if the arrays are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(final float[] left, final float[] right) {
+        if (left == null || right == null) {
+            return compareNull(left, right);
+        }
+        if (left == right) {
+            return getInstance();
+        }
+        return compare(left, 0, left.length, right, 0, right.length);
+    }
+
+    /**
+     * Compares a range of the left float array to a range of the right float
+     * array lexicographically.
+     *
+     * @param left      the array to compare to the right.
+     * @param leftFrom  the index of the first element, inclusive, of the left
+     *                  range.
+     * @param leftTo    the index of the last element, exclusive, of the left
+     *                  range.
+     * @param right     the array compared to the left.
+     * @param rightFrom the index of the first element, inclusive, of the right
+     *                  range.
+     * @param rightTo   the index of the last element, exclusive, of the right
+     *                  range.
+     * @return the the same instance if the ranges are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(final float[] left, final int leftFrom, final int leftTo,
+            final float[] right, final int rightFrom, final int rightTo) {
+        ArraysSupport.rangeCheck(left.length, leftFrom, leftTo);
+        ArraysSupport.rangeCheck(right.length, rightFrom, rightTo);
+        final int leftLength = leftTo - leftFrom;
+        final int rightLength = rightTo - rightFrom;
+        final int i = ArraysSupport.mismatch(left, leftFrom, right, rightFrom,
+                Math.min(leftLength, rightLength));
+        if (i >= 0) {
+            return compare(left[leftFrom + i], right[rightFrom + i]);
+        }
+        return compare(leftLength, rightLength);
+    }
+
+    /**
+     * Compares the left double array to the right double array lexicographically.
+     *
+     * <p>
+     * A comparison begun with {@link #beginAllowNull()} orders a
+     * {@code null} array before a {@code non-null} array, any other comparison
+     * throws a {@code NullPointerException}. If one array is a proper prefix
+     * of the other, the shorter array is less.
+     * </p>
+     *
+     * @param left  the array to compare to the right.
+     * @param right the array compared to the left.
+     * @return the the same instance if the arrays are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(final double[] left, final double[] right) {
+        if (left == null || right == null) {
+            return compareNull(left, right);
+        }
+        if (left == right) {
+            return getInstance();
+        }
+        return compare(left, 0, left.length, right, 0, right.length);
+    }
+
+    /**
+     * Compares a range of the left double array to a range of the right double
+     * array lexicographically.
+     *
+     * @param left      the array to compare to the right.
+     * @param leftFrom  the index of the first element, inclusive, of the left
+     *                  range.
+     * @param leftTo    the index of the last element, exclusive, of the left
+     *                  range.
+     * @param right     the array compared to the left.
+     * @param rightFrom the index of the first element, inclusive, of the right
+     *                  range.
+     * @param rightTo   the index of the last element, exclusive, of the right
+     *                  range.
+     * @return the the same instance if the ranges are equal, otherwise a
+     *   comparison that will return a defined value.
+     */
+    public Comparison compare(final double[] left, final int leftFrom, final int leftTo,
+            final double[] right, final int rightFrom, final int rightTo) {
+        ArraysSupport.rangeCheck(left.length, leftFrom, leftTo);
+        ArraysSupport.rangeCheck(right.length, rightFrom, rightTo);
+        final int leftLength = leftTo - leftFrom;
+        final int rightLength = rightTo - rightFrom;
+        final int i = ArraysSupport.mismatch(left, leftFrom, right, rightFrom,
+                Math.min(leftLength, rightLength));
+        if (i >= 0) {
+            return compare(left[leftFrom + i], right[rightFrom + i]);
+        }
+        return compare(leftLength, rightLength);
+    }
+
+    /**
+     * Ends the comparison and returns 0 if all comparisons were equal, -1 if 
+     * the any of the left comparisons were less than the right comparisons or
+     * 1 if any of the right comparisons were less than the left.
+     * 
+     * @return zero if equal, otherwise the a value with the same sign as the first
+     *         non-equal comparison.
+     */
+    public int result() {
+        if (Instrumentation.ENABLED) {
+            Instrumentation.endComparison();
+        }
+        return EQUAL;
+    }
+
+    /**
+     * Returns the comparison instance being used.
+     * 
+     * @return the comparison instance being used.
+     */
+    protected abstract Comparison getInstance();
+
+    /**
+     * Orders a {@code null} array first if {@code null} values are allowed,
+     * at least one of the arrays must be {@code null}.
+     */
+    private Comparison compareNull(final Object left, final Object right) {
+        if (getInstance() != ALLOW_NULL_INSTANCE) {
+            throw new NullPointerException();
+        }
+        return (left == right) ? getInstance() : checkResult(left == null ? LESS : GREATER);
+    }
+
+    /**
+     * Checks to see which comparison to return.
+     */
+    private Comparison checkResult(final int result) {
+        if (Instrumentation.ENABLED) {
+            Instrumentation.comparisonStep();
+        }
+        return (result < 0) ? LESS_COMPARISON : (result > 0) ? GREATER_COMPARISON : getInstance();
+    }
+}
@@ -0,0 +1,274 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import static com.jamezp.util.ObjectHelper.checkArgument;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A thread-safe hash map keyed by two components, a replacement for a
+ * {@code ConcurrentMap<Pair<K1, K2>, V>} which does not allocate a
+ * {@link Pair} per entry or per lookup.
+ *
+ * <p>
+ * The map is split into stripes selected by the high bits of the key hash.
+ * Each stripe is a {@link PairKeyMap} guarded by its own
+ * {@link ReentrantReadWriteLock}, so readers of a stripe run concurrently and
+ * writers only block the one stripe. The probes of a stripe are not safe
+ * against a concurrent resize, so readers always take the read lock.
+ * </p>
+ *
+ * @param <K1> the type of the first key component.
+ * @param <K2> the type of the second key component.
+ * @param <V>  the type of the values.
+ * @author James R. Perkins (JRP)
+ */
+public final class ConcurrentPairKeyMap<K1, K2, V> {
+
+    private static final int DEFAULT_STRIPES = 16;
+
+    private final PairKeyMap<K1, K2, V>[] stripes;
+
+    private final ReadWriteLock[] locks;
+
+    private final int shift;
+
+    /**
+     * Private constructor for factory methods.
+     *
+     * @param expectedSize the expected number of entries.
+     * @param stripes      the number of stripes, a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    private ConcurrentPairKeyMap(final int expectedSize, final int stripes) {
+        this.stripes = (PairKeyMap<K1, K2, V>[]) new PairKeyMap<?, ?, ?>[stripes];
+        this.locks = new ReadWriteLock[stripes];
+        final int stripeSize = (int) ((expectedSize + (long) stripes - 1L) / stripes);
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = PairKeyMap.create(stripeSize);
+            this.locks[i] = new ReentrantReadWriteLock();
+        }
+        this.shift = 32 - Integer.numberOfTrailingZeros(stripes);
+    }
+
+    /**
+     * Creates a new empty map.
+     *
+     * @param <K1> the type of the first key component.
+     * @param <K2> the type of the second key component.
+     * @param <V>  the type of the values.
+     * @return the new map.
+     */
+    public static <K1, K2, V> ConcurrentPairKeyMap<K1, K2, V> create() {
+        return create(0, DEFAULT_STRIPES);
+    }
+
+    /**
+     * Creates a new empty map.
+     *
+     * @param <K1>         the type of the first key component.
+     * @param <K2>         the type of the second key component.
+     * @param <V>          the type of the values.
+     * @param expectedSize the expected number of entries.
+     * @param stripes      the number of independently locked stripes, rounded
+     *                     up to a power of two.
+     * @return the new map.
+     */
+    public static <K1, K2, V> ConcurrentPairKeyMap<K1, K2, V> create(final int expectedSize, final int stripes) {
+        checkArgument(expectedSize >= 0, "The expected size cannot be negative: %d", expectedSize);
+        checkArgument(stripes > 0 && stripes <= (1 << 16), "Invalid number of stripes: %d", stripes);
+        return new ConcurrentPairKeyMap<K1, K2, V>(expectedSize,
+                stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1);
+    }
+
+    /**
+     * Returns the value mapped to the key.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @return the value or {@code null} if there is no mapping.
+     */
+    public V get(final K1 first, final K2 second) {
+        final int hash = PairKeyMap.hash(first, second);
+        final int stripe = stripe(hash);
+        final Lock lock = locks[stripe].readLock();
+        lock.lock();
+        try {
+            return stripes[stripe].get(first, second, hash);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checks whether the key is mapped.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @return {@code true} if the key is mapped, otherwise {@code false}.
+     */
+    public boolean containsKey(final K1 first, final K2 second) {
+        final int hash = PairKeyMap.hash(first, second);
+        final int stripe = stripe(hash);
+        final Lock lock = locks[stripe].readLock();
+        lock.lock();
+        try {
+            return stripes[stripe].containsKey(first, second, hash);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Maps the key to the value.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @param value  the value.
+     * @return the previous value or {@code null} if there was no mapping.
+     */
+    public V put(final K1 first, final K2 second, final V value) {
+        final int hash = PairKeyMap.hash(first, second);
+        final int stripe = stripe(hash);
+        final Lock lock = locks[stripe].writeLock();
+        lock.lock();
+        try {
+            return stripes[stripe].put(first, second, value, hash);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Maps the key to the value if the key is not already mapped.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @param value  the value.
+     * @return the current value or {@code null} if the value was mapped.
+     */
+    public V putIfAbsent(final K1 first, final K2 second, final V value) {
+        final int hash = PairKeyMap.hash(first, second);
+        final int stripe = stripe(hash);
+        final Lock lock = locks[stripe].writeLock();
+        lock.lock();
+        try {
+            return stripes[stripe].putIfAbsent(first, second, value, hash);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the mapping of the key.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @return the removed value or {@code null} if there was no mapping.
+     */
+    public V remove(final K1 first, final K2 second) {
+        final int hash = PairKeyMap.hash(first, second);
+        final int stripe = stripe(hash);
+        final Lock lock = locks[stripe].writeLock();
+        lock.lock();
+        try {
+            return stripes[stripe].remove(first, second, hash);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of entries. The stripes are counted one after the
+     * other, so concurrent modifications may or may not be included.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        int size = 0;
+        for (int i = 0; i < stripes.length; i++) {
+            final Lock lock = locks[i].readLock();
+            lock.lock();
+            try {
+                size += stripes[i].size();
+            } finally {
+                lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes all entries, one stripe after the other.
+     */
+    public void clear() {
+        for (int i = 0; i < stripes.length; i++) {
+            final Lock lock = locks[i].writeLock();
+            lock.lock();
+            try {
+                stripes[i].clear();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Visits each entry, one stripe after the other while holding the read
+     * lock of the stripe. The map must not be modified by the visitor.
+     *
+     * @param visitor the visitor.
+     */
+    public void forEach(final PairKeyMap.Visitor<? super K1, ? super K2, ? super V> visitor) {
+        ObjectHelper.checkNonNull(visitor, "The visitor cannot be null.");
+        for (int i = 0; i < stripes.length; i++) {
+            final Lock lock = locks[i].readLock();
+            lock.lock();
+            try {
+                stripes[i].forEach(visitor);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return ObjectHelper.ToStringBuilder.of(this).add("size", size()).add("stripes",
+                stripes.length).toString();
+    }
+
+    private int stripe(final int hash) {
+        // A shift of 32 is a shift of 0, the mask keeps the single stripe
+        return (hash >>> shift) & (stripes.length - 1);
+    }
+}
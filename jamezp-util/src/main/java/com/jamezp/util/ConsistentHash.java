@@ -0,0 +1,182 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import static com.jamezp.util.ObjectHelper.checkNonNull;
+import java.util.Arrays;
+
+/**
+ * Consistent hashing functions for mapping keys to buckets, e.g. shards or
+ * nodes of a cluster.
+ *
+ * <p>
+ * Unlike {@code hash % n}, changing the number of buckets only moves about
+ * {@code 1/n} of the keys. Keys should be well mixed 64-bit hashes such as
+ * the ones calculated with a {@link Hash64Builder}. Lookups do not allocate.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ */
+public final class ConsistentHash {
+
+    /**
+     * Private constructor for static utility class.
+     */
+    private ConsistentHash() {
+    }
+
+    /**
+     * Maps the key to a bucket with the jump consistent hash algorithm of
+     * Lamping and Veach.
+     *
+     * <p>
+     * When the number of buckets grows from {@code n} to {@code n + 1} only
+     * the keys moving to the new bucket change buckets. Buckets can only be
+     * added or removed at the end, for arbitrary nodes or weights see
+     * {@link #rendezvous(long[], double[])}.
+     * </p>
+     *
+     * @param key     the hash of the key.
+     * @param buckets the number of buckets.
+     * @return the bucket in the range of 0, inclusive, to {@code buckets},
+     *         exclusive.
+     */
+    public static int jump(final long key, final int buckets) {
+        if (buckets < 1) {
+            throw new IllegalArgumentException(String.format("The number of buckets must be positive: %d", buckets));
+        }
+        long k = key;
+        long b = -1L;
+        long j = 0L;
+        while (j < buckets) {
+            b = j;
+            k = k * 2862933555777941757L + 1L;
+            j = (long) ((b + 1L) * ((double) (1L << 31) / (double) ((k >>> 33) + 1L)));
+        }
+        return (int) b;
+    }
+
+    /**
+     * Creates a weighted rendezvous, or highest random weight, hash of the
+     * nodes. Each node receives a share of the keys proportional to its
+     * weight.
+     *
+     * @param nodes   the unique identifiers of the nodes.
+     * @param weights the positive weight of each node.
+     * @return the rendezvous hash.
+     */
+    public static Rendezvous rendezvous(final long[] nodes, final double[] weights) {
+        return new Rendezvous(nodes, weights);
+    }
+
+    /**
+     * A weighted rendezvous hash of a fixed set of nodes.
+     *
+     * <p>
+     * The score of a key for a node depends only on the key and the node, so
+     * adding or removing a node only moves the keys that are assigned to or
+     * from that node. A lookup is linear in the number of nodes.
+     * </p>
+     */
+    public static final class Rendezvous {
+
+        private final long[] nodes;
+
+        private final double[] weights;
+
+        private Rendezvous(final long[] nodes, final double[] weights) {
+            checkNonNull(nodes, "The nodes cannot be null.");
+            checkNonNull(weights, "The weights cannot be null.");
+            if (nodes.length == 0 || nodes.length != weights.length) {
+                throw new IllegalArgumentException(String.format(
+                        "There must be at least one node and a weight for each node: %d nodes %d weights",
+                        nodes.length, weights.length));
+            }
+            for (double weight : weights) {
+                if (!(weight > 0.0d) || Double.isInfinite(weight)) {
+                    throw new IllegalArgumentException(String.format("Invalid weight: %s", weight));
+                }
+            }
+            this.nodes = nodes.clone();
+            this.weights = weights.clone();
+        }
+
+        /**
+         * Maps the key to a node.
+         *
+         * @param key the hash of the key.
+         * @return the index of the node the key is mapped to.
+         */
+        public int bucket(final long key) {
+            int result = 0;
+            double best = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < nodes.length; i++) {
+                // A uniform value in the open range (0, 1)
+                final double u = ((mix(key ^ mix(nodes[i])) >>> 11) + 0.5d) * 0x1.0p-53;
+                final double score = weights[i] / -Math.log(u);
+                if (score > best) {
+                    best = score;
+                    result = i;
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Maps the key to a node.
+         *
+         * @param key the hash of the key.
+         * @return the identifier of the node the key is mapped to.
+         */
+        public long node(final long key) {
+            return nodes[bucket(key)];
+        }
+
+        /**
+         * Returns the number of nodes.
+         *
+         * @return the number of nodes.
+         */
+        public int size() {
+            return nodes.length;
+        }
+
+        @Override
+        public String toString() {
+            return ObjectHelper.ToStringBuilder.of(this).add("nodes", Arrays.toString(nodes))
+                    .add("weights", Arrays.toString(weights)).toString();
+        }
+    }
+
+    /**
+     * The SplitMix64 finalizer.
+     */
+    private static long mix(final long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A thread-safe count-min sketch for estimating the frequency of keys.
+ *
+ * <p>
+ * As with the {@link BloomFilter} keys are given to the sketch as a 64-bit
+ * hash, typically calculated with a {@link Hash64Builder}. An estimate is
+ * never less than the true count and, with a probability of
+ * {@code 1 - delta}, exceeds it by at most {@code epsilon} times the total of
+ * all counts. Counters are updated atomically so any number of threads can
+ * add and estimate concurrently without locking.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ * @see BloomFilter
+ */
+public final class CountMinSketch {
+
+    private final AtomicLongArray counters;
+
+    private final int depth;
+
+    private final int width;
+
+    /**
+     * Private constructor for factory methods.
+     *
+     * @param depth the number of rows.
+     * @param width the number of counters per row.
+     */
+    private CountMinSketch(final int depth, final int width) {
+        this.depth = depth;
+        this.width = width;
+        this.counters = new AtomicLongArray(depth * width);
+    }
+
+    /**
+     * Creates a new sketch for the relative error and the probability of the
+     * error being exceeded.
+     *
+     * @param epsilon the relative error, greater than 0 and less than 1.
+     * @param delta   the probability of exceeding the error, greater than 0
+     *                and less than 1.
+     * @return the new sketch.
+     */
+    public static CountMinSketch create(final double epsilon, final double delta) {
+        if (!(epsilon > 0.0d && epsilon < 1.0d)) {
+            throw new IllegalArgumentException(String.format(
+                    "The relative error must be between 0 and 1: %s", epsilon));
+        }
+        if (!(delta > 0.0d && delta < 1.0d)) {
+            throw new IllegalArgumentException(String.format(
+                    "The error probability must be between 0 and 1: %s", delta));
+        }
+        final int width = (int) Math.ceil(Math.E / epsilon);
+        final int depth = (int) Math.ceil(Math.log(1.0d / delta));
+        return create(Math.max(1, depth), width);
+    }
+
+    /**
+     * Creates a new sketch with the exact number of rows and counters per
+     * row.
+     *
+     * @param depth the number of rows.
+     * @param width the number of counters per row.
+     * @return the new sketch.
+     */
+    public static CountMinSketch create(final int depth, final int width) {
+        if (depth < 1 || width < 1 || (long) depth * width > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(String.format(
+                    "Invalid dimensions: depth %d width %d", depth, width));
+        }
+        return new CountMinSketch(depth, width);
+    }
+
+    /**
+     * Reads a sketch written with {@link #writeTo(ByteBuffer)}. The position
+     * of the buffer is advanced past the sketch.
+     *
+     * @param buffer the buffer to read from.
+     * @return the sketch.
+     */
+    public static CountMinSketch readFrom(final ByteBuffer buffer) {
+        final int depth = buffer.getInt();
+        final int width = buffer.getInt();
+        final CountMinSketch result = create(depth, width);
+        for (int i = 0, len = result.counters.length(); i < len; i++) {
+            result.counters.set(i, buffer.getLong());
+        }
+        return result;
+    }
+
+    /**
+     * Adds to the count of the key.
+     *
+     * @param hash  the 64-bit hash of the key.
+     * @param count the non-negative amount to add.
+     * @return the current sketch.
+     */
+    public CountMinSketch add(final long hash, final long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException(String.format("The count cannot be negative: %d", count));
+        }
+        long combined = hash;
+        final long step = BloomFilter.step(hash);
+        for (int row = 0; row < depth; row++) {
+            counters.getAndAdd(row * width + (int) ((combined & Long.MAX_VALUE) % width), count);
+            combined += step;
+        }
+        return this;
+    }
+
+    /**
+     * Adds to the count of the key.
+     *
+     * @param key   the builder the key was added to.
+     * @param count the non-negative amount to add.
+     * @return the current sketch.
+     * @see #add(long, long)
+     */
+    public CountMinSketch add(final Hash64Builder key, final long count) {
+        return add(key.toHashCode(), count);
+    }
+
+    /**
+     * Estimates the count of the key.
+     *
+     * @param hash the 64-bit hash of the key.
+     * @return the estimated count, never less than the true count.
+     */
+    public long estimate(final long hash) {
+        long result = Long.MAX_VALUE;
+        long combined = hash;
+        final long step = BloomFilter.step(hash);
+        for (int row = 0; row < depth; row++) {
+            result = Math.min(result, counters.get(row * width + (int) ((combined & Long.MAX_VALUE) % width)));
+            combined += step;
+        }
+        return result;
+    }
+
+    /**
+     * Estimates the count of the key.
+     *
+     * @param key the builder the key was added to.
+     * @return the estimated count, never less than the true count.
+     * @see #estimate(long)
+     */
+    public long estimate(final Hash64Builder key) {
+        return estimate(key.toHashCode());
+    }
+
+    /**
+     * Returns the number of rows of the sketch.
+     *
+     * @return the depth.
+     */
+    public int depth() {
+        return depth;
+    }
+
+    /**
+     * Returns the number of counters per row of the sketch.
+     *
+     * @return the width.
+     */
+    public int width() {
+        return width;
+    }
+
+    /**
+     * Returns the number of bytes required by {@link #writeTo(ByteBuffer)}.
+     * Sketches with more than about 2<sup>28</sup> counters need more bytes
+     * than a single buffer can hold.
+     *
+     * @return the serialized size in bytes.
+     */
+    public long serializedSize() {
+        return 4L + 4L + counters.length() * 8L;
+    }
+
+    /**
+     * Writes the sketch to the buffer in the byte order of the buffer. Counts
+     * added concurrently may or may not be included.
+     *
+     * @param buffer the buffer to write to.
+     * @return the buffer.
+     */
+    public ByteBuffer writeTo(final ByteBuffer buffer) {
+        buffer.putInt(depth);
+        buffer.putInt(width);
+        for (int i = 0, len = counters.length(); i < len; i++) {
+            buffer.putLong(counters.get(i));
+        }
+        return buffer;
+    }
+
+    @Override
+    public String toString() {
+        return ObjectHelper.ToStringBuilder.of(this).add("depth", depth)
+                .add("width", width).toString();
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates {@code equals}, {@code hashCode}, {@code toString} and optionally
+ * {@code compareTo} implementations for the annotated class at compile time.
+ *
+ * <p>
+ * The {@code jamezp-util-processor} annotation processor generates a class
+ * named after the annotated class with an {@code ObjectMethods} suffix in the
+ * same package. The class has static methods the annotated class delegates to:
+ * </p>
+ * <pre>
+ * &#64;GenerateObjectMethods(compareTo = true)
+ * public class Point implements Comparable&lt;Point&gt; {
+ *     final int x;
+ *     final int y;
+ *
+ *     &#64;Override
+ *     public boolean equals(Object obj) {
+ *         return PointObjectMethods.equals(this, obj);
+ *     }
+ *
+ *     &#64;Override
+ *     public int hashCode() {
+ *         return PointObjectMethods.hashCode(this);
+ *     }
+ *
+ *     &#64;Override
+ *     public String toString() {
+ *         return PointObjectMethods.toString(this);
+ *     }
+ *
+ *     &#64;Override
+ *     public int compareTo(Point other) {
+ *         return PointObjectMethods.compareTo(this, other);
+ *     }
+ * }
+ * </pre>
+ *
+ * <p>
+ * The generated code uses the non-static, non-transient fields declared by the
+ * class in declaration order. Fields are read directly unless they are
+ * private, in which case a {@code getX()}, {@code isX()} or {@code x()}
+ * accessor is used. The methods are written out field by field without
+ * reflection. {@code equals}, {@code hashCode} and {@code compareTo} use the
+ * primitive overloads of {@link ObjectHelper#areEqual(long, long)},
+ * {@link ObjectHelper.HashCodeBuilder} and {@link Comparison#chain(int, int, int)},
+ * so primitive fields are not boxed. {@code toString} passes the values to
+ * {@link ObjectHelper.ToStringBuilder}, which boxes primitive values.
+ * </p>
+ *
+ * <p>
+ * Fields inherited from superclasses are not included. For a class whose
+ * superclass declares no instance fields the results are the same as
+ * {@link ObjectHelper#reflectionEquals(Object, Object)},
+ * {@link ObjectHelper#reflectionHashCode(Object)} and
+ * {@link ObjectHelper#reflectionToString(Object)}, which include the fields
+ * of the superclasses as well.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface GenerateObjectMethods {
+
+    /**
+     * Whether a {@code compareTo} method should be generated. Every field must
+     * be a primitive, a primitive array or {@link Comparable}.
+     *
+     * @return {@code true} to generate {@code compareTo}.
+     */
+    boolean compareTo() default false;
+
+    /**
+     * The names of the fields to exclude from all the generated methods.
+     *
+     * @return the excluded field names.
+     */
+    String[] exclude() default {};
+}
@@ -0,0 +1,460 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import static com.jamezp.util.ObjectHelper.checkNonNull;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * A builder to calculate 64-bit hash codes using the
+ * <a href="https://github.com/Cyan4973/xxHash">xxHash64</a> algorithm.
+ *
+ * <p>
+ * Values are streamed into the hash as little-endian bytes, so the result of
+ * adding a byte array is the published xxHash64 value of the array. Values
+ * are not delimited, adding "ab" and "c" produces the same hash as adding "a"
+ * and "bc". Add the length of variable length values when that matters.
+ * </p>
+ *
+ * <p>
+ * A builder can be reused with {@link #reset()} which allows the hash of many
+ * keys to be calculated without any allocation. A builder is not thread-safe.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ * @see ObjectHelper.HashCodeBuilder
+ */
+public final class Hash64Builder {
+
+    private static final long PRIME64_1 = 0x9E3779B185EBCA87L;
+
+    private static final long PRIME64_2 = 0xC2B2AE3D27D4EB4FL;
+
+    private static final long PRIME64_3 = 0x165667B19E3779F9L;
+
+    private static final long PRIME64_4 = 0x85EBCA77C2B2AE63L;
+
+    private static final long PRIME64_5 = 0x27D4EB2F165667C5L;
+
+    private static final int STRIPE = 32;
+
+    private final byte[] buffer = new byte[STRIPE];
+
+    private long seed;
+
+    private long v1;
+
+    private long v2;
+
+    private long v3;
+
+    private long v4;
+
+    private long totalLength;
+
+    private int bufferSize;
+
+    /**
+     * Private constructor for builder pattern.
+     *
+     * @param seed the seed for the hash code.
+     */
+    private Hash64Builder(final long seed) {
+        reset(seed);
+    }
+
+    /**
+     * Creates a new builder with 0 as the seed.
+     *
+     * @return the new builder.
+     */
+    public static Hash64Builder builder() {
+        return new Hash64Builder(0L);
+    }
+
+    /**
+     * Creates a new builder with the seed that is passed.
+     *
+     * @param seed the seed for the hash code.
+     * @return the new builder.
+     */
+    public static Hash64Builder builder(final long seed) {
+        return new Hash64Builder(seed);
+    }
+
+    /**
+     * Resets the builder to its initial state keeping the current seed.
+     *
+     * @return the current builder.
+     */
+    public Hash64Builder reset() {
+        return reset(seed);
+    }
+
+    /**
+     * Resets the builder to its initial state with a new seed.
+     *
+     * @param seed the seed for the hash code.
+     * @return the current builder.
+     */
+    public Hash64Builder reset(final long seed) {
+        this.seed = seed;
+        v1 = seed + PRIME64_1 + PRIME64_2;
+        v2 = seed + PRIME64_2;
+        v3 = seed;
+        v4 = seed - PRIME64_1;
+        totalLength = 0L;
+        bufferSize = 0;
+        return this;
+    }
+
+    /**
+     * Adds a boolean as a single byte of 1 or 0.
+     *
+     * @param b the boolean to add.
+     * @return the current builder.
+     */
+    public Hash64Builder add(final boolean b) {
+        return add((byte) (b ? 1 : 0));
+    }
+
+    /**
+     * Adds a single byte.
+     *
+     * @param b the byte to add.
+     * @return the current builder.
+     */
+    public Hash64Builder add(final byte b) {
+        buffer[bufferSize++] = b;
+        totalLength++;
+        if (bufferSize == STRIPE) {
+            processBuffer();
+        }
+        return this;
+    }
+
+    /**
+     * Adds a character as two bytes.
+     *
+     * @param c the character to add.
+     * @return the current builder.
+     */
+    public Hash64Builder add(final char c) {
+        return add((short) c);
+    }
+
+    /**
+     * Adds a short as two bytes.
+     *
+     * @param s the short to add.
+     * @return the current builder.
+     */
+    public Hash64Builder add(final short s) {
+        if (bufferSize + 2 <= STRIPE) {
+            buffer[bufferSize] = (byte) s;
+            buffer[bufferSize + 1] = (byte) (s >>> 8);
+            bufferSize += 2;
+            totalLength += 2;
+            if (bufferSize == STRIPE) {
+                processBuffer();
+            }
+            return this;
+        }
+        add((byte) s);
+        return add((byte) (s >>> 8));
+    }
+
+    /**
+     * Adds an integer as four bytes.
+     *
+     * @param i the integer to add.
+     * @return the current builder.
+     */
+    public Hash64Builder add(final int i) {
+        if (bufferSize + 4 <= STRIPE) {
+            buffer[bufferSize] = (byte) i;
+            buffer[bufferSize + 1] = (byte) (i >>> 8);
+            buffer[bufferSize + 2] = (byte) (i >>> 16);
+            buffer[bufferSize + 3] = (byte) (i >>> 24);
+            bufferSize += 4;
+            totalLength += 4;
+            if (bufferSize == STRIPE) {
+                processBuffer();
+            }
+            return this;
+        }
+        for (int shift = 0; shift < 32; shift += 8) {
+            add((byte) (i >>> shift));
+        }
+        return this;
+    }
+
+    /**
+     * Adds a long as eight bytes.
+     *
+     * @param lng the long to add.
+     * @return the current builder.
+     */
+    public Hash64Builder add(final long lng) {
+        if (bufferSize + 8 <= STRIPE) {
+            for (int i = 0; i < 8; i++) {
+                buffer[bufferSize + i] = (byte) (lng >>> (i << 3));
+            }
+            bufferSize += 8;
+            totalLength += 8;
+            if (bufferSize == STRIPE) {
+                processBuffer();
+            }
+            return this;
+        }
+        for (int shift = 0; shift < 64; shift += 8) {
+            add((byte) (lng >>> shift));
+        }
+        return this;
+    }
+
+    /**
+     * Adds a float as the four bytes of {@link Float#floatToIntBits(float)}.
+     *
+     * @param flt the float to add.
+     * @return the current builder.
+     */
+    public Hash64Builder add(final float flt) {
+        return add(Float.floatToIntBits(flt));
+    }
+
+    /**
+     * Adds a double as the eight bytes of
+     * {@link Double#doubleToLongBits(double)}.
+     *
+     * @param dbl the double to add.
+     * @return the current builder.
+     */
+    public Hash64Builder add(final double dbl) {
+        return add(Double.doubleToLongBits(dbl));
+    }
+
+    /**
+     * Adds the characters of the sequence, two bytes per character. No
+     * character set encoding is performed.
+     *
+     * @param chars the characters to add.
+     * @return the current builder.
+     */
+    public Hash64Builder add(final CharSequence chars) {
+        final int len = checkNonNull(chars, "The characters cannot be null.").length();
+        for (int i = 0; i < len; i++) {
+            add(chars.charAt(i));
+        }
+        return this;
+    }
+
+    /**
+     * Adds the bytes of the array.
+     *
+     * @param bytes the bytes to add.
+     * @return the current builder.
+     */
+    public Hash64Builder add(final byte[] bytes) {
+        return add(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Adds a range of bytes of the array.
+     *
+     * @param bytes  the bytes to add.
+     * @param offset the index of the first byte to add.
+     * @param length the number of bytes to add.
+     * @return the current builder.
+     */
+    public Hash64Builder add(final byte[] bytes, final int offset, final int length) {
+        ArraysSupport.rangeCheck(bytes.length, offset, offset + length);
+        int index = offset;
+        final int end = offset + length;
+        totalLength += length;
+        // Complete a partially filled stripe
+        if (bufferSize > 0) {
+            final int count = Math.min(STRIPE - bufferSize, length);
+            System.arraycopy(bytes, index, buffer, bufferSize, count);
+            bufferSize += count;
+            index += count;
+            if (bufferSize < STRIPE) {
+                return this;
+            }
+            processBuffer();
+        }
+        // Process full stripes directly from the array
+        final int limit = end - STRIPE;
+        while (index <= limit) {
+            processStripe(bytes, index);
+            index += STRIPE;
+        }
+        if (index < end) {
+            bufferSize = end - index;
+            System.arraycopy(bytes, index, buffer, 0, bufferSize);
+        }
+        return this;
+    }
+
+    /**
+     * Adds the remaining bytes of the buffer. The position of the buffer is
+     * advanced to its limit.
+     *
+     * @param bytes the bytes to add.
+     * @return the current builder.
+     */
+    public Hash64Builder add(final ByteBuffer bytes) {
+        if (bytes.hasArray()) {
+            final int position = bytes.position();
+            final int length = bytes.remaining();
+            add(bytes.array(), bytes.arrayOffset() + position, length);
+            bytes.position(position + length);
+            return this;
+        }
+        final boolean reverse = bytes.order() != ByteOrder.LITTLE_ENDIAN;
+        while (bufferSize > 0 && bytes.hasRemaining()) {
+            add(bytes.get());
+        }
+        int index = bytes.position();
+        final int end = bytes.limit();
+        final int limit = end - STRIPE;
+        while (index <= limit) {
+            v1 = round(v1, readLong(bytes, index, reverse));
+            v2 = round(v2, readLong(bytes, index + 8, reverse));
+            v3 = round(v3, readLong(bytes, index + 16, reverse));
+            v4 = round(v4, readLong(bytes, index + 24, reverse));
+            totalLength += STRIPE;
+            index += STRIPE;
+        }
+        bytes.position(index);
+        while (bytes.hasRemaining()) {
+            add(bytes.get());
+        }
+        return this;
+    }
+
+    /**
+     * Returns the calculated hash code. The builder is not modified and more
+     * values can be added after the hash code has been calculated.
+     *
+     * @return the calculated hash code.
+     */
+    public long toHashCode() {
+        long h;
+        if (totalLength >= STRIPE) {
+            h = Long.rotateLeft(v1, 1) + Long.rotateLeft(v2, 7)
+                    + Long.rotateLeft(v3, 12) + Long.rotateLeft(v4, 18);
+            h = mergeRound(h, v1);
+            h = mergeRound(h, v2);
+            h = mergeRound(h, v3);
+            h = mergeRound(h, v4);
+        } else {
+            h = seed + PRIME64_5;
+        }
+        h += totalLength;
+        int index = 0;
+        while (index + 8 <= bufferSize) {
+            h ^= round(0L, readLong(buffer, index));
+            h = Long.rotateLeft(h, 27) * PRIME64_1 + PRIME64_4;
+            index += 8;
+        }
+        if (index + 4 <= bufferSize) {
+            h ^= (readInt(buffer, index) & 0xFFFFFFFFL) * PRIME64_1;
+            h = Long.rotateLeft(h, 23) * PRIME64_2 + PRIME64_3;
+            index += 4;
+        }
+        while (index < bufferSize) {
+            h ^= (buffer[index] & 0xFFL) * PRIME64_5;
+            h = Long.rotateLeft(h, 11) * PRIME64_1;
+            index++;
+        }
+        h ^= h >>> 33;
+        h *= PRIME64_2;
+        h ^= h >>> 29;
+        h *= PRIME64_3;
+        h ^= h >>> 32;
+        return h;
+    }
+
+    /**
+     * This method overrides the default {@code Object#hashCode()}, but does
+     * not return a proper hash of this builder. Returns the folded value of
+     * {@code toHashCode()} to insure the incorrect hash code is not returned
+     * by mistake.
+     *
+     * @return the folded value of {@link #toHashCode()}.
+     */
+    @Override
+    public int hashCode() {
+        final long h = toHashCode();
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Should never be invoked on this object. Will throw an
+     * {@code AssertionError}.
+     *
+     * @param obj an object.
+     * @return nothing, always throws an {@code AssertionError}.
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        throw new AssertionError("Equals not allowed for this builder.");
+    }
+
+    private void processBuffer() {
+        processStripe(buffer, 0);
+        bufferSize = 0;
+    }
+
+    private void processStripe(final byte[] bytes, final int index) {
+        v1 = round(v1, readLong(bytes, index));
+        v2 = round(v2, readLong(bytes, index + 8));
+        v3 = round(v3, readLong(bytes, index + 16));
+        v4 = round(v4, readLong(bytes, index + 24));
+    }
+
+    private static long round(final long acc, final long input) {
+        return Long.rotateLeft(acc + input * PRIME64_2, 31) * PRIME64_1;
+    }
+
+    private static long mergeRound(final long acc, final long value) {
+        return (acc ^ round(0L, value)) * PRIME64_1 + PRIME64_4;
+    }
+
+    private static long readLong(final byte[] bytes, final int index) {
+        return ByteArrayAccess.getLongLE(bytes, index);
+    }
+
+    private static long readLong(final ByteBuffer bytes, final int index, final boolean reverse) {
+        final long value = bytes.getLong(index);
+        return reverse ? Long.reverseBytes(value) : value;
+    }
+
+    private static int readInt(final byte[] bytes, final int index) {
+        return ByteArrayAccess.getIntLE(bytes, index);
+    }
+}
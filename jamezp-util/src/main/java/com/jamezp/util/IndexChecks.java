@@ -0,0 +1,66 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+/**
+ * Index range checks backing {@link ObjectHelper#checkIndex(int, int)} and
+ * friends.
+ * <p>
+ * Runtimes that provide {@code java.util.Objects#checkIndex} get a replacement
+ * of this class which delegates to the intrinsified JDK methods.
+ * </p>
+ *
+ * @author James R. Perkins (jrp)
+ */
+final class IndexChecks {
+
+    private IndexChecks() {
+    }
+
+    static int checkIndex(final int index, final int length) {
+        if (index < 0 || index >= length) {
+            throw outOfBounds(String.format("Index %d out of bounds for length %d", index, length));
+        }
+        return index;
+    }
+
+    static int checkFromToIndex(final int fromIndex, final int toIndex, final int length) {
+        if (fromIndex < 0 || fromIndex > toIndex || toIndex > length) {
+            throw outOfBounds(String.format("Range [%d, %d) out of bounds for length %d", fromIndex, toIndex, length));
+        }
+        return fromIndex;
+    }
+
+    static int checkFromIndexSize(final int fromIndex, final int size, final int length) {
+        if ((length | fromIndex | size) < 0 || size > length - fromIndex) {
+            throw outOfBounds(String.format("Range [%d, %<d + %d) out of bounds for length %d", fromIndex, size, length));
+        }
+        return fromIndex;
+    }
+
+    private static IndexOutOfBoundsException outOfBounds(final String message) {
+        return new IndexOutOfBoundsException(message);
+    }
+}
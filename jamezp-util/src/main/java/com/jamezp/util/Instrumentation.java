@@ -0,0 +1,491 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import com.jamezp.util.ObjectHelper.ToStringBuilder;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongBinaryOperator;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * An opt-in registry counting how the hot utilities of this library are used.
+ *
+ * <p>
+ * The registry is enabled by starting the JVM with the
+ * {@value #ENABLED_PROPERTY} system property set to {@code true}. The
+ * property is read once, the instrumented call sites check a
+ * {@code static final} flag which the JIT folds to a constant, so a disabled
+ * registry costs nothing after compilation.
+ * </p>
+ *
+ * <p>
+ * The counters are {@link LongAdder striped} so concurrent call sites do not
+ * contend. The data can be read with {@link #snapshot()} or exposed as the
+ * {@value #OBJECT_NAME} MXBean with {@link #registerMBean()}.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ */
+public final class Instrumentation {
+
+    /**
+     * The system property which enables the instrumentation.
+     */
+    public static final String ENABLED_PROPERTY = "com.jamezp.util.instrumentation";
+
+    /**
+     * The object name the MXBean is registered with.
+     */
+    public static final String OBJECT_NAME = "com.jamezp.util:type=Instrumentation";
+
+    static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+    /**
+     * The metrics that are recorded. Each metric has a count, the total of the
+     * recorded values and the largest recorded value.
+     */
+    public enum Metric {
+        /**
+         * The {@link ObjectHelper.HashCodeBuilder hash code builders} created.
+         * No value is recorded.
+         */
+        HASH_CODE_BUILDERS,
+        /**
+         * The arrays added to hash code builders, the value is the length of
+         * the array. Nested arrays are recorded separately.
+         */
+        HASHED_ARRAYS,
+        /**
+         * The {@link ObjectHelper.ToStringBuilder string builders} rendered to
+         * a string or string builder, the value is the number of characters
+         * rendered. Renders to other appendables are not recorded.
+         */
+        TO_STRING_RENDERS,
+        /**
+         * The {@link Comparison comparisons} whose result was taken, the value
+         * is the depth of the comparison, i.e. the number of steps evaluated
+         * before the result was decided. Comparisons whose result is never
+         * taken are not recorded. The {@code Comparison.chain} methods carry
+         * no state besides their result, their steps are only recorded as
+         * {@link #COMPARISON_STEPS}.
+         */
+        COMPARISONS,
+        /**
+         * The steps of comparisons and of {@code Comparison.chain} methods
+         * evaluated, steps after the result was decided are not evaluated. No
+         * value is recorded.
+         */
+        COMPARISON_STEPS
+    }
+
+    private static final LongBinaryOperator MAX = new LongBinaryOperator() {
+        @Override
+        public long applyAsLong(final long left, final long right) {
+            return Math.max(left, right);
+        }
+    };
+
+    private static final Counter[] COUNTERS;
+
+    /**
+     * The comparisons a thread can nest before they share a depth.
+     */
+    private static final int MAX_NESTED_COMPARISONS = 16;
+
+    /**
+     * The depths of the open comparisons of the thread, the first element is
+     * the number of open comparisons.
+     */
+    private static final ThreadLocal<int[]> COMPARISON_DEPTHS = new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+            return new int[MAX_NESTED_COMPARISONS + 1];
+        }
+    };
+
+    static {
+        COUNTERS = new Counter[Metric.values().length];
+        for (int i = 0; i < COUNTERS.length; i++) {
+            COUNTERS[i] = new Counter();
+        }
+    }
+
+    private Instrumentation() {
+    }
+
+    /**
+     * Checks whether the instrumentation is enabled.
+     *
+     * @return {@code true} if the {@value #ENABLED_PROPERTY} system property
+     *         was {@code true} when this class was initialized.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Returns a copy of the current counters. The counters are not read
+     * atomically, concurrent updates may be partially included.
+     *
+     * @return the snapshot.
+     */
+    public static Snapshot snapshot() {
+        final long[] values = new long[COUNTERS.length * 3];
+        for (int i = 0; i < COUNTERS.length; i++) {
+            values[i * 3] = COUNTERS[i].count.sum();
+            values[i * 3 + 1] = COUNTERS[i].total.sum();
+            values[i * 3 + 2] = COUNTERS[i].max.get();
+        }
+        return new Snapshot(values);
+    }
+
+    /**
+     * Resets all counters to zero.
+     */
+    public static void reset() {
+        for (Counter counter : COUNTERS) {
+            counter.count.reset();
+            counter.total.reset();
+            counter.max.reset();
+        }
+    }
+
+    /**
+     * Registers the {@link InstrumentationMXBean} with the platform MBean
+     * server.
+     *
+     * @return the name the MXBean was registered with.
+     * @throws IllegalStateException if the MXBean could not be registered.
+     */
+    public static ObjectName registerMBean() {
+        return registerMBean(ManagementFactory.getPlatformMBeanServer());
+    }
+
+    /**
+     * Registers the {@link InstrumentationMXBean} with the server, unless it
+     * is already registered.
+     *
+     * @param server the server to register the MXBean with.
+     * @return the name the MXBean was registered with.
+     * @throws IllegalStateException if the MXBean could not be registered.
+     */
+    public static ObjectName registerMBean(final MBeanServer server) {
+        ObjectHelper.checkNonNull(server, "The MBean server cannot be null");
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new Bean(), name);
+            }
+            return name;
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Unregisters the {@link InstrumentationMXBean} from the server if it is
+     * registered.
+     *
+     * @param server the server to unregister the MXBean from.
+     * @throws IllegalStateException if the MXBean could not be unregistered.
+     */
+    public static void unregisterMBean(final MBeanServer server) {
+        ObjectHelper.checkNonNull(server, "The MBean server cannot be null");
+        try {
+            final ObjectName name = new ObjectName(OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Records an occurrence of the metric without a value. Callers check
+     * {@link #ENABLED} first.
+     *
+     * @param metric the metric to record.
+     */
+    static void record(final Metric metric) {
+        COUNTERS[metric.ordinal()].count.increment();
+    }
+
+    /**
+     * Records an occurrence of the metric with the value. Callers check
+     * {@link #ENABLED} first.
+     *
+     * @param metric the metric to record.
+     * @param value  the value, e.g. a length.
+     */
+    static void record(final Metric metric, final long value) {
+        final Counter counter = COUNTERS[metric.ordinal()];
+        counter.count.increment();
+        counter.total.add(value);
+        if (value > counter.max.get()) {
+            counter.max.accumulate(value);
+        }
+    }
+
+    /**
+     * Opens a comparison of the current thread. Callers check
+     * {@link #ENABLED} first.
+     */
+    static void beginComparison() {
+        final int[] depths = COMPARISON_DEPTHS.get();
+        if (depths[0] < MAX_NESTED_COMPARISONS) {
+            depths[0]++;
+        }
+        depths[depths[0]] = 0;
+    }
+
+    /**
+     * Records a step of the innermost open comparison of the current thread.
+     * Callers check {@link #ENABLED} first.
+     */
+    static void comparisonStep() {
+        record(Metric.COMPARISON_STEPS);
+        final int[] depths = COMPARISON_DEPTHS.get();
+        if (depths[0] > 0) {
+            depths[depths[0]]++;
+        }
+    }
+
+    /**
+     * Closes the innermost open comparison of the current thread and
+     * records its depth. Callers check {@link #ENABLED} first.
+     */
+    static void endComparison() {
+        final int[] depths = COMPARISON_DEPTHS.get();
+        if (depths[0] > 0) {
+            record(Metric.COMPARISONS, depths[depths[0]]);
+            depths[0]--;
+        }
+    }
+
+    /**
+     * The counters of a single metric.
+     */
+    private static final class Counter {
+        final LongAdder count = new LongAdder();
+        final LongAdder total = new LongAdder();
+        final LongAccumulator max = new LongAccumulator(MAX, 0L);
+    }
+
+    /**
+     * An immutable copy of the counters.
+     */
+    public static final class Snapshot {
+        private final long[] values;
+
+        private Snapshot(final long[] values) {
+            this.values = values;
+        }
+
+        /**
+         * Returns the number of times the metric was recorded.
+         *
+         * @param metric the metric.
+         * @return the count.
+         */
+        public long count(final Metric metric) {
+            return values[metric.ordinal() * 3];
+        }
+
+        /**
+         * Returns the sum of the values recorded for the metric.
+         *
+         * @param metric the metric.
+         * @return the total.
+         */
+        public long total(final Metric metric) {
+            return values[metric.ordinal() * 3 + 1];
+        }
+
+        /**
+         * Returns the largest value recorded for the metric.
+         *
+         * @param metric the metric.
+         * @return the largest value, 0 if none was recorded.
+         */
+        public long max(final Metric metric) {
+            return values[metric.ordinal() * 3 + 2];
+        }
+
+        /**
+         * Returns the average value recorded for the metric.
+         *
+         * @param metric the metric.
+         * @return the average value, 0 if none was recorded.
+         */
+        public double average(final Metric metric) {
+            final long count = count(metric);
+            return (count == 0L ? 0.0d : (double) total(metric) / count);
+        }
+
+        @Override
+        public String toString() {
+            final ToStringBuilder builder = ToStringBuilder.of(this);
+            for (Metric metric : Metric.values()) {
+                builder.add(metric.name(), "count=" + count(metric) + ",total=" + total(metric)
+                        + ",max=" + max(metric));
+            }
+            return builder.toString();
+        }
+    }
+
+    /**
+     * The management interface of the instrumentation.
+     */
+    public interface InstrumentationMXBean {
+
+        /**
+         * @return whether the instrumentation is enabled.
+         */
+        boolean isEnabled();
+
+        /**
+         * @return the number of hash code builders created.
+         */
+        long getHashCodeBuilders();
+
+        /**
+         * @return the number of arrays added to hash code builders.
+         */
+        long getHashedArrays();
+
+        /**
+         * @return the total number of array elements hashed.
+         */
+        long getHashedArrayElements();
+
+        /**
+         * @return the length of the largest array hashed.
+         */
+        long getMaxHashedArrayLength();
+
+        /**
+         * @return the number of string builders rendered.
+         */
+        long getToStringRenders();
+
+        /**
+         * @return the total number of characters rendered.
+         */
+        long getRenderedCharacters();
+
+        /**
+         * @return the length of the longest rendered string.
+         */
+        long getMaxRenderedLength();
+
+        /**
+         * @return the number of comparisons whose result was taken.
+         */
+        long getComparisons();
+
+        /**
+         * @return the number of steps evaluated by the deepest comparison.
+         */
+        long getMaxComparisonDepth();
+
+        /**
+         * @return the number of comparison steps evaluated.
+         */
+        long getComparisonSteps();
+
+        /**
+         * Resets all counters to zero.
+         */
+        void reset();
+    }
+
+    private static final class Bean implements InstrumentationMXBean {
+
+        @Override
+        public boolean isEnabled() {
+            return ENABLED;
+        }
+
+        @Override
+        public long getHashCodeBuilders() {
+            return COUNTERS[Metric.HASH_CODE_BUILDERS.ordinal()].count.sum();
+        }
+
+        @Override
+        public long getHashedArrays() {
+            return COUNTERS[Metric.HASHED_ARRAYS.ordinal()].count.sum();
+        }
+
+        @Override
+        public long getHashedArrayElements() {
+            return COUNTERS[Metric.HASHED_ARRAYS.ordinal()].total.sum();
+        }
+
+        @Override
+        public long getMaxHashedArrayLength() {
+            return COUNTERS[Metric.HASHED_ARRAYS.ordinal()].max.get();
+        }
+
+        @Override
+        public long getToStringRenders() {
+            return COUNTERS[Metric.TO_STRING_RENDERS.ordinal()].count.sum();
+        }
+
+        @Override
+        public long getRenderedCharacters() {
+            return COUNTERS[Metric.TO_STRING_RENDERS.ordinal()].total.sum();
+        }
+
+        @Override
+        public long getMaxRenderedLength() {
+            return COUNTERS[Metric.TO_STRING_RENDERS.ordinal()].max.get();
+        }
+
+        @Override
+        public long getComparisons() {
+            return COUNTERS[Metric.COMPARISONS.ordinal()].count.sum();
+        }
+
+        @Override
+        public long getMaxComparisonDepth() {
+            return COUNTERS[Metric.COMPARISONS.ordinal()].max.get();
+        }
+
+        @Override
+        public long getComparisonSteps() {
+            return COUNTERS[Metric.COMPARISON_STEPS.ordinal()].count.sum();
+        }
+
+        @Override
+        public void reset() {
+            Instrumentation.reset();
+        }
+    }
+}
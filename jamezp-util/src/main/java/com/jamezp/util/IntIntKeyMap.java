@@ -0,0 +1,344 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.util.Arrays;
+
+/**
+ * A hash map keyed by two {@code int} components, a replacement for a
+ * {@code Map<Pair<Integer, Integer>, V>} which neither boxes the keys nor
+ * allocates per entry or per lookup.
+ *
+ * <p>
+ * Both components are packed into a single {@code long} per slot, stored with
+ * open addressing and linear probing in parallel key and value arrays. The
+ * key {@code (0, 0)} marks an empty slot, so its mapping is held outside of
+ * the table. Values may be {@code null}.
+ * </p>
+ *
+ * <p>
+ * The map is not thread-safe.
+ * </p>
+ *
+ * @param <V> the type of the values.
+ * @author James R. Perkins (JRP)
+ * @see PairKeyMap
+ */
+public final class IntIntKeyMap<V> {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 12;
+
+    private long[] keys;
+
+    private Object[] values;
+
+    private int size;
+
+    private int threshold;
+
+    private boolean hasZeroKey;
+
+    private V zeroValue;
+
+    /**
+     * Private constructor for factory methods.
+     *
+     * @param capacity the number of slots.
+     */
+    private IntIntKeyMap(final int capacity) {
+        allocate(capacity);
+    }
+
+    /**
+     * Visits the entries of a map.
+     *
+     * @param <V> the type of the values.
+     */
+    public interface Visitor<V> {
+
+        /**
+         * Visits an entry.
+         *
+         * @param first  the first key component.
+         * @param second the second key component.
+         * @param value  the value.
+         */
+        void visit(int first, int second, V value);
+    }
+
+    /**
+     * Creates a new empty map.
+     *
+     * @param <V> the type of the values.
+     * @return the new map.
+     */
+    public static <V> IntIntKeyMap<V> create() {
+        return create(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates a new empty map which holds the expected number of entries
+     * without resizing.
+     *
+     * @param <V>          the type of the values.
+     * @param expectedSize the expected number of entries.
+     * @return the new map.
+     */
+    public static <V> IntIntKeyMap<V> create(final int expectedSize) {
+        return new IntIntKeyMap<V>(PairKeyMap.tableSize(expectedSize));
+    }
+
+    /**
+     * Returns the value mapped to the key.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @return the value or {@code null} if there is no mapping.
+     */
+    public V get(final int first, final int second) {
+        return getOrDefault(first, second, null);
+    }
+
+    /**
+     * Returns the value mapped to the key.
+     *
+     * @param first        the first key component.
+     * @param second       the second key component.
+     * @param defaultValue the value returned if there is no mapping.
+     * @return the value or the {@code defaultValue} if there is no mapping.
+     */
+    public V getOrDefault(final int first, final int second, final V defaultValue) {
+        final long key = pack(first, second);
+        if (key == 0L) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        final int index = indexOf(key);
+        return index < 0 ? defaultValue : valueAt(index);
+    }
+
+    /**
+     * Checks whether the key is mapped.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @return {@code true} if the key is mapped, otherwise {@code false}.
+     */
+    public boolean containsKey(final int first, final int second) {
+        final long key = pack(first, second);
+        return key == 0L ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    /**
+     * Maps the key to the value.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @param value  the value.
+     * @return the previous value or {@code null} if there was no mapping.
+     */
+    public V put(final int first, final int second, final V value) {
+        final long key = pack(first, second);
+        if (key == 0L) {
+            final V previous = zeroValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+        final long[] keys = this.keys;
+        final int mask = keys.length - 1;
+        int i = PairKeyMap.mix(key) & mask;
+        for (long k; (k = keys[i]) != 0L; i = (i + 1) & mask) {
+            if (k == key) {
+                final V previous = valueAt(i);
+                values[i] = value;
+                return previous;
+            }
+        }
+        if (size - (hasZeroKey ? 1 : 0) == threshold) {
+            resize();
+            i = freeSlot(this.keys, key);
+        }
+        this.keys[i] = key;
+        values[i] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the mapping of the key.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @return the removed value or {@code null} if there was no mapping.
+     */
+    public V remove(final int first, final int second) {
+        final long key = pack(first, second);
+        if (key == 0L) {
+            final V previous = zeroValue;
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = null;
+                size--;
+            }
+            return previous;
+        }
+        final int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        final V previous = valueAt(index);
+        final long[] keys = this.keys;
+        final int mask = keys.length - 1;
+        // Shift back the following entries which probed past the removed one
+        int gap = index;
+        for (int i = (gap + 1) & mask; keys[i] != 0L; i = (i + 1) & mask) {
+            final int ideal = PairKeyMap.mix(keys[i]) & mask;
+            if (((i - ideal) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = 0L;
+        values[gap] = null;
+        size--;
+        return previous;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the map is empty.
+     *
+     * @return {@code true} if there are no entries, otherwise {@code false}.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries, the table keeps its capacity.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(values, null);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    /**
+     * Visits each entry. The map must not be modified by the visitor.
+     *
+     * @param visitor the visitor.
+     */
+    public void forEach(final Visitor<? super V> visitor) {
+        ObjectHelper.checkNonNull(visitor, "The visitor cannot be null.");
+        if (hasZeroKey) {
+            visitor.visit(0, 0, zeroValue);
+        }
+        final long[] keys = this.keys;
+        for (int i = 0; i < keys.length; i++) {
+            final long key = keys[i];
+            if (key != 0L) {
+                visitor.visit((int) (key >>> 32), (int) key, this.<V>valueAt(i));
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return ObjectHelper.ToStringBuilder.of(this).add("size", size).add("capacity",
+                keys.length).toString();
+    }
+
+    private int indexOf(final long key) {
+        final long[] keys = this.keys;
+        final int mask = keys.length - 1;
+        for (int i = PairKeyMap.mix(key) & mask;; i = (i + 1) & mask) {
+            final long k = keys[i];
+            if (k == key) {
+                return i;
+            }
+            if (k == 0L) {
+                return -1;
+            }
+        }
+    }
+
+    private void resize() {
+        final long[] oldKeys = keys;
+        final Object[] oldValues = values;
+        PairKeyMap.checkGrowable(oldKeys.length);
+        allocate(oldKeys.length << 1);
+        for (int j = 0; j < oldKeys.length; j++) {
+            final long key = oldKeys[j];
+            if (key != 0L) {
+                final int i = freeSlot(keys, key);
+                keys[i] = key;
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        threshold = PairKeyMap.threshold(capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T valueAt(final int index) {
+        return (T) values[index];
+    }
+
+    private static int freeSlot(final long[] keys, final long key) {
+        final int mask = keys.length - 1;
+        int i = PairKeyMap.mix(key) & mask;
+        while (keys[i] != 0L) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private static long pack(final int first, final int second) {
+        return ((long) first << 32) | (second & 0xFFFFFFFFL);
+    }
+}
@@ -0,0 +1,352 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.util.Arrays;
+
+/**
+ * A hash map keyed by two {@code long} components, a replacement for a
+ * {@code Map<Pair<Long, Long>, V>} which neither boxes the keys nor
+ * allocates per entry or per lookup.
+ *
+ * <p>
+ * Entries are stored with open addressing and linear probing in three
+ * parallel arrays, one per key component and one for the values. The key
+ * {@code (0, 0)} marks an empty slot, so its mapping is held outside of the
+ * table. Values may be {@code null}.
+ * </p>
+ *
+ * <p>
+ * The map is not thread-safe.
+ * </p>
+ *
+ * @param <V> the type of the values.
+ * @author James R. Perkins (JRP)
+ * @see PairKeyMap
+ */
+public final class LongLongKeyMap<V> {
+
+    private static final int DEFAULT_EXPECTED_SIZE = 12;
+
+    private long[] firsts;
+
+    private long[] seconds;
+
+    private Object[] values;
+
+    private int size;
+
+    private int threshold;
+
+    private boolean hasZeroKey;
+
+    private V zeroValue;
+
+    /**
+     * Private constructor for factory methods.
+     *
+     * @param capacity the number of slots.
+     */
+    private LongLongKeyMap(final int capacity) {
+        allocate(capacity);
+    }
+
+    /**
+     * Visits the entries of a map.
+     *
+     * @param <V> the type of the values.
+     */
+    public interface Visitor<V> {
+
+        /**
+         * Visits an entry.
+         *
+         * @param first  the first key component.
+         * @param second the second key component.
+         * @param value  the value.
+         */
+        void visit(long first, long second, V value);
+    }
+
+    /**
+     * Creates a new empty map.
+     *
+     * @param <V> the type of the values.
+     * @return the new map.
+     */
+    public static <V> LongLongKeyMap<V> create() {
+        return create(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates a new empty map which holds the expected number of entries
+     * without resizing.
+     *
+     * @param <V>          the type of the values.
+     * @param expectedSize the expected number of entries.
+     * @return the new map.
+     */
+    public static <V> LongLongKeyMap<V> create(final int expectedSize) {
+        return new LongLongKeyMap<V>(PairKeyMap.tableSize(expectedSize));
+    }
+
+    /**
+     * Returns the value mapped to the key.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @return the value or {@code null} if there is no mapping.
+     */
+    public V get(final long first, final long second) {
+        return getOrDefault(first, second, null);
+    }
+
+    /**
+     * Returns the value mapped to the key.
+     *
+     * @param first        the first key component.
+     * @param second       the second key component.
+     * @param defaultValue the value returned if there is no mapping.
+     * @return the value or the {@code defaultValue} if there is no mapping.
+     */
+    public V getOrDefault(final long first, final long second, final V defaultValue) {
+        if ((first | second) == 0L) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        final int index = indexOf(first, second);
+        return index < 0 ? defaultValue : valueAt(index);
+    }
+
+    /**
+     * Checks whether the key is mapped.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @return {@code true} if the key is mapped, otherwise {@code false}.
+     */
+    public boolean containsKey(final long first, final long second) {
+        return (first | second) == 0L ? hasZeroKey : indexOf(first, second) >= 0;
+    }
+
+    /**
+     * Maps the key to the value.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @param value  the value.
+     * @return the previous value or {@code null} if there was no mapping.
+     */
+    public V put(final long first, final long second, final V value) {
+        if ((first | second) == 0L) {
+            final V previous = zeroValue;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            zeroValue = value;
+            return previous;
+        }
+        final long[] firsts = this.firsts;
+        final long[] seconds = this.seconds;
+        final int mask = firsts.length - 1;
+        int i = hash(first, second) & mask;
+        for (long f, s; ((f = firsts[i]) | (s = seconds[i])) != 0L; i = (i + 1) & mask) {
+            if (f == first && s == second) {
+                final V previous = valueAt(i);
+                values[i] = value;
+                return previous;
+            }
+        }
+        if (size - (hasZeroKey ? 1 : 0) == threshold) {
+            resize();
+            i = freeSlot(this.firsts, this.seconds, hash(first, second));
+        }
+        this.firsts[i] = first;
+        this.seconds[i] = second;
+        values[i] = value;
+        size++;
+        return null;
+    }
+
+    /**
+     * Removes the mapping of the key.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @return the removed value or {@code null} if there was no mapping.
+     */
+    public V remove(final long first, final long second) {
+        if ((first | second) == 0L) {
+            final V previous = zeroValue;
+            if (hasZeroKey) {
+                hasZeroKey = false;
+                zeroValue = null;
+                size--;
+            }
+            return previous;
+        }
+        final int index = indexOf(first, second);
+        if (index < 0) {
+            return null;
+        }
+        final V previous = valueAt(index);
+        final long[] firsts = this.firsts;
+        final long[] seconds = this.seconds;
+        final int mask = firsts.length - 1;
+        // Shift back the following entries which probed past the removed one
+        int gap = index;
+        for (int i = (gap + 1) & mask; (firsts[i] | seconds[i]) != 0L; i = (i + 1) & mask) {
+            final int ideal = hash(firsts[i], seconds[i]) & mask;
+            if (((i - ideal) & mask) >= ((i - gap) & mask)) {
+                firsts[gap] = firsts[i];
+                seconds[gap] = seconds[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        firsts[gap] = 0L;
+        seconds[gap] = 0L;
+        values[gap] = null;
+        size--;
+        return previous;
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the map is empty.
+     *
+     * @return {@code true} if there are no entries, otherwise {@code false}.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries, the table keeps its capacity.
+     */
+    public void clear() {
+        Arrays.fill(firsts, 0L);
+        Arrays.fill(seconds, 0L);
+        Arrays.fill(values, null);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    /**
+     * Visits each entry. The map must not be modified by the visitor.
+     *
+     * @param visitor the visitor.
+     */
+    public void forEach(final Visitor<? super V> visitor) {
+        ObjectHelper.checkNonNull(visitor, "The visitor cannot be null.");
+        if (hasZeroKey) {
+            visitor.visit(0, 0, zeroValue);
+        }
+        final long[] firsts = this.firsts;
+        final long[] seconds = this.seconds;
+        for (int i = 0; i < firsts.length; i++) {
+            if ((firsts[i] | seconds[i]) != 0L) {
+                visitor.visit(firsts[i], seconds[i], this.<V>valueAt(i));
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return ObjectHelper.ToStringBuilder.of(this).add("size", size).add("capacity",
+                firsts.length).toString();
+    }
+
+    private int indexOf(final long first, final long second) {
+        final long[] firsts = this.firsts;
+        final long[] seconds = this.seconds;
+        final int mask = firsts.length - 1;
+        for (int i = hash(first, second) & mask;; i = (i + 1) & mask) {
+            final long f = firsts[i];
+            final long s = seconds[i];
+            if (f == first && s == second) {
+                return i;
+            }
+            if ((f | s) == 0L) {
+                return -1;
+            }
+        }
+    }
+
+    private void resize() {
+        final long[] oldFirsts = firsts;
+        final long[] oldSeconds = seconds;
+        final Object[] oldValues = values;
+        PairKeyMap.checkGrowable(oldFirsts.length);
+        allocate(oldFirsts.length << 1);
+        for (int j = 0; j < oldFirsts.length; j++) {
+            if ((oldFirsts[j] | oldSeconds[j]) != 0L) {
+                final int i = freeSlot(firsts, seconds, hash(oldFirsts[j], oldSeconds[j]));
+                firsts[i] = oldFirsts[j];
+                seconds[i] = oldSeconds[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private void allocate(final int capacity) {
+        firsts = new long[capacity];
+        seconds = new long[capacity];
+        values = new Object[capacity];
+        threshold = PairKeyMap.threshold(capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T valueAt(final int index) {
+        return (T) values[index];
+    }
+
+    private static int freeSlot(final long[] firsts, final long[] seconds, final int hash) {
+        final int mask = firsts.length - 1;
+        int i = hash & mask;
+        while ((firsts[i] | seconds[i]) != 0L) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private static int hash(final long first, final long second) {
+        return PairKeyMap.mix(first ^ Long.rotateLeft(second * 0x9E3779B97F4A7C15L, 32));
+    }
+}
@@ -0,0 +1,381 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import static com.jamezp.util.ObjectHelper.checkArgument;
+import static com.jamezp.util.ObjectHelper.checkIndex;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * A growable list of {@code long} pairs stored column by column, either on the
+ * heap or off the heap in direct buffers.
+ *
+ * <p>
+ * The first and the second components are kept in two parallel
+ * {@link LongBuffer}s, so an element costs 16 bytes and, off the heap, adds
+ * nothing the garbage collector has to trace or copy. A
+ * {@link LongLongPair} is only created when an element is requested with
+ * {@link #get(int)} or through the {@link #asList()} view.
+ * </p>
+ * <pre>
+ * final LongLongPairList joined = LongLongPairList.offHeap(1 &lt;&lt; 24);
+ * ...
+ * joined.sortByFirst();
+ * final long matches = joined.parallelIndices().filter(i -&gt; joined.second(i) &gt; 0L).count();
+ * </pre>
+ *
+ * <p>
+ * Off heap memory is released once the list is garbage collected. A direct
+ * column holds at most {@code Integer.MAX_VALUE / 8} elements.
+ * </p>
+ *
+ * <p>
+ * The list is not thread-safe, it may however be read by any number of
+ * threads while it is not modified.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ * @see PairList
+ */
+public final class LongLongPairList {
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private static final int MAX_DIRECT_CAPACITY = Integer.MAX_VALUE / Long.BYTES;
+
+    private final boolean direct;
+
+    private LongBuffer firsts;
+
+    private LongBuffer seconds;
+
+    private int size;
+
+    /**
+     * Private constructor for factory methods.
+     *
+     * @param capacity the initial capacity.
+     * @param direct   {@code true} to store the columns off the heap.
+     */
+    private LongLongPairList(final int capacity, final boolean direct) {
+        this.direct = direct;
+        this.firsts = allocate(capacity, direct);
+        this.seconds = allocate(capacity, direct);
+    }
+
+    /**
+     * Creates a new empty list stored on the heap.
+     *
+     * @param capacity the number of elements the list holds before growing.
+     * @return the new list.
+     */
+    public static LongLongPairList onHeap(final int capacity) {
+        checkArgument(capacity >= 0 && capacity <= PairList.MAX_CAPACITY, "Invalid capacity: %d", capacity);
+        return new LongLongPairList(capacity, false);
+    }
+
+    /**
+     * Creates a new empty list stored off the heap in direct buffers.
+     *
+     * @param capacity the number of elements the list holds before growing.
+     * @return the new list.
+     */
+    public static LongLongPairList offHeap(final int capacity) {
+        checkArgument(capacity >= 0 && capacity <= MAX_DIRECT_CAPACITY, "Invalid capacity: %d", capacity);
+        return new LongLongPairList(capacity, true);
+    }
+
+    /**
+     * Appends an element.
+     *
+     * @param first  the first component.
+     * @param second the second component.
+     */
+    public void add(final long first, final long second) {
+        if (size == firsts.capacity()) {
+            final int capacity = PairList.grow(size, direct ? MAX_DIRECT_CAPACITY : PairList.MAX_CAPACITY);
+            firsts = copyOf(firsts, size, capacity, direct);
+            seconds = copyOf(seconds, size, capacity, direct);
+        }
+        firsts.put(size, first);
+        seconds.put(size, second);
+        size++;
+    }
+
+    /**
+     * Replaces the element at the index.
+     *
+     * @param index  the index of the element.
+     * @param first  the first component.
+     * @param second the second component.
+     */
+    public void set(final int index, final long first, final long second) {
+        checkIndex(index, size);
+        firsts.put(index, first);
+        seconds.put(index, second);
+    }
+
+    /**
+     * Returns the first component of the element at the index.
+     *
+     * @param index the index of the element.
+     * @return the first component.
+     */
+    public long first(final int index) {
+        return firsts.get(checkIndex(index, size));
+    }
+
+    /**
+     * Returns the second component of the element at the index.
+     *
+     * @param index the index of the element.
+     * @return the second component.
+     */
+    public long second(final int index) {
+        return seconds.get(checkIndex(index, size));
+    }
+
+    /**
+     * Creates a pair of the element at the index.
+     *
+     * @param index the index of the element.
+     * @return a new pair of the components.
+     */
+    public LongLongPair get(final int index) {
+        return LongLongPair.of(first(index), second(index));
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return the number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the list is empty.
+     *
+     * @return {@code true} if there are no elements, otherwise {@code false}.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Checks whether the columns are stored off the heap.
+     *
+     * @return {@code true} if the columns are direct buffers, otherwise
+     *         {@code false}.
+     */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    /**
+     * Removes all elements, the list keeps its capacity.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Sorts the elements by their first component, elements with equal first
+     * components are ordered by their second component as a
+     * {@link Comparison#chain(int, long, long) chained} comparison would.
+     */
+    public void sortByFirst() {
+        sort(firsts, seconds, 0, size);
+    }
+
+    /**
+     * Sorts the elements by their second component, elements with equal second
+     * components are ordered by their first component as a
+     * {@link Comparison#chain(int, long, long) chained} comparison would.
+     */
+    public void sortBySecond() {
+        sort(seconds, firsts, 0, size);
+    }
+
+    /**
+     * Returns a stream of the indexes of the elements.
+     *
+     * @return a sequential stream of the indexes.
+     */
+    public IntStream indices() {
+        return IntStream.range(0, size);
+    }
+
+    /**
+     * Returns a parallel stream of the indexes of the elements, for processing
+     * the columns in parallel without creating pairs.
+     *
+     * @return a parallel stream of the indexes.
+     */
+    public IntStream parallelIndices() {
+        return indices().parallel();
+    }
+
+    /**
+     * Returns a list view of the elements. The pairs are created when they are
+     * requested, setting a pair writes its components to the columns.
+     *
+     * @return the list view.
+     */
+    public List<LongLongPair> asList() {
+        return new LongLongPairListView();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return ObjectHelper.ToStringBuilder.of(this).add("size", size).add("direct", direct).toString();
+    }
+
+    private static LongBuffer allocate(final int capacity, final boolean direct) {
+        if (direct) {
+            return ByteBuffer.allocateDirect(capacity * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+        }
+        return LongBuffer.allocate(capacity);
+    }
+
+    private static LongBuffer copyOf(final LongBuffer column, final int size, final int capacity,
+            final boolean direct) {
+        final LongBuffer copy = allocate(capacity, direct);
+        final LongBuffer src = column.duplicate();
+        // Through Buffer, the covariant overrides do not exist before Java 9
+        ((Buffer) src).position(0).limit(size);
+        copy.put(src);
+        return copy;
+    }
+
+    /**
+     * In place quick sort of the keys, moving the values along. Equal keys are
+     * ordered by their values.
+     */
+    private static void sort(final LongBuffer keys, final LongBuffer values, int from, int to) {
+        while (to - from > 16) {
+            final int mid = (from + to) >>> 1;
+            final int pivot = medianOf(keys, values, from, mid, to - 1);
+            final long pivotKey = keys.get(pivot);
+            final long pivotValue = values.get(pivot);
+            int i = from;
+            int j = to - 1;
+            while (i <= j) {
+                while (compare(keys.get(i), values.get(i), pivotKey, pivotValue) < 0) {
+                    i++;
+                }
+                while (compare(keys.get(j), values.get(j), pivotKey, pivotValue) > 0) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(keys, values, i++, j--);
+                }
+            }
+            // Recurse into the smaller side, loop on the larger one
+            if (j - from < to - i) {
+                sort(keys, values, from, j + 1);
+                from = i;
+            } else {
+                sort(keys, values, i, to);
+                to = j + 1;
+            }
+        }
+        for (int i = from + 1; i < to; i++) {
+            for (int j = i; j > from && compare(keys.get(j - 1), values.get(j - 1), keys.get(j), values.get(j)) > 0; j--) {
+                swap(keys, values, j - 1, j);
+            }
+        }
+    }
+
+    private static int medianOf(final LongBuffer keys, final LongBuffer values, final int a, final int b,
+            final int c) {
+        final long ka = keys.get(a), kb = keys.get(b), kc = keys.get(c);
+        final long va = values.get(a), vb = values.get(b), vc = values.get(c);
+        if (compare(ka, va, kb, vb) < 0) {
+            if (compare(kb, vb, kc, vc) < 0) {
+                return b;
+            }
+            return compare(ka, va, kc, vc) < 0 ? c : a;
+        }
+        if (compare(ka, va, kc, vc) < 0) {
+            return a;
+        }
+        return compare(kb, vb, kc, vc) < 0 ? c : b;
+    }
+
+    private static int compare(final long leftKey, final long leftValue, final long rightKey,
+            final long rightValue) {
+        return Comparison.chain(Comparison.chain(0, leftKey, rightKey), leftValue, rightValue);
+    }
+
+    private static void swap(final LongBuffer keys, final LongBuffer values, final int i, final int j) {
+        final long key = keys.get(i);
+        keys.put(i, keys.get(j));
+        keys.put(j, key);
+        final long value = values.get(i);
+        values.put(i, values.get(j));
+        values.put(j, value);
+    }
+
+    private final class LongLongPairListView extends AbstractList<LongLongPair> implements RandomAccess {
+
+        @Override
+        public LongLongPair get(final int index) {
+            return LongLongPairList.this.get(index);
+        }
+
+        @Override
+        public LongLongPair set(final int index, final LongLongPair element) {
+            final LongLongPair previous = LongLongPairList.this.get(index);
+            LongLongPairList.this.set(index, element.first(), element.second());
+            return previous;
+        }
+
+        @Override
+        public boolean add(final LongLongPair element) {
+            LongLongPairList.this.add(element.first(), element.second());
+            modCount++;
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,1622 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.function.Supplier;
+
+/**
+ * 
+ * Simple utilities for Objects.
+ *
+ * @author James R. Perkins (jrp)
+ */
+public class ObjectHelper {
+
+    /**
+     * The nesting depth at which {@link #deepEquals(Object, Object)} starts
+     * tracking the objects it has visited.
+     */
+    static final int DEEP_EQUALS_TRACKING_DEPTH = 64;
+
+    /**
+     * Checks to see if two booleans are equal.
+     * 
+     * @param first  the first boolean.
+     * @param second the second boolean.
+     * @return {@code true} if the first is equal to the second, otherwise
+     *         {@code false}.
+     */
+    public static boolean areEqual(final boolean first, final boolean second) {
+        return first == second;
+    }
+    /**
+     * Checks to see if two characters are equal.
+     * 
+     * @param first  the first character.
+     * @param second the second character.
+     * @return {@code true} if the first is equal to the second, otherwise
+     *         {@code false}.
+     */
+    public static boolean areEqual(final char first, final char second) {
+        return first == second;
+    }
+    /**
+     * Checks to see if two longs are equal. This method is also used for int's,
+     * shorts, and bytes.
+     * 
+     * @param first  the first long.
+     * @param second the second long.
+     * @return {@code true} if the first is equal to the second, otherwise
+     *         {@code false}.
+     */
+    public static boolean areEqual(final long first, final long second) {
+        return first == second;
+    }
+    /**
+     * Checks to see if two floats are equal.
+     * 
+     * @param first  the first float.
+     * @param second the second float.
+     * @return {@code true} if the first is equal to the second, otherwise
+     *         {@code false}.
+     */
+    public static boolean areEqual(final float first, final float second) {
+        return Float.floatToIntBits(first) == Float.floatToIntBits(second);
+    }
+    /**
+     * Checks to see if two doubles are equal.
+     * 
+     * @param first  the first double.
+     * @param second the second double.
+     * @return {@code true} if the first is equal to the second, otherwise
+     *         {@code false}.
+     */
+    public static boolean areEqual(final double first, final double second) {
+        return Double.doubleToLongBits(first) == Double.doubleToLongBits(second);
+    }
+    
+    /**
+     * Checks to see if two objects are equal. 
+     * 
+     * <p>
+     * Note this method does not handle arrays. Use
+     * {@link #deepEquals(Object, Object)} to compare arrays by their elements.
+     * </p>
+     * 
+     * @param first  the first optionally {@code null} object.
+     * @param second the second optionally {@code null} object.
+     * @return {@code true} if the first is equal to the second, otherwise
+     *         {@code false}.
+     */
+    public static boolean areEqual(final Object first, final Object second) {
+        return (first == null ? second == null : first.equals(second));
+    }
+
+    /**
+     * Checks to see if two objects are deeply equal.
+     * 
+     * <p>
+     * Arrays of the same primitive type are compared with
+     * {@link Arrays#equals(int[], int[]) Arrays.equals}, object arrays,
+     * {@link List lists} and {@link Map maps} are compared element by element
+     * using this method recursively. Differing lengths or sizes are detected
+     * before any elements are compared. Map keys are looked up with the second
+     * map's own key equality. Any other objects are compared with
+     * {@link #areEqual(Object, Object)}.
+     * </p>
+     * 
+     * <p>
+     * Objects that are deeply equal have the same
+     * {@link #deepHashCode(Object) deep hash code}.
+     * </p>
+     * 
+     * <p>
+     * Structures that contain themselves are detected once the nesting is
+     * deeper than {@value #DEEP_EQUALS_TRACKING_DEPTH} levels, shallower
+     * structures are compared without any tracking overhead. A pair of
+     * objects that is already being compared is assumed to be equal, so
+     * structures which repeat the same values with a different period are
+     * equal.
+     * </p>
+     * 
+     * @param first  the first optionally {@code null} object.
+     * @param second the second optionally {@code null} object.
+     * @return {@code true} if the first is deeply equal to the second,
+     *         otherwise {@code false}.
+     */
+    public static boolean deepEquals(final Object first, final Object second) {
+        return deepEquals(first, second, 0, null);
+    }
+
+    /**
+     * Returns a hash code consistent with {@link #deepEquals(Object, Object)}.
+     * 
+     * <p>
+     * Arrays and {@link List lists} add their elements in place, hashing
+     * arrays the same way {@link HashCodeBuilder#add(Object)} does. A
+     * {@link Map map} adds the sum of the hash codes of its keys combined with
+     * the deep hash codes of their values, so the iteration order of the map
+     * does not matter. Any other object adds its own {@code hashCode()}.
+     * </p>
+     * 
+     * <p>
+     * A structure that contains itself, at any depth, has no finite deep hash
+     * code, its hash code is the hash code of its length or size. Like
+     * {@link #deepEquals(Object, Object)}, structures are only tracked once
+     * the nesting is deeper than {@value #DEEP_EQUALS_TRACKING_DEPTH} levels.
+     * </p>
+     * 
+     * @param obj the optionally {@code null} object.
+     * @return the deep hash code.
+     */
+    public static int deepHashCode(final Object obj) {
+        final HashCodeBuilder builder = HashCodeBuilder.builder();
+        if (deepHash(builder, obj, 0, null)) {
+            return builder.toHashCode();
+        }
+        final int size = (obj instanceof Object[] ? ((Object[]) obj).length
+                : (obj instanceof List ? ((List<?>) obj).size() : ((Map<?, ?>) obj).size()));
+        return HashCodeBuilder.builder().add(size).toHashCode();
+    }
+
+    /**
+     * Adds the deep hash code of the object to the builder.
+     * 
+     * @return {@code false} if the object contains itself, the builder is
+     *         left in an undefined state.
+     */
+    private static boolean deepHash(final HashCodeBuilder builder, final Object obj, final int depth,
+            final IdentityHashMap<Object, Object> path) {
+        if (!(obj instanceof Object[]) && !(obj instanceof List) && !(obj instanceof Map)) {
+            builder.add(obj);
+            return true;
+        }
+        IdentityHashMap<Object, Object> tracked = path;
+        if (depth >= DEEP_EQUALS_TRACKING_DEPTH) {
+            if (tracked == null) {
+                tracked = new IdentityHashMap<Object, Object>();
+            }
+            if (tracked.put(obj, obj) != null) {
+                return false;
+            }
+        }
+        final int next = depth + 1;
+        try {
+            if (obj instanceof Object[]) {
+                for (Object element : (Object[]) obj) {
+                    if (!deepHash(builder, element, next, tracked)) {
+                        return false;
+                    }
+                }
+            } else if (obj instanceof List) {
+                for (Object element : (List<?>) obj) {
+                    if (!deepHash(builder, element, next, tracked)) {
+                        return false;
+                    }
+                }
+            } else {
+                int sum = 0;
+                for (Map.Entry<?, ?> entry : ((Map<?, ?>) obj).entrySet()) {
+                    final HashCodeBuilder value = HashCodeBuilder.builder();
+                    if (!deepHash(value, entry.getValue(), next, tracked)) {
+                        return false;
+                    }
+                    final Object key = entry.getKey();
+                    sum += (key == null ? 0 : key.hashCode()) ^ value.toHashCode();
+                }
+                builder.add(sum);
+            }
+            return true;
+        } finally {
+            if (depth >= DEEP_EQUALS_TRACKING_DEPTH) {
+                tracked.remove(obj);
+            }
+        }
+    }
+
+    private static boolean deepEquals(final Object first, final Object second, final int depth,
+            final IdentityHashMap<Object, IdentityHashMap<Object, Object>> visited) {
+        if (first == second) {
+            return true;
+        }
+        if (first == null || second == null) {
+            return false;
+        }
+        final boolean array = first.getClass().isArray();
+        if (!array && !(first instanceof List) && !(first instanceof Map)) {
+            return first.equals(second);
+        }
+        if (array && !(first instanceof Object[])) {
+            return primitiveArrayEquals(first, second);
+        }
+        IdentityHashMap<Object, IdentityHashMap<Object, Object>> tracked = visited;
+        if (depth >= DEEP_EQUALS_TRACKING_DEPTH) {
+            if (tracked == null) {
+                tracked = new IdentityHashMap<Object, IdentityHashMap<Object, Object>>();
+            }
+            // A pair already being compared is assumed equal, the comparison
+            // in progress determines the result. An object may be compared
+            // with several partners, so all of them are tracked.
+            IdentityHashMap<Object, Object> partners = tracked.get(first);
+            if (partners == null) {
+                partners = new IdentityHashMap<Object, Object>();
+                tracked.put(first, partners);
+            }
+            if (partners.put(second, second) != null) {
+                return true;
+            }
+        }
+        final int next = depth + 1;
+        if (array) {
+            if (!(second instanceof Object[])) {
+                return false;
+            }
+            final Object[] a = (Object[]) first;
+            final Object[] b = (Object[]) second;
+            if (a.length != b.length) {
+                return false;
+            }
+            for (int i = 0; i < a.length; i++) {
+                if (!deepEquals(a[i], b[i], next, tracked)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (first instanceof List) {
+            if (!(second instanceof List)) {
+                return false;
+            }
+            final List<?> a = (List<?>) first;
+            final List<?> b = (List<?>) second;
+            if (a.size() != b.size()) {
+                return false;
+            }
+            if (a instanceof RandomAccess && b instanceof RandomAccess) {
+                for (int i = 0, size = a.size(); i < size; i++) {
+                    if (!deepEquals(a.get(i), b.get(i), next, tracked)) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            final Iterator<?> iterB = b.iterator();
+            for (Object element : a) {
+                if (!iterB.hasNext() || !deepEquals(element, iterB.next(), next, tracked)) {
+                    return false;
+                }
+            }
+            return !iterB.hasNext();
+        }
+        if (!(second instanceof Map)) {
+            return false;
+        }
+        final Map<?, ?> a = (Map<?, ?>) first;
+        final Map<?, ?> b = (Map<?, ?>) second;
+        if (a.size() != b.size()) {
+            return false;
+        }
+        for (Map.Entry<?, ?> entry : a.entrySet()) {
+            final Object value = b.get(entry.getKey());
+            if (value == null && !b.containsKey(entry.getKey())) {
+                return false;
+            }
+            if (!deepEquals(entry.getValue(), value, next, tracked)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean primitiveArrayEquals(final Object first, final Object second) {
+        if (first.getClass() != second.getClass()) {
+            return false;
+        }
+        if (first instanceof int[]) {
+            return Arrays.equals((int[]) first, (int[]) second);
+        } else if (first instanceof long[]) {
+            return Arrays.equals((long[]) first, (long[]) second);
+        } else if (first instanceof double[]) {
+            return Arrays.equals((double[]) first, (double[]) second);
+        } else if (first instanceof float[]) {
+            return Arrays.equals((float[]) first, (float[]) second);
+        } else if (first instanceof byte[]) {
+            return Arrays.equals((byte[]) first, (byte[]) second);
+        } else if (first instanceof char[]) {
+            return Arrays.equals((char[]) first, (char[]) second);
+        } else if (first instanceof short[]) {
+            return Arrays.equals((short[]) first, (short[]) second);
+        }
+        return Arrays.equals((boolean[]) first, (boolean[]) second);
+    }
+
+    /**
+     * Checks to see if two objects are equal by comparing their fields.
+     * 
+     * <p>
+     * The objects are equal if they are the same instance, or both are of the
+     * same class and all non-static, non-transient fields of the class and its
+     * superclasses are equal. Primitive fields are compared as with the
+     * {@code areEqual} methods and arrays are compared deeply.
+     * </p>
+     * 
+     * <p>
+     * The fields of a class are looked up once and cached, later invocations
+     * for the same class perform no reflective lookups. The fields must be
+     * accessible to this library.
+     * </p>
+     * 
+     * @param first  the first optionally {@code null} object.
+     * @param second the second optionally {@code null} object.
+     * @return {@code true} if the first is equal to the second, otherwise
+     *         {@code false}.
+     */
+    public static boolean reflectionEquals(final Object first, final Object second) {
+        if (first == second) {
+            return true;
+        }
+        if (first == null || second == null || first.getClass() != second.getClass()) {
+            return false;
+        }
+        return ReflectionPlan.of(first.getClass()).areEqual(first, second);
+    }
+
+    /**
+     * Calculates the hash code of an object from its fields. Each field, in
+     * the order described by {@link #reflectionEquals(Object, Object)}, is
+     * added to a {@link HashCodeBuilder} with the default seed.
+     * 
+     * @param obj the optionally {@code null} object.
+     * @return the hash code of the object, 0 if the object is {@code null}.
+     */
+    public static int reflectionHashCode(final Object obj) {
+        if (obj == null) {
+            return 0;
+        }
+        return ReflectionPlan.of(obj.getClass()).hashCode(obj);
+    }
+
+    /**
+     * Creates the string value of an object from its fields with a
+     * {@link ToStringBuilder}.
+     * 
+     * @param obj the optionally {@code null} object.
+     * @return the string value of the object, {@code "null"} if the object is
+     *         {@code null}.
+     * @see #reflectionEquals(Object, Object)
+     */
+    public static String reflectionToString(final Object obj) {
+        if (obj == null) {
+            return "null";
+        }
+        return ReflectionPlan.of(obj.getClass()).toString(obj);
+    }
+
+    /**
+     * Checks to see if an object is {@code null}, otherwise throws an
+     *         {@link IllegalArgumentException}.
+     * 
+     * @param <T> the type of the object.
+     * @param ref the reference to the object.
+     * @return the reference if it is not {@code null}.
+     */
+    public static <T> T checkNonNull(final T ref) {
+        if (ref == null) {
+            throw new IllegalArgumentException();
+        }
+        return ref;
+    }
+
+    /**
+     * Checks to see if an object is {@code null}, otherwise throws an
+     *         {@link IllegalArgumentException}.
+     * 
+     * @param <T>     the type of the object.
+     * @param ref     the reference to the object.
+     * @param message the message used in the {@code IllegalArgumentException}
+     *                constructor.
+     * @return the reference if it is not {@code null}.
+     */
+    public static <T> T checkNonNull(final T ref, final String message) {
+        if (ref == null) {
+            throw new IllegalArgumentException(message);
+        }
+        return ref;
+    }
+
+    /**
+     * Checks to see if an object is {@code null}, otherwise throws an
+     *         {@link IllegalArgumentException}.
+     * 
+     * @param <T>     the type of the object.
+     * @param ref     the reference to the object.
+     * @param message the message  format used in the
+     *                {@code IllegalArgumentException} constructor.
+     * @param args    the arguments used to format the message.
+     * @return the reference if it is not {@code null}.
+     */
+    public static <T> T checkNonNull(final T ref, final String message, final Object... args) {
+        if (ref == null) {
+            throw new IllegalArgumentException(String.format(message, args));
+        }
+        return ref;
+    }
+
+    /**
+     * Checks to see if an object is {@code null}, otherwise throws an
+     *         {@link IllegalArgumentException}.
+     * <p>
+     * Unlike {@link #checkNonNull(Object, String, Object...)} no array is
+     * allocated for the argument, the message is only formatted on failure.
+     * </p>
+     * 
+     * @param <T>     the type of the object.
+     * @param ref     the reference to the object.
+     * @param message the message format used in the
+     *                {@code IllegalArgumentException} constructor.
+     * @param arg1    the argument used to format the message.
+     * @return the reference if it is not {@code null}.
+     */
+    public static <T> T checkNonNull(final T ref, final String message, final Object arg1) {
+        if (ref == null) {
+            throw illegalArgument(message, arg1);
+        }
+        return ref;
+    }
+
+    /**
+     * Checks to see if an object is {@code null}, otherwise throws an
+     *         {@link IllegalArgumentException}.
+     * 
+     * @param <T>     the type of the object.
+     * @param ref     the reference to the object.
+     * @param message the message format used in the
+     *                {@code IllegalArgumentException} constructor.
+     * @param arg1    the first argument used to format the message.
+     * @param arg2    the second argument used to format the message.
+     * @return the reference if it is not {@code null}.
+     */
+    public static <T> T checkNonNull(final T ref, final String message, final Object arg1, final Object arg2) {
+        if (ref == null) {
+            throw illegalArgument(message, arg1, arg2);
+        }
+        return ref;
+    }
+
+    /**
+     * Checks to see if an object is {@code null}, otherwise throws an
+     *         {@link IllegalArgumentException}.
+     * 
+     * @param <T>     the type of the object.
+     * @param ref     the reference to the object.
+     * @param message the message format used in the
+     *                {@code IllegalArgumentException} constructor.
+     * @param arg1    the first argument used to format the message.
+     * @param arg2    the second argument used to format the message.
+     * @param arg3    the third argument used to format the message.
+     * @return the reference if it is not {@code null}.
+     */
+    public static <T> T checkNonNull(final T ref, final String message, final Object arg1, final Object arg2,
+            final Object arg3) {
+        if (ref == null) {
+            throw illegalArgument(message, arg1, arg2, arg3);
+        }
+        return ref;
+    }
+
+    /**
+     * Checks to see if an object is {@code null}, otherwise throws an
+     *         {@link IllegalArgumentException}.
+     * 
+     * @param <T>     the type of the object.
+     * @param ref     the reference to the object.
+     * @param message the message format used in the
+     *                {@code IllegalArgumentException} constructor.
+     * @param arg1    the first argument used to format the message.
+     * @param arg2    the second argument used to format the message.
+     * @param arg3    the third argument used to format the message.
+     * @param arg4    the fourth argument used to format the message.
+     * @return the reference if it is not {@code null}.
+     */
+    public static <T> T checkNonNull(final T ref, final String message, final Object arg1, final Object arg2,
+            final Object arg3, final Object arg4) {
+        if (ref == null) {
+            throw illegalArgument(message, arg1, arg2, arg3, arg4);
+        }
+        return ref;
+    }
+
+    /**
+     * Checks to see if an object is {@code null}, otherwise throws an
+     *         {@link IllegalArgumentException}.
+     * 
+     * @param <T>     the type of the object.
+     * @param ref     the reference to the object.
+     * @param message supplies the message used in the
+     *                {@code IllegalArgumentException} constructor, only
+     *                invoked on failure.
+     * @return the reference if it is not {@code null}.
+     */
+    public static <T> T checkNonNullLazy(final T ref, final Supplier<String> message) {
+        if (ref == null) {
+            throw new IllegalArgumentException(message == null ? null : message.get());
+        }
+        return ref;
+    }
+
+    /**
+     * Checks the expression is {@code true}, otherwise throws an
+     *         {@link IllegalArgumentException}.
+     * 
+     * @param expression the expression to check.
+     */
+    public static void checkArgument(final boolean expression) {
+        if (!expression) {
+            throw new IllegalArgumentException();
+        }
+    }
+
+    /**
+     * Checks the expression is {@code true}, otherwise throws an
+     *         {@link IllegalArgumentException}.
+     * 
+     * @param expression the expression to check.
+     * @param message    the message used in the
+     *                   {@code IllegalArgumentException} constructor.
+     */
+    public static void checkArgument(final boolean expression, final String message) {
+        if (!expression) {
+            throw new IllegalArgumentException(message);
+        }
+    }
+
+    /**
+     * Checks the expression is {@code true}, otherwise throws an
+     *         {@link IllegalArgumentException}.
+     * 
+     * @param expression the expression to check.
+     * @param message    the message format used in the
+     *                   {@code IllegalArgumentException} constructor.
+     * @param arg1       the argument used to format the message.
+     */
+    public static void checkArgument(final boolean expression, final String message, final Object arg1) {
+        if (!expression) {
+            throw illegalArgument(message, arg1);
+        }
+    }
+
+    /**
+     * Checks the expression is {@code true}, otherwise throws an
+     *         {@link IllegalArgumentException}.
+     * 
+     * @param expression the expression to check.
+     * @param message    the message format used in the
+     *                   {@code IllegalArgumentException} constructor.
+     * @param arg1       the first argument used to format the message.
+     * @param arg2       the second argument used to format the message.
+     */
+    public static void checkArgument(final boolean expression, final String message, final Object arg1,
+            final Object arg2) {
+        if (!expression) {
+            throw illegalArgument(message, arg1, arg2);
+        }
+    }
+
+    /**
+     * Checks the expression is {@code true}, otherwise throws an
+     *         {@link IllegalArgumentException}.
+     * 
+     * @param expression the expression to check.
+     * @param message    supplies the message used in the
+     *                   {@code IllegalArgumentException} constructor, only
+     *                   invoked on failure.
+     */
+    public static void checkArgumentLazy(final boolean expression, final Supplier<String> message) {
+        if (!expression) {
+            throw new IllegalArgumentException(message == null ? null : message.get());
+        }
+    }
+
+    /**
+     * Checks the expression is {@code true}, otherwise throws an
+     *         {@link IllegalStateException}.
+     * 
+     * @param expression the expression to check.
+     */
+    public static void checkState(final boolean expression) {
+        if (!expression) {
+            throw new IllegalStateException();
+        }
+    }
+
+    /**
+     * Checks the expression is {@code true}, otherwise throws an
+     *         {@link IllegalStateException}.
+     * 
+     * @param expression the expression to check.
+     * @param message    the message used in the
+     *                   {@code IllegalStateException} constructor.
+     */
+    public static void checkState(final boolean expression, final String message) {
+        if (!expression) {
+            throw new IllegalStateException(message);
+        }
+    }
+
+    /**
+     * Checks the expression is {@code true}, otherwise throws an
+     *         {@link IllegalStateException}.
+     * 
+     * @param expression the expression to check.
+     * @param message    the message format used in the
+     *                   {@code IllegalStateException} constructor.
+     * @param arg1       the argument used to format the message.
+     */
+    public static void checkState(final boolean expression, final String message, final Object arg1) {
+        if (!expression) {
+            throw illegalState(message, arg1);
+        }
+    }
+
+    /**
+     * Checks the expression is {@code true}, otherwise throws an
+     *         {@link IllegalStateException}.
+     * 
+     * @param expression the expression to check.
+     * @param message    the message format used in the
+     *                   {@code IllegalStateException} constructor.
+     * @param arg1       the first argument used to format the message.
+     * @param arg2       the second argument used to format the message.
+     */
+    public static void checkState(final boolean expression, final String message, final Object arg1,
+            final Object arg2) {
+        if (!expression) {
+            throw illegalState(message, arg1, arg2);
+        }
+    }
+
+    /**
+     * Checks the expression is {@code true}, otherwise throws an
+     *         {@link IllegalStateException}.
+     * 
+     * @param expression the expression to check.
+     * @param message    supplies the message used in the
+     *                   {@code IllegalStateException} constructor, only
+     *                   invoked on failure.
+     */
+    public static void checkStateLazy(final boolean expression, final Supplier<String> message) {
+        if (!expression) {
+            throw new IllegalStateException(message == null ? null : message.get());
+        }
+    }
+
+    /**
+     * Checks the index is within the bounds of {@code 0} (inclusive) to
+     *         {@code length} (exclusive), otherwise throws an
+     *         {@link IndexOutOfBoundsException}.
+     * 
+     * @param index  the index to check.
+     * @param length the upper bound (exclusive).
+     * @return the index.
+     */
+    public static int checkIndex(final int index, final int length) {
+        return IndexChecks.checkIndex(index, length);
+    }
+
+    /**
+     * Checks the range {@code fromIndex} (inclusive) to {@code toIndex}
+     *         (exclusive) is within the bounds of {@code 0} to
+     *         {@code length}, otherwise throws an
+     *         {@link IndexOutOfBoundsException}.
+     * 
+     * @param fromIndex the lower bound of the range (inclusive).
+     * @param toIndex   the upper bound of the range (exclusive).
+     * @param length    the upper bound (exclusive).
+     * @return the {@code fromIndex}.
+     */
+    public static int checkFromToIndex(final int fromIndex, final int toIndex, final int length) {
+        return IndexChecks.checkFromToIndex(fromIndex, toIndex, length);
+    }
+
+    /**
+     * Checks the range {@code fromIndex} (inclusive) to
+     *         {@code fromIndex + size} (exclusive) is within the bounds of
+     *         {@code 0} to {@code length}, otherwise throws an
+     *         {@link IndexOutOfBoundsException}.
+     * 
+     * @param fromIndex the lower bound of the range (inclusive).
+     * @param size      the size of the range.
+     * @param length    the upper bound (exclusive).
+     * @return the {@code fromIndex}.
+     */
+    public static int checkFromIndexSize(final int fromIndex, final int size, final int length) {
+        return IndexChecks.checkFromIndexSize(fromIndex, size, length);
+    }
+
+    private static IllegalArgumentException illegalArgument(final String message, final Object... args) {
+        return new IllegalArgumentException(String.format(message, args));
+    }
+
+    private static IllegalStateException illegalState(final String message, final Object... args) {
+        return new IllegalStateException(String.format(message, args));
+    }
+    
+    /**
+     * A builder to simplify the building of hash codes.
+     * 
+     * @see Hash64Builder
+     */
+    public static class HashCodeBuilder {
+        private final int seed;
+        private int hash;
+        
+        /**
+         * Private constructor for builder pattern.
+         * 
+         * @param seed the seed for the hash code.
+         */
+        private HashCodeBuilder(final int seed) {
+            this.seed = seed;
+            hash = 17;
+            if (Instrumentation.ENABLED) {
+                Instrumentation.record(Instrumentation.Metric.HASH_CODE_BUILDERS);
+            }
+        }
+        
+        /**
+         * Creates a new builder with 31 as the seed.
+         * 
+         * @return the new builder.
+         */
+        public static HashCodeBuilder builder() {
+            return new HashCodeBuilder(31);
+        }
+        
+        /**
+         * Creates a new builder with the seed that is passed.
+         * 
+         * @param seed the seed for the hash code.
+         * @return the new builder.
+         */
+        public static HashCodeBuilder builder(final int seed) {
+            return new HashCodeBuilder(seed);
+        }
+        
+        /**
+         * Creates a new builder continuing from a hash code calculated with
+         * the same seed.
+         * 
+         * @param seed the seed for the hash code.
+         * @param hash the hash code to continue from.
+         * @return the new builder.
+         */
+        static HashCodeBuilder builder(final int seed, final int hash) {
+            final HashCodeBuilder builder = new HashCodeBuilder(seed);
+            builder.hash = hash;
+            return builder;
+        }
+        
+        /**
+         * Adds the hash code of a boolean to the final hash code value.
+         * 
+         * @param b a boolean to calculate the hash code of.
+         * @return the current builder.
+         */
+        public HashCodeBuilder add(final boolean b) {
+            hash = calc() + (b ? 1 : 0);
+            return this;
+        }
+        
+        /**
+         * Adds the hash code of a character to the final hash code value.
+         * 
+         * @param c a character to calculate the hash code of.
+         * @return the current builder.
+         */
+        public HashCodeBuilder add(final char c) {
+            hash = calc() + (int) c;
+            return this;
+        }
+        
+        /**
+         * Adds the hash code of an integer to the final hash code value.
+         * 
+         * <p>
+         * Both shorts and bytes use this method to add the hash value.
+         * </p>
+         * 
+         * @param i an integer to calculate the hash code of.
+         * @return the current builder.
+         */
+        public HashCodeBuilder add(final int i) {
+            hash = calc() + i;
+            return this;
+        }
+        
+        /**
+         * Adds the hash code of a long to the final hash code value.
+         * 
+         * @param lng a long to calculate the hash code of.
+         * @return the current builder.
+         */
+        public HashCodeBuilder add(final long lng) {
+            hash = calc() + (int)(lng ^ (lng >>> 32));
+            return this;
+        }
+        
+        /**
+         * Adds the hash code of a float to the final hash code value.
+         * 
+         * @param flt a float to calculate the hash code of.
+         * @return the current builder.
+         */
+        public HashCodeBuilder add(final float flt) {
+            return add(Float.floatToIntBits(flt));
+        }
+        
+        /**
+         * Adds the hash code of a double to the final hash code value.
+         * 
+         * @param dbl a double to calculate the hash code of.
+         * @return the current builder.
+         */
+        public HashCodeBuilder add(final double dbl) {
+            return add(Double.doubleToLongBits(dbl));
+        }
+        
+        /**
+         * Adds the hash code of an object to the final hash code value. 
+         * 
+         * <p>
+         * If the {@code obj} is {@code null} the hash code is calculated using
+         * {@link #add(int)} with a value of 0. Otherwise the hash code is 
+         * calculated using {@link #add(int)} with a value of 
+         * {@code obj.hashCode()}, unless the object is an array. In this case
+         * each element is added as if its boxed value had been passed to this
+         * method, i.e. a {@code boolean} element adds 1231 or 1237 as
+         * {@link Boolean#hashCode()} does.
+         * </p>
+         * 
+         * <p>
+         * Nested arrays are hashed deeply by recursively invoking this method,
+         * so the elements of a nested array are added in place of the nested
+         * array itself. Arrays that contain themselves are not detected.
+         * </p>
+         * 
+         * @param obj the object to calculate the hash code of.
+         * @return the current builder.
+         */
+        public HashCodeBuilder add(final Object obj) {
+            if (obj == null) {
+                add(0);
+            } else if (!obj.getClass().isArray()) {
+                add(obj.hashCode());
+            } else {
+                if (Instrumentation.ENABLED) {
+                    Instrumentation.record(Instrumentation.Metric.HASHED_ARRAYS, Array.getLength(obj));
+                }
+                addArray(obj);
+            }
+            return this;
+        }
+
+        private void addArray(final Object obj) {
+            if (obj instanceof Object[]) {
+                for (Object element : (Object[]) obj) {
+                    add(element);
+                }
+            } else if (obj instanceof int[]) {
+                addAll((int[]) obj);
+            } else if (obj instanceof long[]) {
+                addAll((long[]) obj);
+            } else if (obj instanceof double[]) {
+                addAll((double[]) obj);
+            } else if (obj instanceof float[]) {
+                addAll((float[]) obj);
+            } else if (obj instanceof byte[]) {
+                addAll((byte[]) obj);
+            } else if (obj instanceof char[]) {
+                addAll((char[]) obj);
+            } else if (obj instanceof short[]) {
+                addAll((short[]) obj);
+            } else {
+                addAll((boolean[]) obj);
+            }
+        }
+        
+        /**
+         * Adds the elements of the array in parallel. The result is the same
+         * as {@link #add(Object)} with the array.
+         * 
+         * <p>
+         * The array is split into ranges which are hashed independently in a
+         * fork-join pool and then combined. The common pool is used unless
+         * this is invoked from within a fork-join pool. The array must not be
+         * modified until this method returns.
+         * </p>
+         * 
+         * @param array the array to calculate the hash code of.
+         * @return the current builder.
+         */
+        public HashCodeBuilder addParallel(final byte[] array) {
+            return addParallel(ParallelHashTask.of(array), array.length);
+        }
+        
+        /**
+         * Adds the elements of the array in parallel. The result is the same
+         * as {@link #add(Object)} with the array.
+         * 
+         * @param array the array to calculate the hash code of.
+         * @return the current builder.
+         * @see #addParallel(byte[])
+         */
+        public HashCodeBuilder addParallel(final char[] array) {
+            return addParallel(ParallelHashTask.of(array), array.length);
+        }
+        
+        /**
+         * Adds the elements of the array in parallel. The result is the same
+         * as {@link #add(Object)} with the array.
+         * 
+         * @param array the array to calculate the hash code of.
+         * @return the current builder.
+         * @see #addParallel(byte[])
+         */
+        public HashCodeBuilder addParallel(final short[] array) {
+            return addParallel(ParallelHashTask.of(array), array.length);
+        }
+        
+        /**
+         * Adds the elements of the array in parallel. The result is the same
+         * as {@link #add(Object)} with the array.
+         * 
+         * @param array the array to calculate the hash code of.
+         * @return the current builder.
+         * @see #addParallel(byte[])
+         */
+        public HashCodeBuilder addParallel(final int[] array) {
+            return addParallel(ParallelHashTask.of(array), array.length);
+        }
+        
+        /**
+         * Adds the elements of the array in parallel. The result is the same
+         * as {@link #add(Object)} with the array.
+         * 
+         * @param array the array to calculate the hash code of.
+         * @return the current builder.
+         * @see #addParallel(byte[])
+         */
+        public HashCodeBuilder addParallel(final long[] array) {
+            return addParallel(ParallelHashTask.of(array), array.length);
+        }
+        
+        /**
+         * Adds the elements of the array in parallel. The result is the same
+         * as {@link #add(Object)} with the array.
+         * 
+         * @param array the array to calculate the hash code of.
+         * @return the current builder.
+         * @see #addParallel(byte[])
+         */
+        public HashCodeBuilder addParallel(final float[] array) {
+            return addParallel(ParallelHashTask.of(array), array.length);
+        }
+        
+        /**
+         * Adds the elements of the array in parallel. The result is the same
+         * as {@link #add(Object)} with the array.
+         * 
+         * @param array the array to calculate the hash code of.
+         * @return the current builder.
+         * @see #addParallel(byte[])
+         */
+        public HashCodeBuilder addParallel(final double[] array) {
+            return addParallel(ParallelHashTask.of(array), array.length);
+        }
+        
+        /**
+         * Adds the remaining bytes of the buffer in parallel. The result is
+         * the same as {@link #add(Object)} with a byte array of the remaining
+         * bytes. The position of the buffer is not changed.
+         * 
+         * @param buffer the buffer to calculate the hash code of.
+         * @return the current builder.
+         * @see #addParallel(byte[])
+         */
+        public HashCodeBuilder addParallel(final ByteBuffer buffer) {
+            return addParallel(ParallelHashTask.of(buffer), buffer.remaining());
+        }
+        
+        /**
+         * Adds the bytes of a file in parallel. The result is the same as
+         * {@link #add(Object)} with a byte array of the contents of the file.
+         * 
+         * <p>
+         * Regions of the file are memory-mapped and hashed independently, so
+         * files larger than the largest array can be hashed. The position of
+         * the channel is not changed.
+         * </p>
+         * 
+         * @param channel the channel of the file to calculate the hash code of.
+         * @return the current builder.
+         * @throws IOException if the file could not be read.
+         * @see #addParallel(byte[])
+         */
+        public HashCodeBuilder addParallel(final FileChannel channel) throws IOException {
+            try {
+                return addParallel(ParallelHashTask.of(channel), channel.size());
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        
+        /**
+         * Returns the calculated hash code.
+         * 
+         * @return the calculated hash code.
+         */
+        public int toHashCode() {
+            return hash;
+        }
+        
+        /**
+         * This method overrides the default {@code Object#hashCode()}, but does
+         * not return a proper hash of this builder. Returns the value of 
+         * {@code toHashCode()} to insure the incorrect hash code is not returned
+         * by mistake.
+         * 
+         * @return the value of {@link #toHashCode()}.
+         */
+        @Override
+        public int hashCode() {
+            return toHashCode();
+        }
+        
+        /**
+         * Should never be invoked on this object. Will throw an 
+         * {@code AssertionError}.
+         * 
+         * @param obj an object.
+         * @return nothing, always throws an {@code AssertionError}.
+         */
+        @Override
+        public boolean equals(final Object obj) {
+            throw new AssertionError("Equals not allowed for this builder.");
+        }
+        
+        private HashCodeBuilder addParallel(final ParallelHashTask.Source source, final long length) {
+            if (Instrumentation.ENABLED) {
+                Instrumentation.record(Instrumentation.Metric.HASHED_ARRAYS, length);
+            }
+            final int rangeHash = new ParallelHashTask(source, seed, 0L, length).invoke();
+            hash = pow(seed, length) * hash + rangeHash;
+            return this;
+        }
+
+        /*
+         * The element hash codes added by the addAll methods match the boxed
+         * hash codes of the elements, which is also what Arrays.hashCode()
+         * uses. With the default seed of 31 adding n elements results in
+         * 31^n * (hash - 1) + Arrays.hashCode(array), which lets the JDK
+         * implementation, intrinsified on newer JVMs, do the work.
+         */
+
+        private void addAll(final int[] array) {
+            if (seed == 31) {
+                hash = pow(seed, array.length) * (hash - 1) + Arrays.hashCode(array);
+            } else {
+                int h = hash;
+                for (int element : array) {
+                    h = seed * h + element;
+                }
+                hash = h;
+            }
+        }
+
+        private void addAll(final long[] array) {
+            if (seed == 31) {
+                hash = pow(seed, array.length) * (hash - 1) + Arrays.hashCode(array);
+            } else {
+                int h = hash;
+                for (long element : array) {
+                    h = seed * h + (int) (element ^ (element >>> 32));
+                }
+                hash = h;
+            }
+        }
+
+        private void addAll(final double[] array) {
+            if (seed == 31) {
+                hash = pow(seed, array.length) * (hash - 1) + Arrays.hashCode(array);
+            } else {
+                int h = hash;
+                for (double element : array) {
+                    final long bits = Double.doubleToLongBits(element);
+                    h = seed * h + (int) (bits ^ (bits >>> 32));
+                }
+                hash = h;
+            }
+        }
+
+        private void addAll(final float[] array) {
+            if (seed == 31) {
+                hash = pow(seed, array.length) * (hash - 1) + Arrays.hashCode(array);
+            } else {
+                int h = hash;
+                for (float element : array) {
+                    h = seed * h + Float.floatToIntBits(element);
+                }
+                hash = h;
+            }
+        }
+
+        private void addAll(final byte[] array) {
+            if (seed == 31) {
+                hash = pow(seed, array.length) * (hash - 1) + Arrays.hashCode(array);
+            } else {
+                int h = hash;
+                for (byte element : array) {
+                    h = seed * h + element;
+                }
+                hash = h;
+            }
+        }
+
+        private void addAll(final char[] array) {
+            if (seed == 31) {
+                hash = pow(seed, array.length) * (hash - 1) + Arrays.hashCode(array);
+            } else {
+                int h = hash;
+                for (char element : array) {
+                    h = seed * h + element;
+                }
+                hash = h;
+            }
+        }
+
+        private void addAll(final short[] array) {
+            if (seed == 31) {
+                hash = pow(seed, array.length) * (hash - 1) + Arrays.hashCode(array);
+            } else {
+                int h = hash;
+                for (short element : array) {
+                    h = seed * h + element;
+                }
+                hash = h;
+            }
+        }
+
+        private void addAll(final boolean[] array) {
+            if (seed == 31) {
+                hash = pow(seed, array.length) * (hash - 1) + Arrays.hashCode(array);
+            } else {
+                int h = hash;
+                for (boolean element : array) {
+                    h = seed * h + (element ? 1231 : 1237);
+                }
+                hash = h;
+            }
+        }
+
+        /**
+         * Calculates the base raised to the power of {@code n}, overflowing
+         * the same way repeated multiplication does.
+         *
+         * @param base the base, typically the seed.
+         * @param n    the exponent.
+         * @return the base to the power of {@code n}.
+         */
+        static int pow(int base, long n) {
+            int result = 1;
+            while (n > 0) {
+                if ((n & 1) != 0) {
+                    result *= base;
+                }
+                base *= base;
+                n >>= 1;
+            }
+            return result;
+        }
+        
+        /**
+         * Calculates the default.
+         * @return the default hash value. 
+         */
+        private int calc() {
+            return seed * hash;
+        }
+        
+    }
+
+    /**
+     * A builder to build a default {@code Object#toString()} value.
+     * 
+     * <p>
+     * Values are not rendered when they are added, but only when the string
+     * is built with {@link #toString()} or written with
+     * {@link #appendTo(Appendable)}. A builder that is never rendered, e.g.
+     * passed to a disabled log level, only costs storing the references. The
+     * values should therefore not be modified until the builder is rendered.
+     * </p>
+     * 
+     * <p>
+     * Besides the default {@code ClassName{field=value}} format the fields can
+     * be written as JSON or logfmt, see {@link Format}.
+     * </p>
+     */
+    public static class ToStringBuilder {
+
+        /**
+         * The formats a builder can be rendered in.
+         */
+        public enum Format {
+            /**
+             * The default {@code ClassName{first=1,second=two}} format.
+             */
+            DEFAULT,
+            /**
+             * A JSON object, {@code {"@type":"ClassName","first":1,"second":"two"}}.
+             * Strings are escaped and arrays, collections and maps are
+             * written as JSON arrays and objects.
+             */
+            JSON,
+            /**
+             * A logfmt line, {@code @type=ClassName first=1 second=two}. Values
+             * are quoted and escaped when required. Arrays, collections and
+             * maps are written as quoted lists.
+             */
+            LOGFMT
+        }
+
+        private static final String TRUNCATED = "...";
+
+        private String[] fields = new String[8];
+
+        private Object[] values = new Object[8];
+
+        private int size;
+
+        private int maxValueLength = Integer.MAX_VALUE;
+
+        private int maxLength = Integer.MAX_VALUE;
+
+        private int maxElements = Integer.MAX_VALUE;
+
+        private final String className;
+
+        /**
+         * Private constructor for builder pattern.
+         * 
+         * @param className the class name to prepend the result with.
+         */
+        private ToStringBuilder(final String className) {
+            this.className = className;
+        }
+
+        /**
+         * Creates a new string builder for the {@code clazz}.
+         * 
+         * @param clazz the base class for the string result.
+         * @return the current builder.
+         */
+        public static ToStringBuilder of(final Class<?> clazz) {
+            return new ToStringBuilder(checkNonNull(clazz.getSimpleName()));
+        }
+
+        /**
+         * Creates a new string builder for the {@code className}.
+         * 
+         * @param className the class name to prepend the string value with.
+         * @return the current builder.
+         */
+        public static ToStringBuilder of(final String className) {
+            return new ToStringBuilder(checkNonNull(className));
+        }
+
+        /**
+         * Creates a new string builder for the {@code self}.
+         * 
+         * @param self the object to create the builder for.
+         * @return the current builder.
+         */
+        public static ToStringBuilder of(final Object self) {
+            return of(checkNonNull(self.getClass()));
+        }
+
+        /**
+         * Adds the field and value to the value returned.
+         * 
+         * @param field the field for the value.
+         * @param value the value of the field.
+         * @return the current instance of the builder.
+         */
+        public ToStringBuilder add(final String field, final Object value) {
+            checkNonNull(field);
+            if (size == fields.length) {
+                fields = Arrays.copyOf(fields, size << 1);
+                values = Arrays.copyOf(values, size << 1);
+            }
+            fields[size] = field;
+            values[size] = value;
+            size++;
+            return this;
+        }
+
+        /**
+         * Limits the number of characters rendered for each value. Longer
+         * values are truncated and followed by {@code "..."}.
+         * 
+         * @param maxValueLength the maximum number of characters of a value.
+         * @return the current instance of the builder.
+         */
+        public ToStringBuilder maxValueLength(final int maxValueLength) {
+            if (maxValueLength < 0) {
+                throw new IllegalArgumentException(String.format(
+                        "The maximum value length cannot be negative: %d", maxValueLength));
+            }
+            this.maxValueLength = maxValueLength;
+            return this;
+        }
+
+        /**
+         * Limits the total number of characters rendered. If the limit is
+         * reached the result is cut off at the limit and followed by
+         * {@code "..."}.
+         * 
+         * @param maxLength the maximum number of characters rendered.
+         * @return the current instance of the builder.
+         */
+        public ToStringBuilder maxLength(final int maxLength) {
+            if (maxLength < 0) {
+                throw new IllegalArgumentException(String.format(
+                        "The maximum length cannot be negative: %d", maxLength));
+            }
+            this.maxLength = maxLength;
+            return this;
+        }
+
+        /**
+         * Limits the number of elements rendered for arrays, collections and
+         * maps in the {@link Format#JSON JSON} and {@link Format#LOGFMT logfmt}
+         * formats. The remaining elements are summarized as {@code "... n more"}.
+         * 
+         * @param maxElements the maximum number of elements rendered.
+         * @return the current instance of the builder.
+         */
+        public ToStringBuilder maxElements(final int maxElements) {
+            if (maxElements < 0) {
+                throw new IllegalArgumentException(String.format(
+                        "The maximum number of elements cannot be negative: %d", maxElements));
+            }
+            this.maxElements = maxElements;
+            return this;
+        }
+
+        /**
+         * Writes the same value {@link #toString()} returns to the
+         * {@code out} without creating an intermediate string.
+         * 
+         * @param <A> the type of the appendable.
+         * @param out the appendable to write to.
+         * @return the appendable.
+         * @throws IOException if the appendable throws an exception.
+         */
+        public <A extends Appendable> A appendTo(final A out) throws IOException {
+            final Limit limit = new Limit(out, maxLength);
+            if (limit.append(className) && limit.append("{")) {
+                for (int i = 0; i < size; i++) {
+                    if (i > 0 && !limit.append(",")) {
+                        return out;
+                    }
+                    if (!limit.append(fields[i]) || !limit.append("=") || !appendValue(limit, values[i])) {
+                        return out;
+                    }
+                }
+                limit.append("}");
+            }
+            return out;
+        }
+
+        /**
+         * Writes the same value {@link #toString()} returns to the
+         * {@code out}.
+         * 
+         * @param out the string builder to write to.
+         * @return the string builder.
+         */
+        public StringBuilder appendTo(final StringBuilder out) {
+            final int start = out.length();
+            try {
+                appendTo((Appendable) out);
+                if (Instrumentation.ENABLED) {
+                    Instrumentation.record(Instrumentation.Metric.TO_STRING_RENDERS, out.length() - start);
+                }
+                return out;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return appendTo(new StringBuilder(estimateLength())).toString();
+        }
+
+        /**
+         * Writes the fields in the format to the {@code out} without creating
+         * an intermediate string.
+         * 
+         * <p>
+         * The {@link #maxValueLength(int) value length} and
+         * {@link #maxElements(int) number of elements} limits apply to all
+         * formats. The {@link #maxLength(int) total length} limit only
+         * applies to the {@link Format#DEFAULT default} format as cutting off
+         * the other formats would leave them unparsable.
+         * </p>
+         * 
+         * @param <A>    the type of the appendable.
+         * @param out    the appendable to write to.
+         * @param format the format to write the fields in.
+         * @return the appendable.
+         * @throws IOException if the appendable throws an exception.
+         */
+        public <A extends Appendable> A appendTo(final A out, final Format format) throws IOException {
+            switch (format) {
+                case JSON:
+                    new StructuredWriter(out, maxValueLength, maxElements).writeJson(className, fields, values, size);
+                    break;
+                case LOGFMT:
+                    new StructuredWriter(out, maxValueLength, maxElements).writeLogfmt(className, fields, values, size);
+                    break;
+                default:
+                    appendTo(out);
+            }
+            return out;
+        }
+
+        /**
+         * Writes the fields in the format to the {@code out}.
+         * 
+         * @param out    the string builder to write to.
+         * @param format the format to write the fields in.
+         * @return the string builder.
+         * @see #appendTo(Appendable, Format)
+         */
+        public StringBuilder appendTo(final StringBuilder out, final Format format) {
+            final int start = out.length();
+            try {
+                appendTo((Appendable) out, format);
+                if (Instrumentation.ENABLED) {
+                    Instrumentation.record(Instrumentation.Metric.TO_STRING_RENDERS, out.length() - start);
+                }
+                return out;
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        /**
+         * Writes the fields in the format to the {@code out} encoded as
+         * UTF-8.
+         * 
+         * @param out    the buffer to write to.
+         * @param format the format to write the fields in.
+         * @return the buffer.
+         * @throws java.nio.BufferOverflowException if the buffer is too small.
+         * @see #appendTo(Appendable, Format)
+         */
+        public ByteBuffer appendTo(final ByteBuffer out, final Format format) {
+            final Utf8ByteBufferAppender appender = new Utf8ByteBufferAppender(out);
+            try {
+                appendTo(appender, format);
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            appender.flush();
+            return out;
+        }
+
+        /**
+         * Returns the fields rendered in the format.
+         * 
+         * @param format the format to render the fields in.
+         * @return the rendered fields.
+         * @see #appendTo(Appendable, Format)
+         */
+        public String toString(final Format format) {
+            return appendTo(new StringBuilder(estimateLength()), format).toString();
+        }
+
+        private boolean appendValue(final Limit limit, final Object value) throws IOException {
+            final CharSequence rendered = (value instanceof CharSequence
+                    ? (CharSequence) value : String.valueOf(value));
+            if (rendered.length() > maxValueLength) {
+                return limit.append(rendered, 0, StructuredWriter.truncatedLength(rendered, maxValueLength))
+                        && limit.append(TRUNCATED);
+            }
+            return limit.append(rendered, 0, rendered.length());
+        }
+
+        /**
+         * Estimates the length of the result, assuming short values, so the
+         * buffer rarely needs to grow.
+         */
+        private int estimateLength() {
+            long length = className.length() + 2;
+            for (int i = 0; i < size; i++) {
+                length += fields[i].length() + 2 + Math.min(16L, (long) maxValueLength + TRUNCATED.length());
+            }
+            return (int) Math.min(length, (long) maxLength + TRUNCATED.length());
+        }
+
+        /**
+         * Tracks the number of characters that can still be written.
+         */
+        private static final class Limit {
+            private final Appendable out;
+            private int remaining;
+
+            Limit(final Appendable out, final int maxLength) {
+                this.out = out;
+                this.remaining = maxLength;
+            }
+
+            boolean append(final CharSequence s) throws IOException {
+                return append(s, 0, s.length());
+            }
+
+            /**
+             * Appends the range, unless the limit is reached in which case the
+             * part that fits is written followed by the truncation marker.
+             * 
+             * @return {@code true} if the whole range was written.
+             */
+            boolean append(final CharSequence s, final int start, final int end) throws IOException {
+                final int length = end - start;
+                if (length <= remaining) {
+                    out.append(s, start, end);
+                    remaining -= length;
+                    return true;
+                }
+                out.append(s, start, start + StructuredWriter.truncatedLength(s, start, end, remaining))
+                        .append(TRUNCATED);
+                remaining = 0;
+                return false;
+            }
+        }
+    }
+}
+
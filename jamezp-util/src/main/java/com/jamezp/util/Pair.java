@@ -30,6 +30,10 @@ import java.io.Serializable;
 
 /**
  * This class represents a pair.
+ * <p>
+ * The hash code is computed once and cached, the components of a pair should
+ * therefore not be mutated once the pair has been created.
+ * </p>
  * 
  * @author James R. Perkins (JRP) - Manage, Inc.
  * 
@@ -45,6 +49,16 @@ public class Pair<T1, T2> implements Serializable {
 
     private final T2 second;
 
+    /**
+     * The cached hash code, {@code 0} until it has been computed.
+     */
+    private transient int hash;
+
+    /**
+     * Canonical pairs for {@link #intern(Pair)}.
+     */
+    private static final WeakInterner<Pair<?, ?>> POOL = new WeakInterner<Pair<?, ?>>();
+
     /**
      * Creates a new {@code Pair}.
      * 
@@ -76,6 +90,28 @@ public class Pair<T1, T2> implements Serializable {
         return new Pair<T1, T2>(first, second);
     }
 
+    /**
+     * Returns the canonical instance of the pair. Interning the pairs used as
+     * map keys lets duplicate pairs share one instance and lets
+     * {@link #equals(Object)} succeed on identity.
+     * <p>
+     * The pool only weakly references its pairs, a canonical pair no longer
+     * referenced elsewhere is garbage collected.
+     * </p>
+     * 
+     * @param <T1>
+     *            the type of the first object
+     * @param <T2>
+     *            the type of the second object
+     * @param pair
+     *            the pair to intern
+     * @return the canonical pair equal to {@code pair}
+     */
+    @SuppressWarnings("unchecked")
+    public static <T1, T2> Pair<T1, T2> intern(final Pair<T1, T2> pair) {
+        return (Pair<T1, T2>) POOL.intern(ObjectHelper.checkNonNull(pair, "The pair cannot be null."));
+    }
+
     /**
      * This method will return first object.
      * 
@@ -101,6 +137,9 @@ public class Pair<T1, T2> implements Serializable {
      */
     @Override
     public boolean equals(Object obj) {
+        if (obj == this) {
+            return true;
+        }
         if (obj == null) {
             return false;
         }
@@ -109,6 +148,10 @@ public class Pair<T1, T2> implements Serializable {
         }
         @SuppressWarnings("unchecked")
         final Pair other = (Pair) obj;
+        // Both hash codes already computed and different, cannot be equal
+        if (hash != 0 && other.hash != 0 && hash != other.hash) {
+            return false;
+        }
         return areEqual(this.first, other.first)
                 && areEqual(this.second, other.second);
     }
@@ -120,7 +163,13 @@ public class Pair<T1, T2> implements Serializable {
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.builder().add(first).add(second).toHashCode();
+        // Racy single check, a race only recomputes the same value
+        int h = hash;
+        if (h == 0) {
+            h = HashCodeBuilder.builder().add(first).add(second).toHashCode();
+            hash = h;
+        }
+        return h;
     }
 
     /*
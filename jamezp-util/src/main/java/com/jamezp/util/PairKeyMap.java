@@ -0,0 +1,465 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import static com.jamezp.util.ObjectHelper.checkArgument;
+import java.util.Arrays;
+
+/**
+ * A hash map keyed by two components, a replacement for a
+ * {@code Map<Pair<K1, K2>, V>} which does not allocate a {@link Pair} per
+ * entry or per lookup.
+ *
+ * <p>
+ * Entries are stored with open addressing and linear probing in three
+ * parallel arrays, one per key component and one for the values. Removal
+ * shifts the following entries back, so no tombstones are left behind. Both
+ * key components and the value may be {@code null}. Keys are compared with
+ * {@code equals} like {@link Pair#equals(Object)} does.
+ * </p>
+ * <pre>
+ * final PairKeyMap&lt;String, Region, Customer&gt; customers = PairKeyMap.create();
+ * customers.put(customerId, region, customer);
+ * ...
+ * final Customer customer = customers.get(customerId, region);
+ * </pre>
+ *
+ * <p>
+ * The map is not thread-safe, see {@link ConcurrentPairKeyMap}. Maps keyed by
+ * primitives are available as {@link IntIntKeyMap} and
+ * {@link LongLongKeyMap}.
+ * </p>
+ *
+ * @param <K1> the type of the first key component.
+ * @param <K2> the type of the second key component.
+ * @param <V>  the type of the values.
+ * @author James R. Perkins (JRP)
+ */
+public final class PairKeyMap<K1, K2, V> {
+
+    /**
+     * The largest number of slots of a table.
+     */
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private static final int DEFAULT_EXPECTED_SIZE = 12;
+
+    /**
+     * Stands in for a {@code null} key component, an empty slot is
+     * {@code null}.
+     */
+    private static final Object NULL_KEY = new Object();
+
+    private Object[] firsts;
+
+    private Object[] seconds;
+
+    private Object[] values;
+
+    private int size;
+
+    private int threshold;
+
+    /**
+     * Private constructor for factory methods.
+     *
+     * @param capacity the number of slots.
+     */
+    private PairKeyMap(final int capacity) {
+        allocate(capacity);
+    }
+
+    /**
+     * Visits the entries of a map.
+     *
+     * @param <K1> the type of the first key component.
+     * @param <K2> the type of the second key component.
+     * @param <V>  the type of the values.
+     */
+    public interface Visitor<K1, K2, V> {
+
+        /**
+         * Visits an entry.
+         *
+         * @param first  the first key component.
+         * @param second the second key component.
+         * @param value  the value.
+         */
+        void visit(K1 first, K2 second, V value);
+    }
+
+    /**
+     * Creates a new empty map.
+     *
+     * @param <K1> the type of the first key component.
+     * @param <K2> the type of the second key component.
+     * @param <V>  the type of the values.
+     * @return the new map.
+     */
+    public static <K1, K2, V> PairKeyMap<K1, K2, V> create() {
+        return create(DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates a new empty map which holds the expected number of entries
+     * without resizing.
+     *
+     * @param <K1>         the type of the first key component.
+     * @param <K2>         the type of the second key component.
+     * @param <V>          the type of the values.
+     * @param expectedSize the expected number of entries.
+     * @return the new map.
+     */
+    public static <K1, K2, V> PairKeyMap<K1, K2, V> create(final int expectedSize) {
+        return new PairKeyMap<K1, K2, V>(tableSize(expectedSize));
+    }
+
+    /**
+     * Returns the value mapped to the key.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @return the value or {@code null} if there is no mapping.
+     */
+    public V get(final K1 first, final K2 second) {
+        return get(first, second, hash(first, second));
+    }
+
+    /**
+     * Returns the value mapped to the key.
+     *
+     * @param first        the first key component.
+     * @param second       the second key component.
+     * @param defaultValue the value returned if there is no mapping.
+     * @return the value or the {@code defaultValue} if there is no mapping.
+     */
+    public V getOrDefault(final K1 first, final K2 second, final V defaultValue) {
+        final int index = indexOf(maskNull(first), maskNull(second), hash(first, second));
+        return index < 0 ? defaultValue : this.<V>valueAt(index);
+    }
+
+    /**
+     * Checks whether the key is mapped.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @return {@code true} if the key is mapped, otherwise {@code false}.
+     */
+    public boolean containsKey(final K1 first, final K2 second) {
+        return indexOf(maskNull(first), maskNull(second), hash(first, second)) >= 0;
+    }
+
+    /**
+     * Maps the key to the value.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @param value  the value.
+     * @return the previous value or {@code null} if there was no mapping.
+     */
+    public V put(final K1 first, final K2 second, final V value) {
+        return put(first, second, value, hash(first, second));
+    }
+
+    /**
+     * Removes the mapping of the key.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @return the removed value or {@code null} if there was no mapping.
+     */
+    public V remove(final K1 first, final K2 second) {
+        return remove(first, second, hash(first, second));
+    }
+
+    /**
+     * Returns the number of entries.
+     *
+     * @return the number of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the map is empty.
+     *
+     * @return {@code true} if there are no entries, otherwise {@code false}.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries, the table keeps its capacity.
+     */
+    public void clear() {
+        Arrays.fill(firsts, null);
+        Arrays.fill(seconds, null);
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Visits each entry. The map must not be modified by the visitor.
+     *
+     * @param visitor the visitor.
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(final Visitor<? super K1, ? super K2, ? super V> visitor) {
+        ObjectHelper.checkNonNull(visitor, "The visitor cannot be null.");
+        final Object[] firsts = this.firsts;
+        for (int i = 0; i < firsts.length; i++) {
+            if (firsts[i] != null) {
+                visitor.visit((K1) unmaskNull(firsts[i]), (K2) unmaskNull(seconds[i]), (V) values[i]);
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return ObjectHelper.ToStringBuilder.of(this).add("size", size).add("capacity",
+                firsts.length).toString();
+    }
+
+    V get(final Object first, final Object second, final int hash) {
+        final int index = indexOf(maskNull(first), maskNull(second), hash);
+        return index < 0 ? null : this.<V>valueAt(index);
+    }
+
+    boolean containsKey(final Object first, final Object second, final int hash) {
+        return indexOf(maskNull(first), maskNull(second), hash) >= 0;
+    }
+
+    V put(final K1 first, final K2 second, final V value, final int hash) {
+        return put(first, second, value, hash, false);
+    }
+
+    /**
+     * Maps the key to the value if the key is not mapped, probing the table
+     * once.
+     *
+     * @return the current value or {@code null} if the value was mapped.
+     */
+    V putIfAbsent(final K1 first, final K2 second, final V value, final int hash) {
+        return put(first, second, value, hash, true);
+    }
+
+    private V put(final K1 first, final K2 second, final V value, final int hash, final boolean onlyIfAbsent) {
+        final Object maskedFirst = maskNull(first);
+        final Object maskedSecond = maskNull(second);
+        final Object[] firsts = this.firsts;
+        final int mask = firsts.length - 1;
+        int i = hash & mask;
+        for (Object k; (k = firsts[i]) != null; i = (i + 1) & mask) {
+            if (matches(k, maskedFirst) && matches(seconds[i], maskedSecond)) {
+                final V previous = valueAt(i);
+                if (!onlyIfAbsent) {
+                    values[i] = value;
+                }
+                return previous;
+            }
+        }
+        if (size == threshold) {
+            resize();
+            i = freeSlot(this.firsts, hash);
+        }
+        this.firsts[i] = maskedFirst;
+        seconds[i] = maskedSecond;
+        values[i] = value;
+        size++;
+        return null;
+    }
+
+    V remove(final Object first, final Object second, final int hash) {
+        final int index = indexOf(maskNull(first), maskNull(second), hash);
+        if (index < 0) {
+            return null;
+        }
+        final V previous = valueAt(index);
+        final Object[] firsts = this.firsts;
+        final int mask = firsts.length - 1;
+        // Shift back the following entries which probed past the removed one
+        int gap = index;
+        for (int i = (gap + 1) & mask; firsts[i] != null; i = (i + 1) & mask) {
+            final int ideal = hash(unmaskNull(firsts[i]), unmaskNull(seconds[i])) & mask;
+            if (((i - ideal) & mask) >= ((i - gap) & mask)) {
+                firsts[gap] = firsts[i];
+                seconds[gap] = seconds[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        firsts[gap] = null;
+        seconds[gap] = null;
+        values[gap] = null;
+        size--;
+        return previous;
+    }
+
+    /**
+     * Hashes the key components, the low bits select the slot.
+     *
+     * @param first  the first key component.
+     * @param second the second key component.
+     * @return the hash.
+     */
+    static int hash(final Object first, final Object second) {
+        return mix(31 * (first == null ? 0 : first.hashCode()) + (second == null ? 0 : second.hashCode()));
+    }
+
+    /**
+     * Spreads the bits of a hash code so both the low and the high bits depend
+     * on all bits of the hash code.
+     *
+     * @param h the hash code.
+     * @return the mixed hash.
+     */
+    static int mix(final int h) {
+        final int x = h * 0x9E3779B9;
+        return x ^ (x >>> 16);
+    }
+
+    /**
+     * Mixes a 64-bit key down to a 32-bit hash.
+     *
+     * @param key the key.
+     * @return the mixed hash.
+     */
+    static int mix(final long key) {
+        long x = key * 0x9E3779B97F4A7C15L;
+        x ^= x >>> 32;
+        x *= 0x9E3779B97F4A7C15L;
+        return (int) (x ^ (x >>> 29));
+    }
+
+    /**
+     * Returns the number of slots, a power of two, needed to hold the
+     * expected number of entries.
+     *
+     * @param expectedSize the expected number of entries.
+     * @return the number of slots.
+     */
+    static int tableSize(final int expectedSize) {
+        checkArgument(expectedSize >= 0, "The expected size cannot be negative: %d", expectedSize);
+        final long minCapacity = Math.max(4L, (expectedSize * 4L + 2L) / 3L);
+        if (minCapacity >= MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return Integer.highestOneBit((int) minCapacity - 1) << 1;
+    }
+
+    /**
+     * Returns the number of entries a table holds before it is resized.
+     *
+     * @param capacity the number of slots.
+     * @return the number of entries.
+     */
+    static int threshold(final int capacity) {
+        // Always leave an empty slot to end the probes
+        return capacity == MAX_CAPACITY ? capacity - 1 : capacity - (capacity >>> 2);
+    }
+
+    /**
+     * Checks the table can be grown.
+     *
+     * @param capacity the current number of slots.
+     */
+    static void checkGrowable(final int capacity) {
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalStateException(String.format("The map cannot hold more than %d entries",
+                    threshold(capacity)));
+        }
+    }
+
+    private int indexOf(final Object maskedFirst, final Object maskedSecond, final int hash) {
+        final Object[] firsts = this.firsts;
+        final int mask = firsts.length - 1;
+        for (int i = hash & mask;; i = (i + 1) & mask) {
+            final Object k = firsts[i];
+            if (k == null) {
+                return -1;
+            }
+            if (matches(k, maskedFirst) && matches(seconds[i], maskedSecond)) {
+                return i;
+            }
+        }
+    }
+
+    private void resize() {
+        final Object[] oldFirsts = firsts;
+        final Object[] oldSeconds = seconds;
+        final Object[] oldValues = values;
+        checkGrowable(oldFirsts.length);
+        allocate(oldFirsts.length << 1);
+        for (int j = 0; j < oldFirsts.length; j++) {
+            final Object k = oldFirsts[j];
+            if (k != null) {
+                final int i = freeSlot(firsts, hash(unmaskNull(k), unmaskNull(oldSeconds[j])));
+                firsts[i] = k;
+                seconds[i] = oldSeconds[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+
+    private static int freeSlot(final Object[] firsts, final int hash) {
+        final int mask = firsts.length - 1;
+        int i = hash & mask;
+        while (firsts[i] != null) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    private void allocate(final int capacity) {
+        firsts = new Object[capacity];
+        seconds = new Object[capacity];
+        values = new Object[capacity];
+        threshold = threshold(capacity);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T valueAt(final int index) {
+        return (T) values[index];
+    }
+
+    private static boolean matches(final Object stored, final Object masked) {
+        return stored == masked || stored.equals(masked);
+    }
+
+    private static Object maskNull(final Object key) {
+        return key == null ? NULL_KEY : key;
+    }
+
+    private static Object unmaskNull(final Object key) {
+        return key == NULL_KEY ? null : key;
+    }
+}
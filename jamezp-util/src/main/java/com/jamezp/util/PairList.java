@@ -0,0 +1,350 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import static com.jamezp.util.ObjectHelper.checkArgument;
+import static com.jamezp.util.ObjectHelper.checkIndex;
+import static com.jamezp.util.ObjectHelper.checkNonNull;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+
+/**
+ * A growable list of pairs stored column by column, a replacement for a
+ * {@code List<Pair<A, B>>} which does not hold a {@link Pair} per element.
+ *
+ * <p>
+ * The first and the second components are kept in two parallel arrays, so an
+ * element costs two references instead of a {@code Pair} header plus two
+ * references. A {@code Pair} is only created when an element is requested
+ * with {@link #get(int)} or through the {@link #asList()} view.
+ * </p>
+ * <pre>
+ * final PairList&lt;Order, Customer&gt; joined = PairList.create(orders.size());
+ * ...
+ * joined.sortBySecond(customerOrder);
+ * joined.parallelIndices().forEach(i -&gt; ship(joined.first(i), joined.second(i)));
+ * </pre>
+ *
+ * <p>
+ * The list is not thread-safe, it may however be read by any number of
+ * threads while it is not modified.
+ * </p>
+ *
+ * @param <A> the type of the first components.
+ * @param <B> the type of the second components.
+ * @author James R. Perkins (JRP)
+ * @see LongLongPairList
+ */
+public final class PairList<A, B> {
+
+    /**
+     * The largest array size the virtual machines reliably allocate.
+     */
+    static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private Object[] firsts;
+
+    private Object[] seconds;
+
+    private int size;
+
+    /**
+     * Private constructor for factory methods.
+     *
+     * @param capacity the initial capacity.
+     */
+    private PairList(final int capacity) {
+        firsts = new Object[capacity];
+        seconds = new Object[capacity];
+    }
+
+    /**
+     * Creates a new empty list.
+     *
+     * @param <A> the type of the first components.
+     * @param <B> the type of the second components.
+     * @return the new list.
+     */
+    public static <A, B> PairList<A, B> create() {
+        return create(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a new empty list.
+     *
+     * @param <A>      the type of the first components.
+     * @param <B>      the type of the second components.
+     * @param capacity the number of elements the list holds before growing.
+     * @return the new list.
+     */
+    public static <A, B> PairList<A, B> create(final int capacity) {
+        checkArgument(capacity >= 0 && capacity <= MAX_CAPACITY, "Invalid capacity: %d", capacity);
+        return new PairList<A, B>(capacity);
+    }
+
+    /**
+     * Appends an element.
+     *
+     * @param first  the first component.
+     * @param second the second component.
+     */
+    public void add(final A first, final B second) {
+        if (size == firsts.length) {
+            final int capacity = grow(size);
+            firsts = Arrays.copyOf(firsts, capacity);
+            seconds = Arrays.copyOf(seconds, capacity);
+        }
+        firsts[size] = first;
+        seconds[size] = second;
+        size++;
+    }
+
+    /**
+     * Replaces the element at the index.
+     *
+     * @param index  the index of the element.
+     * @param first  the first component.
+     * @param second the second component.
+     */
+    public void set(final int index, final A first, final B second) {
+        checkIndex(index, size);
+        firsts[index] = first;
+        seconds[index] = second;
+    }
+
+    /**
+     * Returns the first component of the element at the index.
+     *
+     * @param index the index of the element.
+     * @return the first component.
+     */
+    @SuppressWarnings("unchecked")
+    public A first(final int index) {
+        return (A) firsts[checkIndex(index, size)];
+    }
+
+    /**
+     * Returns the second component of the element at the index.
+     *
+     * @param index the index of the element.
+     * @return the second component.
+     */
+    @SuppressWarnings("unchecked")
+    public B second(final int index) {
+        return (B) seconds[checkIndex(index, size)];
+    }
+
+    /**
+     * Creates a pair of the element at the index.
+     *
+     * @param index the index of the element.
+     * @return a new pair of the components.
+     */
+    public Pair<A, B> get(final int index) {
+        return Pair.of(first(index), second(index));
+    }
+
+    /**
+     * Returns the number of elements.
+     *
+     * @return the number of elements.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether the list is empty.
+     *
+     * @return {@code true} if there are no elements, otherwise {@code false}.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all elements, the list keeps its capacity.
+     */
+    public void clear() {
+        Arrays.fill(firsts, 0, size, null);
+        Arrays.fill(seconds, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Sorts the elements by their first component. The sort is stable, elements
+     * with equal first components keep their order.
+     *
+     * @param comparator the order of the first components.
+     */
+    public void sortByFirst(final Comparator<? super A> comparator) {
+        checkNonNull(comparator, "The comparator cannot be null.");
+        sort(firsts, seconds, size, comparator);
+    }
+
+    /**
+     * Sorts the elements by their second component. The sort is stable,
+     * elements with equal second components keep their order.
+     *
+     * @param comparator the order of the second components.
+     */
+    public void sortBySecond(final Comparator<? super B> comparator) {
+        checkNonNull(comparator, "The comparator cannot be null.");
+        sort(seconds, firsts, size, comparator);
+    }
+
+    /**
+     * Returns a stream of the indexes of the elements.
+     *
+     * @return a sequential stream of the indexes.
+     */
+    public IntStream indices() {
+        return IntStream.range(0, size);
+    }
+
+    /**
+     * Returns a parallel stream of the indexes of the elements, for processing
+     * the columns in parallel without creating pairs.
+     *
+     * @return a parallel stream of the indexes.
+     */
+    public IntStream parallelIndices() {
+        return indices().parallel();
+    }
+
+    /**
+     * Returns a list view of the elements. The pairs are created when they are
+     * requested, setting a pair writes its components to the columns.
+     *
+     * @return the list view.
+     */
+    public List<Pair<A, B>> asList() {
+        return new PairListView();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return ObjectHelper.ToStringBuilder.of(this).add("size", size).toString();
+    }
+
+    /**
+     * Returns the capacity to grow to.
+     *
+     * @param size the current, full, capacity.
+     * @param max  the maximum capacity.
+     * @return the new capacity.
+     */
+    static int grow(final int size, final int max) {
+        if (size >= max) {
+            throw new IllegalStateException(String.format("The list cannot hold more than %d elements", max));
+        }
+        return (int) Math.min(max, Math.max(DEFAULT_CAPACITY, size * 2L));
+    }
+
+    private static int grow(final int size) {
+        return grow(size, MAX_CAPACITY);
+    }
+
+    /**
+     * Stable bottom up merge sort of the keys, moving the values along.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> void sort(final Object[] keys, final Object[] values, final int size,
+            final Comparator<? super T> comparator) {
+        if (size < 2) {
+            return;
+        }
+        Object[] srcKeys = keys;
+        Object[] srcValues = values;
+        Object[] dstKeys = new Object[size];
+        Object[] dstValues = new Object[size];
+        // Longs, as the runs may reach past the largest int
+        for (long width = 1L; width < size; width <<= 1) {
+            for (long low = 0L; low < size; low += width << 1) {
+                final int mid = (int) Math.min(low + width, size);
+                final int high = (int) Math.min(low + (width << 1), size);
+                int i = (int) low;
+                int j = mid;
+                for (int k = (int) low; k < high; k++) {
+                    if (j >= high || (i < mid && comparator.compare((T) srcKeys[i], (T) srcKeys[j]) <= 0)) {
+                        dstKeys[k] = srcKeys[i];
+                        dstValues[k] = srcValues[i++];
+                    } else {
+                        dstKeys[k] = srcKeys[j];
+                        dstValues[k] = srcValues[j++];
+                    }
+                }
+            }
+            final Object[] swapKeys = srcKeys;
+            final Object[] swapValues = srcValues;
+            srcKeys = dstKeys;
+            srcValues = dstValues;
+            dstKeys = swapKeys;
+            dstValues = swapValues;
+        }
+        if (srcKeys != keys) {
+            System.arraycopy(srcKeys, 0, keys, 0, size);
+            System.arraycopy(srcValues, 0, values, 0, size);
+        }
+    }
+
+    private final class PairListView extends AbstractList<Pair<A, B>> implements RandomAccess {
+
+        @Override
+        public Pair<A, B> get(final int index) {
+            return PairList.this.get(index);
+        }
+
+        @Override
+        public Pair<A, B> set(final int index, final Pair<A, B> element) {
+            final Pair<A, B> previous = PairList.this.get(index);
+            PairList.this.set(index, element.first(), element.second());
+            return previous;
+        }
+
+        @Override
+        public boolean add(final Pair<A, B> element) {
+            PairList.this.add(element.first(), element.second());
+            modCount++;
+            return true;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * A fork-join task which calculates the {@link ObjectHelper.HashCodeBuilder}
+ * polynomial of a range of elements.
+ *
+ * <p>
+ * The result of a task is the hash of the range starting from 0. The hash of
+ * a range split at {@code mid} is {@code seed^(to - mid) * left + right},
+ * which is exactly what adding the elements one at a time would have
+ * produced. The ranges can therefore be hashed independently on any thread.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ */
+final class ParallelHashTask extends RecursiveTask<Integer> {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * The number of array elements hashed by a single task.
+     */
+    static final long ARRAY_THRESHOLD = 1L << 16;
+
+    /**
+     * The number of bytes of a file mapped and hashed by a single task.
+     */
+    static final long FILE_THRESHOLD = 1L << 24;
+
+    private final Source source;
+
+    private final int seed;
+
+    private final long from;
+
+    private final long to;
+
+    ParallelHashTask(final Source source, final int seed, final long from, final long to) {
+        this.source = source;
+        this.seed = seed;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    protected Integer compute() {
+        final long length = to - from;
+        if (length <= source.threshold()) {
+            return source.hash(seed, from, to);
+        }
+        final long mid = from + (length >>> 1);
+        final ParallelHashTask left = new ParallelHashTask(source, seed, from, mid);
+        final ParallelHashTask right = new ParallelHashTask(source, seed, mid, to);
+        left.fork();
+        final int rightHash = right.compute();
+        final int leftHash = left.join();
+        return ObjectHelper.HashCodeBuilder.pow(seed, to - mid) * leftHash + rightHash;
+    }
+
+    /**
+     * The elements to hash.
+     */
+    abstract static class Source {
+
+        /**
+         * Hashes the range starting with a hash of 0.
+         *
+         * @param seed the seed of the builder.
+         * @param from the index of the first element, inclusive.
+         * @param to   the index of the last element, exclusive.
+         * @return the hash of the range.
+         */
+        abstract int hash(int seed, long from, long to);
+
+        long threshold() {
+            return ARRAY_THRESHOLD;
+        }
+    }
+
+    static Source of(final byte[] array) {
+        return new Source() {
+            @Override
+            int hash(final int seed, final long from, final long to) {
+                int h = 0;
+                for (int i = (int) from; i < to; i++) {
+                    h = seed * h + array[i];
+                }
+                return h;
+            }
+        };
+    }
+
+    static Source of(final char[] array) {
+        return new Source() {
+            @Override
+            int hash(final int seed, final long from, final long to) {
+                int h = 0;
+                for (int i = (int) from; i < to; i++) {
+                    h = seed * h + array[i];
+                }
+                return h;
+            }
+        };
+    }
+
+    static Source of(final short[] array) {
+        return new Source() {
+            @Override
+            int hash(final int seed, final long from, final long to) {
+                int h = 0;
+                for (int i = (int) from; i < to; i++) {
+                    h = seed * h + array[i];
+                }
+                return h;
+            }
+        };
+    }
+
+    static Source of(final int[] array) {
+        return new Source() {
+            @Override
+            int hash(final int seed, final long from, final long to) {
+                int h = 0;
+                for (int i = (int) from; i < to; i++) {
+                    h = seed * h + array[i];
+                }
+                return h;
+            }
+        };
+    }
+
+    static Source of(final long[] array) {
+        return new Source() {
+            @Override
+            int hash(final int seed, final long from, final long to) {
+                int h = 0;
+                for (int i = (int) from; i < to; i++) {
+                    final long element = array[i];
+                    h = seed * h + (int) (element ^ (element >>> 32));
+                }
+                return h;
+            }
+        };
+    }
+
+    static Source of(final float[] array) {
+        return new Source() {
+            @Override
+            int hash(final int seed, final long from, final long to) {
+                int h = 0;
+                for (int i = (int) from; i < to; i++) {
+                    h = seed * h + Float.floatToIntBits(array[i]);
+                }
+                return h;
+            }
+        };
+    }
+
+    static Source of(final double[] array) {
+        return new Source() {
+            @Override
+            int hash(final int seed, final long from, final long to) {
+                int h = 0;
+                for (int i = (int) from; i < to; i++) {
+                    final long bits = Double.doubleToLongBits(array[i]);
+                    h = seed * h + (int) (bits ^ (bits >>> 32));
+                }
+                return h;
+            }
+        };
+    }
+
+    /**
+     * Creates a source for the remaining bytes of the buffer. Only absolute
+     * reads are used so the buffer may be shared between the tasks.
+     *
+     * @param buffer the buffer to hash.
+     * @return the source.
+     */
+    static Source of(final ByteBuffer buffer) {
+        final int offset = buffer.position();
+        return new Source() {
+            @Override
+            int hash(final int seed, final long from, final long to) {
+                int h = 0;
+                for (int i = (int) from + offset, end = (int) to + offset; i < end; i++) {
+                    h = seed * h + buffer.get(i);
+                }
+                return h;
+            }
+        };
+    }
+
+    /**
+     * Creates a source for the bytes of a file. Each task maps and hashes its
+     * own region of the file. An {@link IOException} is rethrown as an
+     * {@link UncheckedIOException}.
+     *
+     * @param channel the channel of the file to hash.
+     * @return the source.
+     */
+    static Source of(final FileChannel channel) {
+        return new Source() {
+            @Override
+            int hash(final int seed, final long from, final long to) {
+                final ByteBuffer buffer;
+                try {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                int h = 0;
+                for (int i = 0, end = buffer.limit(); i < end; i++) {
+                    h = seed * h + buffer.get(i);
+                }
+                return h;
+            }
+
+            @Override
+            long threshold() {
+                return FILE_THRESHOLD;
+            }
+        };
+    }
+}
@@ -0,0 +1,282 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import com.jamezp.util.ObjectHelper.HashCodeBuilder;
+import com.jamezp.util.ObjectHelper.ToStringBuilder;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * The fields of a class used by the reflective {@code equals},
+ * {@code hashCode} and {@code toString} methods of {@link ObjectHelper}.
+ *
+ * <p>
+ * A plan is created once per class and cached in a {@link ClassValue}. The
+ * field getters are composed into a single {@link MethodHandle} for
+ * {@code equals} and one for {@code hashCode}, each comparing or hashing the
+ * fields in their primitive types. Invoking a plan requires no reflective
+ * lookups, and once the JVM customizes the composed handle for the class the
+ * getters are constants the JIT can inline, as in a hand-written method.
+ * </p>
+ *
+ * <p>
+ * All non-static, non-transient fields of the class and its superclasses,
+ * superclass fields first, are included.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ */
+final class ReflectionPlan {
+
+    private static final ClassValue<ReflectionPlan> PLANS = new ClassValue<ReflectionPlan>() {
+        @Override
+        protected ReflectionPlan computeValue(final Class<?> type) {
+            return new ReflectionPlan(type);
+        }
+    };
+
+    private static final int SEED = 31;
+
+    private static final int INITIAL_HASH = 17;
+
+    private static final MethodType EQUALS_TYPE = MethodType.methodType(boolean.class, Object.class, Object.class);
+
+    private static final MethodType HASH_TYPE = MethodType.methodType(int.class, Object.class);
+
+    private final String[] names;
+
+    private final MethodHandle[] boxed;
+
+    private final MethodHandle equals;
+
+    private final MethodHandle hashCode;
+
+    private ReflectionPlan(final Class<?> type) {
+        final List<Class<?>> hierarchy = new ArrayList<Class<?>>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            hierarchy.add(0, c);
+        }
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+        final List<String> names = new ArrayList<String>();
+        final List<MethodHandle> getters = new ArrayList<MethodHandle>();
+        final List<MethodHandle> boxed = new ArrayList<MethodHandle>();
+        for (Class<?> c : hierarchy) {
+            for (Field field : c.getDeclaredFields()) {
+                final int modifiers = field.getModifiers();
+                if (Modifier.isStatic(modifiers) || Modifier.isTransient(modifiers) || field.isSynthetic()) {
+                    continue;
+                }
+                try {
+                    field.setAccessible(true);
+                    final MethodHandle getter = lookup.unreflectGetter(field);
+                    names.add(field.getName());
+                    getters.add(getter.asType(getter.type().changeParameterType(0, Object.class)));
+                    boxed.add(getter.asType(MethodType.methodType(Object.class, Object.class)));
+                } catch (IllegalAccessException e) {
+                    throw new IllegalArgumentException(String.format(
+                            "Cannot access field %s of %s", field.getName(), type.getName()), e);
+                } catch (RuntimeException e) {
+                    // InaccessibleObjectException on newer JVMs
+                    throw new IllegalArgumentException(String.format(
+                            "Cannot access field %s of %s", field.getName(), type.getName()), e);
+                }
+            }
+        }
+        this.names = names.toArray(new String[names.size()]);
+        this.boxed = boxed.toArray(new MethodHandle[boxed.size()]);
+        final MethodHandle[] typed = getters.toArray(new MethodHandle[getters.size()]);
+        try {
+            this.equals = equalsHandle(lookup, typed);
+            this.hashCode = hashCodeHandle(lookup, typed);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Returns the plan for the class.
+     *
+     * @param type the class.
+     * @return the cached plan.
+     */
+    static ReflectionPlan of(final Class<?> type) {
+        return PLANS.get(type);
+    }
+
+    boolean areEqual(final Object first, final Object second) {
+        try {
+            return (boolean) equals.invokeExact(first, second);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    int hashCode(final Object obj) {
+        try {
+            return (int) hashCode.invokeExact(obj);
+        } catch (Throwable t) {
+            throw rethrow(t);
+        }
+    }
+
+    String toString(final Object obj) {
+        final ToStringBuilder builder = ToStringBuilder.of(obj);
+        for (int i = 0; i < boxed.length; i++) {
+            final Object value;
+            try {
+                value = boxed[i].invokeExact(obj);
+            } catch (Throwable t) {
+                throw rethrow(t);
+            }
+            builder.add(names[i], value);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Composes {@code (Object, Object) -> boolean} comparing the fields in
+     * order and stopping at the first difference.
+     */
+    private static MethodHandle equalsHandle(final MethodHandles.Lookup lookup, final MethodHandle[] getters)
+            throws ReflectiveOperationException {
+        final MethodHandle different = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, false), 0,
+                Object.class, Object.class);
+        MethodHandle result = MethodHandles.dropArguments(MethodHandles.constant(boolean.class, true), 0,
+                Object.class, Object.class);
+        for (int i = getters.length - 1; i >= 0; i--) {
+            final MethodHandle getter = widen(getters[i]);
+            final Class<?> type = getter.type().returnType();
+            final MethodHandle equal = lookup.findStatic(ReflectionPlan.class, "isEqual",
+                    MethodType.methodType(boolean.class, type, type));
+            result = MethodHandles.guardWithTest(MethodHandles.filterArguments(equal, 0, getter, getter), result,
+                    different);
+        }
+        return result.asType(EQUALS_TYPE);
+    }
+
+    /**
+     * Composes {@code (Object) -> int} adding the fields in order as a
+     * {@link HashCodeBuilder} with the default seed would.
+     */
+    private static MethodHandle hashCodeHandle(final MethodHandles.Lookup lookup, final MethodHandle[] getters)
+            throws ReflectiveOperationException {
+        MethodHandle result = MethodHandles.dropArguments(MethodHandles.constant(int.class, INITIAL_HASH), 0,
+                Object.class);
+        for (MethodHandle getter : getters) {
+            final MethodHandle widened = widen(getter);
+            final MethodHandle add = lookup.findStatic(ReflectionPlan.class, "add",
+                    MethodType.methodType(int.class, int.class, widened.type().returnType()));
+            // (hash, value) -> (obj, obj) -> obj
+            result = MethodHandles.permuteArguments(MethodHandles.filterArguments(add, 0, result, widened),
+                    HASH_TYPE, 0, 0);
+        }
+        return result.asType(HASH_TYPE);
+    }
+
+    /**
+     * Widens the {@code byte}, {@code short} and {@code char} getters to
+     * {@code int}, which {@link HashCodeBuilder} adds them as.
+     */
+    private static MethodHandle widen(final MethodHandle getter) {
+        final Class<?> type = getter.type().returnType();
+        if (type == byte.class || type == short.class || type == char.class) {
+            return getter.asType(getter.type().changeReturnType(int.class));
+        }
+        if (!type.isPrimitive()) {
+            return getter.asType(getter.type().changeReturnType(Object.class));
+        }
+        return getter;
+    }
+
+    private static boolean isEqual(final int first, final int second) {
+        return first == second;
+    }
+
+    private static boolean isEqual(final long first, final long second) {
+        return first == second;
+    }
+
+    private static boolean isEqual(final float first, final float second) {
+        return ObjectHelper.areEqual(first, second);
+    }
+
+    private static boolean isEqual(final double first, final double second) {
+        return ObjectHelper.areEqual(first, second);
+    }
+
+    private static boolean isEqual(final boolean first, final boolean second) {
+        return first == second;
+    }
+
+    private static boolean isEqual(final Object first, final Object second) {
+        // Arrays are compared deeply to match HashCodeBuilder.add(Object)
+        return Objects.deepEquals(first, second);
+    }
+
+    private static int add(final int hash, final int value) {
+        return SEED * hash + value;
+    }
+
+    private static int add(final int hash, final long value) {
+        return SEED * hash + (int) (value ^ (value >>> 32));
+    }
+
+    private static int add(final int hash, final float value) {
+        return SEED * hash + Float.floatToIntBits(value);
+    }
+
+    private static int add(final int hash, final double value) {
+        return add(hash, Double.doubleToLongBits(value));
+    }
+
+    private static int add(final int hash, final boolean value) {
+        return SEED * hash + (value ? 1 : 0);
+    }
+
+    private static int add(final int hash, final Object value) {
+        if (value != null && value.getClass().isArray()) {
+            // Arrays add each element in place
+            return HashCodeBuilder.builder(SEED, hash).add(value).toHashCode();
+        }
+        return SEED * hash + (value == null ? 0 : value.hashCode());
+    }
+
+    private static RuntimeException rethrow(final Throwable t) {
+        if (t instanceof RuntimeException) {
+            return (RuntimeException) t;
+        }
+        if (t instanceof Error) {
+            throw (Error) t;
+        }
+        return new IllegalStateException(t);
+    }
+}
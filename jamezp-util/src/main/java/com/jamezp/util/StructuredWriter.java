@@ -0,0 +1,484 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.io.IOException;
+import java.lang.reflect.Array;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Writes the fields of a {@link ObjectHelper.ToStringBuilder} as JSON or
+ * logfmt directly to an {@link Appendable}.
+ *
+ * <p>
+ * Integral numbers written to a {@link StringBuilder} or a
+ * {@link Utf8ByteBufferAppender} are written without creating a string.
+ * Arrays, collections and maps are written element by element up to the
+ * maximum number of elements. An array, collection or map which contains
+ * itself is written as {@value #CYCLE} where it is repeated.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ */
+final class StructuredWriter {
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * Written in place of an array, collection or map nested in itself.
+     */
+    static final String CYCLE = "(cycle)";
+
+    private final Appendable out;
+
+    private final int maxValueLength;
+
+    private final int maxElements;
+
+    /**
+     * The arrays, collections and maps currently being written, created
+     * when the first one is written.
+     */
+    private IdentityHashMap<Object, Object> path;
+
+    StructuredWriter(final Appendable out, final int maxValueLength, final int maxElements) {
+        this.out = out;
+        this.maxValueLength = maxValueLength;
+        this.maxElements = maxElements;
+    }
+
+    /**
+     * Writes a JSON object, e.g. <code>{"@type":"Pair","first":1}</code>.
+     */
+    void writeJson(final String className, final String[] fields, final Object[] values,
+            final int size) throws IOException {
+        out.append("{\"@type\":");
+        jsonString(className, Integer.MAX_VALUE);
+        for (int i = 0; i < size; i++) {
+            out.append(',');
+            jsonString(fields[i], Integer.MAX_VALUE);
+            out.append(':');
+            jsonValue(values[i]);
+        }
+        out.append('}');
+    }
+
+    /**
+     * Writes a logfmt line, e.g. {@code @type=Pair first=1}.
+     */
+    void writeLogfmt(final String className, final String[] fields, final Object[] values,
+            final int size) throws IOException {
+        out.append("@type=");
+        logfmtString(className, Integer.MAX_VALUE);
+        for (int i = 0; i < size; i++) {
+            out.append(' ');
+            logfmtKey(fields[i]);
+            out.append('=');
+            logfmtValue(values[i]);
+        }
+    }
+
+    private void jsonValue(final Object value) throws IOException {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof CharSequence) {
+            jsonString((CharSequence) value, maxValueLength);
+        } else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            appendLong(((Number) value).longValue());
+        } else if (value instanceof Float) {
+            final float f = (Float) value;
+            if (Float.isNaN(f) || Float.isInfinite(f)) {
+                jsonString(value.toString(), maxValueLength);
+            } else {
+                appendFloat(f);
+            }
+        } else if (value instanceof Double) {
+            final double d = (Double) value;
+            if (Double.isNaN(d) || Double.isInfinite(d)) {
+                jsonString(value.toString(), maxValueLength);
+            } else {
+                appendDouble(d);
+            }
+        } else if (value instanceof Boolean || value instanceof BigInteger
+                || value instanceof BigDecimal) {
+            out.append(value.toString());
+        } else if (value.getClass().isArray()) {
+            array(value, true);
+        } else if (value instanceof Collection) {
+            collection((Collection<?>) value, true);
+        } else if (value instanceof Map) {
+            map((Map<?, ?>) value, true);
+        } else {
+            jsonString(String.valueOf(value), maxValueLength);
+        }
+    }
+
+    private void jsonString(final CharSequence value, final int maxLength) throws IOException {
+        out.append('"');
+        escaped(value, maxLength);
+        out.append('"');
+    }
+
+    private void logfmtKey(final CharSequence key) throws IOException {
+        final int len = key.length();
+        for (int i = 0; i < len; i++) {
+            final char c = key.charAt(i);
+            out.append(needsQuote(c) ? '_' : c);
+        }
+    }
+
+    private void logfmtValue(final Object value) throws IOException {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            appendLong(((Number) value).longValue());
+        } else if (value instanceof Float) {
+            appendFloat((Float) value);
+        } else if (value instanceof Double) {
+            appendDouble((Double) value);
+        } else if (value.getClass().isArray()) {
+            out.append('"');
+            array(value, false);
+            out.append('"');
+        } else if (value instanceof Collection) {
+            out.append('"');
+            collection((Collection<?>) value, false);
+            out.append('"');
+        } else if (value instanceof Map) {
+            out.append('"');
+            map((Map<?, ?>) value, false);
+            out.append('"');
+        } else {
+            logfmtString(value instanceof CharSequence ? (CharSequence) value : String.valueOf(value), maxValueLength);
+        }
+    }
+
+    private void logfmtString(final CharSequence s, final int maxLength) throws IOException {
+        final int len = truncatedLength(s, maxLength);
+        boolean quote = (s.length() == 0);
+        for (int i = 0; i < len && !quote; i++) {
+            quote = needsQuote(s.charAt(i));
+        }
+        if (quote) {
+            out.append('"');
+            escaped(s, maxLength);
+            out.append('"');
+        } else {
+            out.append(s, 0, len);
+            if (len < s.length()) {
+                out.append("...");
+            }
+        }
+    }
+
+    /**
+     * Writes an element of an array, collection or map. JSON elements are
+     * full JSON values, logfmt elements are written escaped inside the quotes
+     * of the enclosing value.
+     */
+    private void element(final Object value, final boolean json) throws IOException {
+        if (json) {
+            jsonValue(value);
+        } else if (value == null) {
+            out.append("null");
+        } else if (value.getClass().isArray()) {
+            array(value, false);
+        } else if (value instanceof Collection) {
+            collection((Collection<?>) value, false);
+        } else if (value instanceof Map) {
+            map((Map<?, ?>) value, false);
+        } else if (value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            appendLong(((Number) value).longValue());
+        } else {
+            escaped(value instanceof CharSequence ? (CharSequence) value : String.valueOf(value), maxValueLength);
+        }
+    }
+
+    private void array(final Object array, final boolean json) throws IOException {
+        if (array instanceof Object[] && !enter(array, json)) {
+            return;
+        }
+        final int length = Array.getLength(array);
+        final int count = Math.min(length, maxElements);
+        out.append('[');
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            if (array instanceof Object[]) {
+                element(((Object[]) array)[i], json);
+            } else if (array instanceof int[]) {
+                appendLong(((int[]) array)[i]);
+            } else if (array instanceof long[]) {
+                appendLong(((long[]) array)[i]);
+            } else if (array instanceof byte[]) {
+                appendLong(((byte[]) array)[i]);
+            } else if (array instanceof short[]) {
+                appendLong(((short[]) array)[i]);
+            } else if (array instanceof boolean[]) {
+                out.append(((boolean[]) array)[i] ? "true" : "false");
+            } else if (array instanceof char[]) {
+                final char c = ((char[]) array)[i];
+                if (json) {
+                    out.append('"');
+                    escaped(c);
+                    out.append('"');
+                } else {
+                    escaped(c);
+                }
+            } else if (array instanceof float[]) {
+                final float f = ((float[]) array)[i];
+                if (json && (Float.isNaN(f) || Float.isInfinite(f))) {
+                    jsonString(Float.toString(f), Integer.MAX_VALUE);
+                } else {
+                    appendFloat(f);
+                }
+            } else {
+                final double d = ((double[]) array)[i];
+                if (json && (Double.isNaN(d) || Double.isInfinite(d))) {
+                    jsonString(Double.toString(d), Integer.MAX_VALUE);
+                } else {
+                    appendDouble(d);
+                }
+            }
+        }
+        more(count, length - count, json);
+        out.append(']');
+        if (array instanceof Object[]) {
+            path.remove(array);
+        }
+    }
+
+    private void collection(final Collection<?> collection, final boolean json) throws IOException {
+        if (!enter(collection, json)) {
+            return;
+        }
+        final int size = collection.size();
+        int count = 0;
+        out.append('[');
+        for (Iterator<?> iter = collection.iterator(); iter.hasNext() && count < maxElements; count++) {
+            if (count > 0) {
+                out.append(',');
+            }
+            element(iter.next(), json);
+        }
+        more(count, size - count, json);
+        out.append(']');
+        path.remove(collection);
+    }
+
+    private void map(final Map<?, ?> map, final boolean json) throws IOException {
+        if (!enter(map, json)) {
+            return;
+        }
+        final int size = map.size();
+        int count = 0;
+        out.append('{');
+        for (Iterator<? extends Map.Entry<?, ?>> iter = map.entrySet().iterator();
+                iter.hasNext() && count < maxElements; count++) {
+            final Map.Entry<?, ?> entry = iter.next();
+            if (count > 0) {
+                out.append(',');
+            }
+            final Object key = entry.getKey();
+            final CharSequence k = (key instanceof CharSequence ? (CharSequence) key : String.valueOf(key));
+            if (json) {
+                jsonString(k, maxValueLength);
+                out.append(':');
+            } else {
+                escaped(k, maxValueLength);
+                out.append('=');
+            }
+            element(entry.getValue(), json);
+        }
+        if (size > count) {
+            if (json) {
+                out.append(count > 0 ? ",\"...\":" : "\"...\":");
+                appendLong(size - count);
+            } else {
+                out.append(count > 0 ? ",..." : "...");
+            }
+        }
+        out.append('}');
+        path.remove(map);
+    }
+
+    /**
+     * Adds the array, collection or map to the path being written. If it is
+     * already being written {@value #CYCLE} is written instead.
+     *
+     * @return {@code true} if the value should be written.
+     */
+    private boolean enter(final Object value, final boolean json) throws IOException {
+        if (path == null) {
+            path = new IdentityHashMap<Object, Object>();
+        }
+        if (path.put(value, value) == null) {
+            return true;
+        }
+        if (json) {
+            jsonString(CYCLE, Integer.MAX_VALUE);
+        } else {
+            out.append(CYCLE);
+        }
+        return false;
+    }
+    /**
+     * Writes the marker for elements that were not written.
+     */
+    private void more(final int written, final int remaining, final boolean json) throws IOException {
+        if (remaining > 0) {
+            if (written > 0) {
+                out.append(',');
+            }
+            out.append(json ? "\"... " : "... ");
+            appendLong(remaining);
+            out.append(json ? " more\"" : " more");
+        }
+    }
+
+    /**
+     * Writes the value with quotes, backslashes and control characters
+     * escaped. Runs of characters which do not need to be escaped are
+     * appended as a single range.
+     */
+    private void escaped(final CharSequence value, final int maxLength) throws IOException {
+        final int len = truncatedLength(value, maxLength);
+        int start = 0;
+        for (int i = 0; i < len; i++) {
+            final char c = value.charAt(i);
+            if (needsEscape(c)) {
+                out.append(value, start, i);
+                start = i + 1;
+                escape(c);
+            }
+        }
+        out.append(value, start, len);
+        if (len < value.length()) {
+            out.append("...");
+        }
+    }
+
+    /**
+     * Writes the character, escaped if needed.
+     */
+    private void escaped(final char c) throws IOException {
+        if (needsEscape(c)) {
+            escape(c);
+        } else {
+            out.append(c);
+        }
+    }
+
+    private void escape(final char c) throws IOException {
+        out.append('\\');
+        switch (c) {
+            case '"':
+            case '\\':
+                out.append(c);
+                break;
+            case '\n':
+                out.append('n');
+                break;
+            case '\r':
+                out.append('r');
+                break;
+            case '\t':
+                out.append('t');
+                break;
+            case '\b':
+                out.append('b');
+                break;
+            case '\f':
+                out.append('f');
+                break;
+            default:
+                out.append("u00").append(HEX[c >>> 4]).append(HEX[c & 0xF]);
+        }
+    }
+
+    private void appendLong(final long value) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(value);
+        } else if (out instanceof Utf8ByteBufferAppender) {
+            ((Utf8ByteBufferAppender) out).appendDecimal(value);
+        } else {
+            out.append(Long.toString(value));
+        }
+    }
+
+    private void appendFloat(final float value) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(value);
+        } else {
+            out.append(Float.toString(value));
+        }
+    }
+
+    private void appendDouble(final double value) throws IOException {
+        if (out instanceof StringBuilder) {
+            ((StringBuilder) out).append(value);
+        } else {
+            out.append(Double.toString(value));
+        }
+    }
+
+    /**
+     * Returns the number of characters to write of a value limited to the
+     * maximum length, without splitting a surrogate pair.
+     */
+    static int truncatedLength(final CharSequence value, final int maxLength) {
+        return truncatedLength(value, 0, value.length(), maxLength);
+    }
+
+    /**
+     * Returns the number of characters to write of the range of a value
+     * limited to the maximum length, without splitting a surrogate pair.
+     */
+    static int truncatedLength(final CharSequence value, final int start, final int end, final int maxLength) {
+        final int len = end - start;
+        if (len <= maxLength) {
+            return len;
+        }
+        return (maxLength > 0 && Character.isHighSurrogate(value.charAt(start + maxLength - 1)))
+                ? maxLength - 1 : maxLength;
+    }
+
+    private static boolean needsEscape(final char c) {
+        return c == '"' || c == '\\' || c < 0x20;
+    }
+
+    private static boolean needsQuote(final char c) {
+        return c <= ' ' || c == '=' || c == '"' || c == 0x7F;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.nio.ByteBuffer;
+
+/**
+ * An {@link Appendable} which encodes the characters appended as UTF-8
+ * directly into a {@link ByteBuffer}.
+ *
+ * <p>
+ * A {@link java.nio.BufferOverflowException} is thrown if the buffer is full.
+ * Unpaired surrogates are encoded as {@code '?'}.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ */
+final class Utf8ByteBufferAppender implements Appendable {
+
+    private final ByteBuffer buffer;
+
+    private final char[] digits = new char[20];
+
+    private char highSurrogate;
+
+    Utf8ByteBufferAppender(final ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    @Override
+    public Utf8ByteBufferAppender append(final CharSequence csq) {
+        final CharSequence s = (csq == null ? "null" : csq);
+        return append(s, 0, s.length());
+    }
+
+    @Override
+    public Utf8ByteBufferAppender append(final CharSequence csq, final int start, final int end) {
+        final CharSequence s = (csq == null ? "null" : csq);
+        for (int i = start; i < end; i++) {
+            append(s.charAt(i));
+        }
+        return this;
+    }
+
+    @Override
+    public Utf8ByteBufferAppender append(final char c) {
+        if (highSurrogate != 0) {
+            final char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                final int codePoint = Character.toCodePoint(high, c);
+                buffer.put((byte) (0xF0 | (codePoint >>> 18)));
+                buffer.put((byte) (0x80 | ((codePoint >>> 12) & 0x3F)));
+                buffer.put((byte) (0x80 | ((codePoint >>> 6) & 0x3F)));
+                buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+                return this;
+            }
+            buffer.put((byte) '?');
+        }
+        if (c < 0x80) {
+            buffer.put((byte) c);
+        } else if (c < 0x800) {
+            buffer.put((byte) (0xC0 | (c >>> 6)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buffer.put((byte) '?');
+        } else {
+            buffer.put((byte) (0xE0 | (c >>> 12)));
+            buffer.put((byte) (0x80 | ((c >>> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (c & 0x3F)));
+        }
+        return this;
+    }
+
+    /**
+     * Appends the decimal representation of the value without creating a
+     * string.
+     *
+     * @param value the value to append.
+     * @return this appender.
+     */
+    Utf8ByteBufferAppender appendDecimal(final long value) {
+        if (value == Long.MIN_VALUE) {
+            return append("-9223372036854775808");
+        }
+        long v = Math.abs(value);
+        int index = digits.length;
+        do {
+            digits[--index] = (char) ('0' + (v % 10));
+            v /= 10;
+        } while (v != 0);
+        if (value < 0) {
+            buffer.put((byte) '-');
+        }
+        for (int i = index; i < digits.length; i++) {
+            buffer.put((byte) digits[i]);
+        }
+        return this;
+    }
+
+    /**
+     * Writes a pending unpaired high surrogate, if any.
+     */
+    void flush() {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            buffer.put((byte) '?');
+        }
+    }
+}
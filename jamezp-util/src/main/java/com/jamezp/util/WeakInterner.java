@@ -0,0 +1,122 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A thread safe pool of canonical instances which only weakly references the
+ * instances, so an instance no longer used elsewhere can be garbage collected.
+ *
+ * @param <T> the type of the instances.
+ * @author James R. Perkins (jrp)
+ */
+final class WeakInterner<T> {
+
+    private final ConcurrentMap<Key<T>, Key<T>> pool = new ConcurrentHashMap<Key<T>, Key<T>>();
+
+    private final ReferenceQueue<T> queue = new ReferenceQueue<T>();
+
+    /**
+     * Returns the canonical instance equal to the sample, adding the sample to
+     * the pool if there is none.
+     *
+     * @param sample the instance to intern.
+     * @return the canonical instance.
+     */
+    T intern(final T sample) {
+        expunge();
+        final Key<T> key = new Key<T>(sample, queue);
+        for (;;) {
+            final Key<T> existing = pool.putIfAbsent(key, key);
+            if (existing == null) {
+                return sample;
+            }
+            final T canonical = existing.get();
+            if (canonical != null) {
+                return canonical;
+            }
+            // Collected, but not yet expunged
+            pool.remove(existing, existing);
+        }
+    }
+
+    /**
+     * Returns the number of entries in the pool, including entries that have
+     * been collected but not yet removed.
+     *
+     * @return the number of entries.
+     */
+    int size() {
+        expunge();
+        return pool.size();
+    }
+
+    private void expunge() {
+        Reference<? extends T> ref;
+        while ((ref = queue.poll()) != null) {
+            pool.remove(ref, ref);
+        }
+    }
+
+    /**
+     * A weak reference which is equal to another key with an equal referent.
+     * Once cleared a key is only equal to itself.
+     */
+    private static final class Key<T> extends WeakReference<T> {
+
+        private final int hash;
+
+        Key(final T referent, final ReferenceQueue<T> queue) {
+            super(referent, queue);
+            this.hash = referent.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            final Key<?> other = (Key<?>) obj;
+            if (hash != other.hash) {
+                return false;
+            }
+            final T referent = get();
+            return referent != null && referent.equals(other.get());
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.util.Arrays;
+
+/**
+ * Internal array helpers shared by the public utilities, delegating to the
+ * vectorized {@link Arrays#mismatch} methods.
+ *
+ * <p>
+ * The mismatch methods return the relative index of the first element that
+ * differs between the two ranges, or -1 if the ranges are equal up to the
+ * length of the shorter range. Ranges are expected to have been validated with
+ * {@link #rangeCheck(int, int, int)} before the methods are invoked.
+ * </p>
+ *
+ * @author James R. Perkins (JRP)
+ */
+final class ArraysSupport {
+
+    /**
+     * Private constructor for static utility class.
+     */
+    private ArraysSupport() {
+    }
+
+    static int mismatch(final byte[] left, final int leftFrom,
+            final byte[] right, final int rightFrom, final int length) {
+        return Arrays.mismatch(left, leftFrom, leftFrom + length, right, rightFrom, rightFrom + length);
+    }
+
+    static int mismatch(final char[] left, final int leftFrom,
+            final char[] right, final int rightFrom, final int length) {
+        return Arrays.mismatch(left, leftFrom, leftFrom + length, right, rightFrom, rightFrom + length);
+    }
+
+    static int mismatch(final short[] left, final int leftFrom,
+            final short[] right, final int rightFrom, final int length) {
+        return Arrays.mismatch(left, leftFrom, leftFrom + length, right, rightFrom, rightFrom + length);
+    }
+
+    static int mismatch(final int[] left, final int leftFrom,
+            final int[] right, final int rightFrom, final int length) {
+        return Arrays.mismatch(left, leftFrom, leftFrom + length, right, rightFrom, rightFrom + length);
+    }
+
+    static int mismatch(final long[] left, final int leftFrom,
+            final long[] right, final int rightFrom, final int length) {
+        return Arrays.mismatch(left, leftFrom, leftFrom + length, right, rightFrom, rightFrom + length);
+    }
+
+    static int mismatch(final float[] left, final int leftFrom,
+            final float[] right, final int rightFrom, final int length) {
+        return Arrays.mismatch(left, leftFrom, leftFrom + length, right, rightFrom, rightFrom + length);
+    }
+
+    static int mismatch(final double[] left, final int leftFrom,
+            final double[] right, final int rightFrom, final int length) {
+        return Arrays.mismatch(left, leftFrom, leftFrom + length, right, rightFrom, rightFrom + length);
+    }
+
+    /**
+     * Checks that the range is valid for an array of the given length.
+     *
+     * @param arrayLength the length of the array.
+     * @param from        the inclusive start of the range.
+     * @param to          the exclusive end of the range.
+     */
+    static void rangeCheck(final int arrayLength, final int from, final int to) {
+        if (from > to) {
+            throw new IllegalArgumentException(String.format("from(%d) > to(%d)", from, to));
+        }
+        if (from < 0) {
+            throw new ArrayIndexOutOfBoundsException(from);
+        }
+        if (to > arrayLength) {
+            throw new ArrayIndexOutOfBoundsException(to);
+        }
+    }
+}
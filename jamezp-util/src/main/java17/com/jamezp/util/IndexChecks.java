@@ -0,0 +1,51 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.util.Objects;
+
+/**
+ * Index range checks backing {@link ObjectHelper#checkIndex(int, int)} and
+ * friends, delegating to the intrinsified {@link Objects} checks.
+ *
+ * @author James R. Perkins (JRP)
+ */
+final class IndexChecks {
+
+    private IndexChecks() {
+    }
+
+    static int checkIndex(final int index, final int length) {
+        return Objects.checkIndex(index, length);
+    }
+
+    static int checkFromToIndex(final int fromIndex, final int toIndex, final int length) {
+        return Objects.checkFromToIndex(fromIndex, toIndex, length);
+    }
+
+    static int checkFromIndexSize(final int fromIndex, final int size, final int length) {
+        return Objects.checkFromIndexSize(fromIndex, size, length);
+    }
+}
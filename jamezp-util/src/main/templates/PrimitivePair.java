@@ -0,0 +1,141 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import static com.jamezp.util.ObjectHelper.areEqual;
+import com.jamezp.util.ObjectHelper.HashCodeBuilder;
+import com.jamezp.util.ObjectHelper.ToStringBuilder;
+import java.io.Serializable;
+
+/**
+ * This class represents a ({@code @FIRST@}, {@code @SECOND@}) pair which,
+ * unlike {@link Pair}, does not box its primitive components.
+ * <p>
+ * The {@code equals}, {@code hashCode} and {@code toString} contracts are the
+ * same as {@link Pair}'s, the hash code is equal to the hash code of the
+ * {@code Pair} holding the same values. A {@code @CLASS@} is only ever equal
+ * to another {@code @CLASS@}.
+ * </p>
+ * <p>
+ * Generated from {@code src/main/templates/PrimitivePair.java}, edit the
+ * template rather than this class.
+ * </p>
+ * 
+ * @author James R. Perkins (JRP) - Manage, Inc.
+ */
+public final class @CLASS@@GENERIC@ implements Serializable {
+
+    /**
+     * Serialized version UID.
+     */
+    private static final long serialVersionUID = @SERIAL_VERSION_UID@L;
+
+    private final @FIRST@ first;
+
+    private final @SECOND@ second;
+
+    /**
+     * Creates a new {@code @CLASS@}.
+     * 
+     * @param first
+     *            the first value
+     * @param second
+     *            the second value
+     */
+    public @CLASS@(final @FIRST@ first, final @SECOND@ second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    /**
+     * This is a static method for convenience in creating a {@code @CLASS@}.
+     * 
+     * @param first
+     *            the first value
+     * @param second
+     *            the second value
+     * @return the new pair
+     */
+    public static @GENERIC_DECL@@CLASS@@GENERIC@ of(final @FIRST@ first, final @SECOND@ second) {
+        return new @CLASS@@GENERIC@(first, second);
+    }
+
+    /**
+     * This method will return first value.
+     * 
+     * @return the first value
+     */
+    public @FIRST@ first() {
+        return first;
+    }
+
+    /**
+     * This method will return the second value.
+     * 
+     * @return the second value
+     */
+    public @SECOND@ second() {
+        return second;
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(final Object obj) {
+        if (obj == this) {
+            return true;
+        }
+        if (!(obj instanceof @CLASS@)) {
+            return false;
+        }
+        final @CLASS@@WILDCARD@ other = (@CLASS@@WILDCARD@) obj;
+        return areEqual(this.first, other.first)
+                && areEqual(this.second, other.second);
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        return HashCodeBuilder.builder().add(first).add(second).toHashCode();
+    }
+
+    /*
+     * (non-Javadoc)
+     * 
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return ToStringBuilder.of(this).add("first", first).add("second",
+                second).toString();
+    }
+}
@@ -0,0 +1,376 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.sql;
+
+import com.jamezp.sql.StatementTuner.Decision;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jrp
+ */
+public class StatementTunerTest {
+
+    private static final String QUERY = "SELECT name FROM person WHERE age > 30";
+
+    private static final String INSERT = "INSERT INTO person (name) VALUES (?)";
+
+    private static final String NAME = repeat('x', 100);
+
+    /**
+     * The estimated size of a row with a single string column of 100
+     * characters.
+     */
+    private static final int ROW_WIDTH = TunedStatements.VALUE_OVERHEAD + 200;
+
+    @Test
+    public void testFingerprint() {
+        System.out.println("fingerprint");
+        assertEquals("select * from t1 where id = ? and name = ?",
+                StatementTuner.fingerprint("  SELECT  *\n FROM t1 WHERE id = 42 AND name = 'O''Brien' "));
+        assertEquals("select a from t where price > ? and b = ?",
+                StatementTuner.fingerprint("select a from t where price > 1.5 and b = ?"));
+        assertEquals(StatementTuner.fingerprint("SELECT name FROM person WHERE age > 40"),
+                StatementTuner.fingerprint(QUERY));
+    }
+
+    @Test
+    public void testCreate() {
+        System.out.println("create");
+        try {
+            StatementTuner.create(0L, 1L);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            StatementTuner.create(1L, -1L);
+            fail("Expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        final Decision decision = StatementTuner.create().decision(QUERY);
+        assertEquals(0L, decision.queries());
+        assertEquals(StatementTuner.DEFAULT_FETCH_SIZE, decision.fetchSize());
+        assertEquals(StatementTuner.MAX_BATCH_SIZE, decision.batchSize());
+    }
+
+    @Test
+    public void testFetchSize() throws Exception {
+        System.out.println("fetch size");
+        final StubDatabase database = new StubDatabase(TimeUnit.MILLISECONDS.toNanos(2L)).table(QUERY, 1000, 100);
+        final StatementTuner tuner = StatementTuner.create();
+
+        // Nothing was learned, so the default fetch size is used
+        assertEquals(1000, query(database, tuner, QUERY));
+        assertEquals(11L, database.roundTrips());
+        final long untuned = database.elapsedNanos();
+
+        final Decision decision = tuner.decision(QUERY);
+        assertEquals(1L, decision.queries());
+        assertEquals(1000.0d, decision.rows(), 0.0d);
+        assertEquals(ROW_WIDTH, decision.rowWidth(), 0.0d);
+        assertEquals(1001, decision.fetchSize());
+
+        // All rows and the end of the rows are fetched in one round trip
+        database.reset();
+        assertEquals(1000, query(database, tuner, QUERY));
+        assertEquals(1L, database.roundTrips());
+        assertTrue(database.elapsedNanos() < untuned);
+        assertEquals(2L, tuner.decision(QUERY).queries());
+    }
+
+    @Test
+    public void testFetchBudget() throws Exception {
+        System.out.println("fetch budget");
+        final StubDatabase database = new StubDatabase(1L).table(QUERY, 1000, 100);
+        final long budget = 64L * 1024L;
+        final StatementTuner tuner = StatementTuner.create(budget, StatementTuner.DEFAULT_BATCH_BUDGET);
+        query(database, tuner, QUERY);
+
+        final int fetchSize = (int) (budget / ROW_WIDTH);
+        assertEquals(fetchSize, tuner.decision(QUERY).fetchSize());
+        database.reset();
+        assertEquals(1000, query(database, tuner, QUERY));
+        assertEquals(4L, database.roundTrips());
+        assertEquals(fetchSize, database.maxFetchedRows());
+        assertTrue((long) database.maxFetchedRows() * ROW_WIDTH <= budget);
+    }
+
+    @Test
+    public void testFetchBudget_wideRows() throws Exception {
+        System.out.println("fetch budget wide rows");
+        final int valueLength = 10000;
+        final StubDatabase database = new StubDatabase(1L).table(QUERY, 100, valueLength);
+        final long budget = 64L * 1024L;
+        final StatementTuner tuner = StatementTuner.create(budget, StatementTuner.DEFAULT_BATCH_BUDGET);
+        final Connection connection = database.connection();
+        PreparedStatement statement = StatementBuilder.newBuilder(connection, QUERY).tuneWith(tuner)
+                .buildPreparedStatement();
+        ResultSet resultSet = statement.executeQuery();
+        while (resultSet.next()) {
+            resultSet.getString(1);
+        }
+        statement.close();
+
+        // Fewer rows than the minimum fetch size fit into the budget
+        final long width = TunedStatements.VALUE_OVERHEAD + 2L * valueLength;
+        final int fetchSize = (int) (budget / width);
+        assertTrue(fetchSize < StatementTuner.MIN_FETCH_SIZE);
+        assertEquals(fetchSize, tuner.decision(QUERY).fetchSize());
+        database.reset();
+        statement = StatementBuilder.newBuilder(connection, QUERY).tuneWith(tuner).buildPreparedStatement();
+        resultSet = statement.executeQuery();
+        while (resultSet.next()) {
+            resultSet.getString(1);
+        }
+        statement.close();
+        assertEquals(fetchSize, database.maxFetchedRows());
+        assertTrue(database.maxFetchedRows() * width <= budget);
+    }
+
+    @Test
+    public void testBatchSize() throws Exception {
+        System.out.println("batch size");
+        final StubDatabase database = new StubDatabase(1L);
+        final long budget = 64L * 1024L;
+        final StatementTuner tuner = StatementTuner.create(StatementTuner.DEFAULT_FETCH_BUDGET, budget);
+
+        // The first flush assumes the default row width, the following
+        // flushes use the width measured by the first one
+        assertEquals((int) (budget / StatementTuner.DEFAULT_ROW_WIDTH), tuner.batchSize(INSERT));
+        final int batchSize = (int) (budget / ROW_WIDTH);
+        int[] counts = insert(database, tuner, 1000);
+        assertEquals(1000, counts.length);
+        assertEquals(1, counts[999]);
+        assertEquals(4L, database.roundTrips());
+        assertEquals(batchSize, database.maxBatchRows());
+
+        final Decision decision = tuner.decision(INSERT);
+        assertEquals(4L, decision.batches());
+        assertEquals(ROW_WIDTH, decision.batchRowWidth(), 0.0d);
+        assertEquals(batchSize, decision.batchSize());
+
+        database.reset();
+        counts = insert(database, tuner, 1000);
+        assertEquals(1000, counts.length);
+        assertEquals(4L, database.roundTrips());
+        assertEquals(batchSize, database.maxBatchRows());
+    }
+
+    @Test
+    public void testBatchAutoCommit() throws Exception {
+        System.out.println("batch auto-commit");
+        final StubDatabase database = new StubDatabase(1L);
+        final StatementTuner tuner = StatementTuner.create(StatementTuner.DEFAULT_FETCH_BUDGET,
+                10L * StatementTuner.DEFAULT_ROW_WIDTH);
+        final Connection connection = database.connection();
+
+        // Flushed rows are committed before the batch is executed
+        PreparedStatement statement = StatementBuilder.newBuilder(connection, INSERT).tuneWith(tuner)
+                .buildPreparedStatement();
+        for (int i = 0; i < 15; i++) {
+            statement.setString(1, NAME);
+            statement.addBatch();
+        }
+        assertEquals(10L, database.committedRows());
+        assertEquals(15, statement.executeBatch().length);
+        assertEquals(15L, database.committedRows());
+        statement.close();
+
+        // Without auto-commit the flushed rows are part of the transaction
+        database.reset();
+        connection.setAutoCommit(false);
+        statement = StatementBuilder.newBuilder(connection, INSERT).tuneWith(tuner).buildPreparedStatement();
+        for (int i = 0; i < 15; i++) {
+            statement.setString(1, "x");
+            statement.addBatch();
+        }
+        assertTrue(database.roundTrips() > 0L);
+        statement.executeBatch();
+        connection.rollback();
+        assertEquals(0L, database.committedRows());
+        statement.close();
+    }
+
+    @Test
+    public void testClearBatch() throws Exception {
+        System.out.println("clear batch");
+        final StubDatabase database = new StubDatabase(1L);
+        final StatementTuner tuner = StatementTuner.create(StatementTuner.DEFAULT_FETCH_BUDGET,
+                10L * StatementTuner.DEFAULT_ROW_WIDTH);
+        final PreparedStatement statement = StatementBuilder.newBuilder(database.connection(), INSERT)
+                .tuneWith(tuner)
+                .buildPreparedStatement();
+
+        // Nothing was executed yet
+        statement.setString(1, NAME);
+        statement.addBatch();
+        statement.clearBatch();
+
+        for (int i = 0; i < 15; i++) {
+            statement.setString(1, NAME);
+            statement.addBatch();
+        }
+        // The flushed rows stay committed
+        statement.clearBatch();
+        assertEquals(10L, database.committedRows());
+
+        // The remaining rows and the flushed counts were cleared
+        statement.setString(1, NAME);
+        statement.addBatch();
+        assertEquals(1, statement.executeBatch().length);
+        assertEquals(11L, database.committedRows());
+        statement.close();
+    }
+
+    @Test
+    public void testFailedBatch() throws Exception {
+        System.out.println("failed batch");
+        final StubDatabase database = new StubDatabase(1L).failAtRow(13L);
+        final StatementTuner tuner = StatementTuner.create(StatementTuner.DEFAULT_FETCH_BUDGET,
+                10L * StatementTuner.DEFAULT_ROW_WIDTH);
+        final PreparedStatement statement = StatementBuilder.newBuilder(database.connection(), INSERT)
+                .tuneWith(tuner)
+                .buildPreparedStatement();
+
+        for (int i = 0; i < 15; i++) {
+            statement.setString(1, NAME);
+            statement.addBatch();
+        }
+        try {
+            statement.executeBatch();
+            fail("Expected BatchUpdateException");
+        } catch (BatchUpdateException e) {
+            // The flushed rows followed by the rows executed before the failure
+            assertEquals(13, e.getUpdateCounts().length);
+        }
+        assertEquals(13L, database.committedRows());
+
+        // The next batch does not return the counts of the failed one
+        statement.setString(1, NAME);
+        statement.addBatch();
+        assertEquals(1, statement.executeBatch().length);
+        statement.close();
+    }
+
+    @Test
+    public void testFailedFlush() throws Exception {
+        System.out.println("failed flush");
+        final StubDatabase database = new StubDatabase(1L).failAtRow(5L);
+        final StatementTuner tuner = StatementTuner.create(StatementTuner.DEFAULT_FETCH_BUDGET,
+                10L * StatementTuner.DEFAULT_ROW_WIDTH);
+        final PreparedStatement statement = StatementBuilder.newBuilder(database.connection(), INSERT)
+                .tuneWith(tuner)
+                .buildPreparedStatement();
+
+        for (int i = 0; i < 9; i++) {
+            statement.setString(1, NAME);
+            statement.addBatch();
+        }
+        try {
+            statement.setString(1, NAME);
+            statement.addBatch();
+            fail("Expected BatchUpdateException");
+        } catch (BatchUpdateException e) {
+            assertEquals(5, e.getUpdateCounts().length);
+        }
+        final long roundTrips = database.roundTrips();
+
+        // The failed rows are no longer pending, adding a row does not flush
+        statement.setString(1, NAME);
+        statement.addBatch();
+        assertEquals(roundTrips, database.roundTrips());
+        assertEquals(1, statement.executeBatch().length);
+        statement.close();
+    }
+
+    @Test
+    public void testDecisions() throws Exception {
+        System.out.println("decisions");
+        final StubDatabase database = new StubDatabase(1L).table(QUERY, 5, 100);
+        final StatementTuner tuner = StatementTuner.create();
+        query(database, tuner, QUERY);
+        insert(database, tuner, 3);
+        final List<Decision> decisions = tuner.decisions();
+        assertEquals(2, decisions.size());
+        for (Decision decision : decisions) {
+            if (decision.fingerprint().startsWith("select")) {
+                assertEquals(StatementTuner.MIN_FETCH_SIZE, decision.fetchSize());
+                assertEquals(5.0d, decision.rows(), 0.0d);
+            } else {
+                assertEquals(StatementTuner.fingerprint(INSERT), decision.fingerprint());
+                assertEquals(1L, decision.batches());
+            }
+            assertTrue(decision.toString().startsWith("Decision{fingerprint="));
+        }
+    }
+
+    private static int query(final StubDatabase database, final StatementTuner tuner, final String sql)
+            throws SQLException {
+        final Connection connection = database.connection();
+        final PreparedStatement statement = StatementBuilder.newBuilder(connection, sql)
+                .tuneWith(tuner)
+                .buildPreparedStatement();
+        int rows = 0;
+        final ResultSet resultSet = statement.executeQuery();
+        while (resultSet.next()) {
+            assertEquals(NAME.length(), resultSet.getString(1).length());
+            rows++;
+        }
+        resultSet.close();
+        statement.close();
+        return rows;
+    }
+
+    private static int[] insert(final StubDatabase database, final StatementTuner tuner, final int rows)
+            throws SQLException {
+        final PreparedStatement statement = StatementBuilder.newBuilder(database.connection(), INSERT)
+                .tuneWith(tuner)
+                .buildPreparedStatement();
+        for (int i = 0; i < rows; i++) {
+            statement.setString(1, NAME);
+            statement.addBatch();
+        }
+        final int[] counts = statement.executeBatch();
+        statement.close();
+        return counts;
+    }
+
+    private static String repeat(final char c, final int count) {
+        final char[] chars = new char[count];
+        Arrays.fill(chars, c);
+        return new String(chars);
+    }
+}
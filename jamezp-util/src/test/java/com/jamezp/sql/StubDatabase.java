@@ -0,0 +1,293 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.sql;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * An in-process database for JDBC tests which counts the round trips a
+ * client makes and charges a fixed latency for each of them to a simulated
+ * clock.
+ *
+ * <p>
+ * A query returns the rows of the table registered for its SQL, each row has
+ * a single string column. A round trip fetches up to the fetch size of the
+ * statement, the end of the rows is only known once a fetch returns less
+ * than the fetch size. The execution of a query and its first fetch count as
+ * a single round trip. Executing a batch is one round trip, its rows are
+ * committed right away with auto-commit enabled or by the next commit of a
+ * connection otherwise.
+ * </p>
+ *
+ * @author jrp
+ */
+final class StubDatabase {
+
+    /**
+     * The fetch size of a statement if none was set.
+     */
+    static final int DEFAULT_FETCH_SIZE = 10;
+
+    private final long latencyNanos;
+
+    private final Map<String, int[]> tables = new HashMap<String, int[]>();
+
+    private long roundTrips;
+
+    private int maxFetchedRows;
+
+    private int maxBatchRows;
+
+    private boolean autoCommit = true;
+
+    private long uncommittedRows;
+
+    private long committedRows;
+
+    private long executedRows;
+
+    private long failingRow = -1L;
+
+    StubDatabase(final long latencyNanos) {
+        this.latencyNanos = latencyNanos;
+    }
+
+    StubDatabase table(final String sql, final int rows, final int valueLength) {
+        tables.put(sql, new int[] {rows, valueLength});
+        return this;
+    }
+
+    long roundTrips() {
+        return roundTrips;
+    }
+
+    long elapsedNanos() {
+        return roundTrips * latencyNanos;
+    }
+
+    int maxFetchedRows() {
+        return maxFetchedRows;
+    }
+
+    int maxBatchRows() {
+        return maxBatchRows;
+    }
+
+    long committedRows() {
+        return committedRows;
+    }
+
+    /**
+     * Fails the batch execution that reaches the zero-based row, counted from
+     * the first row executed. The rows of the batch before it are executed, the
+     * failure happens once.
+     */
+    StubDatabase failAtRow(final long row) {
+        failingRow = row;
+        return this;
+    }
+
+    void reset() {
+        roundTrips = 0L;
+        maxFetchedRows = 0;
+        maxBatchRows = 0;
+        committedRows = 0L;
+    }
+
+    Connection connection() {
+        return proxy(Connection.class, new InvocationHandler() {
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                final String name = method.getName();
+                if ("prepareStatement".equals(name)) {
+                    return statement((String) args[0]);
+                }
+                if ("setAutoCommit".equals(name)) {
+                    autoCommit = (Boolean) args[0];
+                    return null;
+                }
+                if ("getAutoCommit".equals(name)) {
+                    return autoCommit;
+                }
+                if ("commit".equals(name)) {
+                    committedRows += uncommittedRows;
+                    uncommittedRows = 0L;
+                    return null;
+                }
+                if ("rollback".equals(name) && args == null) {
+                    uncommittedRows = 0L;
+                    return null;
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    private PreparedStatement statement(final String sql) {
+        return proxy(PreparedStatement.class, new InvocationHandler() {
+            private int fetchSize;
+            private int batchRows;
+
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args)
+                    throws SQLException {
+                final String name = method.getName();
+                if ("setFetchSize".equals(name)) {
+                    fetchSize = (Integer) args[0];
+                    return null;
+                }
+                if ("getFetchSize".equals(name)) {
+                    return fetchSize;
+                }
+                if ("executeQuery".equals(name)) {
+                    final int[] table = tables.get(sql);
+                    return results(table[0], table[1], (fetchSize == 0 ? DEFAULT_FETCH_SIZE : fetchSize));
+                }
+                if ("addBatch".equals(name)) {
+                    batchRows++;
+                    return null;
+                }
+                if ("clearBatch".equals(name)) {
+                    batchRows = 0;
+                    return null;
+                }
+                if ("executeBatch".equals(name)) {
+                    roundTrips++;
+                    maxBatchRows = Math.max(maxBatchRows, batchRows);
+                    if (failingRow >= 0L && executedRows + batchRows > failingRow) {
+                        final int executed = (int) (failingRow - executedRows);
+                        execute(executed);
+                        failingRow = -1L;
+                        batchRows = 0;
+                        final int[] counts = new int[executed];
+                        Arrays.fill(counts, 1);
+                        throw new BatchUpdateException("Row " + (executedRows + 1L) + " failed", counts);
+                    }
+                    execute(batchRows);
+                    final int[] counts = new int[batchRows];
+                    Arrays.fill(counts, 1);
+                    batchRows = 0;
+                    return counts;
+                }
+                return defaultValue(proxy, method, args);
+            }
+        });
+    }
+
+    private void execute(final int rows) {
+        executedRows += rows;
+        if (autoCommit) {
+            committedRows += rows;
+        } else {
+            uncommittedRows += rows;
+        }
+    }
+
+    private ResultSet results(final int rows, final int valueLength, final int fetchSize) {
+        final char[] value = new char[valueLength];
+        Arrays.fill(value, 'x');
+        final InvocationHandler handler = new InvocationHandler() {
+            private int fetched;
+            private int position;
+            private boolean exhausted;
+
+            @Override
+            public Object invoke(final Object proxy, final Method method, final Object[] args) {
+                final String name = method.getName();
+                if ("next".equals(name)) {
+                    if (position == fetched && !exhausted) {
+                        fetch();
+                    }
+                    if (position < fetched) {
+                        position++;
+                        return true;
+                    }
+                    return false;
+                }
+                if ("getString".equals(name)) {
+                    return new String(value);
+                }
+                if ("getInt".equals(name)) {
+                    return position;
+                }
+                return defaultValue(proxy, method, args);
+            }
+
+            private void fetch() {
+                roundTrips++;
+                final int count = Math.min(fetchSize, rows - fetched);
+                maxFetchedRows = Math.max(maxFetchedRows, count);
+                fetched += count;
+                exhausted = count < fetchSize;
+            }
+        };
+        return proxy(ResultSet.class, handler);
+    }
+
+    private static <T> T proxy(final Class<T> type, final InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(StubDatabase.class.getClassLoader(), new Class<?>[] {type},
+                handler));
+    }
+
+    private static Object defaultValue(final Object proxy, final Method method, final Object[] args) {
+        final String name = method.getName();
+        if ("equals".equals(name)) {
+            return proxy == args[0];
+        }
+        if ("hashCode".equals(name)) {
+            return System.identityHashCode(proxy);
+        }
+        if ("toString".equals(name)) {
+            return "Stub" + method.getDeclaringClass().getSimpleName();
+        }
+        final Class<?> type = method.getReturnType();
+        if (!type.isPrimitive() || type == void.class) {
+            return null;
+        }
+        if (type == boolean.class) {
+            return Boolean.FALSE;
+        }
+        if (type == long.class) {
+            return 0L;
+        }
+        if (type == double.class) {
+            return 0.0d;
+        }
+        if (type == float.class) {
+            return 0.0f;
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jrp
+ */
+public class BinaryCodecTest {
+
+    @Test
+    public void testVarints() {
+        System.out.println("varints");
+        final ByteBuffer buffer = ByteBuffer.allocate(16);
+        final long[] longs = {0L, 1L, -1L, 63L, -64L, 64L, Long.MAX_VALUE, Long.MIN_VALUE, 1L << 35};
+        for (long value : longs) {
+            buffer.clear();
+            BinaryCodecs.writeVarLong(buffer, BinaryCodecs.zigZag(value));
+            buffer.flip();
+            assertEquals(value, BinaryCodecs.unZigZag(BinaryCodecs.readVarLong(buffer)));
+            assertFalse(buffer.hasRemaining());
+        }
+        final int[] ints = {0, 1, -1, 63, -64, 64, Integer.MAX_VALUE, Integer.MIN_VALUE};
+        for (int value : ints) {
+            buffer.clear();
+            BinaryCodecs.writeVarInt(buffer, BinaryCodecs.zigZag(value));
+            buffer.flip();
+            assertEquals(value, BinaryCodecs.unZigZag(BinaryCodecs.readVarInt(buffer)));
+            assertFalse(buffer.hasRemaining());
+        }
+        // Small values take a single byte
+        buffer.clear();
+        BinaryCodecs.INT.write(-64, buffer);
+        assertEquals(1, buffer.position());
+        BinaryCodecs.LONG.write(Long.MIN_VALUE, buffer);
+        assertEquals(11, buffer.position());
+    }
+
+    @Test
+    public void testCodecs() {
+        System.out.println("codecs");
+        final ByteBuffer buffer = ByteBuffer.allocate(1024);
+        BinaryCodecs.STRING.write("héllo 😀", buffer);
+        BinaryCodecs.BYTES.write(new byte[] {1, 2, 3}, buffer);
+        BinaryCodecs.DOUBLE.write(Math.PI, buffer);
+        BinaryCodecs.FLOAT.write(Float.NaN, buffer);
+        BinaryCodecs.BOOLEAN.write(true, buffer);
+        BinaryCodecs.nullable(BinaryCodecs.STRING).write(null, buffer);
+        BinaryCodecs.pair(BinaryCodecs.STRING, BinaryCodecs.nullable(BinaryCodecs.LONG)).write(Pair.of("a", (Long) null), buffer);
+        BinaryCodecs.INT_INT_PAIR.write(IntIntPair.of(-1, Integer.MAX_VALUE), buffer);
+        BinaryCodecs.INT_LONG_PAIR.write(IntLongPair.of(1, Long.MIN_VALUE), buffer);
+        BinaryCodecs.LONG_INT_PAIR.write(LongIntPair.of(Long.MAX_VALUE, 0), buffer);
+        BinaryCodecs.LONG_LONG_PAIR.write(LongLongPair.of(-5L, 5L), buffer);
+        BinaryCodecs.intObjPair(BinaryCodecs.STRING).write(IntObjPair.of(1, "x"), buffer);
+        BinaryCodecs.longObjPair(BinaryCodecs.STRING).write(LongObjPair.of(2L, "y"), buffer);
+        BinaryCodecs.objIntPair(BinaryCodecs.STRING).write(ObjIntPair.of("z", 3), buffer);
+        BinaryCodecs.objLongPair(BinaryCodecs.DOUBLE).write(ObjLongPair.of(1.5d, 4L), buffer);
+        buffer.flip();
+
+        // Heap and direct buffers
+        for (final ByteBuffer in : new ByteBuffer[] {buffer.duplicate(), copyDirect(buffer)}) {
+            assertEquals("héllo 😀", BinaryCodecs.STRING.read(in));
+            assertTrue(Arrays.equals(new byte[] {1, 2, 3}, BinaryCodecs.BYTES.read(in)));
+            assertEquals(Math.PI, BinaryCodecs.DOUBLE.read(in), 0.0d);
+            assertTrue(BinaryCodecs.FLOAT.read(in).isNaN());
+            assertTrue(BinaryCodecs.BOOLEAN.read(in));
+            assertNull(BinaryCodecs.nullable(BinaryCodecs.STRING).read(in));
+            assertEquals(Pair.of("a", (Long) null),
+                    BinaryCodecs.pair(BinaryCodecs.STRING, BinaryCodecs.nullable(BinaryCodecs.LONG)).read(in));
+            assertEquals(IntIntPair.of(-1, Integer.MAX_VALUE), BinaryCodecs.INT_INT_PAIR.read(in));
+            assertEquals(IntLongPair.of(1, Long.MIN_VALUE), BinaryCodecs.INT_LONG_PAIR.read(in));
+            assertEquals(LongIntPair.of(Long.MAX_VALUE, 0), BinaryCodecs.LONG_INT_PAIR.read(in));
+            assertEquals(LongLongPair.of(-5L, 5L), BinaryCodecs.LONG_LONG_PAIR.read(in));
+            assertEquals(IntObjPair.of(1, "x"), BinaryCodecs.intObjPair(BinaryCodecs.STRING).read(in));
+            assertEquals(LongObjPair.of(2L, "y"), BinaryCodecs.longObjPair(BinaryCodecs.STRING).read(in));
+            assertEquals(ObjIntPair.of("z", 3), BinaryCodecs.objIntPair(BinaryCodecs.STRING).read(in));
+            assertEquals(ObjLongPair.of(1.5d, 4L), BinaryCodecs.objLongPair(BinaryCodecs.DOUBLE).read(in));
+            assertFalse(in.hasRemaining());
+        }
+    }
+
+    @Test
+    public void testWriterAndReader() throws Exception {
+        System.out.println("writer and reader");
+        final BinaryCodec<Pair<String, Long>> codec = BinaryCodecs.pair(BinaryCodecs.STRING, BinaryCodecs.LONG);
+        final List<Pair<String, Long>> pairs = new ArrayList<Pair<String, Long>>();
+        final Random random = new Random(43L);
+        for (int i = 0; i < 10000; i++) {
+            final char[] chars = new char[random.nextInt(i % 100 == 0 ? 200 : 10)];
+            Arrays.fill(chars, (char) ('a' + random.nextInt(26)));
+            pairs.add(Pair.of(new String(chars), random.nextLong() >> random.nextInt(64)));
+        }
+        final File file = File.createTempFile("binary-codec", ".bin");
+        file.deleteOnExit();
+        // Batches smaller than some of the values
+        final BinaryWriter<Pair<String, Long>> writer = BinaryWriter.of(codec,
+                FileChannel.open(file.toPath(), StandardOpenOption.WRITE), 64);
+        for (Pair<String, Long> pair : pairs) {
+            writer.write(pair);
+        }
+        writer.close();
+        assertEquals(pairs.size(), writer.count());
+
+        final List<Pair<String, Long>> read = new ArrayList<Pair<String, Long>>();
+        final BinaryReader<Pair<String, Long>> reader = BinaryReader.of(codec,
+                FileChannel.open(file.toPath(), StandardOpenOption.READ), 50);
+        while (reader.hasNext()) {
+            read.add(reader.next());
+        }
+        reader.close();
+        assertEquals(pairs, read);
+
+        read.clear();
+        final FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            final BinaryReader<Pair<String, Long>> mapped = BinaryReader.of(codec,
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size()));
+            while (mapped.hasNext()) {
+                read.add(mapped.next());
+            }
+        } finally {
+            channel.close();
+        }
+        assertEquals(pairs, read);
+
+        // Smaller than default serialization
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        for (Pair<String, Long> pair : pairs) {
+            out.writeObject(pair);
+        }
+        out.close();
+        assertTrue(file.length() * 2 < bytes.size());
+    }
+
+    @Test
+    public void testWriterCodecFailure() throws Exception {
+        System.out.println("writer codec failure");
+        final BinaryCodec<Pair<String, String>> codec = BinaryCodecs.pair(BinaryCodecs.STRING, BinaryCodecs.STRING);
+        final File file = File.createTempFile("binary-codec", ".bin");
+        file.deleteOnExit();
+        final BinaryWriter<Pair<String, String>> writer = BinaryWriter.of(codec,
+                FileChannel.open(file.toPath(), StandardOpenOption.WRITE), 64);
+        writer.write(Pair.of("x", "y"));
+        try {
+            writer.write(Pair.of("a", (String) null));
+            fail("Expected NullPointerException");
+        } catch (NullPointerException expected) {
+            // expected
+        }
+        writer.write(Pair.of("b", "c"));
+        writer.close();
+        assertEquals(2L, writer.count());
+
+        final List<Pair<String, String>> read = new ArrayList<Pair<String, String>>();
+        final BinaryReader<Pair<String, String>> reader = BinaryReader.of(codec,
+                FileChannel.open(file.toPath(), StandardOpenOption.READ), 64);
+        while (reader.hasNext()) {
+            read.add(reader.next());
+        }
+        reader.close();
+        assertEquals(Arrays.asList(Pair.of("x", "y"), Pair.of("b", "c")), read);
+    }
+
+    @Test
+    public void testTruncated() throws Exception {
+        System.out.println("truncated");
+        final ByteBuffer buffer = ByteBuffer.allocate(16);
+        BinaryCodecs.LONG_LONG_PAIR.write(LongLongPair.of(1L, Long.MAX_VALUE), buffer);
+        buffer.flip();
+        buffer.limit(buffer.limit() - 1);
+        final BinaryReader<LongLongPair> reader = BinaryReader.of(BinaryCodecs.LONG_LONG_PAIR, buffer);
+        assertTrue(reader.hasNext());
+        try {
+            reader.next();
+            fail("Expected EOFException");
+        } catch (EOFException expected) {
+            // expected
+        }
+    }
+
+    private static ByteBuffer copyDirect(final ByteBuffer buffer) {
+        final ByteBuffer copy = ByteBuffer.allocateDirect(buffer.remaining());
+        copy.put(buffer.duplicate());
+        copy.flip();
+        return copy;
+    }
+}
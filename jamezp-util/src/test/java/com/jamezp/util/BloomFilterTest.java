@@ -0,0 +1,119 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jrp
+ */
+public class BloomFilterTest {
+
+    @Test
+    public void testPutAndMightContain() {
+        System.out.println("BloomFilter put and mightContain");
+        final int insertions = 100000;
+        final double fpp = 0.01d;
+        final BloomFilter filter = BloomFilter.create(insertions, fpp);
+        final Hash64Builder key = Hash64Builder.builder();
+        for (int i = 0; i < insertions; i++) {
+            assertTrue(filter.put(key.reset().add("key").add(i)) || filter.mightContain(key));
+        }
+        for (int i = 0; i < insertions; i++) {
+            assertTrue(filter.mightContain(key.reset().add("key").add(i)));
+        }
+        int falsePositives = 0;
+        for (int i = insertions; i < insertions * 2; i++) {
+            if (filter.mightContain(key.reset().add("key").add(i))) {
+                falsePositives++;
+            }
+        }
+        final double actual = (double) falsePositives / insertions;
+        assertTrue("False positive rate too high: " + actual, actual < fpp * 2);
+        assertEquals(fpp, filter.expectedFpp(), fpp / 2);
+        assertFalse(filter.put(key.reset().add("key").add(0)));
+    }
+
+    @Test
+    public void testSerialization() {
+        System.out.println("BloomFilter serialization");
+        final BloomFilter filter = BloomFilter.create(1000, 0.001d);
+        for (long i = 0; i < 1000; i++) {
+            filter.put(Hash64Builder.builder().add(i).toHashCode());
+        }
+        assertEquals(12L + 8L * ((filter.bitSize() + 63L) >>> 6), filter.serializedSize());
+        final ByteBuffer buffer = ByteBuffer.allocateDirect((int) filter.serializedSize());
+        filter.writeTo(buffer).flip();
+        final BloomFilter copy = BloomFilter.readFrom(buffer);
+        assertFalse(buffer.hasRemaining());
+        assertEquals(filter.bitSize(), copy.bitSize());
+        assertEquals(filter.numHashes(), copy.numHashes());
+        for (long i = 0; i < 2000; i++) {
+            final long hash = Hash64Builder.builder().add(i).toHashCode();
+            assertEquals(filter.mightContain(hash), copy.mightContain(hash));
+        }
+    }
+
+    @Test
+    public void testConcurrentPut() throws Exception {
+        System.out.println("BloomFilter concurrent put");
+        final int threads = 4;
+        final int perThread = 50000;
+        final BloomFilter filter = BloomFilter.create(threads * perThread, 0.01d);
+        final List<Thread> workers = new ArrayList<Thread>();
+        for (int t = 0; t < threads; t++) {
+            final int offset = t * perThread;
+            workers.add(new Thread() {
+                @Override
+                public void run() {
+                    final Hash64Builder key = Hash64Builder.builder();
+                    for (int i = offset; i < offset + perThread; i++) {
+                        filter.put(key.reset().add(i));
+                    }
+                }
+            });
+        }
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        final Hash64Builder key = Hash64Builder.builder();
+        for (int i = 0; i < threads * perThread; i++) {
+            assertTrue(filter.mightContain(key.reset().add(i)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidFpp() {
+        BloomFilter.create(100, 1.0d);
+    }
+}
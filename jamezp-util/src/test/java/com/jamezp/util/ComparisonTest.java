@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jrp
+ */
+public class ComparisonTest {
+
+    /**
+     * Test of compare method for arrays, of class Comparison.
+     */
+    @Test
+    public void testCompare_arrays() {
+        System.out.println("compare arrays");
+        assertEquals(0, Comparison.begin().compare(new int[] {1, 2, 3}, new int[] {1, 2, 3}).result());
+        assertEquals(-1, Comparison.begin().compare(new int[] {1, 2, 3}, new int[] {1, 3}).result());
+        assertEquals(1, Comparison.begin().compare(new long[] {1L, 2L, 4L}, new long[] {1L, 2L, 3L}).result());
+        // A proper prefix is less
+        assertEquals(-1, Comparison.begin().compare(new byte[] {1, 2}, new byte[] {1, 2, 0}).result());
+        assertEquals(1, Comparison.begin().compare(new byte[] {1, 2, 0}, new byte[] {1, 2}).result());
+        // Bytes are signed
+        assertEquals(-1, Comparison.begin().compare(new byte[] {-1}, new byte[] {1}).result());
+        // Nulls are ordered first if allowed
+        assertEquals(-1, Comparison.beginAllowNull().compare(null, new char[] {'a'}).result());
+        assertEquals(1, Comparison.beginAllowNull().compare(new char[] {'a'}, (char[]) null).result());
+        assertEquals(0, Comparison.beginAllowNull().compare((short[]) null, (short[]) null).result());
+        for (final int[][] arrays : new int[][][] {{null, {1}}, {{1}, null}, {null, null}}) {
+            try {
+                Comparison.begin().compare(arrays[0], arrays[1]);
+                fail("Expected NullPointerException");
+            } catch (NullPointerException e) {
+                // expected
+            }
+        }
+        // A decided comparison ignores the remaining values
+        assertEquals(-1, Comparison.begin().compare(1, 2).compare((int[]) null, null).result());
+        // Floating point follows Float.compare and Double.compare
+        assertEquals(1, Comparison.begin().compare(new float[] {0.0f}, new float[] {-0.0f}).result());
+        assertEquals(0, Comparison.begin().compare(new double[] {Double.NaN}, new double[] {Double.NaN}).result());
+    }
+
+    /**
+     * Test of compare method for array ranges, of class Comparison.
+     */
+    @Test
+    public void testCompare_arrayRanges() {
+        System.out.println("compare array ranges");
+        final int[] left = {9, 1, 2, 3, 9};
+        final int[] right = {1, 2, 3};
+        assertEquals(0, Comparison.begin().compare(left, 1, 4, right, 0, 3).result());
+        assertEquals(1, Comparison.begin().compare(left, 1, 5, right, 0, 3).result());
+        assertEquals(-1, Comparison.begin().compare(left, 1, 3, right, 0, 3).result());
+        try {
+            Comparison.begin().compare(left, 3, 1, right, 0, 3);
+            fail("Expected an IllegalArgumentException");
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            Comparison.begin().compare(left, 0, 6, right, 0, 3);
+            fail("Expected an ArrayIndexOutOfBoundsException");
+        } catch (ArrayIndexOutOfBoundsException expected) {
+        }
+    }
+
+    /**
+     * Test of compare method for arrays in a chain, of class Comparison.
+     */
+    @Test
+    public void testCompare_arraysInChain() {
+        System.out.println("compare arrays in chain");
+        assertEquals(-1, Comparison.begin().compare(1, 2).compare(new int[] {2}, new int[] {1}).result());
+        assertEquals(1, Comparison.begin().compare(new int[] {1, 2}, new int[] {1, 2}).compare(2, 1).result());
+        assertEquals(-1, Comparison.beginAllowNull().compare((String) null, "a")
+                .compare(new long[] {2}, new long[] {1}).result());
+    }
+
+    /**
+     * Test of mismatch method, of class Comparison.
+     */
+    @Test
+    public void testMismatch() {
+        System.out.println("mismatch");
+        assertEquals(-1, Comparison.mismatch(new int[] {1, 2, 3}, new int[] {1, 2, 3}));
+        assertEquals(1, Comparison.mismatch(new int[] {1, 2, 3}, new int[] {1, 3, 3}));
+        assertEquals(2, Comparison.mismatch(new long[] {1, 2}, new long[] {1, 2, 3}));
+        assertEquals(-1, Comparison.mismatch(new byte[0], new byte[0]));
+        assertEquals(0, Comparison.mismatch(new float[] {0.0f}, new float[] {-0.0f}));
+        assertEquals(-1, Comparison.mismatch(new double[] {Double.NaN}, new double[] {Double.NaN}));
+        assertEquals(-1, Comparison.mismatch(new char[] {'x', 'a', 'b'}, 1, 3, new char[] {'a', 'b'}, 0, 2));
+        assertEquals(1, Comparison.mismatch(new short[] {1, 2, 3}, 0, 3, new short[] {1}, 0, 1));
+
+        // Large arrays with a late difference
+        final int[] large1 = new int[1 << 20];
+        final int[] large2 = new int[1 << 20];
+        large2[large2.length - 1] = 1;
+        assertEquals(large2.length - 1, Comparison.mismatch(large1, large2));
+        assertEquals(-1, Comparison.begin().compare(large1, large2).result());
+    }
+
+    /**
+     * Test of chain method, of class Comparison.
+     */
+    @Test
+    public void testChain() {
+        System.out.println("chain");
+        assertEquals(0, Comparison.chain(Comparison.chain(0, 1, 1), 2L, 2L));
+        assertEquals(-1, Comparison.chain(Comparison.chain(0, 1, 2), 3L, 2L));
+        assertEquals(1, Comparison.chain(Comparison.chain(0, 1, 1), 3L, 2L));
+        assertEquals(-1, Comparison.chain(0, Long.MIN_VALUE, Long.MAX_VALUE));
+        assertEquals(1, Comparison.chain(0, 0.0d, -0.0d));
+        assertEquals(0, Comparison.chain(0, Float.NaN, Float.NaN));
+        assertEquals(1, Comparison.chain(0, true, false));
+        assertEquals(-1, Comparison.chain(0, "a", "z"));
+        assertEquals(1, Comparison.chain(0, "a", "z", String.CASE_INSENSITIVE_ORDER.reversed()));
+        assertEquals(-1, Comparison.chainAllowNull(0, null, "a"));
+        assertEquals(1, Comparison.chainAllowNull(0, "a", null));
+        assertEquals(0, Comparison.chainAllowNull(0, (String) null, null));
+        // Previous results are passed through
+        assertEquals(1, Comparison.chain(1, "a", "z"));
+        assertEquals(-1, Comparison.chainAllowNull(-1, "z", null));
+    }
+
+    /**
+     * Test the chain methods agree with the fluent comparison.
+     */
+    @Test
+    public void testChain_matchesFluent() {
+        System.out.println("chain matches fluent");
+        final Random rand = new Random(26);
+        for (int i = 0; i < 1000; i++) {
+            final int i1 = rand.nextInt(3), i2 = rand.nextInt(3);
+            final long l1 = rand.nextInt(3), l2 = rand.nextInt(3);
+            final String s1 = String.valueOf(rand.nextInt(3)), s2 = String.valueOf(rand.nextInt(3));
+            final int fluent = Comparison.begin().compare(i1, i2).compare(l1, l2).compare(s1, s2).result();
+            final int chained = Comparison.chain(Comparison.chain(Comparison.chain(0, i1, i2), l1, l2), s1, s2);
+            assertEquals(fluent, chained);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jrp
+ */
+public class ConsistentHashTest {
+
+    private static final int KEYS = 100000;
+
+    @Test
+    public void testJump() {
+        System.out.println("jump");
+        final Hash64Builder key = Hash64Builder.builder();
+        final int buckets = 10;
+        final int[] counts = new int[buckets + 1];
+        int moved = 0;
+        for (int i = 0; i < KEYS; i++) {
+            final long hash = key.reset().add(i).toHashCode();
+            final int before = ConsistentHash.jump(hash, buckets);
+            final int after = ConsistentHash.jump(hash, buckets + 1);
+            assertTrue(before >= 0 && before < buckets);
+            counts[after]++;
+            if (before != after) {
+                // Keys only ever move to the new bucket
+                assertEquals(buckets, after);
+                moved++;
+            }
+        }
+        // About 1/11 of the keys move
+        assertEquals(KEYS / (buckets + 1), moved, KEYS / 100);
+        for (int count : counts) {
+            assertEquals(KEYS / (buckets + 1), count, KEYS / 100);
+        }
+        assertEquals(0, ConsistentHash.jump(42L, 1));
+    }
+
+    @Test
+    public void testRendezvous() {
+        System.out.println("rendezvous");
+        final ConsistentHash.Rendezvous nodes = ConsistentHash.rendezvous(
+                new long[] {101L, 102L, 103L, 104L}, new double[] {1.0d, 1.0d, 2.0d, 4.0d});
+        final ConsistentHash.Rendezvous removed = ConsistentHash.rendezvous(
+                new long[] {101L, 103L, 104L}, new double[] {1.0d, 2.0d, 4.0d});
+        final Hash64Builder key = Hash64Builder.builder();
+        final int[] counts = new int[nodes.size()];
+        for (int i = 0; i < KEYS; i++) {
+            final long hash = key.reset().add(i).toHashCode();
+            counts[nodes.bucket(hash)]++;
+            // Only the keys of the removed node move
+            if (nodes.node(hash) != 102L) {
+                assertEquals(nodes.node(hash), removed.node(hash));
+            }
+        }
+        assertEquals(KEYS / 8, counts[0], KEYS / 100);
+        assertEquals(KEYS / 8, counts[1], KEYS / 100);
+        assertEquals(KEYS / 4, counts[2], KEYS / 100);
+        assertEquals(KEYS / 2, counts[3], KEYS / 100);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRendezvous_invalidWeight() {
+        ConsistentHash.rendezvous(new long[] {1L}, new double[] {0.0d});
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jrp
+ */
+public class CountMinSketchTest {
+
+    @Test
+    public void testEstimate() {
+        System.out.println("CountMinSketch estimate");
+        final double epsilon = 0.001d;
+        final CountMinSketch sketch = CountMinSketch.create(epsilon, 0.01d);
+        final Random rand = new Random(31);
+        final int keys = 10000;
+        final long[] counts = new long[keys];
+        long total = 0L;
+        final Hash64Builder key = Hash64Builder.builder();
+        for (int i = 0; i < 200000; i++) {
+            // Skew the distribution towards the low keys
+            final int k = (int) Math.abs(rand.nextGaussian() * keys / 4) % keys;
+            counts[k]++;
+            total++;
+            sketch.add(key.reset().add(k), 1L);
+        }
+        int exceeded = 0;
+        for (int k = 0; k < keys; k++) {
+            final long estimate = sketch.estimate(key.reset().add(k));
+            assertTrue(estimate >= counts[k]);
+            if (estimate - counts[k] > epsilon * total) {
+                exceeded++;
+            }
+        }
+        assertTrue("Too many estimates exceeded the error: " + exceeded, exceeded < keys / 100);
+    }
+
+    @Test
+    public void testSerialization() {
+        System.out.println("CountMinSketch serialization");
+        final CountMinSketch sketch = CountMinSketch.create(4, 1024);
+        for (long i = 0; i < 1000; i++) {
+            sketch.add(Hash64Builder.builder().add(i).toHashCode(), i);
+        }
+        final ByteBuffer buffer = ByteBuffer.allocate((int) sketch.serializedSize());
+        sketch.writeTo(buffer).flip();
+        final CountMinSketch copy = CountMinSketch.readFrom(buffer);
+        assertEquals(sketch.depth(), copy.depth());
+        assertEquals(sketch.width(), copy.width());
+        for (long i = 0; i < 1000; i++) {
+            final long hash = Hash64Builder.builder().add(i).toHashCode();
+            assertEquals(sketch.estimate(hash), copy.estimate(hash));
+        }
+    }
+}
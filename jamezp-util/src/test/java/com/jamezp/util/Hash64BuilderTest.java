@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jrp
+ */
+public class Hash64BuilderTest {
+
+    private static final Charset US_ASCII = Charset.forName("US-ASCII");
+
+    /**
+     * The input, the hash with a seed of 0 and the hash with a seed of
+     * 0x9E3779B97F4A7C15.
+     */
+    private static final Object[][] VECTORS = {
+        {"", 0xef46db3751d8e999L, 0xc4349fc93c010000L},
+        {"a", 0xd24ec4f1a98c6e5bL, 0x9a7c6d2ea45568c9L},
+        {"abc", 0x44bc2cf5ad770999L, 0x2ed0f59d6b43ac8bL},
+        {"message digest", 0x066ed728fceeb3beL, 0xdd80ff412a4892a0L},
+        {"abcdefghijklmnopqrstuvwxyz", 0xcfe1f278fa89835cL, 0x9c220416fea109c1L},
+        {"12345678901234567890123456789012345678901234567890123456789012345678901234567890",
+            0xe04a477f19ee145dL, 0xc8ff17e801741950L},
+        {"Nobody inspects the spammish repetition", 0xfbcea83c8a378bf1L, 0xeb8b157ca26cbf34L},
+    };
+
+    /**
+     * Test the published xxHash64 test vectors.
+     */
+    @Test
+    public void testVectors() {
+        System.out.println("Hash64Builder vectors");
+        for (Object[] vector : VECTORS) {
+            final byte[] bytes = ((String) vector[0]).getBytes(US_ASCII);
+            assertEquals(vector[0].toString(), vector[1], Hash64Builder.builder().add(bytes).toHashCode());
+            assertEquals(vector[0].toString(), vector[2],
+                    Hash64Builder.builder(0x9E3779B97F4A7C15L).add(bytes).toHashCode());
+        }
+        final byte[] sequence = new byte[1000];
+        for (int i = 0; i < sequence.length; i++) {
+            sequence[i] = (byte) i;
+        }
+        assertEquals(0x6ef436b00eba4078L, Hash64Builder.builder().add(sequence).toHashCode());
+    }
+
+    /**
+     * Test that primitives are streamed as little-endian bytes.
+     */
+    @Test
+    public void testPrimitives() {
+        System.out.println("Hash64Builder primitives");
+        final long expected = 0x3f79b78785068fe3L;
+        assertEquals(expected, Hash64Builder.builder().add(1).add(2L).add("hi").add(true).add(1.5d).toHashCode());
+        final ByteBuffer buffer = ByteBuffer.allocate(25).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(1).putLong(2L).putChar('h').putChar('i').put((byte) 1).putDouble(1.5d);
+        buffer.flip();
+        assertEquals(expected, Hash64Builder.builder().add(buffer).toHashCode());
+        assertFalse(buffer.hasRemaining());
+    }
+
+    /**
+     * Test that the hash is independent of how the input is split.
+     */
+    @Test
+    public void testStreaming() {
+        System.out.println("Hash64Builder streaming");
+        final byte[] bytes = new byte[257];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (i * 31);
+        }
+        final long expected = Hash64Builder.builder(7L).add(bytes).toHashCode();
+        final Hash64Builder builder = Hash64Builder.builder(7L);
+        for (int split = 0; split <= bytes.length; split += 13) {
+            builder.reset().add(bytes, 0, split).add(bytes, split, bytes.length - split);
+            assertEquals(expected, builder.toHashCode());
+        }
+        builder.reset();
+        for (byte b : bytes) {
+            builder.add(b);
+        }
+        assertEquals(expected, builder.toHashCode());
+
+        // Direct and big-endian buffers
+        final ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length + 3);
+        direct.put(new byte[3]).put(bytes).position(3);
+        assertEquals(expected, builder.reset().add(direct).toHashCode());
+        direct.position(3);
+        direct.order(ByteOrder.LITTLE_ENDIAN);
+        assertEquals(expected, builder.reset().add(bytes[0]).add(bytes, 1, 4)
+                .add((ByteBuffer) direct.position(8)).toHashCode());
+    }
+
+    /**
+     * Test that strings hash each character as two bytes.
+     */
+    @Test
+    public void testCharSequence() {
+        System.out.println("Hash64Builder CharSequence");
+        final String value = "The quick brown fox jumps over the lazy dog";
+        final Hash64Builder chars = Hash64Builder.builder();
+        for (int i = 0; i < value.length(); i++) {
+            chars.add(value.charAt(i));
+        }
+        assertEquals(chars.toHashCode(), Hash64Builder.builder().add(value).toHashCode());
+        assertEquals(chars.toHashCode(), Hash64Builder.builder().add(new StringBuilder(value)).toHashCode());
+        assertTrue(Hash64Builder.builder().add("a").toHashCode() != Hash64Builder.builder().add("b").toHashCode());
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import com.jamezp.util.Instrumentation.Metric;
+import com.jamezp.util.Instrumentation.Snapshot;
+import com.jamezp.util.ObjectHelper.HashCodeBuilder;
+import com.jamezp.util.ObjectHelper.ToStringBuilder;
+import java.util.Comparator;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import org.junit.After;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jrp
+ */
+public class InstrumentationTest {
+
+    @After
+    public void reset() {
+        Instrumentation.reset();
+    }
+
+    @Test
+    public void testRecord() {
+        System.out.println("record");
+        Instrumentation.reset();
+        Instrumentation.record(Metric.HASH_CODE_BUILDERS);
+        Instrumentation.record(Metric.HASH_CODE_BUILDERS);
+        Instrumentation.record(Metric.HASHED_ARRAYS, 10);
+        Instrumentation.record(Metric.HASHED_ARRAYS, 30);
+        Instrumentation.record(Metric.HASHED_ARRAYS, 20);
+        final Snapshot snapshot = Instrumentation.snapshot();
+        assertEquals(2L, snapshot.count(Metric.HASH_CODE_BUILDERS));
+        assertEquals(0L, snapshot.total(Metric.HASH_CODE_BUILDERS));
+        assertEquals(3L, snapshot.count(Metric.HASHED_ARRAYS));
+        assertEquals(60L, snapshot.total(Metric.HASHED_ARRAYS));
+        assertEquals(30L, snapshot.max(Metric.HASHED_ARRAYS));
+        assertEquals(20.0d, snapshot.average(Metric.HASHED_ARRAYS), 0.0d);
+        assertEquals(0.0d, snapshot.average(Metric.COMPARISONS), 0.0d);
+
+        Instrumentation.reset();
+        assertEquals(0L, Instrumentation.snapshot().count(Metric.HASHED_ARRAYS));
+        assertEquals(0L, Instrumentation.snapshot().max(Metric.HASHED_ARRAYS));
+        // The snapshot is a copy
+        assertEquals(3L, snapshot.count(Metric.HASHED_ARRAYS));
+    }
+
+    @Test
+    public void testCallSites() {
+        System.out.println("call sites");
+        Instrumentation.reset();
+        HashCodeBuilder.builder().add(new int[] {1, 2, 3}).add(new Object[] {"a", new long[5]}).toHashCode();
+        final String rendered = ToStringBuilder.of("Type").add("field", 1).toString();
+        Comparison.begin().compare(1, 1).compare("a", "b").compare(3, 4).result();
+        // The comparator is a nested comparison of depth 3
+        final Comparator<int[]> comparator = new Comparator<int[]>() {
+            @Override
+            public int compare(final int[] left, final int[] right) {
+                return Comparison.begin().compare(left[0], right[0]).compare(left[1], right[1])
+                        .compare(left[2], right[2]).result();
+            }
+        };
+        Comparison.beginAllowNull().compare(new int[] {1, 2, 3}, new int[] {1, 2, 4}, comparator).result();
+        int chained = Comparison.chain(0, 1, 1);
+        chained = Comparison.chain(chained, "a", "b");
+        Comparison.chain(chained, 3, 4);
+        final Snapshot snapshot = Instrumentation.snapshot();
+        if (Instrumentation.isEnabled()) {
+            assertEquals(1L, snapshot.count(Metric.HASH_CODE_BUILDERS));
+            assertEquals(3L, snapshot.count(Metric.HASHED_ARRAYS));
+            assertEquals(10L, snapshot.total(Metric.HASHED_ARRAYS));
+            assertEquals(5L, snapshot.max(Metric.HASHED_ARRAYS));
+            assertEquals(rendered.length(), snapshot.max(Metric.TO_STRING_RENDERS));
+            // Depths of 2, 3 and 1, the chain only records its steps
+            assertEquals(3L, snapshot.count(Metric.COMPARISONS));
+            assertEquals(6L, snapshot.total(Metric.COMPARISONS));
+            assertEquals(3L, snapshot.max(Metric.COMPARISONS));
+            assertEquals(8L, snapshot.count(Metric.COMPARISON_STEPS));
+        } else {
+            for (Metric metric : Metric.values()) {
+                assertEquals(metric.name(), 0L, snapshot.count(metric));
+            }
+        }
+    }
+
+    @Test
+    public void testMBean() throws Exception {
+        System.out.println("mbean");
+        final MBeanServer server = MBeanServerFactory.newMBeanServer();
+        final ObjectName name = Instrumentation.registerMBean(server);
+        assertEquals(new ObjectName(Instrumentation.OBJECT_NAME), name);
+        assertEquals(name, Instrumentation.registerMBean(server));
+        Instrumentation.record(Metric.TO_STRING_RENDERS, 42);
+        assertEquals(1L, server.getAttribute(name, "ToStringRenders"));
+        assertEquals(42L, server.getAttribute(name, "MaxRenderedLength"));
+        Instrumentation.record(Metric.COMPARISONS, 7);
+        assertEquals(7L, server.getAttribute(name, "MaxComparisonDepth"));
+        assertEquals(Instrumentation.isEnabled(), server.getAttribute(name, "Enabled"));
+        server.invoke(name, "reset", null, null);
+        assertEquals(0L, server.getAttribute(name, "RenderedCharacters"));
+        Instrumentation.unregisterMBean(server);
+        assertFalse(server.isRegistered(name));
+    }
+
+}
@@ -0,0 +1,52 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import org.junit.Assume;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Checks the packaged jar loads the Java 17 versions of the internals. Run
+ * by failsafe against the jar, the exploded build output surefire tests is
+ * never versioned.
+ *
+ * @author jrp
+ */
+public class MultiReleaseIT {
+
+    @Test
+    public void testVersionedInternals() {
+        System.out.println("versioned internals");
+        final String version = System.getProperty("java.specification.version");
+        Assume.assumeTrue(!version.startsWith("1.") && Integer.parseInt(version) >= 17);
+        for (Class<?> type : new Class<?>[] {IndexChecks.class, ArraysSupport.class, ByteArrayAccess.class}) {
+            final String name = type.getName().replace('.', '/') + ".class";
+            final String location = String.valueOf(type.getClassLoader().getResource(name));
+            assertTrue(location, location.startsWith("jar:"));
+            assertTrue(location, location.contains("META-INF/versions/17/" + name));
+        }
+    }
+}
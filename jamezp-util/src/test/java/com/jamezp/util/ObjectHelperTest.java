@@ -0,0 +1,789 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import com.jamezp.util.ObjectHelper.HashCodeBuilder;
+import com.jamezp.util.ObjectHelper.ToStringBuilder;
+import static com.jamezp.util.ObjectHelper.areEqual;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.StringWriter;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.Random;
+import java.util.function.Supplier;
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jrp
+ */
+public class ObjectHelperTest {
+
+    public ObjectHelperTest() {
+    }
+
+    @BeforeClass
+    public static void setUpClass() throws Exception {
+    }
+
+    @AfterClass
+    public static void tearDownClass() throws Exception {
+    }
+
+    @Before
+    public void setUp() {
+    }
+
+    @After
+    public void tearDown() {
+    }
+
+    /**
+     * Test of areEqual method, of class 
+     */
+    @Test
+    public void testAreEqual_boolean_boolean() {
+        System.out.println("areEqual");
+        assertTrue(areEqual(true, true));
+        assertTrue(areEqual(false, false));
+        assertFalse(areEqual(true, false));
+        assertFalse(areEqual(false, true));
+    }
+
+    /**
+     * Test of areEqual method, of class 
+     */
+    @Test
+    public void testAreEqual_char_char() {
+        System.out.println("areEqual");
+        assertTrue(areEqual('a', 'a'));
+        assertTrue(areEqual('X', 'X'));
+        assertFalse(areEqual('z', 'Z'));
+        assertFalse(areEqual('Z', 'z'));
+    }
+
+    /**
+     * Test of areEqual method, of class 
+     */
+    @Test
+    public void testAreEqual_long_long() {
+        System.out.println("areEqual");
+        final Random rand = new Random();
+        int intValue = rand.nextInt();
+        assertTrue(areEqual(intValue, intValue));
+        
+        long longValue = rand.nextLong();
+        assertTrue(areEqual(longValue, longValue));
+    }
+
+    /**
+     * Test of areEqual method, of class 
+     */
+    @Test
+    public void testAreEqual_float_float() {
+        System.out.println("areEqual");
+        final Random rand = new Random();
+        float floatValue = rand.nextFloat();
+        assertTrue(areEqual(floatValue, floatValue));
+    }
+
+    /**
+     * Test of areEqual method, of class 
+     */
+    @Test
+    public void testAreEqual_double_double() {
+        System.out.println("areEqual");
+        final Random rand = new Random();
+        double doubleValue = rand.nextDouble();
+        assertTrue(areEqual(doubleValue, doubleValue));
+    }
+
+    /**
+     * Test of areEqual method, of class 
+     */
+    @Test
+    public void testAreEqual_Object_Object() {
+        System.out.println("areEqual");
+        assertTrue(areEqual("string", "string"));
+        assertFalse(areEqual("old", "new"));
+        // Test generics using custom Pair
+        assertTrue(areEqual(Pair.of("one", "two"), Pair.of("one", "two")));
+        assertFalse(areEqual(Pair.of("one", "two"), Pair.of("one", 2)));
+    }
+    
+    @Test
+    public void testHashCodeBuilder() {
+        System.out.println("HashCodeBuilder");
+        int hash1 = HashCodeBuilder.builder().add("s").add(1).add("other").toHashCode();
+        int hash2 = HashCodeBuilder.builder().add("s").add(1).add("other").toHashCode();
+        assertEquals(hash1, hash2);
+        
+        hash2 = HashCodeBuilder.builder().add("foo").add("x").toHashCode();
+        assertTrue(hash1 != hash2);
+    }
+
+    @Test
+    public void testHashCodeBuilder_arrays() {
+        System.out.println("HashCodeBuilder arrays");
+        final Random rand = new Random(29);
+        final int len = 1000;
+        final int[] ints = new int[len];
+        final long[] longs = new long[len];
+        final double[] doubles = new double[len];
+        final float[] floats = new float[len];
+        final byte[] bytes = new byte[len];
+        final char[] chars = new char[len];
+        final short[] shorts = new short[len];
+        final boolean[] booleans = new boolean[len];
+        for (int i = 0; i < len; i++) {
+            ints[i] = rand.nextInt();
+            longs[i] = rand.nextLong();
+            doubles[i] = rand.nextDouble();
+            floats[i] = rand.nextFloat();
+            bytes[i] = (byte) rand.nextInt();
+            chars[i] = (char) rand.nextInt();
+            shorts[i] = (short) rand.nextInt();
+            booleans[i] = rand.nextBoolean();
+        }
+        final Object[] nested = {"a", null, ints, new Object[] {1L, doubles}};
+        final Object[] arrays = {ints, longs, doubles, floats, bytes, chars, shorts, booleans, nested, new int[0]};
+        for (int seed : new int[] {31, 37}) {
+            for (Object array : arrays) {
+                final int expected = reflectiveHash(HashCodeBuilder.builder(seed).add("prefix"), array).toHashCode();
+                final int actual = HashCodeBuilder.builder(seed).add("prefix").add(array).toHashCode();
+                assertEquals(array.getClass().getSimpleName(), expected, actual);
+            }
+        }
+    }
+
+    /**
+     * The reflective implementation that the array fast paths replace.
+     */
+    private static HashCodeBuilder reflectiveHash(final HashCodeBuilder builder, final Object obj) {
+        if (obj != null && obj.getClass().isArray()) {
+            final int len = Array.getLength(obj);
+            for (int i = 0; i < len; i++) {
+                reflectiveHash(builder, Array.get(obj, i));
+            }
+            return builder;
+        }
+        return builder.add(obj);
+    }
+
+    @Test
+    public void testHashCodeBuilder_parallel() throws Exception {
+        System.out.println("HashCodeBuilder parallel");
+        final Random rand = new Random(30);
+        final int len = 300000;
+        final int[] ints = new int[len];
+        final long[] longs = new long[len];
+        final double[] doubles = new double[len];
+        final byte[] bytes = new byte[len];
+        for (int i = 0; i < len; i++) {
+            ints[i] = rand.nextInt();
+            longs[i] = rand.nextLong();
+            doubles[i] = rand.nextDouble();
+            bytes[i] = (byte) rand.nextInt();
+        }
+        for (int seed : new int[] {31, 37}) {
+            assertEquals(HashCodeBuilder.builder(seed).add("x").add(ints).toHashCode(),
+                    HashCodeBuilder.builder(seed).add("x").addParallel(ints).toHashCode());
+            assertEquals(HashCodeBuilder.builder(seed).add(longs).add(1).toHashCode(),
+                    HashCodeBuilder.builder(seed).addParallel(longs).add(1).toHashCode());
+            assertEquals(HashCodeBuilder.builder(seed).add(doubles).toHashCode(),
+                    HashCodeBuilder.builder(seed).addParallel(doubles).toHashCode());
+            assertEquals(HashCodeBuilder.builder(seed).add(new int[0]).toHashCode(),
+                    HashCodeBuilder.builder(seed).addParallel(new int[0]).toHashCode());
+
+            final ByteBuffer buffer = ByteBuffer.allocateDirect(len + 1);
+            buffer.put((byte) 1).put(bytes).flip().position(1);
+            assertEquals(HashCodeBuilder.builder(seed).add(bytes).toHashCode(),
+                    HashCodeBuilder.builder(seed).addParallel(buffer).toHashCode());
+            assertEquals(1, buffer.position());
+        }
+
+        // Large enough for the file to be mapped in more than one region
+        final File file = File.createTempFile("hash", ".bin");
+        file.deleteOnExit();
+        final byte[] content = new byte[(int) (ParallelHashTask.FILE_THRESHOLD * 2 + 7)];
+        rand.nextBytes(content);
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+        final FileInputStream in = new FileInputStream(file);
+        try {
+            assertEquals(HashCodeBuilder.builder().add(content).toHashCode(),
+                    HashCodeBuilder.builder().addParallel(in.getChannel()).toHashCode());
+        } finally {
+            in.close();
+            file.delete();
+        }
+    }
+
+    @Test
+    public void testToStringBuilder() throws Exception {
+        System.out.println("ToStringBuilder");
+        assertEquals("Pair{first=one,second=2}", Pair.of("one", 2).toString());
+        assertEquals("Empty{}", ToStringBuilder.of("Empty").toString());
+        final ToStringBuilder builder = ToStringBuilder.of("Many");
+        final StringBuilder expected = new StringBuilder("Many{");
+        for (int i = 0; i < 20; i++) {
+            builder.add("f" + i, i);
+            expected.append(i > 0 ? "," : "").append("f").append(i).append("=").append(i);
+        }
+        expected.append("}");
+        assertEquals(expected.toString(), builder.toString());
+        final StringWriter writer = new StringWriter();
+        assertSame(writer, builder.appendTo(writer));
+        assertEquals(expected.toString(), writer.toString());
+        assertEquals("prefix " + expected, builder.appendTo(new StringBuilder("prefix ")).toString());
+    }
+
+    @Test
+    public void testToStringBuilder_lazy() {
+        System.out.println("ToStringBuilder lazy");
+        final int[] rendered = new int[1];
+        final Object value = new Object() {
+            @Override
+            public String toString() {
+                rendered[0]++;
+                return "value";
+            }
+        };
+        final ToStringBuilder builder = ToStringBuilder.of("Lazy").add("value", value);
+        assertEquals(0, rendered[0]);
+        assertEquals("Lazy{value=value}", builder.toString());
+        assertEquals(1, rendered[0]);
+    }
+
+    @Test
+    public void testToStringBuilder_limits() {
+        System.out.println("ToStringBuilder limits");
+        final ToStringBuilder builder = ToStringBuilder.of("Limited").add("a", "0123456789").add("b", null);
+        assertEquals("Limited{a=0123...,b=null}", builder.maxValueLength(4).toString());
+        assertEquals("Limited{a=...,b=...}", builder.maxValueLength(0).toString());
+        builder.maxValueLength(Integer.MAX_VALUE);
+        assertEquals("Limited{a=0123...", builder.maxLength(14).toString());
+        assertEquals("Limited{a=0123456789,b=null}", builder.maxLength(28).toString());
+        assertEquals("Limited{a=0123456789,b=null...", builder.maxLength(27).toString());
+        assertEquals("...", builder.maxLength(0).toString());
+
+        // A supplementary character at the cut point is not split
+        final ToStringBuilder emoji = ToStringBuilder.of("Limited").add("a", "012\uD83D\uDE00x");
+        assertEquals("Limited{a=012...}", emoji.maxValueLength(4).toString());
+        assertEquals("Limited{a=012\uD83D\uDE00...}", emoji.maxValueLength(5).toString());
+        emoji.maxValueLength(Integer.MAX_VALUE);
+        assertEquals("Limited{a=012...", emoji.maxLength(14).toString());
+        assertEquals("Limited{a=012\uD83D\uDE00...", emoji.maxLength(15).toString());
+    }
+
+    @Test
+    public void testToStringBuilder_json() throws Exception {
+        System.out.println("ToStringBuilder JSON");
+        final Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("k", 1);
+        map.put("n", null);
+        final ToStringBuilder builder = ToStringBuilder.of("Record")
+                .add("id", 42L)
+                .add("name", "a \"quoted\"\\path\n")
+                .add("ratio", 0.5d)
+                .add("nan", Double.NaN)
+                .add("flag", true)
+                .add("ints", new int[] {1, 2, 3})
+                .add("nested", new Object[] {"x", new long[] {4L}, null})
+                .add("list", Arrays.asList("a", "b"))
+                .add("map", map)
+                .add("other", new StringBuilder("sb"))
+                .add("missing", null);
+        final String expected = "{\"@type\":\"Record\",\"id\":42,\"name\":\"a \\\"quoted\\\"\\\\path\\n\","
+                + "\"ratio\":0.5,\"nan\":\"NaN\",\"flag\":true,\"ints\":[1,2,3],\"nested\":[\"x\",[4],null],"
+                + "\"list\":[\"a\",\"b\"],\"map\":{\"k\":1,\"n\":null},\"other\":\"sb\",\"missing\":null}";
+        assertEquals(expected, builder.toString(ToStringBuilder.Format.JSON));
+        final StringWriter writer = new StringWriter();
+        builder.appendTo(writer, ToStringBuilder.Format.JSON);
+        assertEquals(expected, writer.toString());
+        // The default format is unchanged
+        assertEquals(builder.toString(), builder.toString(ToStringBuilder.Format.DEFAULT));
+
+        final ToStringBuilder limited = ToStringBuilder.of("Limited")
+                .add("ints", new int[] {1, 2, 3, 4})
+                .add("list", Arrays.asList("a", "b", "c"))
+                .add("s", "abcdef")
+                .maxElements(2)
+                .maxValueLength(3);
+        assertEquals("{\"@type\":\"Limited\",\"ints\":[1,2,\"... 2 more\"],\"list\":[\"a\",\"b\",\"... 1 more\"],"
+                + "\"s\":\"abc...\"}", limited.toString(ToStringBuilder.Format.JSON));
+    }
+
+    @Test
+    public void testToStringBuilder_logfmt() {
+        System.out.println("ToStringBuilder logfmt");
+        final ToStringBuilder builder = ToStringBuilder.of("Record")
+                .add("id", 42)
+                .add("name", "two words")
+                .add("plain", "value")
+                .add("empty", "")
+                .add("quote", "say \"hi\"")
+                .add("ints", new int[] {1, 2})
+                .add("list", Arrays.asList("a b", "c"))
+                .add("missing", null);
+        assertEquals("@type=Record id=42 name=\"two words\" plain=value empty=\"\" quote=\"say \\\"hi\\\"\" "
+                + "ints=\"[1,2]\" list=\"[a b,c]\" missing=null", builder.toString(ToStringBuilder.Format.LOGFMT));
+    }
+
+    @Test
+    public void testToStringBuilder_structuredValues() {
+        System.out.println("ToStringBuilder structured values");
+        final ToStringBuilder floats = ToStringBuilder.of("Floats")
+                .add("f", 0.1f)
+                .add("fs", new float[] {0.1f, Float.NaN});
+        assertEquals("{\"@type\":\"Floats\",\"f\":0.1,\"fs\":[0.1,\"NaN\"]}",
+                floats.toString(ToStringBuilder.Format.JSON));
+        assertEquals("@type=Floats f=0.1 fs=\"[0.1,NaN]\"", floats.toString(ToStringBuilder.Format.LOGFMT));
+
+        final ToStringBuilder chars = ToStringBuilder.of("Chars").add("cs", new char[] {'a', '"', '\n'});
+        assertEquals("{\"@type\":\"Chars\",\"cs\":[\"a\",\"\\\"\",\"\\n\"]}",
+                chars.toString(ToStringBuilder.Format.JSON));
+
+        // A surrogate pair is not split by the truncation
+        final ToStringBuilder emoji = ToStringBuilder.of("Emoji")
+                .add("s", "a\ud83d\ude00b")
+                .maxValueLength(2);
+        assertEquals("{\"@type\":\"Emoji\",\"s\":\"a...\"}", emoji.toString(ToStringBuilder.Format.JSON));
+        assertEquals("@type=Emoji s=a...", emoji.toString(ToStringBuilder.Format.LOGFMT));
+
+        final List<Object> list = new ArrayList<Object>();
+        list.add(1);
+        list.add(list);
+        final Map<String, Object> map = new HashMap<String, Object>();
+        map.put("self", map);
+        final Object[] array = new Object[1];
+        array[0] = array;
+        final ToStringBuilder cycles = ToStringBuilder.of("Cycles")
+                .add("list", list)
+                .add("map", map)
+                .add("array", array)
+                .add("shared", Arrays.asList(list, list));
+        assertEquals("{\"@type\":\"Cycles\",\"list\":[1,\"(cycle)\"],\"map\":{\"self\":\"(cycle)\"},"
+                + "\"array\":[\"(cycle)\"],\"shared\":[[1,\"(cycle)\"],[1,\"(cycle)\"]]}",
+                cycles.toString(ToStringBuilder.Format.JSON));
+        assertEquals("@type=Cycles list=\"[1,(cycle)]\" map=\"{self=(cycle)}\" array=\"[(cycle)]\" "
+                + "shared=\"[[1,(cycle)],[1,(cycle)]]\"", cycles.toString(ToStringBuilder.Format.LOGFMT));
+    }
+
+    @Test
+    public void testToStringBuilder_byteBuffer() throws Exception {
+        System.out.println("ToStringBuilder ByteBuffer");
+        final ToStringBuilder builder = ToStringBuilder.of("Unicode")
+                .add("text", "caf\u00e9 \u20ac \ud83d\ude00")
+                .add("number", -1234567890123L);
+        for (ToStringBuilder.Format format : ToStringBuilder.Format.values()) {
+            final ByteBuffer buffer = ByteBuffer.allocate(256);
+            builder.appendTo(buffer, format).flip();
+            final byte[] bytes = new byte[buffer.remaining()];
+            buffer.get(bytes);
+            assertEquals(builder.toString(format), new String(bytes, "UTF-8"));
+        }
+    }
+
+    @Test
+    public void testReflection() {
+        System.out.println("reflection");
+        final Point p1 = new Point("a", 1, 2L, 0.5d, 'c', true, new int[] {1, 2});
+        final Point p2 = new Point("a", 1, 2L, 0.5d, 'c', true, new int[] {1, 2});
+        final Point p3 = new Point("a", 1, 2L, 0.5d, 'c', true, new int[] {1, 3});
+        final Point p4 = new Point("b", 1, 2L, 0.5d, 'c', true, new int[] {1, 2});
+        assertTrue(ObjectHelper.reflectionEquals(p1, p1));
+        assertTrue(ObjectHelper.reflectionEquals(p1, p2));
+        assertFalse(ObjectHelper.reflectionEquals(p1, p3));
+        assertFalse(ObjectHelper.reflectionEquals(p1, p4));
+        assertFalse(ObjectHelper.reflectionEquals(p1, null));
+        assertFalse(ObjectHelper.reflectionEquals(p1, "a"));
+        assertTrue(ObjectHelper.reflectionEquals(null, null));
+
+        final int expected = HashCodeBuilder.builder().add("a").add(1).add(2L).add(0.5d).add('c').add(true)
+                .add(new int[] {1, 2}).toHashCode();
+        assertEquals(expected, ObjectHelper.reflectionHashCode(p1));
+        assertEquals(ObjectHelper.reflectionHashCode(p1), ObjectHelper.reflectionHashCode(p2));
+        assertEquals(0, ObjectHelper.reflectionHashCode(null));
+
+        assertEquals("Point{name=a,x=1,y=2,weight=0.5,c=c,visible=true,data=[I@"
+                + Integer.toHexString(System.identityHashCode(p1.data)) + "}", ObjectHelper.reflectionToString(p1));
+        assertEquals("null", ObjectHelper.reflectionToString(null));
+
+        final Sample s1 = new Sample(1.5f, (short) -2, (byte) 3, null, new Object[] {"a", new long[] {4L}});
+        final Sample s2 = new Sample(1.5f, (short) -2, (byte) 3, null, new Object[] {"a", new long[] {4L}});
+        final Sample s3 = new Sample(Float.NaN, (short) -2, (byte) 3, "x", null);
+        final int sampleHash = HashCodeBuilder.builder().add(1.5f).add((short) -2).add((byte) 3).add((Object) null)
+                .add(new Object[] {"a", new long[] {4L}}).toHashCode();
+        // Enough invocations for the JVM to customize the composed handles
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(ObjectHelper.reflectionEquals(s1, s2));
+            assertFalse(ObjectHelper.reflectionEquals(s1, s3));
+            assertEquals(sampleHash, ObjectHelper.reflectionHashCode(s1));
+        }
+        assertTrue(ObjectHelper.reflectionEquals(s3, new Sample(Float.NaN, (short) -2, (byte) 3, "x", null)));
+        assertTrue(ObjectHelper.reflectionEquals(new Empty(), new Empty()));
+        assertEquals(17, ObjectHelper.reflectionHashCode(new Empty()));
+        assertEquals("Empty{}", ObjectHelper.reflectionToString(new Empty()));
+    }
+
+    private static final class Empty {
+    }
+
+    private static final class Sample {
+        private final float f;
+        private final short s;
+        private final byte b;
+        private final String name;
+        private final Object[] values;
+
+        Sample(final float f, final short s, final byte b, final String name, final Object[] values) {
+            this.f = f;
+            this.s = s;
+            this.b = b;
+            this.name = name;
+            this.values = values;
+        }
+    }
+
+    private static class Named {
+        private final String name;
+        private transient int cachedHash;
+
+        Named(final String name) {
+            this.name = name;
+        }
+    }
+
+    private static final class Point extends Named {
+        private static final int IGNORED = 1;
+        private final int x;
+        private final long y;
+        private final double weight;
+        private final char c;
+        private final boolean visible;
+        final int[] data;
+
+        Point(final String name, final int x, final long y, final double weight, final char c,
+                final boolean visible, final int[] data) {
+            super(name);
+            this.x = x;
+            this.y = y;
+            this.weight = weight;
+            this.c = c;
+            this.visible = visible;
+            this.data = data;
+        }
+    }
+
+    @Test
+    public void testDeepEquals() {
+        System.out.println("deepEquals");
+        assertTrue(ObjectHelper.deepEquals(null, null));
+        assertFalse(ObjectHelper.deepEquals(null, new int[0]));
+        assertTrue(ObjectHelper.deepEquals("a", "a"));
+        assertTrue(ObjectHelper.deepEquals(new int[] {1, 2}, new int[] {1, 2}));
+        assertFalse(ObjectHelper.deepEquals(new int[] {1, 2}, new int[] {1, 3}));
+        assertFalse(ObjectHelper.deepEquals(new int[] {1, 2}, new long[] {1, 2}));
+        assertTrue(ObjectHelper.deepEquals(new double[] {Double.NaN}, new double[] {Double.NaN}));
+        assertFalse(ObjectHelper.deepEquals(new float[] {0.0f}, new float[] {-0.0f}));
+        assertTrue(ObjectHelper.deepEquals(new boolean[] {true}, new boolean[] {true}));
+        assertTrue(ObjectHelper.deepEquals(new Object[] {"a", new int[] {1}, null},
+                new Object[] {"a", new int[] {1}, null}));
+        assertTrue(ObjectHelper.deepEquals(new Object[] {"a"}, new String[] {"a"}));
+        assertFalse(ObjectHelper.deepEquals(new Object[] {new int[] {1}}, new Object[] {new int[] {2}}));
+        assertFalse(ObjectHelper.deepEquals(new Object[] {1}, new Object[] {1, 2}));
+
+        final List<Object> list1 = new ArrayList<Object>(Arrays.<Object>asList(new int[] {1}, "b"));
+        final List<Object> list2 = new LinkedList<Object>(Arrays.<Object>asList(new int[] {1}, "b"));
+        assertTrue(ObjectHelper.deepEquals(list1, list2));
+        list2.add("c");
+        assertFalse(ObjectHelper.deepEquals(list1, list2));
+        assertFalse(ObjectHelper.deepEquals(list1, new Object[] {new int[] {1}, "b"}));
+
+        final Map<String, Object> map1 = new HashMap<String, Object>();
+        final Map<String, Object> map2 = new TreeMap<String, Object>();
+        map1.put("a", new long[] {1L});
+        map1.put("b", null);
+        map2.put("a", new long[] {1L});
+        map2.put("b", null);
+        assertTrue(ObjectHelper.deepEquals(map1, map2));
+        map2.remove("b");
+        map2.put("c", null);
+        assertFalse(ObjectHelper.deepEquals(map1, map2));
+
+        // Deeply equal arrays hash the same
+        final Object[] a = {"x", new int[] {1, 2}, new Object[] {3L, new double[] {4.0}}};
+        final Object[] b = {"x", new int[] {1, 2}, new Object[] {3L, new double[] {4.0}}};
+        assertTrue(ObjectHelper.deepEquals(a, b));
+        assertEquals(HashCodeBuilder.builder().add(a).toHashCode(), HashCodeBuilder.builder().add(b).toHashCode());
+        assertEquals(HashCodeBuilder.builder().add(a).toHashCode(), ObjectHelper.deepHashCode(a));
+    }
+
+    @Test
+    public void testDeepHashCode() {
+        System.out.println("deepHashCode");
+        assertEquals(ObjectHelper.deepHashCode(null), ObjectHelper.deepHashCode(null));
+        assertEquals(HashCodeBuilder.builder().add("a").toHashCode(), ObjectHelper.deepHashCode("a"));
+
+        // Arrays nested in lists and maps are hashed by content
+        final List<Object> list1 = new ArrayList<Object>(Arrays.<Object>asList(new int[] {1}, "b"));
+        final List<Object> list2 = new LinkedList<Object>(Arrays.<Object>asList(new int[] {1}, "b"));
+        assertTrue(ObjectHelper.deepEquals(list1, list2));
+        assertEquals(ObjectHelper.deepHashCode(list1), ObjectHelper.deepHashCode(list2));
+
+        final Map<String, Object> map1 = new HashMap<String, Object>();
+        final Map<String, Object> map2 = new TreeMap<String, Object>();
+        for (int i = 0; i < 20; i++) {
+            map1.put("key" + i, new Object[] {new long[] {i}, Arrays.asList(new double[] {i})});
+            map2.put("key" + i, new Object[] {new long[] {i}, Arrays.asList(new double[] {i})});
+        }
+        map1.put("null", null);
+        map2.put("null", null);
+        assertTrue(ObjectHelper.deepEquals(map1, map2));
+        assertEquals(ObjectHelper.deepHashCode(map1), ObjectHelper.deepHashCode(map2));
+        map2.put("key0", new Object[] {new long[] {5L}, Arrays.asList(new double[] {0.0d})});
+        assertTrue(ObjectHelper.deepHashCode(map1) != ObjectHelper.deepHashCode(map2));
+    }
+
+    @Test
+    public void testDeepEquals_cycles() {
+        System.out.println("deepEquals cycles");
+        final Object[] a = new Object[1];
+        a[0] = a;
+        final Object[] b = new Object[1];
+        b[0] = b;
+        assertTrue(ObjectHelper.deepEquals(a, b));
+
+        final List<Object> l1 = new ArrayList<Object>();
+        l1.add("x");
+        l1.add(l1);
+        final List<Object> l2 = new ArrayList<Object>();
+        l2.add("y");
+        l2.add(l2);
+        assertFalse(ObjectHelper.deepEquals(l1, l2));
+
+        // The same structure repeated with different periods
+        final Object[] x = new Object[1];
+        x[0] = x;
+        final Object[] y = new Object[1];
+        final Object[] z = new Object[1];
+        y[0] = z;
+        z[0] = y;
+        assertTrue(ObjectHelper.deepEquals(x, y));
+        assertTrue(ObjectHelper.deepEquals(y, x));
+        assertEquals(ObjectHelper.deepHashCode(x), ObjectHelper.deepHashCode(y));
+        final List<Object> p1 = new ArrayList<Object>();
+        p1.add("x");
+        p1.add(p1);
+        final List<Object> p2 = new ArrayList<Object>();
+        final List<Object> p3 = new ArrayList<Object>();
+        p2.add("x");
+        p2.add(p3);
+        p3.add("x");
+        p3.add(p2);
+        assertTrue(ObjectHelper.deepEquals(p1, p2));
+        assertEquals(ObjectHelper.deepHashCode(p1), ObjectHelper.deepHashCode(p2));
+        p3.set(0, "y");
+        assertFalse(ObjectHelper.deepEquals(p1, p2));
+
+        // Deep, but acyclic, nesting
+        Object deep1 = new int[] {1};
+        Object deep2 = new int[] {1};
+        for (int i = 0; i < ObjectHelper.DEEP_EQUALS_TRACKING_DEPTH * 2; i++) {
+            deep1 = new Object[] {deep1};
+            deep2 = new Object[] {deep2};
+        }
+        assertTrue(ObjectHelper.deepEquals(deep1, deep2));
+        assertEquals(HashCodeBuilder.builder().add(deep1).toHashCode(), ObjectHelper.deepHashCode(deep2));
+    }
+
+    @Test
+    public void testCheckNonNull() {
+        System.out.println("checkNonNull");
+        final Object value = new Object();
+        assertSame(value, ObjectHelper.checkNonNull(value, "%s", 1));
+        assertSame(value, ObjectHelper.checkNonNull(value, "%s %s %s %s", 1, 2, 3, 4));
+        assertMessage(new Runnable() {
+            @Override
+            public void run() {
+                ObjectHelper.checkNonNull(null, "%s-%s", "a", 2);
+            }
+        }, IllegalArgumentException.class, "a-2");
+        assertMessage(new Runnable() {
+            @Override
+            public void run() {
+                ObjectHelper.checkNonNull(null, "%s%s%s%s", 1, 2, 3, 4);
+            }
+        }, IllegalArgumentException.class, "1234");
+
+        final int[] calls = new int[1];
+        final Supplier<String> message = new Supplier<String>() {
+            @Override
+            public String get() {
+                calls[0]++;
+                return "supplied";
+            }
+        };
+        assertSame(value, ObjectHelper.checkNonNullLazy(value, message));
+        assertEquals(0, calls[0]);
+        assertMessage(new Runnable() {
+            @Override
+            public void run() {
+                ObjectHelper.checkNonNullLazy(null, message);
+            }
+        }, IllegalArgumentException.class, "supplied");
+        assertEquals(1, calls[0]);
+        assertSame(value, ObjectHelper.checkNonNull(value, null));
+        assertMessage(new Runnable() {
+            @Override
+            public void run() {
+                ObjectHelper.checkNonNull(null, null);
+            }
+        }, IllegalArgumentException.class, null);
+    }
+
+    @Test
+    public void testCheckArgumentAndState() {
+        System.out.println("checkArgument and checkState");
+        ObjectHelper.checkArgument(true, "%s", 1);
+        ObjectHelper.checkState(true, "%s %s", 1, 2);
+        assertMessage(new Runnable() {
+            @Override
+            public void run() {
+                ObjectHelper.checkArgument(false, "bad %s", "arg");
+            }
+        }, IllegalArgumentException.class, "bad arg");
+        assertMessage(new Runnable() {
+            @Override
+            public void run() {
+                ObjectHelper.checkState(false, "bad %s %s", "state", 1);
+            }
+        }, IllegalStateException.class, "bad state 1");
+        assertMessage(new Runnable() {
+            @Override
+            public void run() {
+                ObjectHelper.checkState(false);
+            }
+        }, IllegalStateException.class, null);
+
+        final int[] calls = new int[1];
+        final Supplier<String> message = new Supplier<String>() {
+            @Override
+            public String get() {
+                calls[0]++;
+                return "supplied";
+            }
+        };
+        ObjectHelper.checkArgumentLazy(true, message);
+        ObjectHelper.checkStateLazy(true, message);
+        assertEquals(0, calls[0]);
+        assertMessage(new Runnable() {
+            @Override
+            public void run() {
+                ObjectHelper.checkArgumentLazy(false, message);
+            }
+        }, IllegalArgumentException.class, "supplied");
+        assertMessage(new Runnable() {
+            @Override
+            public void run() {
+                ObjectHelper.checkStateLazy(false, message);
+            }
+        }, IllegalStateException.class, "supplied");
+        assertEquals(2, calls[0]);
+    }
+
+    @Test
+    public void testCheckIndex() {
+        System.out.println("checkIndex");
+        assertEquals(0, ObjectHelper.checkIndex(0, 1));
+        assertEquals(4, ObjectHelper.checkIndex(4, 5));
+        assertEquals(2, ObjectHelper.checkFromToIndex(2, 5, 5));
+        assertEquals(5, ObjectHelper.checkFromToIndex(5, 5, 5));
+        assertEquals(3, ObjectHelper.checkFromIndexSize(3, 2, 5));
+        assertEquals(0, ObjectHelper.checkFromIndexSize(0, 0, 0));
+        final int[][] invalidIndexes = {{-1, 1}, {1, 1}, {0, 0}, {0, -1}};
+        for (final int[] args : invalidIndexes) {
+            assertMessage(new Runnable() {
+                @Override
+                public void run() {
+                    ObjectHelper.checkIndex(args[0], args[1]);
+                }
+            }, IndexOutOfBoundsException.class, String.format("Index %d out of bounds for length %d", args[0], args[1]));
+        }
+        final int[][] invalidRanges = {{-1, 2, 5}, {3, 2, 5}, {0, 6, 5}};
+        for (final int[] args : invalidRanges) {
+            assertMessage(new Runnable() {
+                @Override
+                public void run() {
+                    ObjectHelper.checkFromToIndex(args[0], args[1], args[2]);
+                }
+            }, IndexOutOfBoundsException.class, null);
+        }
+        final int[][] invalidSizes = {{-1, 2, 5}, {3, 3, 5}, {0, -1, 5}, {Integer.MAX_VALUE, 1, 5}};
+        for (final int[] args : invalidSizes) {
+            assertMessage(new Runnable() {
+                @Override
+                public void run() {
+                    ObjectHelper.checkFromIndexSize(args[0], args[1], args[2]);
+                }
+            }, IndexOutOfBoundsException.class, null);
+        }
+    }
+
+    private static void assertMessage(final Runnable runnable, final Class<? extends RuntimeException> type,
+            final String message) {
+        try {
+            runnable.run();
+        } catch (RuntimeException e) {
+            assertEquals(type, e.getClass());
+            if (message != null) {
+                assertEquals(message, e.getMessage());
+            }
+            return;
+        }
+        fail("Expected " + type.getSimpleName());
+    }
+
+}
@@ -0,0 +1,200 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jrp
+ */
+public class PairKeyMapTest {
+
+    private static final int OPERATIONS = 200000;
+
+    @Test
+    public void testPairKeyMap() {
+        System.out.println("PairKeyMap");
+        final PairKeyMap<String, Integer, Integer> map = PairKeyMap.create();
+        final Map<Pair<String, Integer>, Integer> expected = new HashMap<Pair<String, Integer>, Integer>();
+        final Random random = new Random(41L);
+        for (int op = 0; op < OPERATIONS; op++) {
+            final String first = random.nextInt(50) == 0 ? null : Integer.toString(random.nextInt(40));
+            final Integer second = random.nextInt(50) == 0 ? null : random.nextInt(100);
+            final Pair<String, Integer> key = Pair.of(first, second);
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1:
+                    assertEquals(expected.put(key, op), map.put(first, second, op));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(key), map.remove(first, second));
+                    break;
+                default:
+                    assertEquals(expected.get(key), map.get(first, second));
+                    assertEquals(expected.containsKey(key), map.containsKey(first, second));
+                    assertEquals(expected.containsKey(key) ? expected.get(key) : Integer.valueOf(-1),
+                            map.getOrDefault(first, second, -1));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        final Map<Pair<String, Integer>, Integer> visited = new HashMap<Pair<String, Integer>, Integer>();
+        map.forEach(new PairKeyMap.Visitor<String, Integer, Integer>() {
+            @Override
+            public void visit(final String first, final Integer second, final Integer value) {
+                assertNull(visited.put(Pair.of(first, second), value));
+            }
+        });
+        assertEquals(expected, visited);
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get("1", 1));
+    }
+
+    @Test
+    public void testIntIntKeyMap() {
+        System.out.println("IntIntKeyMap");
+        final IntIntKeyMap<Integer> map = IntIntKeyMap.create(0);
+        final Map<Pair<Integer, Integer>, Integer> expected = new HashMap<Pair<Integer, Integer>, Integer>();
+        final Random random = new Random(42L);
+        for (int op = 0; op < OPERATIONS; op++) {
+            final int first = random.nextInt(60) - 30;
+            final int second = random.nextInt(5) == 0 ? Integer.MIN_VALUE + random.nextInt(2) : random.nextInt(60) - 30;
+            final Pair<Integer, Integer> key = Pair.of(first, second);
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1:
+                    assertEquals(expected.put(key, op), map.put(first, second, op));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(key), map.remove(first, second));
+                    break;
+                default:
+                    assertEquals(expected.get(key), map.get(first, second));
+                    assertEquals(expected.containsKey(key), map.containsKey(first, second));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        final Map<Pair<Integer, Integer>, Integer> visited = new HashMap<Pair<Integer, Integer>, Integer>();
+        map.forEach(new IntIntKeyMap.Visitor<Integer>() {
+            @Override
+            public void visit(final int first, final int second, final Integer value) {
+                assertNull(visited.put(Pair.of(first, second), value));
+            }
+        });
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    public void testLongLongKeyMap() {
+        System.out.println("LongLongKeyMap");
+        final LongLongKeyMap<Integer> map = LongLongKeyMap.create();
+        final Map<Pair<Long, Long>, Integer> expected = new HashMap<Pair<Long, Long>, Integer>();
+        final Random random = new Random(43L);
+        for (int op = 0; op < OPERATIONS; op++) {
+            final long first = random.nextInt(60) - 30;
+            final long second = random.nextInt(5) == 0 ? Long.MAX_VALUE - random.nextInt(2) : random.nextInt(60) - 30;
+            final Pair<Long, Long> key = Pair.of(first, second);
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1:
+                    assertEquals(expected.put(key, op), map.put(first, second, op));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(key), map.remove(first, second));
+                    break;
+                default:
+                    assertEquals(expected.get(key), map.get(first, second));
+                    assertEquals(expected.containsKey(key), map.containsKey(first, second));
+            }
+            assertEquals(expected.size(), map.size());
+        }
+        final Map<Pair<Long, Long>, Integer> visited = new HashMap<Pair<Long, Long>, Integer>();
+        map.forEach(new LongLongKeyMap.Visitor<Integer>() {
+            @Override
+            public void visit(final long first, final long second, final Integer value) {
+                assertNull(visited.put(Pair.of(first, second), value));
+            }
+        });
+        assertEquals(expected, visited);
+    }
+
+    @Test
+    public void testConcurrentPairKeyMap() throws Exception {
+        System.out.println("ConcurrentPairKeyMap");
+        final ConcurrentPairKeyMap<Integer, Integer, Integer> map = ConcurrentPairKeyMap.create(0, 4);
+        final int threads = 4;
+        final int keys = 20000;
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final Future<?>[] futures = new Future<?>[threads];
+            for (int t = 0; t < threads; t++) {
+                final int thread = t;
+                futures[t] = executor.submit(new Runnable() {
+                    @Override
+                    public void run() {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                        for (int i = 0; i < keys; i++) {
+                            assertNull(map.put(thread, i, i));
+                            assertEquals(Integer.valueOf(i), map.putIfAbsent(thread, i, -1));
+                            assertEquals(Integer.valueOf(i), map.get(thread, i));
+                            if (i % 2 == 1) {
+                                assertEquals(Integer.valueOf(i), map.remove(thread, i));
+                            }
+                        }
+                    }
+                });
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60L, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(threads * keys / 2, map.size());
+        for (int t = 0; t < threads; t++) {
+            assertTrue(map.containsKey(t, 0));
+            assertFalse(map.containsKey(t, 1));
+        }
+        map.clear();
+        assertEquals(0, map.size());
+    }
+}
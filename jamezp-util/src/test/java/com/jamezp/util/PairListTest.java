@@ -0,0 +1,137 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jrp
+ */
+public class PairListTest {
+
+    @Test
+    public void testPairList() {
+        System.out.println("PairList");
+        final PairList<String, Integer> list = PairList.create(0);
+        final List<Pair<String, Integer>> expected = new ArrayList<Pair<String, Integer>>();
+        final Random random = new Random(42L);
+        for (int i = 0; i < 1000; i++) {
+            final String first = Integer.toString(random.nextInt(50));
+            list.add(first, i);
+            expected.add(Pair.of(first, i));
+        }
+        assertEquals(expected, list.asList());
+        list.set(3, "x", -1);
+        assertEquals("x", list.first(3));
+        assertEquals(Integer.valueOf(-1), list.second(3));
+        assertEquals(Pair.of("x", -1), list.get(3));
+        expected.set(3, Pair.of("x", -1));
+
+        // Stable, equal first components keep the order of the seconds
+        final Comparator<String> natural = new Comparator<String>() {
+            @Override
+            public int compare(final String o1, final String o2) {
+                return o1.compareTo(o2);
+            }
+        };
+        list.sortByFirst(natural);
+        Collections.sort(expected, new Comparator<Pair<String, Integer>>() {
+            @Override
+            public int compare(final Pair<String, Integer> o1, final Pair<String, Integer> o2) {
+                return o1.first().compareTo(o2.first());
+            }
+        });
+        assertEquals(expected, list.asList());
+
+        list.sortBySecond(Collections.reverseOrder());
+        for (int i = 1; i < list.size(); i++) {
+            assertTrue(list.second(i - 1) > list.second(i));
+        }
+
+        try {
+            list.first(list.size());
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException expectedException) {
+            // expected
+        }
+        list.clear();
+        assertTrue(list.isEmpty());
+    }
+
+    @Test
+    public void testLongLongPairList() {
+        System.out.println("LongLongPairList");
+        for (final LongLongPairList list : new LongLongPairList[] {LongLongPairList.onHeap(0),
+                LongLongPairList.offHeap(3)}) {
+            final List<LongLongPair> expected = new ArrayList<LongLongPair>();
+            final Random random = new Random(42L);
+            for (int i = 0; i < 5000; i++) {
+                final long first = random.nextInt(100) - 50;
+                final long second = random.nextLong();
+                list.add(first, second);
+                expected.add(LongLongPair.of(first, second));
+            }
+            assertEquals(expected, list.asList());
+
+            list.sortByFirst();
+            Collections.sort(expected, new Comparator<LongLongPair>() {
+                @Override
+                public int compare(final LongLongPair o1, final LongLongPair o2) {
+                    return Comparison.chain(Comparison.chain(0, o1.first(), o2.first()), o1.second(), o2.second());
+                }
+            });
+            assertEquals(expected, list.asList());
+
+            list.sortBySecond();
+            for (int i = 1; i < list.size(); i++) {
+                assertTrue(list.second(i - 1) <= list.second(i));
+            }
+
+            final AtomicLong sum = new AtomicLong();
+            list.parallelIndices().forEach(new IntConsumer() {
+                @Override
+                public void accept(final int index) {
+                    sum.addAndGet(list.first(index));
+                }
+            });
+            long expectedSum = 0L;
+            for (LongLongPair pair : expected) {
+                expectedSum += pair.first();
+            }
+            assertEquals(expectedSum, sum.get());
+        }
+        assertTrue(LongLongPairList.offHeap(0).isDirect());
+        assertFalse(LongLongPairList.onHeap(0).isDirect());
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2011 James R. Perkins Jr (JRP).
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+
+package com.jamezp.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author jrp
+ */
+public class PairTest {
+
+    @Test
+    public void testPrimitivePairs() {
+        System.out.println("primitive pairs");
+        final IntIntPair intInt = IntIntPair.of(1, -2);
+        assertEquals(1, intInt.first());
+        assertEquals(-2, intInt.second());
+        assertEquals(intInt, IntIntPair.of(1, -2));
+        assertFalse(intInt.equals(IntIntPair.of(-2, 1)));
+        assertFalse(intInt.equals(Pair.of(1, -2)));
+        assertEquals(Pair.of(1, -2).hashCode(), intInt.hashCode());
+        assertEquals("IntIntPair{first=1,second=-2}", intInt.toString());
+
+        final LongLongPair longLong = LongLongPair.of(Long.MAX_VALUE, Long.MIN_VALUE);
+        assertEquals(Pair.of(Long.MAX_VALUE, Long.MIN_VALUE).hashCode(), longLong.hashCode());
+        assertEquals(longLong, LongLongPair.of(Long.MAX_VALUE, Long.MIN_VALUE));
+
+        final IntLongPair intLong = IntLongPair.of(3, 1L << 40);
+        assertEquals(Pair.of(3, 1L << 40).hashCode(), intLong.hashCode());
+        final LongIntPair longInt = LongIntPair.of(1L << 40, 3);
+        assertEquals(Pair.of(1L << 40, 3).hashCode(), longInt.hashCode());
+
+        final IntObjPair<String> intObj = IntObjPair.of(7, "seven");
+        assertEquals("seven", intObj.second());
+        assertEquals(intObj, IntObjPair.of(7, "seven"));
+        assertEquals(IntObjPair.of(7, null), IntObjPair.of(7, null));
+        assertFalse(intObj.equals(IntObjPair.of(7, null)));
+        assertEquals(Pair.of(7, "seven").hashCode(), intObj.hashCode());
+
+        final LongObjPair<int[]> longObj = LongObjPair.of(5L, new int[] {1, 2});
+        assertEquals(Pair.of(5L, new int[] {1, 2}).hashCode(), longObj.hashCode());
+
+        assertEquals(Pair.of("x", 1).hashCode(), ObjIntPair.of("x", 1).hashCode());
+        assertEquals(Pair.of("x", 1L).hashCode(), ObjLongPair.of("x", 1L).hashCode());
+        assertFalse(ObjIntPair.of("x", 1).equals(ObjLongPair.of("x", 1L)));
+    }
+
+    @Test
+    public void testSerialization() throws Exception {
+        System.out.println("serialization");
+        assertEquals(IntIntPair.of(1, 2), roundTrip(IntIntPair.of(1, 2)));
+        assertEquals(LongObjPair.of(1L, "a"), roundTrip(LongObjPair.of(1L, "a")));
+        assertEquals(Pair.of("a", 2), roundTrip(Pair.of("a", 2)));
+    }
+
+    @Test
+    public void testHashCodeCached() throws Exception {
+        System.out.println("hash code cached");
+        final Pair<String, Integer> pair = Pair.of("a", 1);
+        final int expected = ObjectHelper.HashCodeBuilder.builder().add("a").add(1).toHashCode();
+        assertEquals(expected, pair.hashCode());
+        assertEquals(expected, pair.hashCode());
+        // The cached hash is not serialized
+        final Object copy = roundTrip(pair);
+        assertEquals(pair, copy);
+        assertEquals(expected, copy.hashCode());
+        assertFalse(Pair.of("a", 1).equals(Pair.of("a", 2)));
+        assertFalse(pair.equals(Pair.of("b", 1)));
+    }
+
+    @Test
+    public void testIntern() {
+        System.out.println("intern");
+        final Pair<String, Integer> first = Pair.intern(Pair.of("a", 1));
+        final Pair<String, Integer> second = Pair.intern(Pair.of("a", 1));
+        assertSame(first, second);
+        assertNotSame(first, Pair.intern(Pair.of("a", 2)));
+        assertSame(first, Pair.intern(first));
+        assertSame(Pair.intern(Pair.of(null, null)), Pair.intern(Pair.of(null, null)));
+    }
+
+    @Test
+    public void testWeakInterner() throws Exception {
+        System.out.println("weak interner");
+        final WeakInterner<Pair<?, ?>> pool = new WeakInterner<Pair<?, ?>>();
+        Pair<Integer, Integer> kept = Pair.of(0, 0);
+        assertSame(kept, pool.intern(kept));
+        for (int i = 1; i < 1000; i++) {
+            pool.intern(Pair.of(i, i));
+        }
+        // Collected pairs are enqueued asynchronously
+        for (int i = 0; i < 50 && pool.size() > 1; i++) {
+            System.gc();
+            Thread.sleep(10L);
+        }
+        assertSame(kept, pool.intern(Pair.of(0, 0)));
+        assertTrue(pool.size() < 1000);
+    }
+
+    static Object roundTrip(final Object obj) throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final ObjectOutputStream out = new ObjectOutputStream(bytes);
+        out.writeObject(obj);
+        out.close();
+        final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        try {
+            return in.readObject();
+        } finally {
+            in.close();
+        }
+    }
+}